@@ -17,22 +17,45 @@ import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
+/**
+ * Audits methods annotated with {@link Audited}. The request thread only captures the event:
+ * arguments are serialized up to auditing.max-argument-chars (uploaded files, streams and servlet
+ * objects are summarized, never read), the result is hashed while it is serialized, and the event is
+ * handed to {@link AuditEventService}, which stores it on its own writer thread.
+ */
 @Aspect
 @Component
 @Order(1)
 public class AuditedAspect {
     private final AuditEventService auditEventService;
     private final AuditingProperties auditingProperties;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
 
-    public AuditedAspect(AuditEventService auditEventService, AuditingProperties auditingProperties) {
+    public AuditedAspect(AuditEventService auditEventService, AuditingProperties auditingProperties,
+                         ObjectMapper objectMapper) {
         this.auditEventService = auditEventService;
         this.auditingProperties = auditingProperties;
+        this.objectMapper = objectMapper;
     }
 
     @Around("@annotation(com.example.paymentreconciliation.audit.annotation.Audited)")
@@ -67,11 +90,12 @@ public class AuditedAspect {
         RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
         if (requestAttributes instanceof ServletRequestAttributes servletRequestAttributes) {
             HttpServletRequest request = servletRequestAttributes.getRequest();
-            clientIp = request.getRemoteAddr() != null ? request.getRemoteAddr() : "unknown";
-            userAgent = request.getHeader("User-Agent") != null ? request.getHeader("User-Agent") : "unknown";
-            referer = request.getHeader("Referer") != null ? request.getHeader("Referer") : "unknown";
-            clientSource = request.getHeader("X-Client-Source") != null ? request.getHeader("X-Client-Source") : "unknown";
-            requestedWith = request.getHeader("X-Requested-With") != null ? request.getHeader("X-Requested-With") : "unknown";
+            // Capped to the column lengths, so one long header cannot fail the writer's whole batch
+            clientIp = request.getRemoteAddr() != null ? truncate(request.getRemoteAddr(), 64) : "unknown";
+            userAgent = request.getHeader("User-Agent") != null ? truncate(request.getHeader("User-Agent"), 256) : "unknown";
+            referer = request.getHeader("Referer") != null ? truncate(request.getHeader("Referer"), 256) : "unknown";
+            clientSource = request.getHeader("X-Client-Source") != null ? truncate(request.getHeader("X-Client-Source"), 64) : "unknown";
+            requestedWith = request.getHeader("X-Requested-With") != null ? truncate(request.getHeader("X-Requested-With"), 64) : "unknown";
         }
 
         String outcome = "SUCCESS";
@@ -81,20 +105,11 @@ public class AuditedAspect {
         Object result = null;
 
         // Serialize method arguments as oldValues (before)
-        try {
-            oldValues = objectMapper.writeValueAsString(joinPoint.getArgs());
-        } catch (Exception e) {
-            oldValues = "[unserializable arguments]";
-        }
+        oldValues = captureArguments(joinPoint.getArgs());
         try {
             result = joinPoint.proceed();
             // Compute hash of return value as responseHash
-            try {
-                String responseString = objectMapper.writeValueAsString(result);
-                responseHash = sha256Hex(responseString);
-            } catch (Exception e) {
-                responseHash = "[unserializable result]";
-            }
+            responseHash = sha256Hex(result);
             outcome = "SUCCESS";
             return result;
         } catch (Throwable ex) {
@@ -116,23 +131,115 @@ public class AuditedAspect {
             event.setReferer(referer);
             event.setClientSource(clientSource);
             event.setRequestedWith(requestedWith);
-            auditEventService.recordEvent(event, null);
+            auditEventService.recordEvent(event);
         }
     }
 
-    private String sha256Hex(String input) {
+    /**
+     * Arguments as a JSON array of at most auditing.max-argument-chars characters, or a JSON object
+     * naming the argument types when they are longer or cannot be serialized.
+     */
+    private String captureArguments(Object[] args) {
+        List<Object> captured = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            captured.add(summarize(arg));
+        }
+        int maxChars = Math.max(0, auditingProperties.getMaxArgumentChars());
+        CappedWriter writer = new CappedWriter(maxChars);
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
+            objectMapper.writeValue(writer, captured);
+            return writer.toString();
+        } catch (Exception e) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put(writer.exceeded ? "truncated" : "unserializable", true);
+            if (writer.exceeded) {
+                summary.put("maxChars", maxChars);
+            }
+            summary.put("argumentTypes", argumentTypes(args));
+            try {
+                return objectMapper.writeValueAsString(summary);
+            } catch (Exception ignored) {
+                return null;
             }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
+        }
+    }
+
+    private Object summarize(Object arg) {
+        if (arg instanceof MultipartFile file) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("type", "MultipartFile");
+            summary.put("name", file.getOriginalFilename());
+            summary.put("contentType", file.getContentType());
+            summary.put("size", file.getSize());
+            return summary;
+        }
+        if (arg instanceof byte[] bytes) {
+            return Map.of("type", "byte[]", "size", bytes.length);
+        }
+        if (arg instanceof InputStreamSource || arg instanceof InputStream || arg instanceof Reader
+                || arg instanceof ServletRequest || arg instanceof ServletResponse) {
+            return Map.of("type", arg.getClass().getSimpleName());
+        }
+        return arg;
+    }
+
+    private List<String> argumentTypes(Object[] args) {
+        List<String> types = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            types.add(arg != null ? arg.getClass().getSimpleName() : null);
+        }
+        return types;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    /**
+     * SHA-256 of the serialized value, digested while serializing instead of from a JSON string
+     */
+    private String sha256Hex(Object value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            objectMapper.writeValue(new DigestOutputStream(OutputStream.nullOutputStream(), digest), value);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException | RuntimeException e) {
             return null;
         }
     }
+
+    /**
+     * Collects written characters and fails the serialization once more than maxChars were written
+     */
+    private static final class CappedWriter extends Writer {
+        private final StringBuilder builder = new StringBuilder();
+        private final int maxChars;
+        private boolean exceeded;
+
+        private CappedWriter(int maxChars) {
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            if (builder.length() + length > maxChars) {
+                exceeded = true;
+                throw new IOException("Audit argument capture exceeds " + maxChars + " characters");
+            }
+            builder.append(chars, offset, length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
 }
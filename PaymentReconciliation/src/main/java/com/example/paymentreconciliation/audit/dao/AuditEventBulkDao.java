@@ -0,0 +1,69 @@
+package com.example.paymentreconciliation.audit.dao;
+
+import com.example.paymentreconciliation.audit.entity.AuditEvent;
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * DAO for writing audit events in JDBC batches, used by the audit writer thread only.
+ * IDENTITY keys disable Hibernate JDBC batching, so events are inserted here instead of through
+ * AuditEventRepository. Each call commits on its own.
+ */
+@Repository
+public class AuditEventBulkDao extends BaseQueryDao {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO audit_event (occurred_at, trace_id, user_id, action, resource_type, resource_id, outcome,
+               client_ip, user_agent, details, referer, client_source, requested_with, old_values, new_values,
+               prev_hash, hash, response_hash)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String LAST_HASH_SQL = "SELECT hash FROM audit_event ORDER BY id DESC LIMIT 1";
+
+    /**
+     * Hash of the most recently inserted event, null when there is none
+     */
+    public String findLastHash() {
+        List<String> hashes = jdbcTemplate.queryForList(LAST_HASH_SQL, String.class);
+        return hashes.isEmpty() ? null : hashes.get(0);
+    }
+
+    /**
+     * Insert the events in one JDBC batch, in list order so ids follow the hash chain.
+     * Generated IDs are not read back.
+     * @return number of events inserted
+     */
+    @Transactional
+    public int insertAll(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setTimestamp(1, Timestamp.from(event.getOccurredAt()));
+            ps.setString(2, event.getTraceId());
+            ps.setString(3, event.getUserId());
+            ps.setString(4, event.getAction());
+            ps.setString(5, event.getResourceType());
+            ps.setObject(6, event.getResourceId(), Types.VARCHAR);
+            ps.setString(7, event.getOutcome());
+            ps.setObject(8, event.getClientIp(), Types.VARCHAR);
+            ps.setObject(9, event.getUserAgent(), Types.VARCHAR);
+            ps.setObject(10, event.getDetails(), Types.VARCHAR);
+            ps.setObject(11, event.getReferer(), Types.VARCHAR);
+            ps.setObject(12, event.getClientSource(), Types.VARCHAR);
+            ps.setObject(13, event.getRequestedWith(), Types.VARCHAR);
+            ps.setObject(14, event.getOldValues(), Types.VARCHAR);
+            ps.setObject(15, event.getNewValues(), Types.VARCHAR);
+            ps.setString(16, event.getPrevHash());
+            ps.setString(17, event.getHash());
+            ps.setObject(18, event.getResponseHash(), Types.VARCHAR);
+        });
+        return events.size();
+    }
+}
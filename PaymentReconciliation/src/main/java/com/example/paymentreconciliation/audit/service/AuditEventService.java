@@ -1,55 +1,245 @@
 package com.example.paymentreconciliation.audit.service;
 
+import com.example.paymentreconciliation.audit.dao.AuditEventBulkDao;
 import com.example.paymentreconciliation.audit.entity.AuditEvent;
-import com.example.paymentreconciliation.audit.repository.AuditEventRepository;
-import org.springframework.scheduling.annotation.Async;
+import com.example.paymentreconciliation.config.AuditingProperties;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
-import java.util.concurrent.CompletableFuture;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Records audit events without touching the database on the caller's thread.
+ * recordEvent only puts the event in a bounded lock-free buffer; a single writer thread drains it,
+ * chains each event's hash to the previous one and inserts the events in JDBC batches. The chain
+ * continues from the latest stored event, so prev_hash of every row is the hash of the row before it
+ * (per application instance when several write to the same table).
+ *
+ * When an insert fails, the writer keeps the batch and retries it with exponential backoff before taking
+ * more events from the buffer, so events are only dropped, never blocking the request, once the buffer
+ * fills up meanwhile. Events are counted in audit.events, tagged with an outcome of accepted, dropped
+ * (buffer full), written or failed (insert error, counted per attempt); audit.buffer.size is the number
+ * of events waiting for the writer.
+ */
 @Service
 public class AuditEventService {
-    private final AuditEventRepository auditEventRepository;
-    public AuditEventService(AuditEventRepository auditEventRepository) {
-        this.auditEventRepository = auditEventRepository;
-    }
-    @Async
-    public CompletableFuture<AuditEvent> recordEvent(AuditEvent event, String prevHash) {
-        event.setOccurredAt(Instant.now());
-        event.setPrevHash(prevHash != null ? prevHash : "0");
-        event.setHash(computeHash(event, event.getPrevHash()));
-        AuditEvent saved = auditEventRepository.save(event);
-        return CompletableFuture.completedFuture(saved);
-    }
-    private String computeHash(AuditEvent event, String prevHash) {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(AuditEventService.class);
+
+    static final String METRIC_NAME = "audit.events";
+    static final String GENESIS_HASH = "0";
+    private static final long DROP_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long MAX_RETRY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final AuditEventBulkDao auditEventBulkDao;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Counter acceptedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final AtomicLong lastDropWarning = new AtomicLong(System.nanoTime() - DROP_WARN_INTERVAL_NANOS);
+    // Writer thread only: events taken from the buffer and not stored yet, kept across failed attempts
+    private final List<AuditEvent> batch;
+    private final MessageDigest digest;
+    private volatile boolean running;
+    private volatile Thread writer;
+    // Writer thread only: hash of the last stored event, null until read from the database
+    private String lastHash;
+    // Writer thread only: consecutive failed attempts to store the current batch
+    private int failedAttempts;
+
+    public AuditEventService(AuditEventBulkDao auditEventBulkDao, AuditingProperties auditingProperties,
+                             MeterRegistry meterRegistry) {
+        this.auditEventBulkDao = auditEventBulkDao;
+        this.buffer = new AuditRingBuffer<>(auditingProperties.getBufferSize());
+        this.batchSize = Math.max(1, auditingProperties.getBatchSize());
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, auditingProperties.getFlushIntervalMs()));
+        this.batch = new ArrayList<>(batchSize);
+        this.acceptedCounter = counter(meterRegistry, "accepted");
+        this.droppedCounter = counter(meterRegistry, "dropped");
+        this.writtenCounter = counter(meterRegistry, "written");
+        this.failedCounter = counter(meterRegistry, "failed");
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting for the audit writer")
+                .register(meterRegistry);
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            String canonical = prevHash +
-                    "," + event.getOccurredAt() +
-                    "," + event.getTraceId() +
-                    "," + event.getUserId() +
-                    "," + event.getAction() +
-                    "," + event.getResourceType() +
-                    "," + event.getResourceId() +
-                    "," + event.getOutcome() +
-                    "," + event.getClientIp() +
-                    "," + event.getUserAgent() +
-                    "," + event.getDetails() +
-                    "," + event.getOldValues() +
-                    "," + event.getNewValues();
-            byte[] hash = digest.digest(canonical.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
+            this.digest = MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("SHA-256 not available", e);
         }
     }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new CustomizableThreadFactory("AuditWriter-").newThread(this::writeLoop);
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    /**
+     * Stop the writer after it has stored the events still in the buffer
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int notStored = buffer.size() + batch.size();
+        if (notStored > 0) {
+            log.warn("Audit writer stopped with {} events not stored", notStored);
+        }
+    }
+
+    /**
+     * Queue an event for storage, never blocking. occurredAt defaults to now; prevHash and hash are set
+     * by the writer.
+     * @return false when the buffer was full and the event was dropped
+     */
+    public boolean recordEvent(AuditEvent event) {
+        if (event.getOccurredAt() == null) {
+            event.setOccurredAt(Instant.now());
+        }
+        if (!buffer.offer(event)) {
+            droppedCounter.increment();
+            warnDropped();
+            return false;
+        }
+        acceptedCounter.increment();
+        Thread thread = writer;
+        if (thread != null && buffer.size() >= batchSize) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    private void writeLoop() {
+        while (true) {
+            if (writeBatch() > 0) {
+                continue;
+            }
+            if (failedAttempts > 0) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(this, retryBackoffNanos());
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            LockSupport.parkNanos(this, flushIntervalNanos);
+        }
+    }
+
+    /**
+     * Chain and insert the batch kept from a failed attempt, or else up to one batch drained from the
+     * buffer. A failed batch is kept for the next call. Writer thread only.
+     * @return number of events stored, 0 when there was nothing to store or the insert failed
+     */
+    int writeBatch() {
+        if (batch.isEmpty() && buffer.drainTo(batch, batchSize) == 0) {
+            return 0;
+        }
+        int size = batch.size();
+        try {
+            if (lastHash == null) {
+                String stored = auditEventBulkDao.findLastHash();
+                lastHash = stored != null ? stored : GENESIS_HASH;
+            }
+            if (failedAttempts > 0 && lastHash.equals(batch.get(size - 1).getHash())) {
+                // The failed attempt was committed after all
+                log.info("Audit batch of {} events was stored by a previous attempt", size);
+            } else {
+                String prevHash = lastHash;
+                for (AuditEvent event : batch) {
+                    event.setPrevHash(prevHash);
+                    event.setHash(computeHash(event, prevHash));
+                    prevHash = event.getHash();
+                }
+                auditEventBulkDao.insertAll(batch);
+                lastHash = prevHash;
+            }
+            writtenCounter.increment(size);
+            batch.clear();
+            failedAttempts = 0;
+            return size;
+        } catch (RuntimeException e) {
+            failedCounter.increment(size);
+            failedAttempts++;
+            // Another instance may have written since, or the commit outcome is unknown: re-read the chain head
+            lastHash = null;
+            log.error("Failed to store {} audit events (attempt {}), retrying in {} ms: {}", size, failedAttempts,
+                    TimeUnit.NANOSECONDS.toMillis(retryBackoffNanos()), e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Wait before retrying a failed batch: the flush interval doubled per consecutive failure, up to 30 seconds
+     */
+    private long retryBackoffNanos() {
+        int doublings = Math.min(failedAttempts - 1, 20);
+        return Math.min(flushIntervalNanos << Math.max(0, doublings), MAX_RETRY_BACKOFF_NANOS);
+    }
+
+    private String computeHash(AuditEvent event, String prevHash) {
+        String canonical = prevHash +
+                "," + event.getOccurredAt() +
+                "," + event.getTraceId() +
+                "," + event.getUserId() +
+                "," + event.getAction() +
+                "," + event.getResourceType() +
+                "," + event.getResourceId() +
+                "," + event.getOutcome() +
+                "," + event.getClientIp() +
+                "," + event.getUserAgent() +
+                "," + event.getDetails() +
+                "," + event.getOldValues() +
+                "," + event.getNewValues();
+        return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void warnDropped() {
+        long now = System.nanoTime();
+        long last = lastDropWarning.get();
+        if (now - last >= DROP_WARN_INTERVAL_NANOS && lastDropWarning.compareAndSet(last, now)) {
+            log.warn("Audit buffer full ({} events), dropping audit events; {} dropped so far",
+                    buffer.capacity(), (long) droppedCounter.count());
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRIC_NAME)
+                .description("Audit events by pipeline outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
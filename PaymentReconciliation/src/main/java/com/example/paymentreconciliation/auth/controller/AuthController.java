@@ -16,16 +16,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
+import com.example.paymentreconciliation.common.service.ConditionalResponseService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 
 import com.example.paymentreconciliation.audit.annotation.Audited;
 import java.util.List;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Controller for authentication and user management
@@ -37,6 +40,7 @@ import java.util.Map;
 public class AuthController {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+    private static final String UI_CONFIG_RESOURCE = "ui_config";
     
     @Autowired
     private AuthService authService;
@@ -45,7 +49,10 @@ public class AuthController {
     private UIConfigService uiConfigService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ETagResponseService eTagResponseService;
+
+    @Autowired
+    private ConditionalResponseService conditionalResponseService;
     
     @PostMapping("/login")
     @Audited(action = "LOGIN_ATTEMPT", resourceType = "USER")
@@ -93,19 +100,26 @@ public class AuthController {
     @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "Bearer Authentication")
     public ResponseEntity<?> getUserUIConfig(HttpServletRequest request) {
         try {
-            PermissionResponse uiConfig = uiConfigService.getUserUIConfig();
-            if (uiConfig != null) {
-                String responseJson = objectMapper.writeValueAsString(uiConfig);
-                String eTag = ETagUtil.generateETag(responseJson);
-                String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                if (eTag.equals(ifNoneMatch)) {
-                    return ResponseEntity.status(304).eTag(eTag).build();
-                }
-                return ResponseEntity.ok().eTag(eTag).body(uiConfig);
-            } else {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
                 return ResponseEntity.badRequest()
                     .body(Map.of("error", "User not authenticated"));
             }
+            // The UI config only depends on the user and their authorities, which change with the permission version
+            String authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+            long version = user.getPermissionVersion() != null ? user.getPermissionVersion() : 0L;
+            return conditionalResponseService.respond(request, UI_CONFIG_RESOURCE, version,
+                user.getId() + "|" + user.getFullName() + "|" + authorities, () -> {
+                    PermissionResponse uiConfig = uiConfigService.getUserUIConfig();
+                    if (uiConfig == null) {
+                        return ResponseEntity.badRequest()
+                            .body(Map.of("error", "User not authenticated"));
+                    }
+                    return ResponseEntity.ok(uiConfig);
+                });
         } catch (Exception e) {
             logger.error("Failed to get UI configuration", e);
             return ResponseEntity.badRequest()
@@ -121,13 +135,7 @@ public class AuthController {
     public ResponseEntity<List<User>> getAllUsers(HttpServletRequest request) {
         List<User> users = authService.getAllUsers();
         try {
-            String responseJson = objectMapper.writeValueAsString(users);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(users);
+            return eTagResponseService.respond(request, users);
         } catch (Exception e) {
             logger.error("Error processing users response", e);
             return ResponseEntity.internalServerError().build();
@@ -142,13 +150,7 @@ public class AuthController {
         HttpServletRequest request) {
         List<User> users = authService.getUsersByRole(role);
         try {
-            String responseJson = objectMapper.writeValueAsString(users);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(users);
+            return eTagResponseService.respond(request, users);
         } catch (Exception e) {
             logger.error("Error processing users by role response", e);
             return ResponseEntity.internalServerError().build();
@@ -217,13 +219,7 @@ public class AuthController {
     public ResponseEntity<UserRole[]> getAvailableRoles(HttpServletRequest request) {
         UserRole[] roles = UserRole.values();
         try {
-            String responseJson = objectMapper.writeValueAsString(roles);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(roles);
+            return eTagResponseService.respond(request, roles);
         } catch (Exception e) {
             logger.error("Error processing roles response", e);
             return ResponseEntity.internalServerError().build();
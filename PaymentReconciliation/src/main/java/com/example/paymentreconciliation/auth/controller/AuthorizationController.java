@@ -9,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
 import com.example.paymentreconciliation.common.util.ETagUtil;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,12 +27,15 @@ public class AuthorizationController {
 
     private final AuthorizationService authorizationService;
     private final ServiceCatalogService serviceCatalogService;
+    private final ETagResponseService eTagResponseService;
 
     public AuthorizationController(
             AuthorizationService authorizationService,
-            ServiceCatalogService serviceCatalogService) {
+            ServiceCatalogService serviceCatalogService,
+            ETagResponseService eTagResponseService) {
         this.authorizationService = authorizationService;
         this.serviceCatalogService = serviceCatalogService;
+        this.eTagResponseService = eTagResponseService;
     }
 
     /**
@@ -107,13 +111,7 @@ public class AuthorizationController {
                                 );
                         }
                         try {
-                                String responseJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(response);
-                                String eTag = ETagUtil.generateETag(responseJson);
-                                String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                                if (eTag.equals(ifNoneMatch)) {
-                                        return ResponseEntity.status(304).eTag(eTag).build();
-                                }
-                                return ResponseEntity.ok().eTag(eTag).body(response);
+                                return eTagResponseService.respond(request, response);
                         } catch (Exception e) {
                                 return ResponseEntity.internalServerError().build();
                         }
@@ -135,13 +133,7 @@ public class AuthorizationController {
                         "pages", serviceCatalogService.getPagesCatalog()
                 );
                 try {
-                        String responseJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(response);
-                        String eTag = ETagUtil.generateETag(responseJson);
-                        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                        if (eTag.equals(ifNoneMatch)) {
-                                return ResponseEntity.status(304).eTag(eTag).build();
-                        }
-                        return ResponseEntity.ok().eTag(eTag).body(response);
+                        return eTagResponseService.respond(request, response);
                 } catch (Exception e) {
                         return ResponseEntity.internalServerError().build();
                 }
@@ -2,10 +2,9 @@ package com.example.paymentreconciliation.auth.controller;
 
 import com.example.paymentreconciliation.auth.entity.Capability;
 import com.example.paymentreconciliation.auth.repository.CapabilityRepository;
+import com.example.paymentreconciliation.auth.service.AuthorizationService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
@@ -14,7 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
 import java.util.List;
 
 /**
@@ -31,7 +30,10 @@ public class CapabilityController {
     private final CapabilityRepository capabilityRepository;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ETagResponseService eTagResponseService;
+
+    @Autowired
+    private AuthorizationService authorizationService;
 
     public CapabilityController(CapabilityRepository capabilityRepository) {
         this.capabilityRepository = capabilityRepository;
@@ -44,13 +46,7 @@ public class CapabilityController {
     public ResponseEntity<List<Capability>> getAllCapabilities(HttpServletRequest request) {
         List<Capability> capabilities = capabilityRepository.findAll();
         try {
-            String responseJson = objectMapper.writeValueAsString(capabilities);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(capabilities);
+            return eTagResponseService.respond(request, capabilities);
         } catch (Exception e) {
             logger.error("Error processing capabilities response", e);
             return ResponseEntity.internalServerError().build();
@@ -66,13 +62,7 @@ public class CapabilityController {
         return capabilityRepository.findById(id)
                 .map(capability -> {
                     try {
-                        String responseJson = objectMapper.writeValueAsString(capability);
-                        String eTag = ETagUtil.generateETag(responseJson);
-                        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                        if (eTag.equals(ifNoneMatch)) {
-                            return (ResponseEntity<Capability>) (ResponseEntity<?>) ResponseEntity.status(304).eTag(eTag).build();
-                        }
-                        return (ResponseEntity<Capability>) (ResponseEntity<?>) ResponseEntity.ok().eTag(eTag).body(capability);
+                        return eTagResponseService.respond(request, capability);
                     } catch (Exception e) {
                         logger.error("Error processing capability response", e);
                         return (ResponseEntity<Capability>) (ResponseEntity<?>) ResponseEntity.internalServerError().build();
@@ -114,6 +104,7 @@ public class CapabilityController {
                     capability.setResource(request.getResource());
                     capability.setIsActive(request.getIsActive());
                     Capability updated = capabilityRepository.save(capability);
+                    authorizationService.invalidateAuthorizations();
                     return ResponseEntity.ok(updated);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -126,6 +117,7 @@ public class CapabilityController {
     public ResponseEntity<Void> deleteCapability(@PathVariable Long id) {
         if (capabilityRepository.existsById(id)) {
             capabilityRepository.deleteById(id);
+            authorizationService.invalidateAuthorizations();
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
@@ -140,6 +132,7 @@ public class CapabilityController {
                 .map(capability -> {
                     capability.setIsActive(!capability.getIsActive());
                     Capability updated = capabilityRepository.save(capability);
+                    authorizationService.invalidateAuthorizations();
                     return ResponseEntity.ok(updated);
                 })
                 .orElse(ResponseEntity.notFound().build());
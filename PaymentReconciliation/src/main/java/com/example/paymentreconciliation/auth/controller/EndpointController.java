@@ -7,9 +7,7 @@ import com.example.paymentreconciliation.auth.repository.EndpointPolicyRepositor
 import com.example.paymentreconciliation.auth.repository.EndpointRepository;
 import com.example.paymentreconciliation.auth.repository.PolicyRepository;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
@@ -22,13 +20,14 @@ import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.example.paymentreconciliation.auth.service.PolicyEngineService;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
 
 /**
  * Admin controller for managing endpoints and their policy assignments
@@ -42,7 +41,10 @@ public class EndpointController {
     private static final Logger logger = LoggerFactory.getLogger(EndpointController.class);
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ETagResponseService eTagResponseService;
+
+    @Autowired
+    private PolicyEngineService policyEngineService;
 
     private final EndpointRepository endpointRepository;
     private final PolicyRepository policyRepository;
@@ -69,13 +71,7 @@ public class EndpointController {
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
         try {
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTagResponseService.respond(request, response);
         } catch (Exception e) {
             logger.error("Error processing endpoints response", e);
             return ResponseEntity.internalServerError().build();
@@ -93,13 +89,7 @@ public class EndpointController {
                 .map(endpoint -> {
                     Map<String, Object> response = convertToResponse(endpoint);
                     try {
-                        String responseJson = objectMapper.writeValueAsString(response);
-                        String eTag = ETagUtil.generateETag(responseJson);
-                        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                        if (eTag.equals(ifNoneMatch)) {
-                            return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.status(304).eTag(eTag).build();
-                        }
-                        return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.ok().eTag(eTag).body(response);
+                        return eTagResponseService.respond(request, response);
                     } catch (Exception e) {
                         logger.error("Error processing endpoint response", e);
                         return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.internalServerError().build();
@@ -129,6 +119,7 @@ public class EndpointController {
         // Assign policies if provided
         if (request.getPolicyIds() != null && !request.getPolicyIds().isEmpty()) {
             assignPolicies(saved.getId(), request.getPolicyIds());
+            policyEngineService.invalidatePolicies();
         }
         
         return ResponseEntity.ok(convertToResponse(endpointRepository.findById(saved.getId()).get()));
@@ -162,6 +153,7 @@ public class EndpointController {
                         if (!request.getPolicyIds().isEmpty()) {
                             assignPolicies(id, request.getPolicyIds());
                         }
+                        policyEngineService.invalidatePolicies();
                     }
                     
                     return ResponseEntity.ok(convertToResponse(endpointRepository.findById(id).get()));
@@ -181,6 +173,7 @@ public class EndpointController {
             endpointPolicyRepository.deleteByEndpointId(id);
             // Delete endpoint
             endpointRepository.deleteById(id);
+            policyEngineService.invalidatePolicies();
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
@@ -212,13 +205,7 @@ public class EndpointController {
                 .map(EndpointPolicy::getPolicy)
                 .collect(Collectors.toList());
         try {
-            String responseJson = objectMapper.writeValueAsString(policies);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(policies);
+            return eTagResponseService.respond(request, policies);
         } catch (Exception e) {
             logger.error("Error processing policies response", e);
             return ResponseEntity.internalServerError().build();
@@ -240,6 +227,7 @@ public class EndpointController {
         }
         
         assignPolicies(id, request.getPolicyIds());
+        policyEngineService.invalidatePolicies();
         
         return ResponseEntity.ok(convertToResponse(endpointRepository.findById(id).get()));
     }
@@ -255,6 +243,7 @@ public class EndpointController {
             @PathVariable Long policyId) {
         
         endpointPolicyRepository.deleteByEndpointIdAndPolicyId(id, policyId);
+        policyEngineService.invalidatePolicies();
         return ResponseEntity.noContent().build();
     }
 
@@ -8,6 +8,7 @@ import com.example.paymentreconciliation.auth.repository.CapabilityRepository;
 import com.example.paymentreconciliation.auth.repository.EndpointRepository;
 import com.example.paymentreconciliation.auth.repository.PageActionRepository;
 import com.example.paymentreconciliation.auth.repository.UIPageRepository;
+import com.example.paymentreconciliation.auth.service.AuthorizationService;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
@@ -33,16 +34,19 @@ public class PageActionController {
     private final UIPageRepository uiPageRepository;
     private final CapabilityRepository capabilityRepository;
     private final EndpointRepository endpointRepository;
+    private final AuthorizationService authorizationService;
 
     public PageActionController(
             PageActionRepository pageActionRepository,
             UIPageRepository uiPageRepository,
             CapabilityRepository capabilityRepository,
-            EndpointRepository endpointRepository) {
+            EndpointRepository endpointRepository,
+            AuthorizationService authorizationService) {
         this.pageActionRepository = pageActionRepository;
         this.uiPageRepository = uiPageRepository;
         this.capabilityRepository = capabilityRepository;
         this.endpointRepository = endpointRepository;
+        this.authorizationService = authorizationService;
     }
 
     /**
@@ -112,6 +116,7 @@ public class PageActionController {
         action.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
         
         PageAction saved = pageActionRepository.save(action);
+        authorizationService.invalidateAuthorizations();
         return ResponseEntity.ok(convertToResponse(saved));
     }
 
@@ -157,6 +162,7 @@ public class PageActionController {
                     action.setIsActive(request.getIsActive() != null ? request.getIsActive() : action.getIsActive());
                     
                     PageAction updated = pageActionRepository.save(action);
+                    authorizationService.invalidateAuthorizations();
                     return ResponseEntity.ok(convertToResponse(updated));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -170,6 +176,7 @@ public class PageActionController {
     public ResponseEntity<Void> deletePageAction(@PathVariable Long id) {
         if (pageActionRepository.existsById(id)) {
             pageActionRepository.deleteById(id);
+            authorizationService.invalidateAuthorizations();
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
@@ -184,6 +191,7 @@ public class PageActionController {
                 .map(action -> {
                     action.setIsActive(!action.getIsActive());
                     PageAction updated = pageActionRepository.save(action);
+                    authorizationService.invalidateAuthorizations();
                     return ResponseEntity.ok(convertToResponse(updated));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -202,6 +210,7 @@ public class PageActionController {
                 .map(action -> {
                     action.setDisplayOrder(request.getNewDisplayOrder());
                     PageAction updated = pageActionRepository.save(action);
+                    authorizationService.invalidateAuthorizations();
                     return ResponseEntity.ok(convertToResponse(updated));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -7,9 +7,7 @@ import com.example.paymentreconciliation.auth.repository.CapabilityRepository;
 import com.example.paymentreconciliation.auth.repository.PolicyCapabilityRepository;
 import com.example.paymentreconciliation.auth.repository.PolicyRepository;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
@@ -24,7 +22,9 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.paymentreconciliation.auth.service.AuthorizationService;
+import com.example.paymentreconciliation.auth.service.PolicyEngineService;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
 
 /**
  * Admin controller for managing policies and their capability assignments
@@ -38,7 +38,13 @@ public class PolicyController {
     private static final Logger logger = LoggerFactory.getLogger(PolicyController.class);
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ETagResponseService eTagResponseService;
+
+    @Autowired
+    private PolicyEngineService policyEngineService;
+
+    @Autowired
+    private AuthorizationService authorizationService;
 
     private final PolicyRepository policyRepository;
     private final CapabilityRepository capabilityRepository;
@@ -63,13 +69,7 @@ public class PolicyController {
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
         try {
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTagResponseService.respond(request, response);
         } catch (Exception e) {
             logger.error("Error processing policies response", e);
             return ResponseEntity.internalServerError().build();
@@ -86,13 +86,7 @@ public class PolicyController {
                 .map(policy -> {
                     Map<String, Object> response = convertToResponse(policy);
                     try {
-                        String responseJson = objectMapper.writeValueAsString(response);
-                        String eTag = ETagUtil.generateETag(responseJson);
-                        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                        if (eTag.equals(ifNoneMatch)) {
-                            return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.status(304).eTag(eTag).build();
-                        }
-                        return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.ok().eTag(eTag).body(response);
+                        return eTagResponseService.respond(request, response);
                     } catch (Exception e) {
                         logger.error("Error processing policy response", e);
                         return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.internalServerError().build();
@@ -143,6 +137,8 @@ public class PolicyController {
                     policy.setExpression(request.getExpression());
                     policy.setIsActive(request.getIsActive());
                     policyRepository.save(policy);
+                    policyEngineService.invalidatePolicies();
+                    authorizationService.invalidateAuthorizations();
                     
                     // Update capabilities if provided
                     if (request.getCapabilityIds() != null) {
@@ -170,6 +166,8 @@ public class PolicyController {
             policyCapabilityRepository.deleteByPolicyId(id);
             // Delete policy
             policyRepository.deleteById(id);
+            policyEngineService.invalidatePolicies();
+            authorizationService.invalidateAuthorizations();
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
@@ -184,6 +182,8 @@ public class PolicyController {
                 .map(policy -> {
                     policy.setIsActive(!policy.getIsActive());
                     Policy updated = policyRepository.save(policy);
+                    policyEngineService.invalidatePolicies();
+                    authorizationService.invalidateAuthorizations();
                     return ResponseEntity.ok(convertToResponse(updated));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -199,13 +199,7 @@ public class PolicyController {
                 .map(PolicyCapability::getCapability)
                 .collect(Collectors.toList());
         try {
-            String responseJson = objectMapper.writeValueAsString(capabilities);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(capabilities);
+            return eTagResponseService.respond(request, capabilities);
         } catch (Exception e) {
             logger.error("Error processing capabilities response", e);
             return ResponseEntity.internalServerError().build();
@@ -240,6 +234,7 @@ public class PolicyController {
             @PathVariable Long capabilityId) {
         
         policyCapabilityRepository.deleteByPolicyIdAndCapabilityId(id, capabilityId);
+        authorizationService.invalidateAuthorizations();
         return ResponseEntity.noContent().build();
     }
 
@@ -259,6 +254,7 @@ public class PolicyController {
                 policyCapabilityRepository.save(pc);
             }
         }
+        authorizationService.invalidateAuthorizations();
     }
     
     private Map<String, Object> convertToResponse(Policy policy) {
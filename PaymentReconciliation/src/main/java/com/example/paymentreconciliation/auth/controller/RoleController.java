@@ -9,14 +9,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
 import org.springframework.web.bind.annotation.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
 import java.util.List;
 
 /**
@@ -34,20 +32,14 @@ public class RoleController {
     private RoleService roleService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ETagResponseService eTagResponseService;
     
     @GetMapping
     @Operation(summary = "Get all roles")
     public ResponseEntity<List<Role>> getAllRoles(HttpServletRequest request) {
         List<Role> roles = roleService.getAllRoles();
         try {
-            String responseJson = objectMapper.writeValueAsString(roles);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(roles);
+            return eTagResponseService.respond(request, roles);
         } catch (Exception e) {
             logger.error("Error processing roles response", e);
             return ResponseEntity.internalServerError().build();
@@ -59,13 +51,7 @@ public class RoleController {
     public ResponseEntity<List<RoleWithPermissionCount>> getAllRolesWithPermissions(HttpServletRequest request) {
         List<RoleWithPermissionCount> roles = roleService.getAllRolesWithPermissionCounts();
         try {
-            String responseJson = objectMapper.writeValueAsString(roles);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(roles);
+            return eTagResponseService.respond(request, roles);
         } catch (Exception e) {
             logger.error("Error processing roles with permissions response", e);
             return ResponseEntity.internalServerError().build();
@@ -79,13 +65,7 @@ public class RoleController {
         return roleService.getRoleById(id)
                 .map(role -> {
                     try {
-                        String responseJson = objectMapper.writeValueAsString(role);
-                        String eTag = ETagUtil.generateETag(responseJson);
-                        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                        if (eTag.equals(ifNoneMatch)) {
-                            return (ResponseEntity<Role>) (ResponseEntity<?>) ResponseEntity.status(304).eTag(eTag).build();
-                        }
-                        return (ResponseEntity<Role>) (ResponseEntity<?>) ResponseEntity.ok().eTag(eTag).body(role);
+                        return eTagResponseService.respond(request, role);
                     } catch (Exception e) {
                         logger.error("Error processing role response", e);
                         return (ResponseEntity<Role>) (ResponseEntity<?>) ResponseEntity.internalServerError().build();
@@ -101,13 +81,7 @@ public class RoleController {
         return roleService.getRoleByNameWithPermissions(name)
                 .map(role -> {
                     try {
-                        String responseJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(role);
-                        String eTag = ETagUtil.generateETag(responseJson);
-                        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                        if (eTag.equals(ifNoneMatch)) {
-                            return (ResponseEntity<Role>) (ResponseEntity<?>) ResponseEntity.status(304).eTag(eTag).build();
-                        }
-                        return (ResponseEntity<Role>) (ResponseEntity<?>) ResponseEntity.ok().eTag(eTag).body(role);
+                        return eTagResponseService.respond(request, role);
                     } catch (Exception e) {
                         return (ResponseEntity<Role>) (ResponseEntity<?>) ResponseEntity.internalServerError().build();
                     }
@@ -8,6 +8,7 @@ import com.example.paymentreconciliation.auth.repository.UIPageRepository;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
 import com.example.paymentreconciliation.auth.repository.PageActionRepository;
+import com.example.paymentreconciliation.auth.service.AuthorizationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -17,7 +18,6 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Admin controller for managing UI pages
@@ -30,8 +30,9 @@ public class UIPageController {
 
     private static final Logger logger = LoggerFactory.getLogger(UIPageController.class);
 
+
     @Autowired
-    private ObjectMapper objectMapper;
+    private AuthorizationService authorizationService;
 
     private final UIPageRepository uiPageRepository;
     private final PageActionRepository pageActionRepository;
@@ -84,13 +85,7 @@ public class UIPageController {
         return uiPageRepository.findById(id)
                 .map(page -> {
                     Map<String, Object> response = convertToResponse(page);
-                    try {
-                        objectMapper.writeValueAsString(response);
-                        return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.ok(response);
-                    } catch (Exception e) {
-                        logger.error("Error processing page response", e);
-                        return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.internalServerError().build();
-                    }
+                    return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.ok(response);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -122,14 +117,9 @@ public class UIPageController {
         page.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
         
         UIPage saved = uiPageRepository.save(page);
+        authorizationService.invalidateAuthorizations();
         Map<String, Object> response = convertToResponse(saved);
-        try {
-            objectMapper.writeValueAsString(response);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error processing page creation response", e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -164,14 +154,9 @@ public class UIPageController {
                     page.setIsActive(request.getIsActive() != null ? request.getIsActive() : page.getIsActive());
                     
                     UIPage updated = uiPageRepository.save(page);
+                    authorizationService.invalidateAuthorizations();
                     Map<String, Object> response = convertToResponse(updated);
-                    try {
-                        objectMapper.writeValueAsString(response);
-                        return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.ok(response);
-                    } catch (Exception e) {
-                        logger.error("Error processing page update response", e);
-                        return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.internalServerError().build();
-                    }
+                    return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.ok(response);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -195,6 +180,7 @@ public class UIPageController {
             
             // Delete page
             uiPageRepository.deleteById(id);
+            authorizationService.invalidateAuthorizations();
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
@@ -211,14 +197,9 @@ public class UIPageController {
                 .map(page -> {
                     page.setIsActive(!page.getIsActive());
                     UIPage updated = uiPageRepository.save(page);
+                    authorizationService.invalidateAuthorizations();
                     Map<String, Object> response = convertToResponse(updated);
-                    try {
-                        objectMapper.writeValueAsString(response);
-                        return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.ok(response);
-                    } catch (Exception e) {
-                        logger.error("Error processing page toggle response", e);
-                        return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.internalServerError().build();
-                    }
+                    return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.ok(response);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -238,14 +219,9 @@ public class UIPageController {
                 .map(page -> {
                     page.setDisplayOrder(request.getNewDisplayOrder());
                     UIPage updated = uiPageRepository.save(page);
+                    authorizationService.invalidateAuthorizations();
                     Map<String, Object> response = convertToResponse(updated);
-                    try {
-                        objectMapper.writeValueAsString(response);
-                        return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.ok(response);
-                    } catch (Exception e) {
-                        logger.error("Error processing page reorder response", e);
-                        return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.internalServerError().build();
-                    }
+                    return (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) ResponseEntity.ok(response);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -259,13 +235,7 @@ public class UIPageController {
         List<Map<String, Object>> response = children.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
-        try {
-            objectMapper.writeValueAsString(response);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error processing child pages response", e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return ResponseEntity.ok(response);
     }
 
     // Helper methods
@@ -0,0 +1,87 @@
+package com.example.paymentreconciliation.auth.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Loads the role → policy → capability → page → action graph used to build user authorizations.
+ * Each method is a single query over the whole table set, so loading the graph costs a fixed
+ * number of round trips regardless of how many roles, pages or actions exist.
+ */
+@Repository
+public class AuthorizationGraphDao {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Capabilities granted by every active policy, one row per active policy/capability pair
+     */
+    public List<PolicyCapabilityRow> findActivePolicyCapabilities() {
+        String sql = """
+            SELECT p.id AS policy_id, p.expression, c.name AS capability_name
+            FROM policy_capabilities pc
+            INNER JOIN policies p ON p.id = pc.policy_id
+            INNER JOIN capabilities c ON c.id = pc.capability_id
+            WHERE p.is_active = true AND c.is_active = true
+            ORDER BY p.id, c.name
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new PolicyCapabilityRow(
+            rs.getLong("policy_id"),
+            rs.getString("expression"),
+            rs.getString("capability_name")));
+    }
+
+    /**
+     * Active UI pages in display order
+     */
+    public List<PageRow> findActivePages() {
+        String sql = """
+            SELECT id, label, route, parent_id, icon, display_order, is_menu_item
+            FROM ui_pages
+            WHERE is_active = true
+            ORDER BY display_order, id
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new PageRow(
+            rs.getLong("id"),
+            rs.getString("label"),
+            rs.getString("route"),
+            rs.getObject("parent_id", Long.class),
+            rs.getString("icon"),
+            rs.getInt("display_order"),
+            rs.getObject("is_menu_item", Boolean.class)));
+    }
+
+    /**
+     * Active page actions of all pages with the name of the capability each one requires
+     */
+    public List<PageActionRow> findActivePageActions() {
+        String sql = """
+            SELECT pa.id, pa.page_id, pa.action, pa.label, pa.icon, pa.variant, c.name AS capability_name
+            FROM page_actions pa
+            INNER JOIN capabilities c ON c.id = pa.capability_id
+            WHERE pa.is_active = true
+            ORDER BY pa.page_id, pa.display_order, pa.id
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new PageActionRow(
+            rs.getLong("id"),
+            rs.getLong("page_id"),
+            rs.getString("action"),
+            rs.getString("label"),
+            rs.getString("icon"),
+            rs.getString("variant"),
+            rs.getString("capability_name")));
+    }
+
+    public record PolicyCapabilityRow(long policyId, String expression, String capabilityName) {
+    }
+
+    public record PageRow(long id, String label, String route, Long parentId, String icon, int displayOrder, Boolean isMenuItem) {
+    }
+
+    public record PageActionRow(long id, long pageId, String action, String label, String icon, String variant, String capabilityName) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.paymentreconciliation.auth.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class PolicyQueryDao {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * All active policies with the endpoints they are linked to, in one query.
+     * Used to compile the policy decision snapshot.
+     */
+    public List<EndpointPolicyRow> findActiveEndpointPolicies() {
+        String sql = """
+            SELECT ep.endpoint_id, p.id AS policy_id, p.name, p.type, p.expression
+            FROM endpoint_policies ep
+            INNER JOIN policies p ON p.id = ep.policy_id
+            WHERE p.is_active = true
+            ORDER BY ep.endpoint_id, p.id
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new EndpointPolicyRow(
+            rs.getLong("endpoint_id"),
+            rs.getLong("policy_id"),
+            rs.getString("name"),
+            rs.getString("type"),
+            rs.getString("expression")));
+    }
+    
+    public record EndpointPolicyRow(long endpointId, long policyId, String policyName, String type, String expression) {
+    }
+}
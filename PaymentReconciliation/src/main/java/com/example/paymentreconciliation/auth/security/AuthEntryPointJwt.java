@@ -20,6 +20,12 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthEntryPointJwt.class);
     
+    private final ObjectMapper objectMapper;
+    
+    public AuthEntryPointJwt(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
         @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException)
             throws IOException, ServletException {
@@ -35,7 +41,6 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
         body.put("message", authException.getMessage());
         body.put("path", request.getServletPath());
 
-        final ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(response.getOutputStream(), body);
+        objectMapper.writeValue(response.getOutputStream(), body);
     }
 }
@@ -1,6 +1,8 @@
 package com.example.paymentreconciliation.auth.security;
 
-import com.example.paymentreconciliation.auth.service.UserDetailsServiceImpl;
+import com.example.paymentreconciliation.auth.entity.User;
+import com.example.paymentreconciliation.auth.service.UserPermissionVersionCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,6 +24,12 @@ import java.io.IOException;
 /**
  * Filter that processes JWT tokens for authentication
  * Must be a @Component to be injected into security config
+ *
+ * With app.jwt.claims-authentication enabled, the principal is rebuilt from token claims as long as
+ * the token's permission version matches the user's current one (cached for a short TTL), so most
+ * requests authenticate without reading the user from the database. Tokens with an outdated or
+ * missing permission version fall back to loading the user.
+ * Tokens are verified through JwtVerifier, so a token already verified recently is not parsed again.
  */
 @Component
 public class AuthTokenFilter extends OncePerRequestFilter {
@@ -31,17 +40,22 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
     
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private JwtVerifier jwtVerifier;
+    
+    @Autowired
+    private UserPermissionVersionCache permissionVersionCache;
+    
+    @Value("${app.jwt.claims-authentication:true}")
+    private boolean claimsAuthentication;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtVerifier.verify(request, jwt) : null;
+            if (claims != null) {
+                UserDetails userDetails = resolveUser(claims);
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -55,6 +69,36 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Principal from token claims while their permission version is current, otherwise from the database
+     */
+    private UserDetails resolveUser(Claims claims) {
+        String username = claims.getSubject();
+        Integer tokenVersion = claims.get(JwtUtils.CLAIM_PERMISSION_VERSION, Integer.class);
+        if (!claimsAuthentication || tokenVersion == null) {
+            return permissionVersionCache.refresh(username);
+        }
+        
+        Integer currentVersion = permissionVersionCache.getCachedPermissionVersion(username);
+        User loaded = null;
+        if (!tokenVersion.equals(currentVersion)) {
+            loaded = permissionVersionCache.refresh(username);
+            currentVersion = loaded.getPermissionVersion();
+        }
+        if (tokenVersion.equals(currentVersion)) {
+            User fromClaims = jwtUtils.buildUserFromClaims(claims);
+            if (fromClaims != null) {
+                return fromClaims;
+            }
+        }
+        if (loaded == null) {
+            loaded = permissionVersionCache.refresh(username);
+        }
+        logger.debug("Permission version of token for {} is {}, current is {}; using roles from database",
+            username, tokenVersion, currentVersion);
+        return loaded;
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
@@ -1,6 +1,8 @@
 package com.example.paymentreconciliation.auth.security;
 
+import com.example.paymentreconciliation.auth.entity.Role;
 import com.example.paymentreconciliation.auth.entity.User;
+import com.example.paymentreconciliation.auth.entity.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -14,12 +16,21 @@ import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Component
 public class JwtUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
     
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_PERMISSION_VERSION = "pv";
+    static final String CLAIM_FULL_NAME = "name";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_ROLE = "role";
+    
     @Value("${app.jwt.secret:mySecretKey}")
     private String jwtSecret;
     
@@ -32,14 +43,21 @@ public class JwtUtils {
     @Value("${app.jwt.audience:payment-reconciliation-api}")
     private String jwtAudience;
     
+    // Built on first use from the injected settings, then shared by all threads
+    private volatile SecretKey signingKey;
+    private volatile JwtParser jwtParser;
+    
     /**
-     * Generate JWT token with minimal claims: sub (username), iss, aud, iat, exp, pv (permission version)
+     * Generate JWT token with claims: sub (username), iss, aud, iat, exp, pv (permission version),
+     * plus uid, name, roles and role so the request principal can be rebuilt without a DB lookup
+     * while pv is current (see AuthTokenFilter).
      * Permission version is automatically sourced from the User entity
      * @param authentication Spring Security authentication object
      * @return JWT token string
      */
     public String generateJwtToken(Authentication authentication) {
         User userPrincipal = (User) authentication.getPrincipal();
+        List<String> roleNames = userPrincipal.getRoles().stream().map(Role::getName).sorted().toList();
         
         Instant now = Instant.now();
         return Jwts.builder()
@@ -48,6 +66,11 @@ public class JwtUtils {
                 .audience().add(jwtAudience).and()    // aud: intended recipient
                 .issuedAt(Date.from(now))             // iat: token creation time
                 .expiration(Date.from(now.plus(jwtExpirationMs, ChronoUnit.SECONDS))) // exp: expiration
+                .claim(CLAIM_PERMISSION_VERSION, userPrincipal.getPermissionVersion())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_FULL_NAME, userPrincipal.getFullName())
+                .claim(CLAIM_ROLES, roleNames)
+                .claim(CLAIM_ROLE, userPrincipal.getRole() != null ? userPrincipal.getRole().name() : null)
                 .signWith(getSigningKey(), Jwts.SIG.HS256)
                 .compact();
     }
@@ -65,6 +88,31 @@ public class JwtUtils {
     }
     
     private SecretKey getSigningKey() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = deriveSigningKey();
+            signingKey = key;
+        }
+        return key;
+    }
+    
+    /**
+     * Parser verifying signature, expiration, issuer and audience; JwtParser is immutable and thread-safe
+     */
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .requireIssuer(jwtIssuer)           // Validate issuer
+                    .requireAudience(jwtAudience)       // Validate audience
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
+    }
+    
+    private SecretKey deriveSigningKey() {
         try {
             // Try hex decoding first (for hex strings like in config)
             byte[] keyBytes = hexStringToByteArray(jwtSecret);
@@ -93,11 +141,7 @@ public class JwtUtils {
     
     public String getUserNameFromJwtToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .requireIssuer(jwtIssuer)
-                    .requireAudience(jwtAudience)
-                    .build()
+            return getParser()
                     .parseSignedClaims(token)
                     .getPayload()
                     .getSubject();
@@ -114,11 +158,7 @@ public class JwtUtils {
      */
     public Integer getPermissionVersionFromToken(String token) {
         try {
-            io.jsonwebtoken.Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .requireIssuer(jwtIssuer)
-                    .requireAudience(jwtAudience)
-                    .build()
+            io.jsonwebtoken.Claims claims = getParser()
                     .parseSignedClaims(token)
                     .getPayload();
             
@@ -155,14 +195,19 @@ public class JwtUtils {
      * @return true if valid, false otherwise
      */
     public boolean validateJwtToken(String authToken) {
+        return getValidatedClaims(authToken) != null;
+    }
+    
+    /**
+     * Validate JWT token signature, expiration, issuer, and audience, and return its claims
+     * @param authToken JWT token string
+     * @return claims if valid, null otherwise
+     */
+    public Claims getValidatedClaims(String authToken) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .requireIssuer(jwtIssuer)           // Validate issuer
-                .requireAudience(jwtAudience)       // Validate audience
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            return getParser()
+                .parseSignedClaims(authToken)
+                .getPayload();
         } catch (io.jsonwebtoken.security.SecurityException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -175,7 +220,39 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
         
-        return false;
+        return null;
+    }
+    
+    /**
+     * Rebuild the token owner from claims written by {@link #generateJwtToken}.
+     * The returned user is detached and only carries id, username, full name, permission
+     * version and roles, which is what request handling reads from the principal.
+     * @return the user, or null if the token lacks the claims (e.g. older tokens)
+     */
+    public User buildUserFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Integer permissionVersion = claims.get(CLAIM_PERMISSION_VERSION, Integer.class);
+        List<?> roleNames = claims.get(CLAIM_ROLES, List.class);
+        if (userId == null || permissionVersion == null || roleNames == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(userId.longValue());
+        user.setUsername(claims.getSubject());
+        user.setFullName(claims.get(CLAIM_FULL_NAME, String.class));
+        user.setPermissionVersion(permissionVersion);
+        Set<Role> roles = new HashSet<>();
+        for (Object roleName : roleNames) {
+            Role role = new Role();
+            role.setName(String.valueOf(roleName));
+            roles.add(role);
+        }
+        user.setRoles(roles);
+        String legacyRole = claims.get(CLAIM_ROLE, String.class);
+        if (legacyRole != null) {
+            user.setRole(UserRole.valueOf(legacyRole));
+        }
+        return user;
     }
     
     /**
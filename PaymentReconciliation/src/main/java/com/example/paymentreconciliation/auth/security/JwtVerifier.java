@@ -0,0 +1,108 @@
+package com.example.paymentreconciliation.auth.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies each bearer token at most once per request, and at most once per token while it is cached.
+ * Claims of successfully verified tokens are kept by SHA-256 digest of the token (the token itself is
+ * not retained) until the token's exp, so repeated calls with the same token skip signature
+ * verification and parsing. A token whose bytes differ in any way has a different digest and is fully
+ * verified by {@link JwtUtils#getValidatedClaims}. The cache holds at most app.jwt.verified-token-cache-size
+ * entries; tokens without exp are never cached.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtVerifier.class);
+
+    /**
+     * Request attribute holding the claims verified for the current request
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtVerifier.class.getName() + ".claims";
+
+    private final JwtUtils jwtUtils;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public JwtVerifier(JwtUtils jwtUtils, @Value("${app.jwt.verified-token-cache-size:10000}") int maxEntries) {
+        this.jwtUtils = jwtUtils;
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    /**
+     * Claims of the token, verified once per request and stored as the {@link #CLAIMS_ATTRIBUTE} request attribute
+     * @return claims if valid, null otherwise
+     */
+    public Claims verify(HttpServletRequest request, String token) {
+        Object verified = request.getAttribute(CLAIMS_ATTRIBUTE);
+        if (verified instanceof Claims claims) {
+            return claims;
+        }
+        Claims claims = verify(token);
+        if (claims != null) {
+            request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Claims of the token from the cache while it has not expired, otherwise verified and cached
+     * @return claims if valid, null otherwise
+     */
+    public Claims verify(String token) {
+        if (maxEntries == 0) {
+            return jwtUtils.getValidatedClaims(token);
+        }
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(digest);
+        if (entry != null) {
+            if (now < entry.expiresAtMillis()) {
+                return entry.claims();
+            }
+            entries.remove(digest, entry);
+        }
+        Claims claims = jwtUtils.getValidatedClaims(token);
+        Date expiration = claims != null ? claims.getExpiration() : null;
+        if (expiration != null) {
+            if (entries.size() >= maxEntries) {
+                evictExpired(now);
+            }
+            entries.put(digest, new Entry(claims, expiration.getTime()));
+        }
+        return claims;
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(entry -> now >= entry.expiresAtMillis());
+        if (entries.size() >= maxEntries) {
+            logger.warn("Verified token cache full ({} entries), clearing", entries.size());
+            entries.clear();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+}
@@ -46,6 +46,9 @@ public class AuthService {
     @Autowired
     private JwtUtils jwtUtils;
     
+    @Autowired
+    private UserPermissionVersionCache permissionVersionCache;
+    
     public AuthResponse login(LoginRequest loginRequest) {
         logger.info("Attempting login for user: {}", loginRequest.getUsername());
         
@@ -169,6 +172,7 @@ public class AuthService {
         
         // Save user to trigger update timestamp
         userRepository.save(user);
+        permissionVersionCache.evict(user.getUsername());
         
         logger.info("User {} permissions updated", user.getUsername());
     }
@@ -0,0 +1,211 @@
+package com.example.paymentreconciliation.auth.service;
+
+import com.example.paymentreconciliation.auth.dao.AuthorizationGraphDao.PageActionRow;
+import com.example.paymentreconciliation.auth.dao.AuthorizationGraphDao.PageRow;
+import com.example.paymentreconciliation.auth.dao.AuthorizationGraphDao.PolicyCapabilityRow;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, in-memory copy of the policy → capability → page → action graph.
+ * Authorizations are resolved per distinct role set and memoised, so users sharing the same roles
+ * share one computed result. The graph is replaced as a whole when the underlying data changes,
+ * which drops every memoised result with it.
+ */
+final class AuthorizationGraph {
+
+    private static final int MAX_CACHED_ROLE_SETS = 1_024;
+    private static final char SEPARATOR = '\u001f';
+
+    private final long loadedAtMillis;
+    private final Map<String, Set<String>> capabilitiesByPolicyExpression;
+    private final Map<Long, PageRow> pagesById;
+    private final Map<Long, List<PageActionRow>> actionsByPage;
+    private final Map<String, RoleAuthorizations> byRoleSet = new ConcurrentHashMap<>();
+
+    AuthorizationGraph(List<PolicyCapabilityRow> policyCapabilities, List<PageRow> pages, List<PageActionRow> actions) {
+        this.loadedAtMillis = System.currentTimeMillis();
+        Map<Long, String> expressions = new HashMap<>();
+        Map<String, Set<String>> capabilities = new HashMap<>();
+        for (PolicyCapabilityRow row : policyCapabilities) {
+            expressions.putIfAbsent(row.policyId(), row.expression() != null ? row.expression() : "");
+            capabilities.computeIfAbsent(expressions.get(row.policyId()), e -> new HashSet<>()).add(row.capabilityName());
+        }
+        this.capabilitiesByPolicyExpression = capabilities;
+        this.pagesById = new LinkedHashMap<>();
+        for (PageRow page : pages) {
+            pagesById.put(page.id(), page);
+        }
+        this.actionsByPage = new HashMap<>();
+        for (PageActionRow action : actions) {
+            actionsByPage.computeIfAbsent(action.pageId(), id -> new ArrayList<>()).add(action);
+        }
+    }
+
+    long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    /**
+     * Capabilities and accessible pages for a set of roles, computed on first use
+     */
+    RoleAuthorizations authorizationsFor(Collection<String> roleNames) {
+        Set<String> sortedRoles = new TreeSet<>(roleNames);
+        String key = String.join(",", sortedRoles);
+        RoleAuthorizations cached = byRoleSet.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (byRoleSet.size() >= MAX_CACHED_ROLE_SETS) {
+            byRoleSet.clear();
+        }
+        return byRoleSet.computeIfAbsent(key, k -> resolve(sortedRoles));
+    }
+
+    int getCachedRoleSetCount() {
+        return byRoleSet.size();
+    }
+
+    private RoleAuthorizations resolve(Set<String> roleNames) {
+        Set<String> capabilities = new TreeSet<>();
+        // Same matching as CapabilityRepository.findCapabilityNamesByRoleName: expression LIKE %role%
+        for (Map.Entry<String, Set<String>> policy : capabilitiesByPolicyExpression.entrySet()) {
+            for (String roleName : roleNames) {
+                if (policy.getKey().contains(roleName)) {
+                    capabilities.addAll(policy.getValue());
+                    break;
+                }
+            }
+        }
+
+        List<PageRow> accessiblePages = new ArrayList<>();
+        Map<Long, List<Map<String, Object>>> userActionsByPage = new HashMap<>();
+        for (PageRow page : pagesById.values()) {
+            List<Map<String, Object>> userActions = new ArrayList<>();
+            for (PageActionRow action : actionsByPage.getOrDefault(page.id(), List.of())) {
+                if (capabilities.contains(action.capabilityName())) {
+                    userActions.add(actionData(action));
+                }
+            }
+            if (!userActions.isEmpty()) {
+                accessiblePages.add(page);
+                userActionsByPage.put(page.id(), userActions);
+            }
+        }
+
+        // Parent pages without actions of their own are shown when one of their children is
+        Set<Long> accessibleIds = new HashSet<>(userActionsByPage.keySet());
+        for (PageRow page : List.copyOf(accessiblePages)) {
+            PageRow parent = page.parentId() != null ? pagesById.get(page.parentId()) : null;
+            if (parent != null && accessibleIds.add(parent.id())) {
+                accessiblePages.add(parent);
+            }
+        }
+
+        // Parents first (by displayOrder), then children grouped by their parent's displayOrder
+        accessiblePages.sort(Comparator
+            .comparing((PageRow p) -> p.parentId() != null)
+            .thenComparingInt(p -> p.parentId() == null ? p.displayOrder() : parentOrder(p, accessibleIds))
+            .thenComparing(p -> p.parentId() == null ? 0L : p.parentId())
+            .thenComparingInt(PageRow::displayOrder));
+
+        List<Map<String, Object>> pages = new ArrayList<>(accessiblePages.size());
+        for (PageRow page : accessiblePages) {
+            pages.add(pageData(page, userActionsByPage.getOrDefault(page.id(), List.of())));
+        }
+
+        Map<String, Boolean> can = new HashMap<>();
+        for (String capability : capabilities) {
+            can.put(capability, true);
+        }
+        return new RoleAuthorizations(Collections.unmodifiableSet(capabilities), Collections.unmodifiableMap(can),
+            Collections.unmodifiableList(pages), contentHash(capabilities, accessiblePages, userActionsByPage));
+    }
+
+    private int parentOrder(PageRow page, Set<Long> accessibleIds) {
+        PageRow parent = pagesById.get(page.parentId());
+        return parent != null && accessibleIds.contains(parent.id()) ? parent.displayOrder() : 0;
+    }
+
+    private static Map<String, Object> actionData(PageActionRow action) {
+        Map<String, Object> actionData = new HashMap<>();
+        actionData.put("name", action.action());
+        actionData.put("label", action.label());
+        actionData.put("capability", action.capabilityName());
+        actionData.put("icon", action.icon());
+        actionData.put("variant", action.variant());
+        return Collections.unmodifiableMap(actionData);
+    }
+
+    private static Map<String, Object> pageData(PageRow page, List<Map<String, Object>> actions) {
+        Map<String, Object> pageData = new HashMap<>();
+        pageData.put("id", page.id());
+        pageData.put("name", page.label());
+        pageData.put("path", page.route());
+        pageData.put("parentId", page.parentId());
+        pageData.put("icon", page.icon());
+        pageData.put("displayOrder", page.displayOrder());
+        pageData.put("isMenuItem", page.isMenuItem());
+        pageData.put("actions", Collections.unmodifiableList(actions));
+        return Collections.unmodifiableMap(pageData);
+    }
+
+    /**
+     * SHA-256 over a canonical form of the result, so identical content always has the same hash
+     */
+    private static String contentHash(Set<String> capabilities, List<PageRow> pages,
+                                      Map<Long, List<Map<String, Object>>> actionsByPage) {
+        StringBuilder canonical = new StringBuilder();
+        for (String capability : capabilities) {
+            append(canonical, capability);
+        }
+        canonical.append('\n');
+        for (PageRow page : pages) {
+            append(canonical, page.id(), page.label(), page.route(), page.parentId(), page.icon(),
+                page.displayOrder(), page.isMenuItem());
+            for (Map<String, Object> action : actionsByPage.getOrDefault(page.id(), List.of())) {
+                append(canonical, action.get("name"), action.get("label"), action.get("capability"),
+                    action.get("icon"), action.get("variant"));
+            }
+            canonical.append('\n');
+        }
+        return sha256(canonical.toString());
+    }
+
+    private static void append(StringBuilder canonical, Object... values) {
+        for (Object value : values) {
+            canonical.append(value != null ? value : "").append(SEPARATOR);
+        }
+    }
+
+    static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Authorizations shared by every user holding exactly the same roles
+     */
+    record RoleAuthorizations(Set<String> capabilities, Map<String, Boolean> can,
+                              List<Map<String, Object>> pages, String contentHash) {
+    }
+}
@@ -1,14 +1,18 @@
 package com.example.paymentreconciliation.auth.service;
 
+import com.example.paymentreconciliation.auth.dao.AuthorizationGraphDao;
 import com.example.paymentreconciliation.auth.entity.*;
 import com.example.paymentreconciliation.auth.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Authorization Service - Unified authorization flow implementation
@@ -22,6 +26,10 @@ import java.util.stream.Collectors;
  * - User access is determined by: Role → Policy → {Capabilities + Endpoints}
  * 
  * Returns capabilities, policies, endpoints, and UI pages for authenticated users
+ *
+ * The policy/capability/page/action graph is loaded in a fixed number of queries into an
+ * {@link AuthorizationGraph} and resolved once per distinct role set. Admin changes reload it
+ * after commit; it is also reloaded once older than app.security.authorization-cache-max-age-seconds.
  */
 @Service
 public class AuthorizationService {
@@ -51,6 +59,7 @@ public class AuthorizationService {
     }
 
     private static final Logger logger = LoggerFactory.getLogger(AuthorizationService.class);
+    private static final int VERSION_LENGTH = 16;
 
     private final UserRepository userRepository;
     private final UserRoleAssignmentRepository userRoleRepository;
@@ -59,6 +68,10 @@ public class AuthorizationService {
     private final EndpointRepository endpointRepository;
     private final UIPageRepository uiPageRepository;
     private final PageActionRepository pageActionRepository;
+    private final AuthorizationGraphDao authorizationGraphDao;
+    private final long graphMaxAgeMillis;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile AuthorizationGraph graph;
 
     public AuthorizationService(
             UserRepository userRepository,
@@ -67,7 +80,9 @@ public class AuthorizationService {
             CapabilityRepository capabilityRepository,
             EndpointRepository endpointRepository,
             UIPageRepository uiPageRepository,
-            PageActionRepository pageActionRepository) {
+            PageActionRepository pageActionRepository,
+            AuthorizationGraphDao authorizationGraphDao,
+            @Value("${app.security.authorization-cache-max-age-seconds:300}") long graphMaxAgeSeconds) {
         this.userRepository = userRepository;
         this.userRoleRepository = userRoleRepository;
         this.policyRepository = policyRepository;
@@ -75,6 +90,8 @@ public class AuthorizationService {
         this.endpointRepository = endpointRepository;
         this.uiPageRepository = uiPageRepository;
         this.pageActionRepository = pageActionRepository;
+        this.authorizationGraphDao = authorizationGraphDao;
+        this.graphMaxAgeMillis = Math.max(1, graphMaxAgeSeconds) * 1000L;
     }
 
     /**
@@ -91,165 +108,89 @@ public class AuthorizationService {
                 .orElseThrow(() -> new RuntimeException("User not found: " + userId));
 
         // Get user's roles
-        List<UserRoleAssignment> userRoles = userRoleRepository.findByUserId(userId);
-        Set<String> roleNames = userRoles.stream()
-                .map(ur -> ur.getRole().getName())
-                .collect(Collectors.toSet());
+        Set<String> roleNames = new TreeSet<>(userRoleRepository.findRoleNamesByUserId(userId));
 
         logger.debug("User {} has roles: {}", userId, roleNames);
 
-    // Get capabilities for user's roles
-    Set<String> capabilities = getCapabilitiesForRoles(roleNames);
-
-    // Get accessible pages for user's roles, filtered by capabilities
-    List<Map<String, Object>> pages = getAccessiblePagesFilteredByCapabilities(roleNames, capabilities);
-
-    // Build response (without endpoints)
-    Map<String, Object> response = new HashMap<>();
-    response.put("userId", userId);
-    response.put("username", user.getUsername());
-    response.put("roles", roleNames);
-    response.put("can", buildCapabilityMap(capabilities)); // { "USER_CREATE": true, ...}
-    response.put("pages", pages);
-    response.put("version", System.currentTimeMillis()); // For client-side cache invalidation
-
-    logger.debug("Authorization response built successfully for user: {}", userId);
-    return response;
+        // Capabilities and pages are shared by every user with the same roles
+        AuthorizationGraph.RoleAuthorizations authorizations = currentGraph().authorizationsFor(roleNames);
+
+        // Build response (without endpoints)
+        Map<String, Object> response = new HashMap<>();
+        response.put("userId", userId);
+        response.put("username", user.getUsername());
+        response.put("roles", roleNames);
+        response.put("can", authorizations.can()); // { "USER_CREATE": true, ...}
+        response.put("pages", authorizations.pages());
+        // Changes only when the user's authorizations change, so clients can cache on it
+        response.put("version", AuthorizationGraph.sha256(userId + "|" + user.getUsername() + "|"
+                + String.join(",", roleNames) + "|" + authorizations.contentHash()).substring(0, VERSION_LENGTH));
+
+        logger.debug("Authorization response built successfully for user: {}", userId);
+        return response;
     }
 
     /**
-     * Get all capabilities granted to specific roles
+     * Current authorization graph, reloaded first if missing or older than the max age.
+     * Only one thread reloads an expired graph; the others keep using the old one meanwhile.
      */
-    private Set<String> getCapabilitiesForRoles(Set<String> roleNames) {
-        Set<String> capabilities = new HashSet<>();
-
-        for (String roleName : roleNames) {
-            List<String> roleCapabilities = capabilityRepository.findCapabilityNamesByRoleName(roleName);
-            capabilities.addAll(roleCapabilities);
+    AuthorizationGraph currentGraph() {
+        AuthorizationGraph current = graph;
+        if (current == null) {
+            return reloadAuthorizations();
         }
-
-        logger.debug("Found {} capabilities for roles: {}", capabilities.size(), roleNames);
-        return capabilities;
+        if (System.currentTimeMillis() - current.getLoadedAtMillis() > graphMaxAgeMillis && loadLock.tryLock()) {
+            try {
+                if (graph == current) {
+                    graph = load();
+                }
+            } finally {
+                loadLock.unlock();
+            }
+            return graph;
+        }
+        return current;
     }
 
     /**
-     * Get accessible pages for user's roles
+     * Reload the authorization graph from the database, dropping all cached role-set results.
      */
-    private List<Map<String, Object>> getAccessiblePagesFilteredByCapabilities(Set<String> roleNames, Set<String> capabilities) {
-        List<UIPage> allPages = uiPageRepository.findByIsActiveTrueOrderByDisplayOrderAsc();
-        List<Map<String, Object>> accessiblePages = new ArrayList<>();
-        Set<Long> accessiblePageIds = new HashSet<>();
-
-        // First pass: collect pages with actions
-        for (UIPage page : allPages) {
-            List<PageAction> actions = pageActionRepository.findByPageIdAndIsActiveTrue(page.getId());
-            // Only include actions the user can perform (has capability)
-            List<Map<String, Object>> userActions = actions.stream()
-                .filter(action -> action.getCapability() != null && capabilities.contains(action.getCapability().getName()))
-                .map(action -> {
-                    Map<String, Object> actionData = new HashMap<>();
-                    actionData.put("name", action.getAction());
-                    actionData.put("label", action.getLabel());
-                    actionData.put("capability", action.getCapability().getName());
-                    actionData.put("icon", action.getIcon());
-                    actionData.put("variant", action.getVariant());
-                    return actionData;
-                })
-                .collect(Collectors.toList());
-
-            if (!userActions.isEmpty()) {
-                Map<String, Object> pageData = new HashMap<>();
-                pageData.put("id", page.getId());
-                pageData.put("name", page.getLabel());
-                pageData.put("path", page.getRoute());
-                pageData.put("parentId", page.getParentId());
-                pageData.put("icon", page.getIcon());
-                pageData.put("displayOrder", page.getDisplayOrder());
-                pageData.put("isMenuItem", page.getIsMenuItem());
-                pageData.put("actions", userActions);
-
-                accessiblePages.add(pageData);
-                accessiblePageIds.add(page.getId());
-            }
-        }
-
-        // Second pass: add parent pages that don't have actions but have accessible children
-        Set<Long> parentIdsToAdd = new HashSet<>();
-        for (Map<String, Object> pageData : accessiblePages) {
-            Long parentId = (Long) pageData.get("parentId");
-            if (parentId != null && !accessiblePageIds.contains(parentId)) {
-                parentIdsToAdd.add(parentId);
-            }
+    public AuthorizationGraph reloadAuthorizations() {
+        loadLock.lock();
+        try {
+            graph = load();
+            return graph;
+        } finally {
+            loadLock.unlock();
         }
+    }
 
-        // Add parent pages
-        for (Long parentId : parentIdsToAdd) {
-            UIPage parentPage = allPages.stream()
-                    .filter(p -> p.getId().equals(parentId))
-                    .findFirst()
-                    .orElse(null);
-            
-            if (parentPage != null) {
-                Map<String, Object> parentData = new HashMap<>();
-                parentData.put("id", parentPage.getId());
-                parentData.put("name", parentPage.getLabel());
-                parentData.put("path", parentPage.getRoute());
-                parentData.put("parentId", parentPage.getParentId());
-                parentData.put("icon", parentPage.getIcon());
-                parentData.put("displayOrder", parentPage.getDisplayOrder());
-                parentData.put("isMenuItem", parentPage.getIsMenuItem());
-                parentData.put("actions", new ArrayList<>()); // No direct actions
-
-                accessiblePages.add(parentData);
-                accessiblePageIds.add(parentPage.getId());
-            }
+    /**
+     * Reload the authorization graph once the current transaction commits (immediately if there is none).
+     * Call after changing policies, capabilities, policy-capability links, UI pages or page actions.
+     */
+    public void invalidateAuthorizations() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadAuthorizations();
+                }
+            });
+        } else {
+            reloadAuthorizations();
         }
+    }
 
-        // Sort pages: parents first (by displayOrder), then children (by displayOrder)
-        accessiblePages.sort((a, b) -> {
-            Long parentIdA = (Long) a.get("parentId");
-            Long parentIdB = (Long) b.get("parentId");
-            Integer displayOrderA = (Integer) a.getOrDefault("displayOrder", 0);
-            Integer displayOrderB = (Integer) b.getOrDefault("displayOrder", 0);
-            
-            // Both are root pages - sort by displayOrder
-            if (parentIdA == null && parentIdB == null) {
-                return Integer.compare(displayOrderA, displayOrderB);
-            }
-            
-            // A is root, B is child - A comes first
-            if (parentIdA == null && parentIdB != null) {
-                return -1;
-            }
-            
-            // A is child, B is root - B comes first
-            if (parentIdA != null && parentIdB == null) {
-                return 1;
-            }
-            
-            // Both are children (neither is null at this point)
-            // Check if same parent
-            if (parentIdA != null && parentIdA.equals(parentIdB)) {
-                return Integer.compare(displayOrderA, displayOrderB);
-            }
-            
-            // Different parents - group by parent's display order
-            Integer parentOrderA = accessiblePages.stream()
-                    .filter(p -> p.get("id").equals(parentIdA))
-                    .map(p -> (Integer) p.getOrDefault("displayOrder", 0))
-                    .findFirst()
-                    .orElse(0);
-            Integer parentOrderB = accessiblePages.stream()
-                    .filter(p -> p.get("id").equals(parentIdB))
-                    .map(p -> (Integer) p.getOrDefault("displayOrder", 0))
-                    .findFirst()
-                    .orElse(0);
-            
-            return Integer.compare(parentOrderA, parentOrderB);
-        });
-
-        logger.debug("User has access to {} pages (including parent pages)", accessiblePages.size());
-        return accessiblePages;
+    private AuthorizationGraph load() {
+        long start = System.currentTimeMillis();
+        List<AuthorizationGraphDao.PolicyCapabilityRow> policyCapabilities = authorizationGraphDao.findActivePolicyCapabilities();
+        List<AuthorizationGraphDao.PageRow> pages = authorizationGraphDao.findActivePages();
+        List<AuthorizationGraphDao.PageActionRow> actions = authorizationGraphDao.findActivePageActions();
+        AuthorizationGraph loaded = new AuthorizationGraph(policyCapabilities, pages, actions);
+        logger.info("Loaded authorization graph: {} policy capabilities, {} pages, {} actions in {} ms",
+                policyCapabilities.size(), pages.size(), actions.size(), System.currentTimeMillis() - start);
+        return loaded;
     }
 
     /**
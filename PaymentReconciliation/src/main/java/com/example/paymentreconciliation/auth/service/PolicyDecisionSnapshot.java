@@ -0,0 +1,67 @@
+package com.example.paymentreconciliation.auth.service;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Immutable, compiled form of all active endpoint policies.
+ * Every role named by an RBAC policy gets a bit; each endpoint keeps the union of the roles its
+ * policies allow. An access decision is a map lookup plus a bitset intersection, with no JSON
+ * parsing or SQL. Instances are never modified after construction, so they can be shared
+ * between threads and replaced as a whole when policies change.
+ */
+public final class PolicyDecisionSnapshot {
+
+    private final long version;
+    private final long compiledAtMillis;
+    private final Map<String, Integer> roleBits;
+    private final Map<Long, BitSet> allowedRolesByEndpoint;
+
+    PolicyDecisionSnapshot(long version, Map<String, Integer> roleBits, Map<Long, BitSet> allowedRolesByEndpoint) {
+        this.version = version;
+        this.compiledAtMillis = System.currentTimeMillis();
+        this.roleBits = Map.copyOf(roleBits);
+        this.allowedRolesByEndpoint = Map.copyOf(allowedRolesByEndpoint);
+    }
+
+    /**
+     * Whether any active policy of the endpoint allows one of the roles.
+     */
+    public boolean isAllowed(Long endpointId, Collection<String> userRoles) {
+        BitSet allowed = allowedRolesByEndpoint.get(endpointId);
+        if (allowed == null) {
+            return false;
+        }
+        for (String role : userRoles) {
+            Integer bit = roleBits.get(role);
+            if (bit != null && allowed.get(bit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasPolicies(Long endpointId) {
+        return allowedRolesByEndpoint.containsKey(endpointId);
+    }
+
+    /**
+     * Increases every time the snapshot is recompiled
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCompiledAtMillis() {
+        return compiledAtMillis;
+    }
+
+    public int getEndpointCount() {
+        return allowedRolesByEndpoint.size();
+    }
+
+    public int getRoleCount() {
+        return roleBits.size();
+    }
+}
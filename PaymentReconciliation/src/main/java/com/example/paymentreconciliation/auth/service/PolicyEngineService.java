@@ -1,18 +1,35 @@
 package com.example.paymentreconciliation.auth.service;
 
+import com.example.paymentreconciliation.auth.dao.PolicyQueryDao;
 import com.example.paymentreconciliation.auth.entity.Policy;
 import com.example.paymentreconciliation.auth.repository.PolicyRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Policy Engine Service - Evaluates RBAC policies for authorization decisions
+ *
+ * Active endpoint policies are compiled once into a {@link PolicyDecisionSnapshot}. Decisions read
+ * the current snapshot without locking; policy and endpoint changes recompile it after commit and
+ * swap it in. The snapshot is also recompiled once it is older than
+ * app.security.policy-snapshot-max-age-seconds, to pick up changes made by other instances.
  */
 @Service
 public class PolicyEngineService {
@@ -20,11 +37,19 @@ public class PolicyEngineService {
     private static final Logger logger = LoggerFactory.getLogger(PolicyEngineService.class);
     
     private final PolicyRepository policyRepository;
+    private final PolicyQueryDao policyQueryDao;
     private final ObjectMapper objectMapper;
+    private final long snapshotMaxAgeMillis;
+    private final AtomicLong versions = new AtomicLong();
+    private final ReentrantLock compileLock = new ReentrantLock();
+    private volatile PolicyDecisionSnapshot snapshot;
 
-    public PolicyEngineService(PolicyRepository policyRepository, ObjectMapper objectMapper) {
+    public PolicyEngineService(PolicyRepository policyRepository, PolicyQueryDao policyQueryDao, ObjectMapper objectMapper,
+                               @Value("${app.security.policy-snapshot-max-age-seconds:300}") long snapshotMaxAgeSeconds) {
         this.policyRepository = policyRepository;
+        this.policyQueryDao = policyQueryDao;
         this.objectMapper = objectMapper;
+        this.snapshotMaxAgeMillis = Math.max(1, snapshotMaxAgeSeconds) * 1000L;
     }
 
     /**
@@ -35,19 +60,17 @@ public class PolicyEngineService {
      * @return true if access is granted, false otherwise
      */
     public boolean evaluateEndpointAccess(Long endpointId, Set<String> userRoles) {
-        List<Policy> policies = policyRepository.findByEndpointId(endpointId);
+        PolicyDecisionSnapshot current = currentSnapshot();
         
-        if (policies.isEmpty()) {
+        if (!current.hasPolicies(endpointId)) {
             logger.warn("No policies found for endpoint ID: {}", endpointId);
             return false;
         }
 
-        // Evaluate each policy - if ANY policy grants access, allow
-        for (Policy policy : policies) {
-            if (evaluatePolicy(policy, userRoles)) {
-                logger.debug("Access granted by policy: {} for endpoint: {}", policy.getName(), endpointId);
-                return true;
-            }
+        // If ANY policy of the endpoint grants one of the roles, allow
+        if (current.isAllowed(endpointId, userRoles)) {
+            logger.debug("Access granted for endpoint: {} by policy snapshot v{}", endpointId, current.getVersion());
+            return true;
         }
 
         logger.debug("Access denied for endpoint: {} with roles: {}", endpointId, userRoles);
@@ -55,82 +78,144 @@ public class PolicyEngineService {
     }
 
     /**
-     * Evaluate if user with given roles satisfies a page access policy
-     * Pages don't have direct policy links - they have actions with required capabilities
-     * This method checks if user has any capabilities for the page's actions
-     * 
-     * @param pageId The UI page to check access for
-     * @param userRoles The roles the user has
-     * @return true if access is granted, false otherwise
+     * Current compiled policies, recompiled first if missing or older than the max age.
+     * Only one thread recompiles an expired snapshot; the others keep using the old one meanwhile.
      */
-    public boolean evaluatePageAccess(Long pageId, Set<String> userRoles) {
-        // For now, allow all authenticated users to access pages
-        // Real authorization happens at the action level via capabilities
-        logger.debug("Page access evaluation for pageId: {} with roles: {}", pageId, userRoles);
-        return !userRoles.isEmpty();
+    public PolicyDecisionSnapshot currentSnapshot() {
+        PolicyDecisionSnapshot current = snapshot;
+        if (current == null) {
+            return reloadPolicies();
+        }
+        if (System.currentTimeMillis() - current.getCompiledAtMillis() > snapshotMaxAgeMillis && compileLock.tryLock()) {
+            try {
+                if (snapshot == current) {
+                    snapshot = compile();
+                }
+            } finally {
+                compileLock.unlock();
+            }
+            return snapshot;
+        }
+        return current;
     }
 
     /**
-     * Evaluate a single policy against user roles
-     * 
-     * @param policy The policy to evaluate
-     * @param userRoles The roles the user has
-     * @return true if policy grants access, false otherwise
+     * Recompile the policy snapshot from the database and swap it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public PolicyDecisionSnapshot reloadPolicies() {
+        compileLock.lock();
+        try {
+            snapshot = compile();
+            return snapshot;
+        } finally {
+            compileLock.unlock();
+        }
+    }
+
+    /**
+     * Recompile the policy snapshot once the current transaction commits (immediately if there is none).
+     * Call after creating, changing or deleting policies or endpoint-policy links.
+     */
+    public void invalidatePolicies() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadPolicies();
+                }
+            });
+        } else {
+            reloadPolicies();
+        }
+    }
+
+    private PolicyDecisionSnapshot compile() {
+        long start = System.currentTimeMillis();
+        Map<String, Integer> roleBits = new HashMap<>();
+        Map<Long, BitSet> allowedRolesByEndpoint = new HashMap<>();
+        Map<Long, Set<String>> rolesByPolicy = new HashMap<>();
+        List<PolicyQueryDao.EndpointPolicyRow> rows = policyQueryDao.findActiveEndpointPolicies();
+        for (PolicyQueryDao.EndpointPolicyRow row : rows) {
+            BitSet allowed = allowedRolesByEndpoint.computeIfAbsent(row.endpointId(), id -> new BitSet());
+            // Policies linked to several endpoints are parsed once
+            Set<String> roles = rolesByPolicy.computeIfAbsent(row.policyId(), id -> compilePolicy(row));
+            for (String role : roles) {
+                allowed.set(roleBits.computeIfAbsent(role, r -> roleBits.size()));
+            }
+        }
+        PolicyDecisionSnapshot compiled = new PolicyDecisionSnapshot(versions.incrementAndGet(), roleBits, allowedRolesByEndpoint);
+        logger.info("Compiled policy snapshot v{}: {} policies, {} endpoints, {} roles in {} ms",
+            compiled.getVersion(), rolesByPolicy.size(), compiled.getEndpointCount(), compiled.getRoleCount(),
+            System.currentTimeMillis() - start);
+        return compiled;
+    }
+
+    /**
+     * Roles granted by a single policy; policies that grant nothing compile to an empty set
      */
-    private boolean evaluatePolicy(Policy policy, Set<String> userRoles) {
+    private Set<String> compilePolicy(PolicyQueryDao.EndpointPolicyRow row) {
         try {
-            JsonNode policyExpression = objectMapper.readTree(policy.getExpression());
+            JsonNode policyExpression = objectMapper.readTree(row.expression());
             
             // Handle RBAC policy type
-            if ("RBAC".equalsIgnoreCase(policy.getType())) {
-                return evaluateRBACPolicy(policyExpression, userRoles);
+            if ("RBAC".equalsIgnoreCase(row.type())) {
+                return compileRBACPolicy(policyExpression);
             }
             
             // Handle ABAC policy type (future enhancement)
-            if ("ABAC".equalsIgnoreCase(policy.getType())) {
-                logger.warn("ABAC policies not yet implemented, defaulting to deny");
-                return false;
+            if ("ABAC".equalsIgnoreCase(row.type())) {
+                logger.warn("ABAC policies not yet implemented, defaulting to deny: {}", row.policyName());
+                return Set.of();
             }
             
-            logger.warn("Unknown policy type: {}", policy.getType());
-            return false;
+            logger.warn("Unknown policy type: {}", row.type());
+            return Set.of();
             
         } catch (Exception e) {
-            logger.error("Error evaluating policy: {}", policy.getName(), e);
-            return false;
+            logger.error("Error compiling policy: {}", row.policyName(), e);
+            return Set.of();
         }
     }
 
     /**
-     * Evaluate RBAC policy expression
+     * Roles of an RBAC policy expression
      * Expected format: {"roles": ["ADMIN", "RECONCILIATION_OFFICER"]}
      * Logic: User must have at least one of the specified roles (OR logic)
-     * 
-     * @param policyExpression The JSON policy expression
-     * @param userRoles The roles the user has
-     * @return true if user has any of the required roles
      */
-    private boolean evaluateRBACPolicy(JsonNode policyExpression, Set<String> userRoles) {
+    private Set<String> compileRBACPolicy(JsonNode policyExpression) {
         if (!policyExpression.has("roles")) {
             logger.warn("RBAC policy missing 'roles' field");
-            return false;
+            return Set.of();
         }
 
         JsonNode rolesNode = policyExpression.get("roles");
         if (!rolesNode.isArray()) {
             logger.warn("RBAC policy 'roles' field is not an array");
-            return false;
+            return Set.of();
         }
 
-        // Check if user has ANY of the required roles (OR logic)
+        Set<String> roles = new HashSet<>();
         for (JsonNode roleNode : rolesNode) {
-            String requiredRole = roleNode.asText();
-            if (userRoles.contains(requiredRole)) {
-                return true;
-            }
+            roles.add(roleNode.asText());
         }
+        return roles;
+    }
 
-        return false;
+    /**
+     * Evaluate if user with given roles satisfies a page access policy
+     * Pages don't have direct policy links - they have actions with required capabilities
+     * This method checks if user has any capabilities for the page's actions
+     * 
+     * @param pageId The UI page to check access for
+     * @param userRoles The roles the user has
+     * @return true if access is granted, false otherwise
+     */
+    public boolean evaluatePageAccess(Long pageId, Set<String> userRoles) {
+        // For now, allow all authenticated users to access pages
+        // Real authorization happens at the action level via capabilities
+        logger.debug("Page access evaluation for pageId: {} with roles: {}", pageId, userRoles);
+        return !userRoles.isEmpty();
     }
 
     /**
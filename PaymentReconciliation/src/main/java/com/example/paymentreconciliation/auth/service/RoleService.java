@@ -33,6 +33,9 @@ public class RoleService {
     @Autowired
     private RoleQueryDao roleQueryDao;
     
+    @Autowired
+    private UserPermissionVersionCache permissionVersionCache;
+    
     // READ OPERATIONS - Using Query DAO
     @Transactional(readOnly = true)
     public List<Role> getAllRoles() {
@@ -136,6 +139,7 @@ public class RoleService {
                 .orElseThrow(() -> new IllegalArgumentException("Role not found with id: " + roleId));
         
         user.addRole(role);
+        permissionVersionCache.evict(user.getUsername());
         return userRepository.save(user);
     }
     
@@ -149,6 +153,7 @@ public class RoleService {
                 .orElseThrow(() -> new IllegalArgumentException("Role not found with id: " + roleId));
         
         user.removeRole(role);
+        permissionVersionCache.evict(user.getUsername());
         return userRepository.save(user);
     }
     
@@ -2,6 +2,8 @@ package com.example.paymentreconciliation.auth.service;
 
 import com.example.paymentreconciliation.auth.entity.User;
 import com.example.paymentreconciliation.auth.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,21 +14,18 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
+    
     @Autowired
     private UserRepository userRepository;
     
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        System.out.println("DEBUG: loadUserByUsername called with: " + username);
         User user = userRepository.findByUsernameOrEmail(username)
-                .orElseThrow(() -> {
-                    System.out.println("DEBUG: User not found: " + username);
-                    return new UsernameNotFoundException("User Not Found: " + username);
-                });
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found: " + username));
         
-        System.out.println("DEBUG: User found: " + user.getUsername() + ", enabled: " + user.isEnabled());
-        System.out.println("DEBUG: User password starts with: " + (user.getPassword() != null ? user.getPassword().substring(0, 10) : "null"));
+        logger.debug("Loaded user {} (enabled: {})", user.getUsername(), user.isEnabled());
         return user;
     }
 }
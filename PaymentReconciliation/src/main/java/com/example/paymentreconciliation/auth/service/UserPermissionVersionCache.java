@@ -0,0 +1,87 @@
+package com.example.paymentreconciliation.auth.service;
+
+import com.example.paymentreconciliation.auth.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-TTL cache of each user's current permission version.
+ * Lets AuthTokenFilter trust the roles carried in a JWT while the token's permission version
+ * matches, without reading the user on every request. Entries expire after
+ * app.jwt.user-cache-ttl-seconds, so role changes made on other instances are seen within that
+ * window; changes made on this instance evict the entry immediately.
+ */
+@Component
+public class UserPermissionVersionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPermissionVersionCache.class);
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public UserPermissionVersionCache(UserDetailsServiceImpl userDetailsService,
+                                      @Value("${app.jwt.user-cache-ttl-seconds:30}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.ttlMillis = Math.max(0, ttlSeconds) * 1000L;
+    }
+
+    /**
+     * Permission version cached for the user, or null if unknown or expired
+     */
+    public Integer getCachedPermissionVersion(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null || System.currentTimeMillis() - entry.loadedAtMillis() > ttlMillis) {
+            return null;
+        }
+        return entry.permissionVersion();
+    }
+
+    /**
+     * Load the user from the database and cache their current permission version.
+     */
+    public User refresh(String username) {
+        User user = (User) userDetailsService.loadUserByUsername(username);
+        if (entries.size() >= MAX_ENTRIES) {
+            evictExpired();
+        }
+        entries.put(username, new Entry(user.getPermissionVersion(), System.currentTimeMillis()));
+        return user;
+    }
+
+    /**
+     * Forget the user's permission version, after the current transaction commits if there is one.
+     */
+    public void evict(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(username);
+                }
+            });
+        } else {
+            entries.remove(username);
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> now - entry.loadedAtMillis() > ttlMillis);
+        if (entries.size() >= MAX_ENTRIES) {
+            logger.warn("User permission version cache full ({} entries), clearing", entries.size());
+            entries.clear();
+        }
+    }
+
+    private record Entry(Integer permissionVersion, long loadedAtMillis) {
+    }
+}
@@ -11,9 +11,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
@@ -28,9 +27,11 @@ public class BoardReceiptController {
     private static final Logger log = LoggerFactoryProvider.getLogger(BoardReceiptController.class);
 
     private final BoardReceiptService service;
+    private final ETagResponseService eTagResponseService;
 
-    public BoardReceiptController(BoardReceiptService service) {
+    public BoardReceiptController(BoardReceiptService service, ETagResponseService eTagResponseService) {
         this.service = service;
+        this.eTagResponseService = eTagResponseService;
     }
 
     @PostMapping
@@ -70,15 +71,7 @@ public class BoardReceiptController {
                 service.findByStatusAndDateRangeWithToken(request.getStatus(), validation.getStartDateTime(), validation.getEndDateTime(), nextPageToken, request.getSortBy(), request.getSortDir());
             com.example.paymentreconciliation.common.dto.SecurePaginationResponse<BoardReceipt> response =
                 com.example.paymentreconciliation.common.util.SecurePaginationUtil.createSecureResponse(receiptsPage, request);
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = com.example.paymentreconciliation.common.util.ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(org.springframework.http.HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTagResponseService.respond(httpRequest, response);
         } catch (Exception e) {
             log.error("Error fetching board receipts (secure)", e);
             return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
@@ -90,15 +83,7 @@ public class BoardReceiptController {
         log.info("Fetching board receipt id={}", id);
         BoardReceipt receipt = service.findById(id);
         try {
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(receipt);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(receipt);
+            return eTagResponseService.respond(request, receipt);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
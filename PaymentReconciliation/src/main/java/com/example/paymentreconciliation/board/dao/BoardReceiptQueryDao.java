@@ -1,22 +1,20 @@
 package com.example.paymentreconciliation.board.dao;
 
 import com.example.paymentreconciliation.board.entity.BoardReceipt;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
-public class BoardReceiptQueryDao {
-    
-    @Autowired
-    private JdbcTemplate jdbcTemplate;
+public class BoardReceiptQueryDao extends BaseQueryDao {
     
     private static final String BASE_SELECT = """
         SELECT br.id, br.board_id, br.board_reference, br.employer_reference, 
@@ -25,6 +23,8 @@ public class BoardReceiptQueryDao {
         FROM board_receipts br
         """;
     
+    private static final String BASE_COUNT = "SELECT COUNT(*) FROM board_receipts br";
+    
     public List<BoardReceipt> findAll() {
         String sql = BASE_SELECT + " ORDER BY br.created_at DESC";
         return jdbcTemplate.query(sql, new BoardReceiptRowMapper());
@@ -70,6 +70,34 @@ public class BoardReceiptQueryDao {
         return jdbcTemplate.query(sql, new BoardReceiptRowMapper(), params);
     }
     
+    /**
+     * Find one page of receipts with optional status and receipt date filters, paginated in SQL.
+     * sortBy must be a column the caller has already whitelisted; id breaks ties so pages never overlap.
+     * The count query only runs when the total cannot be told from the page.
+     */
+    public PageResult<BoardReceipt> findPage(String status, LocalDate startDate, LocalDate endDate,
+                                             String sortBy, String sortDir, int page, int size) {
+        StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
+        Map<String, Object> params = new HashMap<>();
+        
+        if (status != null && !status.isEmpty()) {
+            whereClause.append(" AND br.status = :status");
+            params.put("status", status);
+        }
+        
+        if (startDate != null && endDate != null) {
+            whereClause.append(" AND br.receipt_date BETWEEN :startDate AND :endDate");
+            params.put("startDate", startDate);
+            params.put("endDate", endDate);
+        }
+        
+        String direction = "asc".equalsIgnoreCase(sortDir) ? "ASC" : "DESC";
+        String orderBy = " ORDER BY br." + sortBy + " " + direction + ("id".equals(sortBy) ? "" : ", br.id " + direction);
+        String sql = BASE_SELECT + whereClause + orderBy;
+        BoardReceiptRowMapper mapper = new BoardReceiptRowMapper();
+        return queryForPage(sql, BASE_COUNT + whereClause, params, page, size, mapper::mapRow, true);
+    }
+    
     public List<BoardReceipt> findByMaker(String maker) {
         String sql = BASE_SELECT + " WHERE br.maker = ? ORDER BY br.receipt_date DESC";
         return jdbcTemplate.query(sql, new BoardReceiptRowMapper(), maker);
@@ -133,7 +161,7 @@ public class BoardReceiptQueryDao {
         return jdbcTemplate.query(sql, new BoardReceiptRowMapper(), pattern, pattern);
     }
     
-    private static class BoardReceiptRowMapper implements RowMapper<BoardReceipt> {
+    private static class BoardReceiptRowMapper implements org.springframework.jdbc.core.RowMapper<BoardReceipt> {
         @Override
         public BoardReceipt mapRow(ResultSet rs, int rowNum) throws SQLException {
             BoardReceipt receipt = new BoardReceipt();
@@ -6,9 +6,12 @@ import com.example.paymentreconciliation.employer.entity.EmployerPaymentReceipt;
 import com.example.paymentreconciliation.exception.ResourceNotFoundException;
 import com.example.paymentreconciliation.board.dao.BoardReceiptRepository;
 import com.example.paymentreconciliation.board.dao.BoardReceiptQueryDao;
+import com.example.paymentreconciliation.common.dao.BaseQueryDao.PageResult;
+import com.example.paymentreconciliation.common.service.ReferenceNumberService;
 import org.slf4j.Logger;
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -60,11 +63,7 @@ public class BoardReceiptService {
             !upperStatus.equals("REJECTED") && !upperStatus.equals("PROCESSED")) {
             throw new RuntimeException("Invalid status: " + status + ". Valid values are: PENDING, VERIFIED, REJECTED, PROCESSED");
         }
-        List<BoardReceipt> allResults = queryDao.findByStatusAndDateRange(upperStatus, start, end);
-        int startIdx = (int) pageable.getOffset();
-        int endIdx = Math.min(startIdx + pageable.getPageSize(), allResults.size());
-        List<BoardReceipt> pageContent = (startIdx > endIdx) ? java.util.Collections.emptyList() : allResults.subList(startIdx, endIdx);
-        return new org.springframework.data.domain.PageImpl<>(pageContent, pageable, allResults.size());
+        return findPage(upperStatus, start, end, "receipt_date", "desc", pageable);
     }
     
     @Transactional(readOnly = true)
@@ -78,21 +77,28 @@ public class BoardReceiptService {
         // Allowed sort columns for security
         java.util.Set<String> allowedSortColumns = java.util.Set.of("id", "board_id", "board_reference", "employer_reference", "employer_id", "toli_id", "amount", "utr_number", "status", "maker", "checker", "receipt_date");
         String dbSortBy = allowedSortColumns.contains(sortBy) ? sortBy : "receipt_date";
-        List<BoardReceipt> allResults = queryDao.findByStatusAndDateRange(upperStatus, start, end, dbSortBy, sortDir);
-        int startIdx = (int) pageable.getOffset();
-        int endIdx = Math.min(startIdx + pageable.getPageSize(), allResults.size());
-        List<BoardReceipt> pageContent = (startIdx > endIdx) ? java.util.Collections.emptyList() : allResults.subList(startIdx, endIdx);
-        return new org.springframework.data.domain.PageImpl<>(pageContent, pageable, allResults.size());
+        return findPage(upperStatus, start, end, dbSortBy, sortDir, pageable);
+    }
+
+    private Page<BoardReceipt> findPage(String status, java.time.LocalDateTime start, java.time.LocalDateTime end,
+                                        String sortBy, String sortDir, Pageable pageable) {
+        PageResult<BoardReceipt> result = queryDao.findPage(status,
+                start != null ? start.toLocalDate() : null, end != null ? end.toLocalDate() : null,
+                sortBy, sortDir, pageable.getPageNumber(), pageable.getPageSize());
+        return new PageImpl<>(result.getContent(), pageable, result.getTotalElements());
     }
 
     private static final Logger log = LoggerFactoryProvider.getLogger(BoardReceiptService.class);
 
     private final BoardReceiptRepository repository;
     private final BoardReceiptQueryDao queryDao;
+    private final ReferenceNumberService referenceNumberService;
 
-    public BoardReceiptService(BoardReceiptRepository repository, BoardReceiptQueryDao queryDao) {
+    public BoardReceiptService(BoardReceiptRepository repository, BoardReceiptQueryDao queryDao,
+                               ReferenceNumberService referenceNumberService) {
         this.repository = repository;
         this.queryDao = queryDao;
+        this.referenceNumberService = referenceNumberService;
     }
 
     public BoardReceipt create(BoardReceipt boardReceipt) {
@@ -149,7 +155,7 @@ public class BoardReceiptService {
         log.info("Creating board receipt from employer receipt: {}", employerReceipt.getEmployerReceiptNumber());
         
         // Generate board reference number
-        String boardRef = generateBoardReceiptNumber();
+        String boardRef = referenceNumberService.next(ReferenceNumberService.Sequence.BOARD_RECEIPT);
         
         // Create board receipt
         BoardReceipt boardReceipt = new BoardReceipt();
@@ -172,15 +178,13 @@ public class BoardReceiptService {
         return savedReceipt;
     }
 
-    public Map<String, Object> getAllBoardReceiptsWithFilters(int page, int size, String status, 
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAllBoardReceiptsWithFilters(int page, int size, String status,
                                                               String singleDate, String startDate, String endDate) {
         log.info("Fetching board receipts with filters - page: {}, size: {}, status: {}, singleDate: {}, startDate: {}, endDate: {}", 
                 page, size, status, singleDate, startDate, endDate);
         
         try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by("date").descending());
-            Page<BoardReceipt> receiptsPage;
-            
             // Parse dates if provided
             LocalDate startLocalDate = null;
             LocalDate endLocalDate = null;
@@ -206,31 +210,23 @@ public class BoardReceiptService {
                 statusValue = upperStatus;
             }
             
-            // Apply filters - using simple pagination for now
-            List<BoardReceipt> allResults;
-            if (statusValue != null && startLocalDate != null && endLocalDate != null) {
-                allResults = queryDao.findByStatusAndDateRange(statusValue, startLocalDate.atStartOfDay(), endLocalDate.atTime(23, 59, 59));
-            } else if (statusValue != null) {
-                allResults = queryDao.findByStatus(statusValue);
-            } else if (startLocalDate != null && endLocalDate != null) {
-                allResults = queryDao.findByDateRange(startLocalDate.atStartOfDay(), endLocalDate.atTime(23, 59, 59));
-            } else {
-                allResults = queryDao.findAll();
-            }
-            receiptsPage = new org.springframework.data.domain.PageImpl<>(allResults, pageable, allResults.size());
+            // Apply filters and paginate in SQL; date filters sort by receipt date, otherwise newest first
+            String sortBy = startLocalDate != null && endLocalDate != null ? "receipt_date" : "id";
+            PageResult<BoardReceipt> receiptsPage = queryDao.findPage(statusValue, startLocalDate, endLocalDate,
+                    sortBy, "desc", page, size);
             
             // Build response
             Map<String, Object> response = new HashMap<>();
             response.put("content", receiptsPage.getContent());
             response.put("totalElements", receiptsPage.getTotalElements());
-            response.put("totalPages", receiptsPage.getTotalPages());
-            response.put("currentPage", receiptsPage.getNumber());
+            response.put("totalPages", receiptsPage.isTotalKnown() ? receiptsPage.getTotalPages() : null);
+            response.put("currentPage", receiptsPage.getPage());
             response.put("pageSize", receiptsPage.getSize());
             response.put("hasNext", receiptsPage.hasNext());
             response.put("hasPrevious", receiptsPage.hasPrevious());
             
-            log.info("Found {} board receipts (page {}/{})", 
-                    receiptsPage.getTotalElements(), receiptsPage.getNumber(), receiptsPage.getTotalPages());
+            log.info("Found {} board receipts on page {} (total: {})", 
+                    receiptsPage.getContent().size(), receiptsPage.getPage(), receiptsPage.getTotalElements());
             
             return response;
             
@@ -292,13 +288,4 @@ public class BoardReceiptService {
         
         return savedReceipt;
     }
-
-    private String generateBoardReceiptNumber() {
-        // Generate board receipt number in format: BRD-YYYYMMDD-XXX
-        LocalDate now = LocalDate.now();
-        String dateStr = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String sequence = String.format("%03d", (System.currentTimeMillis() % 1000));
-        
-        return "BRD-" + dateStr + "-" + sequence;
-    }
 }
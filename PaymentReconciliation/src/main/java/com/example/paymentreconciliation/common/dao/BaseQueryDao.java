@@ -7,6 +7,9 @@ import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -56,15 +59,117 @@ public class BaseQueryDao {
         
         // Add pagination to the query
         String paginatedSql = baseSql + " LIMIT :limit OFFSET :offset";
-        params.put("limit", size);
-        params.put("offset", page * size);
+        Map<String, Object> pageParams = new HashMap<>(params);
+        pageParams.put("limit", size);
+        pageParams.put("offset", (long) page * size);
         
         // Get page data
-        List<T> content = queryForList(paginatedSql, params, mapper);
+        List<T> content = queryForList(paginatedSql, pageParams, mapper);
         
         return new PageResult<>(content, page, size, totalCount);
     }
     
+    /**
+     * Execute a query for pagination, running the count query only when the total is wanted and
+     * cannot be told from the page itself. One row past the page is read to know whether there is a
+     * next page, so without the count a page costs size + 1 rows however many rows match.
+     * baseSql must end with an ORDER BY that is unique per row, or rows can repeat across pages.
+     */
+    public <T> PageResult<T> queryForPage(String baseSql, String countSql, Map<String, Object> params,
+                                         int page, int size, RowMapper<T> mapper, boolean includeTotal) {
+        Map<String, Object> pageParams = new HashMap<>(params);
+        pageParams.put("limit", size + 1);
+        pageParams.put("offset", (long) page * size);
+        List<T> rows = queryForList(baseSql + " LIMIT :limit OFFSET :offset", pageParams, mapper);
+        
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        Long totalCount = null;
+        if (!hasNext && (!content.isEmpty() || page == 0)) {
+            // Last page: the total is everything before it plus what is on it
+            totalCount = (long) page * size + content.size();
+        } else if (includeTotal) {
+            totalCount = queryForCount(countSql, params);
+        }
+        return new PageResult<>(content, page, size, totalCount, hasNext);
+    }
+    
+    /**
+     * Execute a keyset-paginated query: the page after (or before) the cursor position, read through
+     * the ORDER BY index instead of skipping rows with OFFSET, so every page costs the same however deep.
+     * whereClause is appended to selectSql and must start with " WHERE"; sortColumn and idColumn are SQL
+     * expressions that are also selected under their unqualified column names. Without a cursor, offset
+     * rows are skipped, so a listing can still be entered at a page number.
+     * NULL sort values are treated as lower than any other value, as MySQL and H2 order them.
+     */
+    public <T> KeysetPage<T> queryForKeysetPage(String selectSql, String whereClause, Map<String, Object> params,
+                                               String sortColumn, String idColumn, boolean descending,
+                                               KeysetCursor cursor, int offset, int size, RowMapper<T> mapper) {
+        boolean backward = cursor != null && cursor.backward();
+        // Reading backward scans in the opposite order and reverses the page afterwards
+        boolean ascendingScan = descending == backward;
+        String direction = ascendingScan ? "ASC" : "DESC";
+        
+        StringBuilder sql = new StringBuilder(selectSql).append(whereClause);
+        Map<String, Object> pageParams = new HashMap<>(params);
+        if (cursor != null) {
+            sql.append(" AND ").append(keysetPredicate(sortColumn, idColumn, ascendingScan, cursor.sortValue() == null));
+            pageParams.put("keysetValue", cursor.sortValue());
+            pageParams.put("keysetId", cursor.id());
+        }
+        sql.append(" ORDER BY ").append(sortColumn).append(' ').append(direction)
+           .append(", ").append(idColumn).append(' ').append(direction)
+           .append(" LIMIT :limit");
+        pageParams.put("limit", size + 1);
+        if (cursor == null && offset > 0) {
+            sql.append(" OFFSET :offset");
+            pageParams.put("offset", offset);
+        }
+        
+        String sortLabel = columnLabel(sortColumn);
+        String idLabel = columnLabel(idColumn);
+        List<KeyedRow<T>> rows = queryForList(sql.toString(), pageParams, (rs, rowNum) -> new KeyedRow<>(
+                mapper.mapRow(rs, rowNum), rs.getObject(sortLabel), rs.getLong(idLabel)));
+        
+        boolean hasMore = rows.size() > size;
+        List<KeyedRow<T>> page = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(page);
+        }
+        return new KeysetPage<>(page, hasMore);
+    }
+    
+    /**
+     * Total rows affected by a JdbcTemplate batch update. Drivers may report SUCCESS_NO_INFO (-2) for
+     * rewritten batches, which is counted as one row.
+     */
+    protected static int sumBatchCounts(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                total += count >= 0 ? count : 1;
+            }
+        }
+        return total;
+    }
+    
+    private static String keysetPredicate(String sortColumn, String idColumn, boolean ascendingScan, boolean nullValue) {
+        String comparison = ascendingScan ? ">" : "<";
+        String nextId = idColumn + " " + comparison + " :keysetId";
+        if (nullValue) {
+            // NULLs come first in ascending order and last in descending order
+            return ascendingScan
+                ? "(" + sortColumn + " IS NOT NULL OR (" + sortColumn + " IS NULL AND " + nextId + "))"
+                : "(" + sortColumn + " IS NULL AND " + nextId + ")";
+        }
+        String after = sortColumn + " " + comparison + " :keysetValue OR (" + sortColumn + " = :keysetValue AND " + nextId + ")";
+        return ascendingScan ? "(" + after + ")" : "(" + after + " OR " + sortColumn + " IS NULL)";
+    }
+    
+    private static String columnLabel(String column) {
+        return column.substring(column.lastIndexOf('.') + 1);
+    }
+    
     /**
      * Custom row mapper interface
      */
@@ -82,6 +187,7 @@ public class BaseQueryDao {
         private final int size;
         private final Long totalElements;
         private final int totalPages;
+        private final boolean hasNext;
         
         public PageResult(List<T> content, int page, int size, Long totalElements) {
             this.content = content;
@@ -89,6 +195,19 @@ public class BaseQueryDao {
             this.size = size;
             this.totalElements = totalElements;
             this.totalPages = (int) Math.ceil((double) totalElements / size);
+            this.hasNext = page < totalPages - 1;
+        }
+        
+        /**
+         * Page whose total may not have been counted; totalElements is then null and totalPages -1
+         */
+        public PageResult(List<T> content, int page, int size, Long totalElements, boolean hasNext) {
+            this.content = content;
+            this.page = page;
+            this.size = size;
+            this.totalElements = totalElements;
+            this.totalPages = totalElements != null ? (int) Math.ceil((double) totalElements / size) : -1;
+            this.hasNext = hasNext;
         }
         
         // Getters
@@ -98,8 +217,54 @@ public class BaseQueryDao {
         public Long getTotalElements() { return totalElements; }
         public int getTotalPages() { return totalPages; }
         public boolean isFirst() { return page == 0; }
-        public boolean isLast() { return page >= totalPages - 1; }
-        public boolean hasNext() { return !isLast(); }
+        public boolean isLast() { return !hasNext; }
+        public boolean isTotalKnown() { return totalElements != null; }
+        public boolean hasNext() { return hasNext; }
         public boolean hasPrevious() { return !isFirst(); }
     }
+    
+    /**
+     * Row of a keyset page together with its position
+     */
+    private record KeyedRow<T>(T row, Object sortValue, long id) {
+    }
+    
+    /**
+     * Keyset page result: the rows in listing order and the cursors leading to the neighbouring pages
+     */
+    public static class KeysetPage<T> {
+        private final List<T> content;
+        private final KeysetCursor previousCursor;
+        private final KeysetCursor nextCursor;
+        private final boolean hasMore;
+        
+        private KeysetPage(List<KeyedRow<T>> rows, boolean hasMore) {
+            this.content = rows.stream().map(KeyedRow::row).toList();
+            if (rows.isEmpty()) {
+                this.previousCursor = null;
+                this.nextCursor = null;
+            } else {
+                KeyedRow<T> first = rows.get(0);
+                KeyedRow<T> last = rows.get(rows.size() - 1);
+                this.previousCursor = new KeysetCursor(first.sortValue(), first.id(), true);
+                this.nextCursor = new KeysetCursor(last.sortValue(), last.id(), false);
+            }
+            this.hasMore = hasMore;
+        }
+        
+        public KeysetPage(List<T> content, KeysetCursor previousCursor, KeysetCursor nextCursor, boolean hasMore) {
+            this.content = content;
+            this.previousCursor = previousCursor;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+        }
+        
+        public List<T> getContent() { return content; }
+        /** Cursor reading the page before this one, null if the page is empty */
+        public KeysetCursor getPreviousCursor() { return previousCursor; }
+        /** Cursor reading the page after this one, null if the page is empty */
+        public KeysetCursor getNextCursor() { return nextCursor; }
+        /** Whether more rows follow in the direction the page was read */
+        public boolean hasMore() { return hasMore; }
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.paymentreconciliation.common.dao;
+
+/**
+ * Position of a row in a keyset-paginated listing: its sort column value and id.
+ * A forward cursor reads the rows after that position, a backward cursor the rows before it.
+ *
+ * @param sortValue value of the sort column, may be null for nullable columns
+ * @param id primary key, breaking ties between rows with the same sort value
+ * @param backward whether to read the page before the position instead of the one after it
+ */
+public record KeysetCursor(Object sortValue, long id, boolean backward) {
+}
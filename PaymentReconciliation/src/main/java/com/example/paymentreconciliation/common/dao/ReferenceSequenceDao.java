@@ -0,0 +1,42 @@
+package com.example.paymentreconciliation.common.dao;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * DAO for the reference_sequences rows from which reference number blocks are reserved.
+ * A reservation is one UPDATE and one primary key read, whatever the number of values reserved.
+ */
+@Repository
+public class ReferenceSequenceDao extends BaseQueryDao {
+
+    private static final String RESERVE_SQL =
+        "UPDATE reference_sequences SET next_value = next_value + ? WHERE sequence_name = ?";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO reference_sequences (sequence_name, next_value) VALUES (?, ?)";
+
+    private static final String SELECT_SQL =
+        "SELECT next_value FROM reference_sequences WHERE sequence_name = ?";
+
+    /**
+     * Reserve the next blockSize values of the sequence, creating its row (starting at 1) on first use.
+     * Always commits on its own, so the row lock is held only for the reservation and a reserved
+     * block is never handed out twice, even if the caller's transaction rolls back.
+     * @return first value of the reserved block
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserveBlock(String sequenceName, int blockSize) {
+        if (jdbcTemplate.update(RESERVE_SQL, blockSize, sequenceName) == 0) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, sequenceName, 1L + blockSize);
+            } catch (DuplicateKeyException e) {
+                // Another node created the row first
+                jdbcTemplate.update(RESERVE_SQL, blockSize, sequenceName);
+            }
+        }
+        return jdbcTemplate.queryForObject(SELECT_SQL, Long.class, sequenceName) - blockSize;
+    }
+}
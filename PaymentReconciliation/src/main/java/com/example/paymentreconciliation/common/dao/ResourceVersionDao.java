@@ -0,0 +1,50 @@
+package com.example.paymentreconciliation.common.dao;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * DAO for the resource_versions change counters behind version-based ETags.
+ * Reading a version is a primary key lookup, so it can run before every conditional GET.
+ */
+@Repository
+public class ResourceVersionDao extends BaseQueryDao {
+
+    private static final String SELECT_SQL =
+        "SELECT version FROM resource_versions WHERE resource_key = ?";
+
+    private static final String INCREMENT_SQL =
+        "UPDATE resource_versions SET version = version + 1 WHERE resource_key = ?";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO resource_versions (resource_key, version) VALUES (?, 1)";
+
+    /**
+     * Current version of the resource, 0 if it has never changed
+     */
+    public long findVersion(String resourceKey) {
+        List<Long> versions = jdbcTemplate.queryForList(SELECT_SQL, Long.class, resourceKey);
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    /**
+     * Increment the version of the resource, creating its row on first use.
+     * Always commits on its own, so it can be called from after-commit callbacks.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void increment(String resourceKey) {
+        if (jdbcTemplate.update(INCREMENT_SQL, resourceKey) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, resourceKey);
+        } catch (DuplicateKeyException e) {
+            // Another writer created the row first
+            jdbcTemplate.update(INCREMENT_SQL, resourceKey);
+        }
+    }
+}
@@ -191,6 +191,14 @@ public class SecurePaginationRequest {
         this.sortDir = sortDir;
     }
     
+    /**
+     * Every field that selects the returned page, for keying version-based ETags
+     */
+    public String toCacheKey() {
+        return String.join("|", String.valueOf(pageToken), String.valueOf(startDate), String.valueOf(endDate),
+                String.valueOf(status), String.valueOf(page), String.valueOf(size), String.valueOf(sortBy),
+                String.valueOf(sortDir));
+    }
     
     @Override
     public String toString() {
@@ -0,0 +1,34 @@
+package com.example.paymentreconciliation.common.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Next unreserved value of a reference number sequence.
+ * Blocks of values are reserved through ReferenceSequenceDao; the entity only defines the table.
+ */
+@Entity
+@Table(name = "reference_sequences")
+public class ReferenceSequence {
+    @Id
+    @Column(name = "sequence_name", nullable = false, length = 32)
+    private String sequenceName;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    public String getSequenceName() {
+        return sequenceName;
+    }
+
+    public void setSequenceName(String sequenceName) {
+        this.sequenceName = sequenceName;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.paymentreconciliation.common.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Change counter of a resource served with version-based ETags.
+ * The row is read and incremented through ResourceVersionDao; the entity only defines the table.
+ */
+@Entity
+@Table(name = "resource_versions")
+public class ResourceVersion {
+    @Id
+    @Column(name = "resource_key", nullable = false, length = 64)
+    private String resourceKey;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public String getResourceKey() {
+        return resourceKey;
+    }
+
+    public void setResourceKey(String resourceKey) {
+        this.resourceKey = resourceKey;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.util.ETagUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+import java.util.function.Supplier;
+
+/**
+ * Answers conditional GETs from a data version instead of the serialized response.
+ * The ETag is derived from the resource version and the request, and compared with If-None-Match
+ * before the handler runs, so a 304 costs one version probe instead of the full query and
+ * serialization.
+ *
+ * Every request is counted in http.conditional.requests, tagged with the resource and an outcome of
+ * not_modified (304 sent), modified (If-None-Match was stale) or unconditional (no If-None-Match).
+ * The 304 hit rate is not_modified / (not_modified + modified).
+ */
+@Service
+public class ConditionalResponseService {
+
+    static final String METRIC_NAME = "http.conditional.requests";
+
+    private final ResourceVersionService resourceVersionService;
+    private final MeterRegistry meterRegistry;
+
+    public ConditionalResponseService(ResourceVersionService resourceVersionService, MeterRegistry meterRegistry) {
+        this.resourceVersionService = resourceVersionService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Respond with 304 if the client's ETag matches the current version of the resource, otherwise
+     * run the handler and tag its successful response with the ETag.
+     *
+     * @param resourceKey resource whose change counter versions the response, see {@link ResourceVersionService}
+     * @param variant anything besides the request path and query that selects the response, e.g. a request body
+     */
+    public ResponseEntity<?> respond(HttpServletRequest request, String resourceKey, Object variant,
+                                     Supplier<? extends ResponseEntity<?>> handler) {
+        return respond(request, resourceKey, resourceVersionService.currentVersion(resourceKey), variant, handler);
+    }
+
+    /**
+     * Same as {@link #respond(HttpServletRequest, String, Object, Supplier)} for a version the caller
+     * already knows, e.g. one derived from the authenticated user.
+     */
+    public ResponseEntity<?> respond(HttpServletRequest request, String resource, long version, Object variant,
+                                     Supplier<? extends ResponseEntity<?>> handler) {
+        Principal principal = request.getUserPrincipal();
+        String eTag = ETagUtil.generateVersionETag(resource, version, request.getMethod(), request.getRequestURI(),
+                request.getQueryString(), principal != null ? principal.getName() : null, variant);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ETagUtil.matches(ifNoneMatch, eTag)) {
+            count(resource, "not_modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        count(resource, ifNoneMatch != null ? "modified" : "unconditional");
+
+        ResponseEntity<?> response = handler.get();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(eTag)
+                .body(response.getBody());
+    }
+
+    private void count(String resource, String outcome) {
+        Counter.builder(METRIC_NAME)
+                .description("Conditional GET requests answered from data versions")
+                .tag("resource", resource)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
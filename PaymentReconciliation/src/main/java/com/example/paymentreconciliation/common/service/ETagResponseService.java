@@ -0,0 +1,100 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.util.ETagUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Answers GETs whose ETag is the hash of the serialized response, serializing the body only once.
+ * The body is written with the application ObjectMapper into a per-thread reusable buffer while its
+ * MD5 is computed on the same pass; on a match with If-None-Match a 304 is sent, otherwise the buffered
+ * bytes are kept as a request attribute and written as the response by
+ * {@link com.example.paymentreconciliation.config.SerializedJsonHttpMessageConverter} instead of
+ * serializing the body again.
+ */
+@Service
+public class ETagResponseService {
+
+    /**
+     * Request attribute holding the {@link SerializedBody} of the response being built
+     */
+    public static final String SERIALIZED_BODY_ATTRIBUTE = ETagResponseService.class.getName() + ".body";
+
+    // Larger buffers are used once and not kept by the thread
+    private static final int MAX_RETAINED_BUFFER_BYTES = 1 << 20;
+    private static final ThreadLocal<JsonBuffer> BUFFERS = ThreadLocal.withInitial(JsonBuffer::new);
+
+    private final ObjectMapper objectMapper;
+
+    public ETagResponseService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 304 if the client's ETag matches the serialized body, otherwise 200 with the body and its ETag.
+     */
+    public <T> ResponseEntity<T> respond(HttpServletRequest request, T body) throws IOException {
+        JsonBuffer buffer = BUFFERS.get();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_BYTES) {
+            buffer = new JsonBuffer();
+            BUFFERS.set(buffer);
+        }
+        buffer.reset();
+        MessageDigest md5 = md5();
+        objectMapper.writeValue(new DigestOutputStream(buffer, md5), body);
+        String eTag = ETagUtil.fromMd5Digest(md5.digest());
+
+        if (ETagUtil.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            request.removeAttribute(SERIALIZED_BODY_ATTRIBUTE);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        request.setAttribute(SERIALIZED_BODY_ATTRIBUTE, new SerializedBody(body, buffer));
+        return ResponseEntity.ok().eTag(eTag).body(body);
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+    /**
+     * A response body and its JSON, valid until the thread serializes its next response
+     */
+    public record SerializedBody(Object body, JsonBuffer json) {
+    }
+
+    /**
+     * Reusable byte buffer; close is a no-op so the mapper can close its target
+     */
+    public static final class JsonBuffer extends ByteArrayOutputStream {
+
+        JsonBuffer() {
+            super(8192);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        /**
+         * Write the buffered bytes without copying them
+         */
+        public void copyTo(OutputStream out) throws IOException {
+            out.write(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.service.PaginationSessionService.PaginationSession;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pagination sessions kept in memory by random token, at most app.pagination.sessions.max-sessions of them.
+ * Expired sessions are evicted by a hashed timing wheel: each token sits in the slot of the tick its
+ * session expires in, and a background tick only visits the slots whose time has passed, so eviction
+ * costs nothing per request and abandoned sessions are freed without being read again. When the store
+ * is full, the sessions in the slots due soonest are evicted first. Sessions are local to the instance.
+ */
+@Component
+@ConditionalOnProperty(name = "app.pagination.sessions.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPaginationSessionStore implements PaginationSessionStore {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(InMemoryPaginationSessionStore.class);
+
+    static final String LIVE_METRIC_NAME = "pagination.sessions.live";
+    static final String EVICTED_METRIC_NAME = "pagination.sessions.evicted";
+
+    private final Map<String, PaginationSession> sessions = new ConcurrentHashMap<>();
+    private final Set<String>[] wheel;
+    private final long tickMs;
+    private final int maxSessions;
+    private final Counter expiredCounter;
+    private final Counter capacityCounter;
+    private final ScheduledExecutorService ticker;
+    // Last tick whose slot was visited; written under this
+    private volatile long lastTick;
+
+    @SuppressWarnings("unchecked")
+    public InMemoryPaginationSessionStore(@Value("${app.pagination.sessions.max-sessions:10000}") int maxSessions,
+                                          @Value("${app.pagination.sessions.wheel-tick-ms:1000}") long tickMs,
+                                          @Value("${app.pagination.sessions.wheel-size:512}") int wheelSize,
+                                          MeterRegistry meterRegistry) {
+        this.maxSessions = Math.max(1, maxSessions);
+        this.tickMs = Math.max(1, tickMs);
+        this.wheel = new Set[Math.max(1, wheelSize)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.lastTick = System.currentTimeMillis() / this.tickMs;
+        this.expiredCounter = evictedCounter(meterRegistry, "expired");
+        this.capacityCounter = evictedCounter(meterRegistry, "capacity");
+        Gauge.builder(LIVE_METRIC_NAME, sessions, Map::size)
+                .description("Pagination sessions held in memory")
+                .register(meterRegistry);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("PaginationSessionWheel-"));
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public String save(PaginationSession session) {
+        String token = UUID.randomUUID().toString();
+        sessions.put(token, session);
+        // A session expiring within a tick already visited waits in the next slot to be visited
+        slot(Math.max(session.expiresAt.toEpochMilli() / tickMs, lastTick + 1)).add(token);
+        if (sessions.size() > maxSessions) {
+            evictForCapacity();
+        }
+        return token;
+    }
+
+    @Override
+    public PaginationSession find(String token) {
+        PaginationSession session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        if (session.expiresAt.toEpochMilli() <= System.currentTimeMillis()) {
+            // Expired since the last tick; its slot entry is dropped when the slot is visited
+            if (sessions.remove(token, session)) {
+                expiredCounter.increment();
+            }
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public void remove(String token) {
+        sessions.remove(token);
+    }
+
+    /**
+     * Number of sessions held
+     */
+    int size() {
+        return sessions.size();
+    }
+
+    private void tick() {
+        try {
+            advance(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("Pagination session eviction failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Visit the slots of every tick up to the given time and evict the sessions that have expired.
+     * Sessions whose expiry is one or more wheel turns away stay in their slot.
+     */
+    synchronized void advance(long nowMillis) {
+        long nowTick = nowMillis / tickMs;
+        // After a pause longer than a turn, every slot is visited once
+        long from = Math.max(lastTick + 1, nowTick - wheel.length + 1);
+        for (long tick = from; tick <= nowTick; tick++) {
+            evictExpired(slot(tick), nowMillis);
+        }
+        lastTick = Math.max(lastTick, nowTick);
+    }
+
+    private void evictExpired(Set<String> slot, long nowMillis) {
+        for (Iterator<String> tokens = slot.iterator(); tokens.hasNext(); ) {
+            String token = tokens.next();
+            PaginationSession session = sessions.get(token);
+            if (session == null) {
+                tokens.remove();
+            } else if (session.expiresAt.toEpochMilli() <= nowMillis) {
+                tokens.remove();
+                if (sessions.remove(token, session)) {
+                    expiredCounter.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evict the sessions in the slots due soonest until the store is back to its maximum size
+     */
+    private synchronized void evictForCapacity() {
+        int evicted = 0;
+        for (int i = 0; i < wheel.length && sessions.size() > maxSessions; i++) {
+            Iterator<String> tokens = slot(lastTick + 1 + i).iterator();
+            while (tokens.hasNext() && sessions.size() > maxSessions) {
+                String token = tokens.next();
+                tokens.remove();
+                if (sessions.remove(token) != null) {
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            capacityCounter.increment(evicted);
+            log.debug("Pagination session store full ({} sessions), evicted {} due soonest", maxSessions, evicted);
+        }
+    }
+
+    private Set<String> slot(long tick) {
+        return wheel[(int) Math.floorMod(tick, (long) wheel.length)];
+    }
+
+    private static Counter evictedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(EVICTED_METRIC_NAME)
+                .description("Pagination sessions evicted from memory")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.dao.BaseQueryDao.KeysetPage;
+import com.example.paymentreconciliation.common.dao.KeysetCursor;
+import com.example.paymentreconciliation.common.dto.SecurePaginationRequest;
+import com.example.paymentreconciliation.common.dto.SecurePaginationResponse;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyset pagination behind the nextPageToken APIs.
+ * A page token carries the position of the last (or first) row of the current page, the sort and
+ * page size, the page number and the total counted on the first page, and is signed with HMAC-SHA256
+ * over the listing and its filters. Following a token therefore reads one page through the sort index
+ * and runs no count, and a token cannot be edited or replayed against other filters.
+ */
+@Service
+public class KeysetPaginationService {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(KeysetPaginationService.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    public KeysetPaginationService(@Value("${app.pagination.token-secret:${app.jwt.secret:}}") String secret) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("No page token secret configured, page tokens will not survive a restart");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = ("page-token:" + secret).getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Reads one page of a listing, following the request's page token if it has one.
+     *
+     * @param scope listing name, so a token of one listing is rejected by another
+     * @param request sort, size and page token; page numbers without a token are read with one OFFSET query
+     * @param filters filter values of the request, a token is only valid with the filters it was issued for
+     * @param sortColumns sortable request fields mapped to their SQL columns
+     * @param defaultSortBy field to sort by when the request names none or one this listing cannot sort by
+     * @param query reads the page
+     * @param counter counts all matching rows, called at most once per token chain
+     */
+    public <T> SecurePaginationResponse<T> paginate(String scope, SecurePaginationRequest request, List<?> filters,
+                                                    Map<String, String> sortColumns, String defaultSortBy,
+                                                    KeysetQuery<T> query, LongSupplier counter) {
+        String filterKey = String.valueOf(filters);
+        String pageToken = request.getPageToken();
+        PageToken token = pageToken != null && !pageToken.isBlank() ? decode(scope, filterKey, pageToken) : null;
+
+        String sortBy = token != null ? token.sortBy() : request.getSortBy();
+        if (sortBy == null || !sortColumns.containsKey(sortBy)) {
+            // The request's sortBy aliases are shared by all listings, not all of them apply to this one
+            sortBy = defaultSortBy;
+        }
+        String sortColumn = sortColumns.get(sortBy);
+        String sortDir = token != null ? token.sortDir() : ("asc".equalsIgnoreCase(request.getSortDir()) ? "asc" : "desc");
+        int size = token != null ? token.size() : Math.min(Math.max(request.getSize(), 1), MAX_PAGE_SIZE);
+        int page = token != null ? token.page() : Math.max(request.getPage(), 0);
+        KeysetCursor cursor = token != null ? token.cursor() : null;
+
+        KeysetPage<T> result = query.fetch(sortColumn, "desc".equals(sortDir), cursor, page * size, size);
+        boolean backward = cursor != null && cursor.backward();
+        // Reading backward lands before a page that exists, so there is a next page if this one has rows
+        boolean hasNext = backward ? result.getNextCursor() != null : result.hasMore();
+        boolean hasPrevious = page > 0 && result.getPreviousCursor() != null;
+
+        long totalElements;
+        if (token != null && token.totalElements() != null) {
+            totalElements = token.totalElements();
+        } else if (!hasNext && (page == 0 || !result.getContent().isEmpty())) {
+            totalElements = (long) page * size + result.getContent().size();
+        } else {
+            totalElements = counter.getAsLong();
+        }
+
+        SecurePaginationResponse<T> response = new SecurePaginationResponse<>(result.getContent(), page, size,
+                totalElements, (int) Math.ceil((double) totalElements / size));
+        response.setHasNext(hasNext);
+        response.setLast(!hasNext);
+        response.setHasPrevious(hasPrevious);
+        response.setFirst(!hasPrevious);
+        response.setDateRange(new SecurePaginationResponse.DateRange(request.getStartDate(), request.getEndDate()));
+        response.setSortInfo(new SecurePaginationResponse.SortInfo(sortBy, sortDir));
+        if (hasNext) {
+            response.setNextPageToken(encode(scope, filterKey,
+                    new PageToken(sortBy, sortDir, size, page + 1, totalElements, result.getNextCursor())));
+        }
+        if (hasPrevious) {
+            response.setPreviousPageToken(encode(scope, filterKey,
+                    new PageToken(sortBy, sortDir, size, page - 1, totalElements, result.getPreviousCursor())));
+        }
+        return response;
+    }
+
+    String encode(String scope, String filterKey, PageToken token) {
+        KeysetCursor cursor = token.cursor();
+        Object value = normalize(cursor.sortValue());
+        String payload = String.join("|", token.sortBy(), token.sortDir(), String.valueOf(token.size()),
+                String.valueOf(token.page()), String.valueOf(token.totalElements()),
+                cursor.backward() ? "b" : "f", String.valueOf(cursor.id()), typeOf(value),
+                value != null ? value.toString() : "");
+        return ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "."
+                + ENCODER.encodeToString(sign(scope, filterKey, payload));
+    }
+
+    PageToken decode(String scope, String filterKey, String token) {
+        try {
+            int separator = token.indexOf('.');
+            String payload = new String(DECODER.decode(token.substring(0, separator)), StandardCharsets.UTF_8);
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, sign(scope, filterKey, payload))) {
+                throw new IllegalArgumentException("Page token signature mismatch");
+            }
+            // The sort value comes last, so it may contain the separator
+            String[] parts = payload.split("\\|", 9);
+            KeysetCursor cursor = new KeysetCursor(parse(parts[7], parts[8]), Long.parseLong(parts[6]), "b".equals(parts[5]));
+            Long totalElements = "null".equals(parts[4]) ? null : Long.valueOf(parts[4]);
+            return new PageToken(parts[0], parts[1], Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                    totalElements, cursor);
+        } catch (RuntimeException e) {
+            log.debug("Rejected page token for {}: {}", scope, e.getMessage());
+            throw new IllegalArgumentException("Invalid page token, request the first page again");
+        }
+    }
+
+    private byte[] sign(String scope, String filterKey, String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal((scope + '\n' + filterKey + '\n' + payload).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    private static Object normalize(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof Integer || value instanceof Short) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Number && !(value instanceof Long) && !(value instanceof BigDecimal)) {
+            return new BigDecimal(value.toString());
+        }
+        return value;
+    }
+
+    private static String typeOf(Object value) {
+        if (value == null) {
+            return "-";
+        }
+        if (value instanceof LocalDateTime) {
+            return "t";
+        }
+        if (value instanceof LocalDate) {
+            return "d";
+        }
+        if (value instanceof Long) {
+            return "l";
+        }
+        if (value instanceof BigDecimal) {
+            return "n";
+        }
+        if (value instanceof String) {
+            return "s";
+        }
+        throw new IllegalArgumentException("Unsupported sort value type: " + value.getClass().getName());
+    }
+
+    private static Object parse(String type, String value) {
+        return switch (type) {
+            case "-" -> null;
+            case "t" -> LocalDateTime.parse(value);
+            case "d" -> LocalDate.parse(value);
+            case "l" -> Long.valueOf(value);
+            case "n" -> new BigDecimal(value);
+            case "s" -> value;
+            default -> throw new IllegalArgumentException("Unknown sort value type: " + type);
+        };
+    }
+
+    /**
+     * Decoded page token
+     */
+    record PageToken(String sortBy, String sortDir, int size, int page, Long totalElements, KeysetCursor cursor) {
+    }
+
+    /**
+     * Reads one keyset page of a listing
+     */
+    @FunctionalInterface
+    public interface KeysetQuery<T> {
+        /**
+         * @param offset rows to skip, only used when cursor is null
+         */
+        KeysetPage<T> fetch(String sortColumn, boolean descending, KeysetCursor cursor, int offset, int size);
+    }
+}
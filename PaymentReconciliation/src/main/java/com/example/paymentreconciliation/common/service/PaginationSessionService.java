@@ -5,13 +5,15 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Pagination sessions: a resource, its filters and a page size limit behind an opaque token.
+ * Sessions are kept by the configured {@link PaginationSessionStore} and end when they expire.
+ */
 @Service
 public class PaginationSessionService {
 
-    private final Map<String, PaginationSession> sessions = new ConcurrentHashMap<>();
+    private final PaginationSessionStore store;
 
     // default session lifetime in milliseconds (5 minutes)
     private final long defaultTtlMs = 5 * 60 * 1000;
@@ -19,6 +21,10 @@ public class PaginationSessionService {
     // maximum allowed page size to avoid abuse
     private final int maxPageSize = 500;
 
+    public PaginationSessionService(PaginationSessionStore store) {
+        this.store = store;
+    }
+
     public static class PaginationSession {
         public final String resourceType; // e.g., "workerUploadedData", "workerPayments"
         public final String resourceId; // optional resource id or parent id (like fileId)
@@ -48,25 +54,16 @@ public class PaginationSessionService {
         int maxSize = maxPageSizeOverride != null ? Math.min(maxPageSizeOverride, this.maxPageSize) : this.maxPageSize;
 
         PaginationSession session = new PaginationSession(resourceType, resourceId, filters, now, expiresAt, maxSize);
-
-        String token = UUID.randomUUID().toString();
-        sessions.put(token, session);
-        return token;
+        return store.save(session);
     }
 
     public PaginationSession getSession(String token) {
         if (token == null) return null;
-        PaginationSession s = sessions.get(token);
-        if (s == null) return null;
-        if (s.expiresAt.isBefore(Instant.now())) {
-            sessions.remove(token);
-            return null;
-        }
-        return s;
+        return store.find(token);
     }
 
     public void invalidate(String token) {
-        if (token != null) sessions.remove(token);
+        if (token != null) store.remove(token);
     }
 
 }
@@ -0,0 +1,27 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.service.PaginationSessionService.PaginationSession;
+
+/**
+ * Where pagination sessions live between requests. The implementation is chosen with
+ * app.pagination.sessions.store: "memory" keeps sessions on the instance that created them,
+ * "signed" keeps no server state and works behind a load balancer with any number of replicas.
+ */
+public interface PaginationSessionStore {
+
+    /**
+     * Store the session until it expires
+     * @return token the client sends back to resume the session
+     */
+    String save(PaginationSession session);
+
+    /**
+     * @return the session of the token, or null if it is unknown, invalid or expired
+     */
+    PaginationSession find(String token);
+
+    /**
+     * End the session before it expires, where the store can
+     */
+    void remove(String token);
+}
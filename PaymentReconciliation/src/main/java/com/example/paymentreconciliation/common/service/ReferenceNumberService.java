@@ -0,0 +1,114 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.dao.ReferenceSequenceDao;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates receipt, request, employer and board reference numbers in the format PREFIX-yyyyMMdd-NNNNNN.
+ * The number part comes from a database sequence per kind of reference: each instance reserves a block
+ * of app.reference-numbers.block-size values with one UPDATE (hi/lo) and hands them out from an atomic
+ * counter, so numbers are unique across instances without checking each number against its table.
+ * Values of a block left unused at shutdown are skipped, so numbers are increasing per instance but
+ * may have gaps. The number part has at least six digits, so it cannot repeat a legacy number.
+ */
+@Service
+public class ReferenceNumberService {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(ReferenceNumberService.class);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /**
+     * Kinds of reference numbers, each with its own sequence
+     */
+    public enum Sequence {
+        WORKER_RECEIPT("RCP"),
+        REQUEST("REQ"),
+        EMPLOYER_RECEIPT("EMP"),
+        BOARD_RECEIPT("BRD");
+
+        private final String prefix;
+
+        Sequence(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+    }
+
+    private final ReferenceSequenceDao referenceSequenceDao;
+    private final int blockSize;
+    private final Map<Sequence, Allocator> allocators = new EnumMap<>(Sequence.class);
+
+    public ReferenceNumberService(ReferenceSequenceDao referenceSequenceDao,
+                                  @Value("${app.reference-numbers.block-size:100}") int blockSize) {
+        this.referenceSequenceDao = referenceSequenceDao;
+        this.blockSize = Math.max(1, blockSize);
+        for (Sequence sequence : Sequence.values()) {
+            allocators.put(sequence, new Allocator(sequence));
+        }
+    }
+
+    /**
+     * Next reference number of the given kind, e.g. RCP-20250101-000123
+     */
+    public String next(Sequence sequence) {
+        return String.format("%s-%s-%06d", sequence.getPrefix(), LocalDate.now().format(DATE_FORMAT),
+            nextValue(sequence));
+    }
+
+    /**
+     * Next value of the given sequence; only reaches the database when the current block is used up
+     */
+    public long nextValue(Sequence sequence) {
+        return allocators.get(sequence).next();
+    }
+
+    private final class Allocator {
+        private final Sequence sequence;
+        private volatile Block block = new Block(0, 0);
+
+        Allocator(Sequence sequence) {
+            this.sequence = sequence;
+        }
+
+        long next() {
+            while (true) {
+                Block current = block;
+                long value = current.next.getAndIncrement();
+                if (value < current.limit) {
+                    return value;
+                }
+                synchronized (this) {
+                    // Only the first thread to find the block used up reserves the next one
+                    if (block == current) {
+                        long first = referenceSequenceDao.reserveBlock(sequence.name(), blockSize);
+                        block = new Block(first, first + blockSize);
+                        log.debug("Reserved {} values {} to {}", sequence, first, first + blockSize - 1);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long limit;
+
+        Block(long first, long limit) {
+            this.next = new AtomicLong(first);
+            this.limit = limit;
+        }
+    }
+}
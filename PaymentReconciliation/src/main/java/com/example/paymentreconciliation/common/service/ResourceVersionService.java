@@ -0,0 +1,59 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.dao.ResourceVersionDao;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-resource change counters used as the data version of version-based ETags.
+ * Writers call {@link #markChanged(String)}; readers probe {@link #currentVersion(String)} before
+ * running the query they would answer with. The counters live in the database, so a change made
+ * on one instance invalidates ETags handed out by every instance.
+ */
+@Service
+public class ResourceVersionService {
+
+    public static final String WORKER_UPLOADED_DATA = "worker_uploaded_data";
+    public static final String WORKER_PAYMENT_RECEIPTS = "worker_payment_receipts";
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(ResourceVersionService.class);
+
+    private final ResourceVersionDao resourceVersionDao;
+
+    public ResourceVersionService(ResourceVersionDao resourceVersionDao) {
+        this.resourceVersionDao = resourceVersionDao;
+    }
+
+    public long currentVersion(String resourceKey) {
+        return resourceVersionDao.findVersion(resourceKey);
+    }
+
+    /**
+     * Increment the resource version once the current transaction commits (immediately if there is none).
+     * Incrementing after commit keeps long-running writers from holding the counter row lock, and a
+     * reader that probes in between only gets an ETag that is replaced on its next request.
+     */
+    public void markChanged(String resourceKey) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(resourceKey);
+                }
+            });
+        } else {
+            increment(resourceKey);
+        }
+    }
+
+    private void increment(String resourceKey) {
+        try {
+            resourceVersionDao.increment(resourceKey);
+        } catch (RuntimeException e) {
+            log.warn("Failed to increment version of resource {}: {}", resourceKey, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.service.PaginationSessionService.PaginationSession;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Pagination sessions carried entirely by their token, with no server state.
+ * The token is the session as JSON, signed with HMAC-SHA256 under the page token secret, so any
+ * instance holding the same app.pagination.token-secret resumes it and nothing has to be evicted.
+ * The session is readable by the client but cannot be edited; a token is valid until it expires
+ * and cannot be invalidated earlier.
+ */
+@Component
+@ConditionalOnProperty(name = "app.pagination.sessions.store", havingValue = "signed")
+public class SignedPaginationSessionStore implements PaginationSessionStore {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(SignedPaginationSessionStore.class);
+
+    static final String REJECTED_METRIC_NAME = "pagination.sessions.rejected";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final ObjectMapper objectMapper;
+    private final Counter expiredCounter;
+    private final Counter invalidCounter;
+
+    public SignedPaginationSessionStore(@Value("${app.pagination.token-secret:${app.jwt.secret:}}") String secret,
+                                        ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("No page token secret configured, pagination sessions will not survive a restart or work across instances");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = ("pagination-session:" + secret).getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.objectMapper = objectMapper;
+        this.expiredCounter = rejectedCounter(meterRegistry, "expired");
+        this.invalidCounter = rejectedCounter(meterRegistry, "invalid");
+    }
+
+    @Override
+    public String save(PaginationSession session) {
+        SessionPayload payload = new SessionPayload(session.resourceType, session.resourceId, session.filters,
+                session.createdAt.toEpochMilli(), session.expiresAt.toEpochMilli(), session.maxPageSize);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payload);
+            return ENCODER.encodeToString(json) + "." + ENCODER.encodeToString(sign(json));
+        } catch (IOException e) {
+            throw new IllegalStateException("Pagination session could not be serialized", e);
+        }
+    }
+
+    @Override
+    public PaginationSession find(String token) {
+        SessionPayload payload;
+        try {
+            int separator = token.indexOf('.');
+            byte[] json = DECODER.decode(token.substring(0, separator));
+            if (!MessageDigest.isEqual(DECODER.decode(token.substring(separator + 1)), sign(json))) {
+                throw new IllegalArgumentException("Pagination session signature mismatch");
+            }
+            payload = objectMapper.readValue(json, SessionPayload.class);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Rejected pagination session token: {}", e.getMessage());
+            invalidCounter.increment();
+            return null;
+        }
+        if (payload.expiresAt() <= System.currentTimeMillis()) {
+            expiredCounter.increment();
+            return null;
+        }
+        return new PaginationSession(payload.resourceType(), payload.resourceId(), payload.filters(),
+                Instant.ofEpochMilli(payload.createdAt()), Instant.ofEpochMilli(payload.expiresAt()),
+                payload.maxPageSize());
+    }
+
+    /**
+     * No-op: the session lives in the token, which stays valid until it expires
+     */
+    @Override
+    public void remove(String token) {
+    }
+
+    private byte[] sign(byte[] json) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(json);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(REJECTED_METRIC_NAME)
+                .description("Pagination session tokens rejected")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    record SessionPayload(String resourceType, String resourceId, Map<String, String> filters,
+                          long createdAt, long expiresAt, int maxPageSize) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.paymentreconciliation.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter for string keys.
+ * mightContain never returns false for a key that was put; it returns true for a key that was
+ * not put with roughly the configured false positive rate, as long as the number of keys stays
+ * around the expected insertions. Hex digests (e.g. SHA-256) are used as hash bits directly.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    public void put(String key) {
+        long h1 = hash1(key);
+        long h2 = hash2(key, h1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = hash1(key);
+        long h2 = hash2(key, h1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash1(String key) {
+        if (key.length() >= 16 && isHex(key, 0, 16)) {
+            return Long.parseUnsignedLong(key, 0, 16, 16);
+        }
+        return fnv1a(key, 0xcbf29ce484222325L);
+    }
+
+    private static long hash2(String key, long h1) {
+        long h2 = key.length() >= 32 && isHex(key, 16, 32)
+            ? Long.parseUnsignedLong(key, 16, 32, 16)
+            : fnv1a(key, h1 ^ 0x9e3779b97f4a7c15L);
+        // Odd step, so the probe sequence never collapses onto a single bit
+        return h2 | 1L;
+    }
+
+    private static boolean isHex(String key, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (Character.digit(key.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long fnv1a(String key, long seed) {
+        long h = seed;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.util.DigestUtils;
 
 import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
 
 public class ETagUtil {
     public static String generateETag(String content) {
@@ -11,6 +12,48 @@ public class ETagUtil {
         return '"' + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + '"';
     }
 
+    /**
+     * Same ETag as {@link #generateETag(String)}, from the MD5 digest of the UTF-8 content computed while writing it.
+     */
+    public static String fromMd5Digest(byte[] md5Digest) {
+        return '"' + HexFormat.of().formatHex(md5Digest) + '"';
+    }
+
+    /**
+     * ETag for a data version of a resource, without serializing the response.
+     * The parts identify the exact representation (request path, query, filters, user) so that
+     * different views of the same resource version get different ETags.
+     */
+    public static String generateVersionETag(String resource, long version, Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            key.append(part).append('\u001f');
+        }
+        return '"' + resource + '-' + version + '-' + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+
+    /**
+     * Whether an If-None-Match header value matches the ETag, per RFC 9110 weak comparison:
+     * a comma-separated list of (possibly weak) ETags or "*".
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || eTag == null) {
+            return false;
+        }
+        String opaqueTag = stripWeak(eTag.trim());
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
     public static <T> ResponseEntity<T> withETag(ResponseEntity.BodyBuilder builder, String eTag, T body) {
         return builder.eTag(eTag).body(body);
     }
@@ -11,6 +11,27 @@ public class AuditingProperties {
      */
     private boolean enabled = true;
 
+    /**
+     * Events held between the audited request threads and the audit writer; rounded up to a power of two.
+     * Events arriving while it is full are dropped and counted in audit.events{outcome=dropped}.
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Maximum events the audit writer inserts per JDBC batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Longest time an event waits in the buffer before the audit writer picks it up, in milliseconds.
+     */
+    private long flushIntervalMs = 200;
+
+    /**
+     * Maximum characters of serialized method arguments stored per event; longer captures are replaced by a summary.
+     */
+    private int maxArgumentChars = 4096;
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -18,4 +39,36 @@ public class AuditingProperties {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public int getMaxArgumentChars() {
+        return maxArgumentChars;
+    }
+
+    public void setMaxArgumentChars(int maxArgumentChars) {
+        this.maxArgumentChars = maxArgumentChars;
+    }
 }
@@ -0,0 +1,75 @@
+package com.example.paymentreconciliation.config;
+
+import com.example.paymentreconciliation.common.service.ETagResponseService;
+import com.example.paymentreconciliation.common.service.ETagResponseService.SerializedBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes response bodies already serialized by {@link ETagResponseService} as their buffered JSON.
+ * Registered ahead of the Jackson converter; it only claims a body type while the current request
+ * holds a serialized body of that type, and serializes anything else with the application mapper.
+ */
+public class SerializedJsonHttpMessageConverter implements HttpMessageConverter<Object> {
+
+    private final MappingJackson2HttpMessageConverter fallback;
+
+    public SerializedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        this.fallback = new MappingJackson2HttpMessageConverter(objectMapper);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        SerializedBody serialized = currentBody();
+        return serialized != null && serialized.body().getClass() == clazz
+                && (mediaType == null || mediaType.isCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return List.of(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    public Object read(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("Only writes serialized response bodies");
+    }
+
+    @Override
+    public void write(Object body, MediaType contentType, HttpOutputMessage outputMessage) throws IOException {
+        SerializedBody serialized = currentBody();
+        if (serialized == null || serialized.body() != body) {
+            fallback.write(body, contentType, outputMessage);
+            return;
+        }
+        outputMessage.getHeaders().setContentType(
+                contentType != null && contentType.isConcrete() ? contentType : MediaType.APPLICATION_JSON);
+        outputMessage.getHeaders().setContentLength(serialized.json().size());
+        serialized.json().copyTo(outputMessage.getBody());
+        outputMessage.getBody().flush();
+    }
+
+    private static SerializedBody currentBody() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object serialized = attributes.getAttribute(ETagResponseService.SERIALIZED_BODY_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return serialized instanceof SerializedBody body ? body : null;
+    }
+}
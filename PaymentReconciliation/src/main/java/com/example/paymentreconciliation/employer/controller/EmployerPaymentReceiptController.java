@@ -12,7 +12,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
 import java.util.Map;
 
 @RestController
@@ -24,11 +24,11 @@ public class EmployerPaymentReceiptController {
     private static final Logger log = LoggerFactoryProvider.getLogger(EmployerPaymentReceiptController.class);
     
     private final EmployerPaymentReceiptService service;
-    private final ObjectMapper objectMapper;
+    private final ETagResponseService eTagResponseService;
 
-    public EmployerPaymentReceiptController(EmployerPaymentReceiptService service, ObjectMapper objectMapper) {
+    public EmployerPaymentReceiptController(EmployerPaymentReceiptService service, ETagResponseService eTagResponseService) {
         this.service = service;
-        this.objectMapper = objectMapper;
+        this.eTagResponseService = eTagResponseService;
     }
 
     @PostMapping("/available/secure")
@@ -59,13 +59,7 @@ public class EmployerPaymentReceiptController {
                 service.findAvailableByStatusAndDateRangeWithToken(request.getStatus(), validation.getStartDateTime(), validation.getEndDateTime(), nextPageToken);
             com.example.paymentreconciliation.common.dto.SecurePaginationResponse<EmployerPaymentReceipt> response =
                 com.example.paymentreconciliation.common.util.SecurePaginationUtil.createSecureResponse(receiptsPage, request);
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = com.example.paymentreconciliation.common.util.ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(org.springframework.http.HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTagResponseService.respond(httpRequest, response);
         } catch (Exception e) {
             log.error("Error fetching available receipts (secure)", e);
             return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
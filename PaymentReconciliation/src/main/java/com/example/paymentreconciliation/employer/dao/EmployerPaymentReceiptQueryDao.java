@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -189,6 +190,20 @@ public class EmployerPaymentReceiptQueryDao extends BaseQueryDao {
         return statusDistribution;
     }
     
+    /**
+     * Find receipts in any of the given statuses that carry a transaction reference,
+     * i.e. the candidates for bank statement reconciliation
+     */
+    public List<EmployerPaymentReceipt> findWithTransactionReferenceByStatusIn(Collection<String> statuses) {
+        String sql = BASE_SELECT + """
+            WHERE status IN (:statuses)
+            AND transaction_reference IS NOT NULL AND transaction_reference <> ''
+            ORDER BY validated_at ASC
+            """;
+        Map<String, Object> params = Map.of("statuses", statuses);
+        return queryForList(sql, params, this::mapEmployerPaymentReceipt);
+    }
+
     /**
      * Get receipts pending validation
      */
@@ -42,6 +42,9 @@ public class EmployerPaymentReceipt {
     @Column(name = "status", nullable = false, length = 32)
     private String status; // VALIDATED, PROCESSED, etc.
 
+    @Column(name = "statement_transaction_id", unique = true)
+    private Long statementTransactionId; // Statement transaction this receipt was reconciled against
+
     public EmployerPaymentReceipt() {
     }
 
@@ -129,4 +132,12 @@ public class EmployerPaymentReceipt {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public Long getStatementTransactionId() {
+        return statementTransactionId;
+    }
+
+    public void setStatementTransactionId(Long statementTransactionId) {
+        this.statementTransactionId = statementTransactionId;
+    }
 }
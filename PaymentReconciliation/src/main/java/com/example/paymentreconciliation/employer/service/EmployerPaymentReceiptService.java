@@ -1,13 +1,12 @@
 package com.example.paymentreconciliation.employer.service;
 
+import com.example.paymentreconciliation.common.dao.BaseQueryDao.PageResult;
+import com.example.paymentreconciliation.common.service.ReferenceNumberService;
 import com.example.paymentreconciliation.employer.entity.EmployerPaymentReceipt;
 import com.example.paymentreconciliation.employer.dao.EmployerPaymentReceiptRepository;
 import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentreconciliation.worker.dao.WorkerPaymentReceiptQueryDao;
-import com.example.paymentreconciliation.worker.entity.WorkerPayment;
-import com.example.paymentreconciliation.worker.service.WorkerPaymentReceiptService;
-
-import com.example.paymentreconciliation.worker.service.WorkerPaymentService;
+import com.example.paymentreconciliation.reconciliation.service.PaymentStatusTransitionService;
 import com.example.paymentreconciliation.board.service.BoardReceiptService;
 import com.example.paymentreconciliation.board.entity.BoardReceipt;
 import org.slf4j.Logger;
@@ -22,7 +21,6 @@ import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -66,20 +64,20 @@ public class EmployerPaymentReceiptService {
     
     private final EmployerPaymentReceiptRepository repository;
     private final WorkerPaymentReceiptQueryDao workerReceiptQueryDao;
-    private final WorkerPaymentService workerPaymentService;
     private final BoardReceiptService boardReceiptService;
-    private final WorkerPaymentReceiptService workerReceiptService;
+    private final PaymentStatusTransitionService paymentStatusTransitionService;
+    private final ReferenceNumberService referenceNumberService;
 
     public EmployerPaymentReceiptService(EmployerPaymentReceiptRepository repository,
                                        WorkerPaymentReceiptQueryDao workerReceiptQueryDao,
-                                       WorkerPaymentService workerPaymentService,
                                        BoardReceiptService boardReceiptService,
-                                       WorkerPaymentReceiptService workerReceiptService) {
+                                       PaymentStatusTransitionService paymentStatusTransitionService,
+                                       ReferenceNumberService referenceNumberService) {
         this.repository = repository;
         this.workerReceiptQueryDao = workerReceiptQueryDao;
-        this.workerPaymentService = workerPaymentService;
         this.boardReceiptService = boardReceiptService;
-        this.workerReceiptService = workerReceiptService;
+        this.paymentStatusTransitionService = paymentStatusTransitionService;
+        this.referenceNumberService = referenceNumberService;
     }
 
         @Transactional(readOnly = true)
@@ -89,60 +87,45 @@ public class EmployerPaymentReceiptService {
     }
 
     @Transactional(readOnly = true)
-    public Map<String, Object> getAvailableReceiptsWithFilters(int page, int size, String status, 
+    public Map<String, Object> getAvailableReceiptsWithFilters(int page, int size, String status,
                                                               String singleDate, String startDate, String endDate) {
         log.info("Retrieving paginated worker receipts - page: {}, size: {}, status: {}, singleDate: {}, startDate: {}, endDate: {}", 
                 page, size, status, singleDate, startDate, endDate);
         
-        // Create pageable object
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        
         // Default status to PROCESSED if not provided (receipts that are ready for employer validation)
         String filterStatus = (status != null && !status.trim().isEmpty()) ? status : "PAYMENT_INITIATED";
         
-        Page<WorkerPaymentReceipt> receiptsPage;
-        
-        // Handle date filtering using query DAO (converting to simple lists for now)
-        List<WorkerPaymentReceipt> allReceipts;
+        LocalDateTime startDateTime = null;
+        LocalDateTime endDateTime = null;
         if (singleDate != null && !singleDate.trim().isEmpty()) {
             // Single date filter
             LocalDate date = LocalDate.parse(singleDate);
-            LocalDateTime startOfDay = date.atStartOfDay();
-            LocalDateTime endOfDay = date.atTime(23, 59, 59);
-            allReceipts = workerReceiptQueryDao.findByStatusAndDateRange(filterStatus, startOfDay, endOfDay);
+            startDateTime = date.atStartOfDay();
+            endDateTime = date.atTime(23, 59, 59);
             
         } else if (startDate != null && !startDate.trim().isEmpty() && endDate != null && !endDate.trim().isEmpty()) {
             // Date range filter
-            LocalDate start = LocalDate.parse(startDate);
-            LocalDate end = LocalDate.parse(endDate);
-            LocalDateTime startDateTime = start.atStartOfDay();
-            LocalDateTime endDateTime = end.atTime(23, 59, 59);
-            allReceipts = workerReceiptQueryDao.findByStatusAndDateRange(filterStatus, startDateTime, endDateTime);
-            
-        } else {
-            // No date filter, just status
-            allReceipts = workerReceiptQueryDao.findByStatus(filterStatus);
+            startDateTime = LocalDate.parse(startDate).atStartOfDay();
+            endDateTime = LocalDate.parse(endDate).atTime(23, 59, 59);
         }
         
-        // Manual pagination since our DAO doesn't support it yet
-        int start = Math.min(page * size, allReceipts.size());
-        int end = Math.min(start + size, allReceipts.size());
-        List<WorkerPaymentReceipt> pageContent = allReceipts.subList(start, end);
-        receiptsPage = new PageImpl<>(pageContent, pageable, allReceipts.size());
+        // Paginate in SQL; without a date filter this is just the status
+        PageResult<WorkerPaymentReceipt> receiptsPage = workerReceiptQueryDao.findPageByStatus(
+                filterStatus, startDateTime, endDateTime, page, size);
         
         // Create response
         Map<String, Object> response = new HashMap<>();
         response.put("content", receiptsPage.getContent());
-        response.put("page", receiptsPage.getNumber());
+        response.put("page", receiptsPage.getPage());
         response.put("size", receiptsPage.getSize());
         response.put("totalElements", receiptsPage.getTotalElements());
-        response.put("totalPages", receiptsPage.getTotalPages());
+        response.put("totalPages", receiptsPage.isTotalKnown() ? receiptsPage.getTotalPages() : null);
         response.put("first", receiptsPage.isFirst());
         response.put("last", receiptsPage.isLast());
-        response.put("empty", receiptsPage.isEmpty());
+        response.put("empty", receiptsPage.getContent().isEmpty());
         
-        log.info("Found {} worker receipts (page {} of {})", receiptsPage.getTotalElements(), 
-                receiptsPage.getNumber() + 1, receiptsPage.getTotalPages());
+        log.info("Found {} worker receipts on page {} (total: {})", receiptsPage.getContent().size(), 
+                receiptsPage.getPage() + 1, receiptsPage.getTotalElements());
         
         return response;
     }
@@ -179,7 +162,7 @@ public class EmployerPaymentReceiptService {
         } else {
             // Create new employer receipt (fallback if auto-creation failed)
             employerReceipt = new EmployerPaymentReceipt();
-            employerReceipt.setEmployerReceiptNumber(generateEmployerReceiptNumber());
+            employerReceipt.setEmployerReceiptNumber(referenceNumberService.next(ReferenceNumberService.Sequence.EMPLOYER_RECEIPT));
             employerReceipt.setWorkerReceiptNumber(workerReceiptNumber);
             employerReceipt.setEmployerId(workerReceipt.getEmployerId());
             employerReceipt.setToliId(workerReceipt.getToliId());
@@ -204,26 +187,29 @@ public class EmployerPaymentReceiptService {
                     savedReceipt.getEmployerReceiptNumber(), e);
         }
         
-        // Update worker receipt status using the proper service method
-        workerReceiptService.updateStatus(workerReceiptNumber, "VALIDATED");
-        
-        // Update all worker payments with this receipt number to PAYMENT_INITIATED
-        // Use WorkerPaymentService method that uses the query DAO
-        Page<WorkerPayment> paymentsPage = workerPaymentService.findByReceiptNumber(workerReceiptNumber, PageRequest.of(0, 1000));
-        List<WorkerPayment> workerPayments = paymentsPage.getContent();
-        for (WorkerPayment payment : workerPayments) {
-            if ("PAYMENT_REQUESTED".equals(payment.getStatus())) {
-                payment.setStatus("PAYMENT_INITIATED");
-                workerPaymentService.save(payment);
-            }
-        }
+        // Worker receipt VALIDATED and all its requested worker payments PAYMENT_INITIATED in one
+        // set-based transition; rolls back this validation if the receipt's payments do not add up
+        int updatedPayments = paymentStatusTransitionService.validate(workerReceiptNumber);
         
         log.info("Validated employer receipt {} for worker receipt {}, created board receipt, and updated {} worker payments to PAYMENT_INITIATED", 
-                savedReceipt.getEmployerReceiptNumber(), workerReceiptNumber, workerPayments.size());
+                savedReceipt.getEmployerReceiptNumber(), workerReceiptNumber, updatedPayments);
         
         return savedReceipt;
     }
 
+    /**
+     * Send a worker receipt to its employer: the receipt and all its worker payments move to PAYMENT_INITIATED
+     * and the pending employer receipt is created in one transaction, so neither is kept without the other.
+     * @throws IllegalStateException if the worker receipt cannot be sent in its current status
+     */
+    @Transactional
+    public SentReceipt sendWorkerReceiptToEmployer(WorkerPaymentReceipt workerReceipt) {
+        int updatedPayments = paymentStatusTransitionService.sendToEmployer(workerReceipt.getReceiptNumber());
+        log.info("Updated worker receipt {} and {} worker payment records to PAYMENT_INITIATED",
+                workerReceipt.getReceiptNumber(), updatedPayments);
+        return new SentReceipt(createPendingEmployerReceipt(workerReceipt), updatedPayments);
+    }
+
     public EmployerPaymentReceipt createPendingEmployerReceipt(WorkerPaymentReceipt workerReceipt) {
         log.info("Creating pending employer receipt for worker receipt: {}", workerReceipt.getReceiptNumber());
         
@@ -236,7 +222,7 @@ public class EmployerPaymentReceiptService {
         
         // Create employer receipt with PENDING status
         EmployerPaymentReceipt employerReceipt = new EmployerPaymentReceipt();
-        employerReceipt.setEmployerReceiptNumber(generateEmployerReceiptNumber());
+        employerReceipt.setEmployerReceiptNumber(referenceNumberService.next(ReferenceNumberService.Sequence.EMPLOYER_RECEIPT));
         employerReceipt.setWorkerReceiptNumber(workerReceipt.getReceiptNumber());
         employerReceipt.setEmployerId(workerReceipt.getEmployerId());
         employerReceipt.setToliId(workerReceipt.getToliId());
@@ -255,13 +241,10 @@ public class EmployerPaymentReceiptService {
         
         return savedReceipt;
     }
-    
-    private String generateEmployerReceiptNumber() {
-        // Generate employer receipt number in format: EMP-YYYYMMDD-HHMMSS-XXX
-        LocalDateTime now = LocalDateTime.now();
-        String dateTime = now.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        String sequence = String.format("%03d", (System.currentTimeMillis() % 1000));
-        
-        return "EMP-" + dateTime + "-" + sequence;
+
+    /**
+     * Employer receipt created by sending a worker receipt, with the number of worker payments moved
+     */
+    public record SentReceipt(EmployerPaymentReceipt employerReceipt, int updatedPayments) {
     }
 }
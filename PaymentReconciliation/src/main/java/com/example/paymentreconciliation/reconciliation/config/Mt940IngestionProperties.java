@@ -11,6 +11,13 @@ public class Mt940IngestionProperties {
     private String processingDir;
     private String archiveDir;
     private String quarantineDir;
+    private boolean watchEnabled = true;
+    private int stabilityWindowSec = 10;
+    private long scanIntervalMs = 1000;
+    private int processingThreads = 2;
+    private int processingQueueCapacity = 16;
+    private long duplicateFilterExpectedTransactions = 1_000_000;
+    private double duplicateFilterFalsePositiveRate = 0.01;
 
     public String getBaseDir() { return baseDir; }
     public void setBaseDir(String baseDir) { this.baseDir = baseDir; }
@@ -26,4 +33,25 @@ public class Mt940IngestionProperties {
 
     public String getQuarantineDir() { return quarantineDir; }
     public void setQuarantineDir(String quarantineDir) { this.quarantineDir = quarantineDir; }
+
+    public boolean isWatchEnabled() { return watchEnabled; }
+    public void setWatchEnabled(boolean watchEnabled) { this.watchEnabled = watchEnabled; }
+
+    public int getStabilityWindowSec() { return stabilityWindowSec; }
+    public void setStabilityWindowSec(int stabilityWindowSec) { this.stabilityWindowSec = stabilityWindowSec; }
+
+    public long getScanIntervalMs() { return scanIntervalMs; }
+    public void setScanIntervalMs(long scanIntervalMs) { this.scanIntervalMs = scanIntervalMs; }
+
+    public int getProcessingThreads() { return processingThreads; }
+    public void setProcessingThreads(int processingThreads) { this.processingThreads = processingThreads; }
+
+    public int getProcessingQueueCapacity() { return processingQueueCapacity; }
+    public void setProcessingQueueCapacity(int processingQueueCapacity) { this.processingQueueCapacity = processingQueueCapacity; }
+
+    public long getDuplicateFilterExpectedTransactions() { return duplicateFilterExpectedTransactions; }
+    public void setDuplicateFilterExpectedTransactions(long duplicateFilterExpectedTransactions) { this.duplicateFilterExpectedTransactions = duplicateFilterExpectedTransactions; }
+
+    public double getDuplicateFilterFalsePositiveRate() { return duplicateFilterFalsePositiveRate; }
+    public void setDuplicateFilterFalsePositiveRate(double duplicateFilterFalsePositiveRate) { this.duplicateFilterFalsePositiveRate = duplicateFilterFalsePositiveRate; }
 }
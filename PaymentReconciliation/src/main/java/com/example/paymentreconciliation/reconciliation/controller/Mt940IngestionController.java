@@ -1,6 +1,6 @@
 package com.example.paymentreconciliation.reconciliation.controller;
 
-import com.example.paymentreconciliation.reconciliation.service.Mt940IngestionService;
+import com.example.paymentreconciliation.reconciliation.service.Mt940InboxWatcher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,12 +16,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @SecurityRequirement(name = "Bearer Authentication")
 public class Mt940IngestionController {
     @Autowired
-    private Mt940IngestionService mt940IngestionService;
+    private Mt940InboxWatcher mt940InboxWatcher;
 
     @PostMapping("/ingest")
-    @Operation(summary = "Trigger MT940 ingestion", description = "Triggers polling and processing of MT940 files in the inbox")
+    @Operation(summary = "Trigger MT940 ingestion", description = "Rescans the inbox; files are processed once their size and modification time are stable")
     public ResponseEntity<String> ingest() {
-        mt940IngestionService.pollAndProcessInbox();
-        return ResponseEntity.ok("MT940 ingestion triggered");
+        int files = mt940InboxWatcher.rescanInbox();
+        return ResponseEntity.ok("MT940 ingestion triggered for " + files + " file(s)");
     }
 }
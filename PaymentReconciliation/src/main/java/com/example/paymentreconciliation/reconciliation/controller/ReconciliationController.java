@@ -6,6 +6,7 @@ import com.example.paymentreconciliation.audit.annotation.Audited;
 import com.example.paymentreconciliation.reconciliation.service.ReconciliationService;
 import com.example.paymentreconciliation.reconciliation.service.MT940ReconciliationService;
 import com.example.paymentreconciliation.reconciliation.service.MT940ReconciliationService.ReconciliationResponse;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.slf4j.Logger;
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
@@ -37,11 +38,20 @@ public class ReconciliationController {
 
     @PostMapping
     @Audited(action = "RECONCILE_PAYMENTS", resourceType = "RECONCILIATION")
-    public ResponseEntity<String> reconcile() {
+    @Operation(summary = "Reconcile all pending employer receipts",
+               description = "Matches the transaction references and amounts of all pending employer receipts against imported MT940 statement transactions in one pass and updates statuses in bulk. Returns matched/split-matched/unmatched counts.")
+    public ResponseEntity<?> reconcile() {
         log.info("Received reconcile request");
-        String result = reconciliationService.reconcilePayments();
-        log.info("Reconciliation completed");
-        return ResponseEntity.accepted().body(result);
+        try {
+            ReconciliationService.ReconciliationSummary summary = reconciliationService.reconcilePayments();
+            log.info("Reconciliation completed - matched: {}, split matched: {}, unmatched: {}",
+                    summary.getMatched(), summary.getSplitMatched(), summary.getUnmatched());
+            return ResponseEntity.ok(summary);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent run linked one of the matched statement transactions first; this run was rolled back
+            log.warn("Reconciliation conflicted with a concurrent run: {}", e.getMessage());
+            return ResponseEntity.status(409).body(Map.of("error", "Reconciliation conflicted with a concurrent run, retry"));
+        }
     }
     
     @PostMapping("/mt940")
@@ -0,0 +1,147 @@
+package com.example.paymentreconciliation.reconciliation.dao;
+
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import com.example.paymentreconciliation.reconciliation.entity.RawStatementLine;
+import com.example.paymentreconciliation.reconciliation.entity.StatementBalance;
+import com.example.paymentreconciliation.reconciliation.entity.StatementTransaction;
+import com.example.paymentreconciliation.reconciliation.entity.Transaction86Segment;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO for MT940 statement bulk write operations.
+ * Statement children (balances, transactions, :86: segments, raw lines) use IDENTITY keys, which
+ * disables Hibernate JDBC batching, so they are written here with plain JDBC batches: a statement
+ * is persisted in a handful of round-trips instead of one INSERT per row.
+ */
+@Repository
+public class Mt940StatementBulkDao extends BaseQueryDao {
+
+    /**
+     * Number of rows sent to the driver per JDBC batch
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_BALANCE_SQL = """
+        INSERT INTO statement_balance (statement_file_id, bal_type, dc, bal_date, currency, amount)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_TRANSACTION_SQL = """
+        INSERT INTO statement_transaction (statement_file_id, line_no, value_date, entry_date, dc, amount,
+               signed_amount, currency, txn_type_code, bank_reference, customer_reference, entry_reference,
+               narrative, ext_idempotency_hash, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String SELECT_TRANSACTION_IDS_SQL =
+        "SELECT id, line_no FROM statement_transaction WHERE statement_file_id = ?";
+
+    private static final String INSERT_SEGMENT_SQL = """
+        INSERT INTO transaction_86_segment (statement_transaction_id, seg_key, seg_value, seg_seq)
+        VALUES (?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_RAW_LINE_SQL = """
+        INSERT INTO raw_statement_line (statement_file_id, line_no, tag, raw_text)
+        VALUES (?, ?, ?, ?)
+        """;
+
+    /**
+     * Insert balances of already persisted statement files.
+     * @return number of rows inserted
+     */
+    @Transactional
+    public int insertBalances(List<StatementBalance> balances) {
+        if (balances.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_BALANCE_SQL, balances, BATCH_SIZE, (ps, b) -> {
+            ps.setLong(1, b.getStatementFile().getId());
+            ps.setString(2, b.getBalType());
+            ps.setString(3, b.getDc());
+            ps.setObject(4, b.getBalDate(), Types.DATE);
+            ps.setString(5, b.getCurrency());
+            ps.setBigDecimal(6, b.getAmount());
+        });
+        return balances.size();
+    }
+
+    /**
+     * Insert the transactions of one persisted statement file and set their generated IDs,
+     * read back with a single query keyed by line number (unique within a statement).
+     * @return number of rows inserted
+     */
+    @Transactional
+    public int insertTransactions(long statementFileId, List<StatementTransaction> transactions) {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactions, BATCH_SIZE, (ps, t) -> {
+            ps.setLong(1, statementFileId);
+            ps.setInt(2, t.getLineNo());
+            ps.setObject(3, t.getValueDate(), Types.DATE);
+            ps.setObject(4, t.getEntryDate(), Types.DATE);
+            ps.setString(5, t.getDc());
+            ps.setBigDecimal(6, t.getAmount());
+            ps.setBigDecimal(7, t.getSignedAmount());
+            ps.setString(8, t.getCurrency());
+            ps.setString(9, t.getTxnTypeCode());
+            ps.setString(10, t.getBankReference());
+            ps.setString(11, t.getCustomerReference());
+            ps.setString(12, t.getEntryReference());
+            ps.setString(13, t.getNarrative());
+            ps.setString(14, t.getExtIdempotencyHash());
+            ps.setObject(15, t.getCreatedAt(), Types.TIMESTAMP);
+        });
+
+        Map<Integer, Long> idsByLineNo = new HashMap<>(transactions.size() * 2);
+        jdbcTemplate.query(SELECT_TRANSACTION_IDS_SQL,
+            rs -> { idsByLineNo.put(rs.getInt("line_no"), rs.getLong("id")); }, statementFileId);
+        for (StatementTransaction t : transactions) {
+            t.setId(idsByLineNo.get(t.getLineNo()));
+        }
+        return transactions.size();
+    }
+
+    /**
+     * Insert :86: segments of transactions persisted with {@link #insertTransactions}.
+     * @return number of rows inserted
+     */
+    @Transactional
+    public int insertSegments(List<Transaction86Segment> segments) {
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SEGMENT_SQL, segments, BATCH_SIZE, (ps, s) -> {
+            ps.setLong(1, s.getStatementTransaction().getId());
+            ps.setString(2, s.getSegKey());
+            ps.setString(3, s.getSegValue());
+            ps.setInt(4, s.getSegSeq());
+        });
+        return segments.size();
+    }
+
+    /**
+     * Insert raw statement lines of already persisted statement files.
+     * @return number of rows inserted
+     */
+    @Transactional
+    public int insertRawLines(List<RawStatementLine> rawLines) {
+        if (rawLines.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RAW_LINE_SQL, rawLines, BATCH_SIZE, (ps, r) -> {
+            ps.setLong(1, r.getStatementFile().getId());
+            ps.setInt(2, r.getLineNo());
+            ps.setString(3, r.getTag());
+            ps.setString(4, r.getRawText());
+        });
+        return rawLines.size();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.paymentreconciliation.reconciliation.dao;
+
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import com.example.paymentreconciliation.worker.dao.FileStatusCounterDao;
+import com.example.paymentreconciliation.worker.entity.FileStatusCounter.RecordType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DAO for set-based status updates of receipts and payments during reconciliation.
+ * Each method sends one JDBC batch per BATCH_SIZE keys instead of loading and saving entities one by one.
+ */
+@Repository
+public class ReconciliationStatusDao extends BaseQueryDao {
+
+    /**
+     * Number of keys sent to the driver per JDBC batch
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private static final String UPDATE_EMPLOYER_RECEIPT_SQL =
+        "UPDATE employer_payment_receipts SET status = ? WHERE employer_receipt_number = ?";
+
+    private static final String RECONCILE_EMPLOYER_RECEIPT_SQL =
+        "UPDATE employer_payment_receipts SET status = ?, statement_transaction_id = ? WHERE employer_receipt_number = ?";
+
+    private static final String LINKED_STATEMENT_TRANSACTIONS_SQL =
+        "SELECT employer_receipt_number, statement_transaction_id FROM employer_payment_receipts WHERE employer_receipt_number IN (:receiptNumbers)";
+
+    private static final String UPDATE_WORKER_RECEIPT_SQL =
+        "UPDATE worker_payment_receipts SET status = ? WHERE receipt_number = ?";
+
+    private static final String UPDATE_WORKER_PAYMENTS_SQL =
+        "UPDATE worker_payments SET status = ? WHERE receipt_number = ?";
+
+    private static final String COUNT_WORKER_PAYMENTS_SQL =
+        "SELECT COUNT(*) FROM worker_payments WHERE receipt_number IN (:receiptNumbers) AND status = :status";
+
+    private static final String SUM_WORKER_RECEIPT_RECORDS_SQL =
+        "SELECT COALESCE(SUM(total_records), 0) FROM worker_payment_receipts WHERE receipt_number IN (:receiptNumbers)";
+
+    private static final String UPDATE_BOARD_RECEIPT_SQL =
+        "UPDATE board_receipts SET status = ? WHERE employer_reference = ?";
+
+    @Autowired
+    private FileStatusCounterDao fileStatusCounterDao;
+
+    /**
+     * Set the status of the given employer receipts.
+     * @return number of rows updated
+     */
+    @Transactional
+    public int updateEmployerReceiptStatus(Collection<String> employerReceiptNumbers, String status) {
+        return batchUpdate(UPDATE_EMPLOYER_RECEIPT_SQL, employerReceiptNumbers, status);
+    }
+
+    /**
+     * Set the status of the given employer receipts that are still in one of the given statuses and record the
+     * statement transaction each was reconciled against. A receipt moved on by a concurrent run is not updated.
+     * @param statementTransactionIds statement transaction id by employer receipt number
+     * @return employer receipt numbers actually updated
+     */
+    @Transactional
+    public Set<String> reconcileEmployerReceipts(Map<String, Long> statementTransactionIds,
+                                                 Collection<String> fromStatuses, String status) {
+        if (statementTransactionIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(statementTransactionIds.entrySet());
+        List<String> from = new ArrayList<>(fromStatuses);
+        String sql = RECONCILE_EMPLOYER_RECEIPT_SQL + " AND status IN ("
+            + String.join(", ", Collections.nCopies(from.size(), "?")) + ")";
+        int[][] counts = jdbcTemplate.batchUpdate(sql, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setString(1, status);
+            ps.setLong(2, entry.getValue());
+            ps.setString(3, entry.getKey());
+            for (int i = 0; i < from.size(); i++) {
+                ps.setString(4 + i, from.get(i));
+            }
+        });
+        Set<String> updated = new LinkedHashSet<>();
+        List<String> unknown = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                String receiptNumber = entries.get(index++).getKey();
+                if (count > 0) {
+                    updated.add(receiptNumber);
+                } else if (count == Statement.SUCCESS_NO_INFO) {
+                    unknown.add(receiptNumber);
+                }
+            }
+        }
+        // Rewritten batches may not report per-row counts; read back which receipts carry our transaction
+        for (int fromIndex = 0; fromIndex < unknown.size(); fromIndex += BATCH_SIZE) {
+            List<String> chunk = unknown.subList(fromIndex, Math.min(fromIndex + BATCH_SIZE, unknown.size()));
+            namedParameterJdbcTemplate.query(LINKED_STATEMENT_TRANSACTIONS_SQL, Map.of("receiptNumbers", chunk), rs -> {
+                String receiptNumber = rs.getString(1);
+                if (statementTransactionIds.get(receiptNumber).equals(rs.getLong(2))) {
+                    updated.add(receiptNumber);
+                }
+            });
+        }
+        return updated;
+    }
+
+    /**
+     * Set the status of the given worker payment receipts.
+     * @return number of rows updated
+     */
+    @Transactional
+    public int updateWorkerReceiptStatus(Collection<String> receiptNumbers, String status) {
+        return batchUpdate(UPDATE_WORKER_RECEIPT_SQL, receiptNumbers, status);
+    }
+
+    /**
+     * Set the status of all worker payments belonging to the given receipts,
+     * moving their file status counters from the old statuses to the new one.
+     * @return number of rows updated
+     */
+    @Transactional
+    public int updateWorkerPaymentStatusByReceipt(Collection<String> receiptNumbers, String status) {
+        return updateWorkerPaymentStatusByReceipt(receiptNumbers, Collections.emptySet(), status);
+    }
+
+    /**
+     * Set the status of the worker payments belonging to the given receipts that are in one of the
+     * given statuses, moving their file status counters from the old statuses to the new one.
+     * @param fromStatuses statuses of the payments to update, or empty to update all payments of the receipts
+     * @return number of rows updated
+     */
+    @Transactional
+    public int updateWorkerPaymentStatusByReceipt(Collection<String> receiptNumbers, Collection<String> fromStatuses,
+                                                  String status) {
+        if (receiptNumbers.isEmpty()) {
+            return 0;
+        }
+        Map<String, Map<String, Long>> deltas = fileStatusCounterDao.countByFileAndStatus(
+            RecordType.WORKER_PAYMENT, "receipt_number", receiptNumbers);
+        int updated;
+        if (fromStatuses.isEmpty()) {
+            updated = batchUpdate(UPDATE_WORKER_PAYMENTS_SQL, receiptNumbers, status);
+        } else {
+            List<String> from = new ArrayList<>(fromStatuses);
+            String sql = UPDATE_WORKER_PAYMENTS_SQL + " AND status IN ("
+                + String.join(", ", Collections.nCopies(from.size(), "?")) + ")";
+            updated = batchUpdate(sql, receiptNumbers, status, from);
+            for (Map<String, Long> byStatus : deltas.values()) {
+                byStatus.keySet().retainAll(from);
+            }
+        }
+        for (Map<String, Long> byStatus : deltas.values()) {
+            long moved = byStatus.values().stream().mapToLong(Long::longValue).sum();
+            byStatus.replaceAll((oldStatus, count) -> -count);
+            byStatus.merge(status, moved, Long::sum);
+        }
+        fileStatusCounterDao.applyDeltas(RecordType.WORKER_PAYMENT, deltas, true);
+        return updated;
+    }
+
+    /**
+     * Number of worker payments of the given receipts that are in the given status
+     */
+    public long countWorkerPaymentsByReceipt(Collection<String> receiptNumbers, String status) {
+        if (receiptNumbers.isEmpty()) {
+            return 0;
+        }
+        Long count = namedParameterJdbcTemplate.queryForObject(COUNT_WORKER_PAYMENTS_SQL,
+            Map.of("receiptNumbers", receiptNumbers, "status", status), Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Sum of the total records recorded on the given worker payment receipts
+     */
+    public long sumWorkerReceiptTotalRecords(Collection<String> receiptNumbers) {
+        if (receiptNumbers.isEmpty()) {
+            return 0;
+        }
+        Long total = namedParameterJdbcTemplate.queryForObject(SUM_WORKER_RECEIPT_RECORDS_SQL,
+            Map.of("receiptNumbers", receiptNumbers), Long.class);
+        return total != null ? total : 0;
+    }
+
+    /**
+     * Set the status of the board receipts created for the given employer receipts.
+     * @return number of rows updated
+     */
+    @Transactional
+    public int updateBoardReceiptStatusByEmployerReceipt(Collection<String> employerReceiptNumbers, String status) {
+        return batchUpdate(UPDATE_BOARD_RECEIPT_SQL, employerReceiptNumbers, status);
+    }
+
+    private int batchUpdate(String sql, Collection<String> keys, String status) {
+        return batchUpdate(sql, keys, status, Collections.emptyList());
+    }
+
+    private int batchUpdate(String sql, Collection<String> keys, String status, List<String> extraParameters) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(sql, keys, BATCH_SIZE, (ps, key) -> {
+            ps.setString(1, status);
+            ps.setString(2, key);
+            for (int i = 0; i < extraParameters.size(); i++) {
+                ps.setString(3 + i, extraParameters.get(i));
+            }
+        });
+        return sumBatchCounts(counts);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.paymentreconciliation.reconciliation.dao;
+
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * DAO for Statement Transaction read operations using custom queries.
+ */
+@Repository
+public class StatementTransactionQueryDao extends BaseQueryDao {
+
+    /**
+     * Fetch size for drivers other than MySQL, which honour it as the number of rows per round trip
+     */
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    private static final String MATCH_CANDIDATES_SQL = """
+        SELECT st.id, st.amount, st.customer_reference, st.bank_reference, st.entry_reference
+        FROM statement_transaction st
+        WHERE st.dc = 'C' AND st.currency = ? AND st.value_date >= ?
+        AND NOT EXISTS (
+            SELECT 1 FROM employer_payment_receipts r WHERE r.statement_transaction_id = st.id
+        )
+        ORDER BY st.id
+        """;
+
+    private static final String INDEX_ENTRIES_SQL = """
+        SELECT sf.stmt_ref_20, st.line_no, st.value_date, st.dc, st.amount,
+               st.customer_reference, st.bank_reference, st.entry_reference
+        FROM statement_transaction st
+        JOIN statement_file sf ON sf.id = st.statement_file_id
+        ORDER BY st.id
+        """;
+
+    private static final String IDEMPOTENCY_HASHES_SQL = "SELECT ext_idempotency_hash FROM statement_transaction";
+
+    private static final String EXISTING_IDEMPOTENCY_HASHES_SQL =
+        "SELECT ext_idempotency_hash FROM statement_transaction WHERE ext_idempotency_hash IN (:hashes)";
+
+    /**
+     * Stream the columns needed for reference/amount matching of the credit transactions in the given
+     * currency, value-dated on or after the given date, that no employer receipt has been reconciled against.
+     * Rows are read from the server as the consumer takes them (see {@link #stream}); the consumer
+     * must not run queries of its own.
+     * @return number of rows streamed
+     */
+    public long streamMatchCandidates(String currency, LocalDate fromValueDate, Consumer<MatchCandidate> consumer) {
+        return stream(MATCH_CANDIDATES_SQL, ps -> {
+            ps.setString(1, currency);
+            ps.setDate(2, Date.valueOf(fromValueDate));
+        }, rs -> consumer.accept(new MatchCandidate(
+            rs.getLong("id"),
+            rs.getBigDecimal("amount"),
+            rs.getString("customer_reference"),
+            rs.getString("bank_reference"),
+            rs.getString("entry_reference"))));
+    }
+
+    /**
+     * Stream the columns of the reconciliation lookup index for all persisted statement transactions,
+     * in import order, read from the server as the consumer takes them (see {@link #stream}); the
+     * consumer must not run queries of its own.
+     * @return number of rows streamed
+     */
+    public long streamIndexEntries(Consumer<IndexEntry> consumer) {
+        return stream(INDEX_ENTRIES_SQL, ps -> { }, rs -> consumer.accept(new IndexEntry(
+            rs.getString("stmt_ref_20"),
+            rs.getInt("line_no"),
+            rs.getDate("value_date").toLocalDate(),
+            rs.getString("dc"),
+            rs.getBigDecimal("amount"),
+            rs.getString("customer_reference"),
+            rs.getString("bank_reference"),
+            rs.getString("entry_reference"))));
+    }
+
+    /**
+     * Stream the idempotency hashes of all persisted statement transactions, read from the server as the
+     * consumer takes them (see {@link #stream}); the consumer must not run queries of its own.
+     * @return number of hashes streamed
+     */
+    public long streamIdempotencyHashes(Consumer<String> consumer) {
+        return stream(IDEMPOTENCY_HASHES_SQL, ps -> { }, rs -> consumer.accept(rs.getString(1)));
+    }
+
+    /**
+     * Run a forward-only, read-only query on the current connection and hand each row to the handler.
+     * MySQL Connector/J buffers the whole result unless the fetch size is Integer.MIN_VALUE, which makes
+     * it read rows one at a time and keeps memory flat; other drivers get STREAM_FETCH_SIZE. The shared
+     * JdbcTemplate would override the fetch size with its own, so the statement is prepared here.
+     * @return number of rows read
+     */
+    private long stream(String sql, PreparedStatementSetter parameters, RowCallbackHandler handler) {
+        Long count = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            boolean mysql = "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+            try (PreparedStatement ps = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(mysql ? Integer.MIN_VALUE : STREAM_FETCH_SIZE);
+                parameters.setValues(ps);
+                long rows = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        handler.processRow(rs);
+                        rows++;
+                    }
+                }
+                return rows;
+            }
+        });
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Return the given idempotency hashes that already exist, one IN query per IN_CLAUSE_CHUNK_SIZE hashes.
+     */
+    public Set<String> findExistingIdempotencyHashes(Collection<String> hashes) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = new ArrayList<>(hashes);
+        for (int from = 0; from < all.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = all.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, all.size()));
+            existing.addAll(namedParameterJdbcTemplate.queryForList(
+                EXISTING_IDEMPOTENCY_HASHES_SQL, Map.of("hashes", chunk), String.class));
+        }
+        return existing;
+    }
+
+    /**
+     * Statement transaction columns used for reconciliation matching
+     */
+    public record MatchCandidate(long id, BigDecimal amount, String customerReference,
+                                 String bankReference, String entryReference) {
+    }
+
+    /**
+     * Statement transaction columns used for the reconciliation lookup index
+     */
+    public record IndexEntry(String stmtRef20, int lineNo, LocalDate valueDate, String dc, BigDecimal amount,
+                             String customerReference, String bankReference, String entryReference) {
+    }
+}
@@ -34,4 +34,24 @@ public class RawStatementLine {
     public void setRawText(String rawText) {
         this.rawText = rawText;
     }
+
+    public Long getId() {
+        return id;
+    }
+
+    public StatementFile getStatementFile() {
+        return statementFile;
+    }
+
+    public Integer getLineNo() {
+        return lineNo;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public String getRawText() {
+        return rawText;
+    }
 }
@@ -34,4 +34,24 @@ public class Transaction86Segment {
     public void setSegSeq(Integer segSeq) {
         this.segSeq = segSeq;
     }
+
+    public Long getId() {
+        return id;
+    }
+
+    public StatementTransaction getStatementTransaction() {
+        return statementTransaction;
+    }
+
+    public String getSegKey() {
+        return segKey;
+    }
+
+    public String getSegValue() {
+        return segValue;
+    }
+
+    public Integer getSegSeq() {
+        return segSeq;
+    }
 }
@@ -2,8 +2,15 @@ package com.example.paymentreconciliation.reconciliation.repository;
 
 import com.example.paymentreconciliation.reconciliation.entity.ImportRun;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 import java.util.Optional;
 
 public interface ImportRunRepository extends JpaRepository<ImportRun, Long> {
     Optional<ImportRun> findByFileHash(String fileHash);
+
+    boolean existsByFileHash(String fileHash);
+
+    @Query("SELECT r.fileHash FROM ImportRun r")
+    List<String> findAllFileHashes();
 }
@@ -1,5 +1,6 @@
 package com.example.paymentreconciliation.reconciliation.service;
 
+import com.example.paymentreconciliation.reconciliation.dao.StatementTransactionQueryDao;
 import com.prowidesoftware.swift.io.parser.SwiftParser;
 import com.prowidesoftware.swift.model.SwiftMessage;
 import com.prowidesoftware.swift.model.mt.mt9xx.MT940;
@@ -8,22 +9,13 @@ import org.slf4j.Logger;
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import com.example.paymentreconciliation.worker.repository.WorkerPaymentReceiptRepository;
-import com.example.paymentreconciliation.worker.dao.WorkerPaymentReceiptQueryDao;
-import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
-import com.example.paymentreconciliation.worker.entity.WorkerPayment;
-import com.example.paymentreconciliation.worker.service.WorkerPaymentService;
-
-import com.example.paymentreconciliation.employer.dao.EmployerPaymentReceiptRepository;
-import com.example.paymentreconciliation.employer.entity.EmployerPaymentReceipt;
 
 import java.io.InputStream;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -40,17 +32,43 @@ public class MT940ReconciliationService {
     @Value("${mt940.statements.path:mt940-statements/}")
     private String mt940StatementsPath;
     
-    @Autowired
-    private WorkerPaymentReceiptRepository workerPaymentReceiptRepository;
+    @Value("${mt940.statements.load-sample:false}")
+    private boolean loadSampleStatement;
     
     @Autowired
-    private WorkerPaymentReceiptQueryDao workerPaymentReceiptQueryDao;
+    private PaymentStatusTransitionService paymentStatusTransitionService;
     
     @Autowired
-    private EmployerPaymentReceiptRepository employerPaymentReceiptRepository;
-    
+    private Mt940TransactionIndex transactionIndex;
+
     @Autowired
-    private WorkerPaymentService workerPaymentService;
+    private StatementTransactionQueryDao statementTransactionQueryDao;
+
+    /**
+     * Build the statement transaction index from the persisted statement transactions once the
+     * application has started. Statements imported later are added to the index by Mt940IngestionService.
+     * With mt940.statements.load-sample (development only) the classpath sample statement, or mock
+     * transactions if it cannot be parsed, are indexed after them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadStatementIndex() {
+        long start = System.currentTimeMillis();
+        List<MT940Transaction> transactions = new ArrayList<>();
+        statementTransactionQueryDao.streamIndexEntries(entry -> transactions.add(MT940Transaction.ofStatementLine(
+            entry.stmtRef20(), entry.lineNo(), entry.dc(), entry.amount(), entry.valueDate(),
+            entry.customerReference(), entry.bankReference(), entry.entryReference())));
+        if (loadSampleStatement) {
+            List<MT940Transaction> sample = loadMT940Transactions();
+            if (sample.isEmpty()) {
+                sample = createMockTransactionsForTesting();
+                log.warn("Sample MT940 statement not loaded, using mock transactions: {}", sample.size());
+            }
+            transactions.addAll(sample);
+        }
+        transactionIndex.replaceAll(transactions);
+        log.info("Indexed {} MT940 transactions for reconciliation in {} ms",
+            transactions.size(), System.currentTimeMillis() - start);
+    }
 
     /**
      * Reconcile transaction reference and amount against MT940 statements
@@ -63,47 +81,16 @@ public class MT940ReconciliationService {
         response.setTransactionReference(transactionReference);
         response.setRequestAmount(expectedAmount);
         
-        // Normalize expected amount for comparison (remove commas and dots)
-        String normalizedExpectedAmount = normalizeAmountForComparison(expectedAmount);
-        log.info("Normalized expected amount: {} -> {}", expectedAmount, normalizedExpectedAmount);
+        // Compare amounts in minor units so "82,752.30" and "82752.3" match
+        long expectedAmountMinor = Mt940TransactionIndex.toMinorUnits(expectedAmount);
+        Mt940TransactionIndex.Snapshot index = transactionIndex.snapshot();
+        log.debug("Looking up {} ({} minor units) in {} indexed MT940 transactions",
+                 transactionReference, expectedAmountMinor, index.size());
         
-                // Load actual MT940 transactions from files
-        List<MT940Transaction> mockEODTransactions = loadMT940Transactions();
-        log.info("Loaded {} MT940 transactions", mockEODTransactions.size());
-        
-        if (mockEODTransactions.isEmpty()) {
-            log.error("No MT940 transactions loaded! This indicates a parsing issue.");
-            // Let's add some mock transactions for testing if parsing fails
-            mockEODTransactions = createMockTransactionsForTesting();
-            log.warn("Using mock transactions for testing: {}", mockEODTransactions.size());
-        }
-        
-        // Log all loaded transactions for debugging
-        for (int i = 0; i < mockEODTransactions.size(); i++) {
-            MT940Transaction txn = mockEODTransactions.get(i);
-            String normalizedMT940Amount = normalizeAmountForComparison(txn.getAmount());
-            log.info("Transaction {}: ref='{}', amount={}, normalizedAmount='{}', date={}", 
-                     i + 1, txn.getTransactionReference(), txn.getAmount(), normalizedMT940Amount, txn.getValueDate());
-        }
-        
-        // Find exact match (both amount and reference) using normalized amounts
-        MT940Transaction exactMatch = mockEODTransactions.stream()
-                .filter(txn -> transactionReference.equals(txn.getTransactionReference()) && 
-                             normalizedExpectedAmount.equals(normalizeAmountForComparison(txn.getAmount())))
-                .findFirst()
-                .orElse(null);
-        
-        // Find amount-only match using normalized amounts
-        MT940Transaction amountMatch = mockEODTransactions.stream()
-                .filter(txn -> normalizedExpectedAmount.equals(normalizeAmountForComparison(txn.getAmount())))
-                .findFirst()
-                .orElse(null);
-        
-        // Find reference-only match  
-        MT940Transaction referenceMatch = mockEODTransactions.stream()
-                .filter(txn -> transactionReference.equals(txn.getTransactionReference()))
-                .findFirst()
-                .orElse(null);
+        // Find exact match (both amount and reference), amount-only match and reference-only match
+        MT940Transaction exactMatch = index.findByReferenceAndAmount(transactionReference, expectedAmountMinor);
+        MT940Transaction amountMatch = index.findByAmount(expectedAmountMinor);
+        MT940Transaction referenceMatch = index.findByReference(transactionReference);
         
         // Determine reconciliation result
         if (exactMatch != null) {
@@ -164,85 +151,14 @@ public class MT940ReconciliationService {
     }
     
     /**
-     * Normalize amount for comparison by converting to cents (multiplying by 100)
-     * This allows matching amounts like "82,752.30" with "82752.30" by comparing cents
+     * Update employer receipt status to RECONCILED and worker receipt and worker payments to
+     * PAYMENT_RECONCILED when MT940 reconciliation is successful (set-based, one transaction)
      */
-    private String normalizeAmountForComparison(BigDecimal amount) {
-        if (amount == null) {
-            return "0";
-        }
-        
-        // Set scale to 2 decimal places to ensure consistent precision
-        BigDecimal normalizedAmount = amount.setScale(2, RoundingMode.HALF_UP);
-        
-        // Convert to cents to avoid decimal precision issues
-        // This handles both European (82752,30) and US (82752.30) formats
-        BigDecimal cents = normalizedAmount.multiply(new BigDecimal("100"));
-        
-        // Convert to long to remove any decimal precision issues
-        long centsLong = cents.longValue();
-        String normalized = String.valueOf(centsLong);
-        
-        log.debug("Normalized amount {} -> {} (scale normalized to 2) -> {} cents", amount, normalizedAmount, normalized);
-        return normalized;
-    }
-    
-    /**
-     * Update worker payment status to PAYMENT_PROCESSED and employer receipt status to ACCEPTED
-     * when MT940 reconciliation is successful
-     */
-    @Transactional
     private void updateStatusesOnSuccessfulReconciliation(String transactionReference) {
-        try {
-            log.info("Updating statuses for successful reconciliation of transaction: {}", transactionReference);
-            
-            // Find employer receipt by transaction reference directly
-            List<EmployerPaymentReceipt> employerReceipts = employerPaymentReceiptRepository.findByTransactionReference(transactionReference);
-            
-            if (!employerReceipts.isEmpty()) {
-                for (EmployerPaymentReceipt employerReceipt : employerReceipts) {
-                    // Update employer receipt status to RECONCILED
-                    employerReceipt.setStatus("RECONCILED");
-                    employerPaymentReceiptRepository.save(employerReceipt);
-                    log.info("Updated employer receipt {} status to RECONCILED", employerReceipt.getEmployerReceiptNumber());
-                    
-                    // Find related worker receipt by worker receipt number
-                    Optional<WorkerPaymentReceipt> workerReceiptOpt = workerPaymentReceiptQueryDao.findByReceiptNumber(employerReceipt.getWorkerReceiptNumber());
-                    
-                    if (workerReceiptOpt.isPresent()) {
-                        WorkerPaymentReceipt workerReceipt = workerReceiptOpt.get();
-                        // Update worker payment receipt status to PAYMENT_RECONCILED
-                        workerReceipt.setStatus("PAYMENT_RECONCILED");
-                        workerPaymentReceiptRepository.save(workerReceipt);
-                        log.info("Updated worker payment receipt {} status to PAYMENT_RECONCILED", workerReceipt.getReceiptNumber());
-                        
-                        // Also update all worker payments with this receipt number to PAYMENT_RECONCILED
-                        List<WorkerPayment> workerPayments = workerPaymentService.findByReceiptNumber(workerReceipt.getReceiptNumber(), 
-                            org.springframework.data.domain.PageRequest.of(0, 1000)).getContent();
-                        for (WorkerPayment payment : workerPayments) {
-                            payment.setStatus("PAYMENT_RECONCILED");
-                            workerPaymentService.save(payment);
-                            log.debug("Updated worker payment {} to PAYMENT_RECONCILED", payment.getWorkerRef());
-                        }
-                        log.info("Updated {} worker payments to PAYMENT_RECONCILED for receipt {}", 
-                            workerPayments.size(), workerReceipt.getReceiptNumber());
-                    } else {
-                        log.warn("No worker receipt found for receipt number: {}", employerReceipt.getWorkerReceiptNumber());
-                    }
-                }
-            } else {
-                log.warn("No employer payment receipt found for transaction reference: {}", transactionReference);
-            }
-            
-        } catch (Exception e) {
-            log.error("Error updating statuses for successful reconciliation", e);
-            throw e; // Re-throw to trigger transaction rollback
-        }
+        log.info("Updating statuses for successful reconciliation of transaction: {}", transactionReference);
+        paymentStatusTransitionService.markReconciled(transactionReference);
     }
     
-    /**
-     * Load and parse actual MT940 transactions from files in classpath
-     */
     /**
      * Create mock transactions for testing when MT940 parsing fails
      */
@@ -271,7 +187,7 @@ public class MT940ReconciliationService {
     }
     
     /**
-     * Load and parse actual MT940 transactions from files in classpath
+     * Load and parse the sample MT940 statement from the classpath
      */
     private List<MT940Transaction> loadMT940Transactions() {
         List<MT940Transaction> transactions = new ArrayList<>();
@@ -517,14 +433,40 @@ public class MT940ReconciliationService {
         private LocalDate valueDate;
         private String mt940Reference;
         private String transactionType;
+        private List<String> references;
         
         public MT940Transaction(String transactionReference, BigDecimal amount, 
                               LocalDate valueDate, String mt940Reference, String transactionType) {
+            this(transactionReference, amount, valueDate, mt940Reference, transactionType, List.of(transactionReference));
+        }
+        
+        /**
+         * @param references all references the transaction can be matched by (e.g. customer and bank reference)
+         */
+        public MT940Transaction(String transactionReference, BigDecimal amount, LocalDate valueDate,
+                              String mt940Reference, String transactionType, List<String> references) {
             this.transactionReference = transactionReference;
             this.amount = amount;
             this.valueDate = valueDate;
             this.mt940Reference = mt940Reference;
             this.transactionType = transactionType;
+            this.references = references;
+        }
+        
+        /**
+         * Index entry of a persisted statement line; it can be matched by any of its customer, bank and
+         * entry references other than NONREF.
+         */
+        public static MT940Transaction ofStatementLine(String stmtRef20, int lineNo, String dc, BigDecimal amount,
+                                                       LocalDate valueDate, String... candidateReferences) {
+            List<String> references = Arrays.stream(candidateReferences)
+                .filter(ref -> ref != null && !ref.isBlank() && !"NONREF".equalsIgnoreCase(ref.trim()))
+                .map(String::trim)
+                .distinct()
+                .toList();
+            String reference = references.isEmpty() ? "UNKNOWN_REF" : references.get(0);
+            String type = "D".equalsIgnoreCase(dc) ? "DEBIT" : "CREDIT";
+            return new MT940Transaction(reference, amount, valueDate, stmtRef20 + "-" + lineNo, type, references);
         }
         
         // Getters
@@ -533,5 +475,6 @@ public class MT940ReconciliationService {
         public LocalDate getValueDate() { return valueDate; }
         public String getMt940Reference() { return mt940Reference; }
         public String getTransactionType() { return transactionType; }
+        public List<String> getReferences() { return references; }
     }
 }
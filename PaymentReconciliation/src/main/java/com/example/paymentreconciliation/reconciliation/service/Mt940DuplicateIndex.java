@@ -0,0 +1,120 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.common.util.BloomFilter;
+import com.example.paymentreconciliation.reconciliation.config.Mt940IngestionProperties;
+import com.example.paymentreconciliation.reconciliation.dao.StatementTransactionQueryDao;
+import com.example.paymentreconciliation.reconciliation.repository.ImportRunRepository;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory front for MT940 duplicate detection on import_run.file_hash and
+ * statement_transaction.ext_idempotency_hash, warmed from the database at startup.
+ * Known file hashes are kept in a set; transaction hashes go into a Bloom filter, so only the
+ * hashes it reports as possibly present are confirmed against the database. Entries are added
+ * once an import has committed, so rolled-back imports are never reported as duplicates.
+ */
+@Component
+public class Mt940DuplicateIndex {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(Mt940DuplicateIndex.class);
+
+    private final ImportRunRepository importRunRepository;
+    private final StatementTransactionQueryDao statementTransactionQueryDao;
+    private final Set<String> fileHashes = ConcurrentHashMap.newKeySet();
+    private final Set<String> filesInProgress = ConcurrentHashMap.newKeySet();
+    private final BloomFilter transactionHashes;
+    private volatile boolean warmedUp;
+
+    public Mt940DuplicateIndex(ImportRunRepository importRunRepository,
+                               StatementTransactionQueryDao statementTransactionQueryDao,
+                               Mt940IngestionProperties props) {
+        this.importRunRepository = importRunRepository;
+        this.statementTransactionQueryDao = statementTransactionQueryDao;
+        this.transactionHashes = new BloomFilter(props.getDuplicateFilterExpectedTransactions(),
+            props.getDuplicateFilterFalsePositiveRate());
+    }
+
+    /**
+     * Load all imported file hashes and transaction hashes.
+     * Until this has run, every transaction hash is checked against the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        fileHashes.addAll(importRunRepository.findAllFileHashes());
+        long transactions = statementTransactionQueryDao.streamIdempotencyHashes(transactionHashes::put);
+        warmedUp = true;
+        log.info("MT940 duplicate index warmed with {} file hashes and {} transaction hashes in {} ms",
+            fileHashes.size(), transactions, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Whether a file with this content hash was already imported.
+     * Unknown hashes are confirmed against import_run, which also covers imports by other instances.
+     */
+    public boolean isDuplicateFile(String fileHash) {
+        if (fileHashes.contains(fileHash)) {
+            return true;
+        }
+        if (importRunRepository.existsByFileHash(fileHash)) {
+            fileHashes.add(fileHash);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Claim a file hash for processing, so the same content dropped twice is not imported in parallel.
+     * @return false if another thread is already processing a file with this hash
+     */
+    public boolean claimFile(String fileHash) {
+        return filesInProgress.add(fileHash);
+    }
+
+    public void releaseFile(String fileHash) {
+        filesInProgress.remove(fileHash);
+    }
+
+    /**
+     * Return the given transaction hashes that were already imported.
+     * Hashes the Bloom filter has never seen are new without a database round-trip.
+     */
+    public Set<String> findDuplicateTransactions(Collection<String> hashes) {
+        List<String> candidates;
+        if (warmedUp) {
+            candidates = new ArrayList<>();
+            for (String hash : hashes) {
+                if (transactionHashes.mightContain(hash)) {
+                    candidates.add(hash);
+                }
+            }
+        } else {
+            candidates = new ArrayList<>(hashes);
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = statementTransactionQueryDao.findExistingIdempotencyHashes(candidates);
+        log.debug("{} of {} transaction hashes checked against the database, {} already imported",
+            candidates.size(), hashes.size(), existing.size());
+        return existing;
+    }
+
+    /**
+     * Record a committed import.
+     */
+    public void recordImport(String fileHash, Collection<String> importedTransactionHashes) {
+        fileHashes.add(fileHash);
+        importedTransactionHashes.forEach(transactionHashes::put);
+    }
+}
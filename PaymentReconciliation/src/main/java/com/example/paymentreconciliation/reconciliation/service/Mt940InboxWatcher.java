@@ -0,0 +1,248 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.reconciliation.config.Mt940IngestionProperties;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the MT940 inbox and hands files to a bounded processing pool once they are stable.
+ * New and modified files are reported by a {@link WatchService}; the size and modification time
+ * of every tracked file are re-checked together on each scan, and a file is processed once both
+ * stayed unchanged for {@code mt940.stability-window-sec}. Each file is processed on its own pool
+ * thread in its own DB transaction (see {@link Mt940IngestionService#processInboxFile}).
+ */
+@Component
+public class Mt940InboxWatcher {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(Mt940InboxWatcher.class);
+
+    private final Mt940IngestionService ingestionService;
+    private final Mt940IngestionProperties props;
+    private final long stabilityWindowMs;
+    private final Map<Path, FileState> tracked = new ConcurrentHashMap<>();
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor processingPool;
+    private volatile WatchService watchService;
+
+    public Mt940InboxWatcher(Mt940IngestionService ingestionService, Mt940IngestionProperties props) {
+        this.ingestionService = ingestionService;
+        this.props = props;
+        this.stabilityWindowMs = Math.max(0, props.getStabilityWindowSec()) * 1000L;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("Mt940InboxScan-"));
+        int threads = Math.max(1, props.getProcessingThreads());
+        // No caller-runs fallback: a full queue leaves the file tracked and it is offered again on the next scan
+        this.processingPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, props.getProcessingQueueCapacity())),
+            new CustomizableThreadFactory("Mt940Ingest-"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (props.getInboxDir() == null) {
+            log.warn("mt940.inbox-dir is not configured, MT940 inbox watcher not started");
+            return;
+        }
+        Path inbox = inboxDir();
+        try {
+            Files.createDirectories(inbox);
+            Files.createDirectories(Paths.get(props.getProcessingDir()));
+            Files.createDirectories(Paths.get(props.getArchiveDir()));
+            Files.createDirectories(Paths.get(props.getQuarantineDir()));
+        } catch (IOException e) {
+            log.error("Cannot create MT940 directories under {}: {}", props.getBaseDir(), e.getMessage());
+            return;
+        }
+
+        long interval = Math.max(100L, props.getScanIntervalMs());
+        scheduler.scheduleWithFixedDelay(this::scan, interval, interval, TimeUnit.MILLISECONDS);
+
+        if (props.isWatchEnabled()) {
+            try {
+                watchService = FileSystems.getDefault().newWatchService();
+                inbox.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                Thread watchThread = new CustomizableThreadFactory("Mt940InboxWatch-").newThread(this::watchLoop);
+                watchThread.setDaemon(true);
+                watchThread.start();
+                log.info("Watching MT940 inbox {} (stability window {} s, {} processing threads)",
+                    inbox.toAbsolutePath(), props.getStabilityWindowSec(), processingPool.getCorePoolSize());
+            } catch (IOException e) {
+                log.error("Cannot watch MT940 inbox {}, files are only picked up on manual rescan: {}", inbox, e.getMessage());
+            }
+        }
+        // Files that arrived while the application was down
+        rescanInbox();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        WatchService ws = watchService;
+        if (ws != null) {
+            try {
+                ws.close();
+            } catch (IOException e) {
+                log.warn("Error closing MT940 inbox watch service: {}", e.getMessage());
+            }
+        }
+        scheduler.shutdownNow();
+        processingPool.shutdown();
+    }
+
+    /**
+     * Track every file currently in the inbox. Tracked files are processed once stable.
+     * @return number of inbox files tracked or already being processed
+     */
+    public int rescanInbox() {
+        if (props.getInboxDir() == null) {
+            return 0;
+        }
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inboxDir())) {
+            for (Path file : files) {
+                if (track(file)) {
+                    count++;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            log.debug("MT940 inbox directory does not exist: {}", props.getInboxDir());
+        } catch (IOException e) {
+            log.error("Cannot list MT940 inbox {}: {}", props.getInboxDir(), e.getMessage());
+        }
+        log.info("Inbox rescan found {} MT940 file(s)", count);
+        return count;
+    }
+
+    private void watchLoop() {
+        Path inbox = inboxDir();
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    rescanInbox();
+                } else {
+                    track(inbox.resolve((Path) event.context()));
+                }
+            }
+            if (!key.reset()) {
+                log.error("MT940 inbox {} is no longer accessible, stopped watching", inbox);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Start tracking a file. Only its path is recorded; size and mtime are read by the next scan.
+     */
+    boolean track(Path file) {
+        if (!Mt940IngestionService.isInboxFile(file.getFileName().toString()) || Files.isDirectory(file)) {
+            return false;
+        }
+        if (!inFlight.contains(file)) {
+            tracked.putIfAbsent(file, FileState.UNSEEN);
+        }
+        return true;
+    }
+
+    private void scan() {
+        try {
+            scan(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // Keep the scheduled scan alive whatever happens to a single pass
+            log.error("MT940 inbox scan failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Re-check size and mtime of all tracked files and submit those unchanged for the stability window.
+     */
+    void scan(long nowMillis) {
+        for (Map.Entry<Path, FileState> entry : tracked.entrySet()) {
+            Path file = entry.getKey();
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // Moved or deleted before it became stable
+                tracked.remove(file);
+                continue;
+            }
+            long size = attrs.size();
+            long modified = attrs.lastModifiedTime().toMillis();
+            FileState state = entry.getValue();
+            if (state.size() != size || state.modifiedMillis() != modified) {
+                tracked.put(file, new FileState(size, modified, nowMillis));
+            } else if (nowMillis - state.stableSinceMillis() >= stabilityWindowMs) {
+                submit(file);
+            }
+        }
+    }
+
+    private void submit(Path file) {
+        if (!inFlight.add(file)) {
+            tracked.remove(file);
+            return;
+        }
+        try {
+            processingPool.execute(() -> {
+                try {
+                    ingestionService.processInboxFile(file.toFile());
+                } finally {
+                    inFlight.remove(file);
+                }
+            });
+            tracked.remove(file);
+            log.debug("Stable MT940 file queued for processing: {}", file);
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(file);
+            log.debug("Processing queue full, {} stays tracked", file);
+        }
+    }
+
+    int getTrackedCount() {
+        return tracked.size();
+    }
+
+    private Path inboxDir() {
+        return Paths.get(props.getInboxDir());
+    }
+
+    /**
+     * Last observed size and mtime of a tracked file, and since when they have been unchanged
+     */
+    private record FileState(long size, long modifiedMillis, long stableSinceMillis) {
+        static final FileState UNSEEN = new FileState(-1, -1, Long.MAX_VALUE);
+    }
+}
@@ -10,7 +10,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -20,7 +25,11 @@ import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.example.paymentreconciliation.reconciliation.config.Mt940IngestionProperties;
+import com.example.paymentreconciliation.reconciliation.dao.Mt940StatementBulkDao;
 
 import com.example.paymentreconciliation.reconciliation.entity.*;
 import com.example.paymentreconciliation.reconciliation.repository.*;
@@ -34,65 +43,45 @@ public class Mt940IngestionService {
     private ImportRunRepository importRunRepository;
     @Autowired
     private StatementFileRepository statementFileRepository;
+
     @Autowired
-    private StatementBalanceRepository statementBalanceRepository;
+    private Mt940IngestionProperties mt940Props;
+
     @Autowired
-    private StatementTransactionRepository statementTransactionRepository;
+    private Mt940TransactionIndex transactionIndex;
 
     @Autowired
-    private RawStatementLineRepository rawStatementLineRepository;
+    private Mt940StatementBulkDao statementBulkDao;
+
     @Autowired
-    private Transaction86SegmentRepository transaction86SegmentRepository;
+    private Mt940DuplicateIndex duplicateIndex;
 
     @Autowired
-    private Mt940IngestionProperties mt940Props;
+    private TransactionTemplate transactionTemplate;
 
     private static final long MAX_FILE_SIZE_BYTES = 50 * 1024 * 1024; // 50MB
-    private static final int FILE_STABILITY_WINDOW_SEC = 10;
 
     /**
-     * Main entry point for polling and processing files.
+     * Returns true for file names the inbox accepts (.mt940, .sta, or a .zip of those).
      */
-    public void pollAndProcessInbox() {
-        log.info("Polling MT940 inbox directory: {}", mt940Props.getInboxDir());
-        List<File> files = discoverStableFiles(mt940Props.getInboxDir());
-        log.info("Discovered {} stable file(s) for ingestion", files.size());
-        for (File file : files) {
-            try {
-                log.info("Processing file: {}", file.getAbsolutePath());
-                processFile(file);
-            } catch (Exception e) {
-                log.error("Error processing file: {}. Moving to quarantine. Error: {}", file.getAbsolutePath(), e.getMessage(), e);
-                moveToQuarantine(file, "Unhandled error: " + e.getMessage());
-            }
-        }
+    public static boolean isInboxFile(String name) {
+        return name.endsWith(".mt940") || name.endsWith(".sta") || name.endsWith(".zip");
     }
 
     /**
-     * Discover files that are stable (not changing) for at least FILE_STABILITY_WINDOW_SEC.
+     * Process a stable file handed over by {@link Mt940InboxWatcher}.
+     * Unhandled errors move the file to quarantine instead of propagating.
      */
-    private List<File> discoverStableFiles(String inboxDir) {
-        log.debug("Discovering stable files in inbox: {}", inboxDir);
-        // Poll directory, check file size unchanged for 10s, filter by extension
-        File dir = new File(inboxDir);
-        File[] files = dir.listFiles((d, name) -> name.endsWith(".mt940") || name.endsWith(".sta") || name.endsWith(".zip"));
-        if (files == null) {
-            log.debug("No files found in inbox directory: {}", inboxDir);
-            return List.of();
-        }
-        List<File> stable = new ArrayList<>();
-        for (File f : files) {
-            long size1 = f.length();
-            try { Thread.sleep(FILE_STABILITY_WINDOW_SEC * 1000L); } catch (InterruptedException ignored) {}
-            long size2 = f.length();
-            if (size1 == size2) {
-                log.debug("File is stable: {} (size: {} bytes)", f.getName(), size1);
-                stable.add(f);
-            } else {
-                log.debug("File is not stable (size changed): {} ({} -> {} bytes)", f.getName(), size1, size2);
+    public void processInboxFile(File file) {
+        try {
+            log.info("Processing file: {}", file.getAbsolutePath());
+            processFile(file);
+        } catch (Exception e) {
+            log.error("Error processing file: {}. Moving to quarantine. Error: {}", file.getAbsolutePath(), e.getMessage(), e);
+            if (file.exists()) {
+                moveToQuarantine(file, "Unhandled error: " + e.getMessage());
             }
         }
-        return stable;
     }
 
     /**
@@ -113,38 +102,51 @@ public class Mt940IngestionService {
     String fileHash = computeSha256(processingFile);
     log.debug("Computed SHA-256 hash for file {}: {}", processingFile.getName(), fileHash);
         long fileSize = processingFile.length();
-        if (isDuplicate(fileHash)) {
-            log.warn("Duplicate file detected: {} (hash={})", processingFile.getName(), fileHash);
+        if (!duplicateIndex.claimFile(fileHash)) {
+            log.warn("File with the same content is already being processed: {} (hash={})", processingFile.getName(), fileHash);
             moveToArchive(processingFile);
             return;
         }
+        try {
+            if (isDuplicate(fileHash)) {
+                log.warn("Duplicate file detected: {} (hash={})", processingFile.getName(), fileHash);
+                moveToArchive(processingFile);
+                return;
+            }
+            importFile(file.getName(), processingFile, fileHash, fileSize);
+        } finally {
+            duplicateIndex.releaseFile(fileHash);
+        }
+    }
 
+    /**
+     * Steps 3-6 of {@link #processFile} for a file that is not a duplicate.
+     */
+    private void importFile(String fileName, File processingFile, String fileHash, long fileSize) {
         // 3. Decompress if needed
     List<File> mt940Files = decompressIfNeeded(processingFile);
     log.debug("Decompressed/collected {} MT940 file(s) from: {}", mt940Files.size(), processingFile.getName());
 
-        // 4. For each MT940 document: parse, validate, persist (one DB transaction per file)
-        boolean allSuccess = true;
-        for (File mt940 : mt940Files) {
-            try {
-                log.info("Parsing and persisting MT940 file: {}", mt940.getAbsolutePath());
-                parseValidatePersist(mt940, fileHash, fileSize);
-            } catch (Exception e) {
-                allSuccess = false;
-                log.error("Error parsing/persisting MT940 file: {}. Error: {}", mt940.getAbsolutePath(), e.getMessage(), e);
-                persistImportError(fileHash, mt940.getName(), e.getMessage());
+        // 4. Parse every MT940 document, then validate and persist them in one DB transaction per file
+        List<Mt940Parser.Statement> statements = new ArrayList<>();
+        try {
+            for (File mt940 : mt940Files) {
+                log.info("Parsing MT940 file: {}", mt940.getAbsolutePath());
+                statements.addAll(parse(mt940));
             }
+            transactionTemplate.executeWithoutResult(status ->
+                persistParsedStatements(statements, fileName, fileHash, fileSize));
+        } catch (Exception e) {
+            // 6. On failure: move to QUARANTINE and persist error details
+            log.error("Error parsing/persisting MT940 file: {}. Error: {}", processingFile.getAbsolutePath(), e.getMessage(), e);
+            persistImportError(fileHash, fileName, e.getMessage());
+            moveToQuarantine(processingFile, "One or more statements failed to import");
+            return;
         }
 
         // 5. On success: move original to ARCHIVE/YYYY/MM/DD
-        // 6. On failure: move to QUARANTINE and persist error details
-        if (allSuccess) {
-            log.info("Successfully processed file: {}. Moving to archive.", processingFile.getAbsolutePath());
-            moveToArchive(processingFile);
-        } else {
-            log.warn("Processing failed for file: {}. Moving to quarantine.", processingFile.getAbsolutePath());
-            moveToQuarantine(processingFile, "One or more statements failed to import");
-        }
+        log.info("Successfully processed file: {}. Moving to archive.", processingFile.getAbsolutePath());
+        moveToArchive(processingFile);
     }
 
     /**
@@ -187,13 +189,11 @@ public class Mt940IngestionService {
     }
 
     /**
-     * Check DB for existing file hash (stubbed to always return false).
-     * Replace with actual DB lookup for import_run.file_hash.
+     * Check for an existing import_run.file_hash, through the in-memory duplicate index.
      */
     private boolean isDuplicate(String fileHash) {
         log.debug("Checking for duplicate file hash: {}", fileHash);
-        // TODO: Implement DB check for import_run.file_hash
-        return false;
+        return duplicateIndex.isDuplicateFile(fileHash);
     }
 
     /**
@@ -237,21 +237,22 @@ public class Mt940IngestionService {
     }
 
     /**
-     * Parse, validate, and persist all statements/transactions in a DB transaction.
-     * This is a stub: actual parsing/validation logic should be implemented as per spec.
+     * Parse all statements of one MT940 document.
      */
-    private void parseValidatePersist(File mt940File, String fileHash, long fileSize) {
-        log.debug("Parsing and validating MT940 file: {}", mt940File.getAbsolutePath());
-        Mt940Parser parser = new Mt940Parser();
-        List<Mt940Parser.Statement> statements;
+    private List<Mt940Parser.Statement> parse(File mt940File) {
+        log.debug("Parsing MT940 file: {}", mt940File.getAbsolutePath());
         try {
-            statements = parser.parse(mt940File);
+            return new Mt940Parser().parse(mt940File);
         } catch (Mt940Parser.Mt940ParseException e) {
             throw new RuntimeException("MT940 parse error: " + e.getMessage(), e);
         }
-        persistParsedStatements(statements, mt940File.getName(), fileHash, fileSize);
     }
 
+    /**
+     * Validate and persist parsed statements under a single import run.
+     * Called through {@link #transactionTemplate} by {@link #processFile}, since the annotation
+     * only applies to calls coming through the Spring proxy.
+     */
     @Transactional
     public void persistParsedStatements(List<Mt940Parser.Statement> statements, String filename, String fileHash, long fileSize) {
         log.info("Persisting parsed statements for file: {} (hash={})", filename, fileHash);
@@ -264,6 +265,8 @@ public class Mt940IngestionService {
         importRun.setStatus(ImportRun.Status.PARSED);
         importRunRepository.save(importRun);
 
+        List<MT940ReconciliationService.MT940Transaction> indexed = new ArrayList<>();
+        Set<String> importedHashes = new HashSet<>();
         for (Mt940Parser.Statement stmt : statements) {
             // Validation: accountNo, currency, balances, transactions
             if (stmt.accountNo == null || stmt.accountNo.trim().isEmpty()) {
@@ -340,7 +343,8 @@ public class Mt940IngestionService {
             sf.setCreatedAt(java.time.LocalDateTime.now());
             statementFileRepository.save(sf);
 
-            // 6. Persist balances
+            // 6. Persist balances (one JDBC batch)
+            List<StatementBalance> balances = new ArrayList<>();
             StatementBalance ob = new StatementBalance();
             ob.setStatementFile(sf);
             ob.setBalType("OPENING");
@@ -348,7 +352,7 @@ public class Mt940IngestionService {
             ob.setBalDate(java.time.LocalDate.now());
             ob.setCurrency(stmt.openingBalance.currency);
             ob.setAmount(opening);
-            statementBalanceRepository.save(ob);
+            balances.add(ob);
 
             StatementBalance cb = new StatementBalance();
             cb.setStatementFile(sf);
@@ -357,7 +361,7 @@ public class Mt940IngestionService {
             cb.setBalDate(java.time.LocalDate.now());
             cb.setCurrency(stmt.closingBalance.currency);
             cb.setAmount(closing);
-            statementBalanceRepository.save(cb);
+            balances.add(cb);
 
             // Other balances
             if (stmt.otherBalances != null) {
@@ -369,12 +373,37 @@ public class Mt940IngestionService {
                     b.setBalDate(java.time.LocalDate.now());
                     b.setCurrency(bal.currency);
                     b.setAmount(new java.math.BigDecimal(bal.amount.replace(",", ".")));
-                    statementBalanceRepository.save(b);
+                    balances.add(b);
                 }
             }
+            statementBulkDao.insertBalances(balances);
 
-            // 7. Persist transactions
+            // Raw lines grouped by line number, so each transaction finds its lines in O(1)
+            Map<Integer, List<Mt940Parser.RawLine>> rawLinesByLineNo = new HashMap<>();
+            if (stmt.rawLines != null) {
+                for (Mt940Parser.RawLine rawLine : stmt.rawLines) {
+                    rawLinesByLineNo.computeIfAbsent(rawLine.lineNo, k -> new ArrayList<>(1)).add(rawLine);
+                }
+            }
+
+            // Transactions already imported (retries, overlapping statements) are skipped instead of failing on uq_txn_hash
+            List<String> statementHashes = new ArrayList<>(stmt.transactions.size());
             for (Mt940Parser.Transaction txn : stmt.transactions) {
+                statementHashes.add(txn.extIdempotencyHash);
+            }
+            Set<String> alreadyImported = duplicateIndex.findDuplicateTransactions(statementHashes);
+            int skipped = 0;
+
+            // 7. Persist transactions, then their :86: segments and raw lines (one JDBC batch each)
+            LocalDateTime createdAt = LocalDateTime.now();
+            List<StatementTransaction> transactions = new ArrayList<>(stmt.transactions.size());
+            List<Transaction86Segment> segments = new ArrayList<>(stmt.transactions.size());
+            List<RawStatementLine> rawLines = new ArrayList<>();
+            for (Mt940Parser.Transaction txn : stmt.transactions) {
+                if (alreadyImported.contains(txn.extIdempotencyHash) || !importedHashes.add(txn.extIdempotencyHash)) {
+                    skipped++;
+                    continue;
+                }
                 StatementTransaction st = new StatementTransaction();
                 st.setStatementFile(sf);
                 st.setLineNo(txn.lineNo);
@@ -391,10 +420,11 @@ public class Mt940IngestionService {
                 st.setNarrative(txn.narrative);
                 st.setNarrativeTokens(null); // Optionally serialize txn.narrativeTokens
                 st.setExtIdempotencyHash(txn.extIdempotencyHash);
-                st.setCreatedAt(java.time.LocalDateTime.now());
-                statementTransactionRepository.save(st);
+                st.setCreatedAt(createdAt);
+                transactions.add(st);
+                indexed.add(toIndexEntry(st));
 
-                // Persist Transaction86Segment for each narrative token (or the full narrative if no tokens)
+                // Transaction86Segment for each narrative token (or the full narrative if no tokens)
                 if (txn.narrativeTokens != null && !txn.narrativeTokens.isEmpty()) {
                     int segSeq = 1;
                     for (var entry : txn.narrativeTokens.entrySet()) {
@@ -403,7 +433,7 @@ public class Mt940IngestionService {
                         seg.setSegKey(entry.getKey());
                         seg.setSegValue(entry.getValue());
                         seg.setSegSeq(segSeq++);
-                        transaction86SegmentRepository.save(seg);
+                        segments.add(seg);
                     }
                 } else if (txn.narrative != null) {
                     Transaction86Segment seg = new Transaction86Segment();
@@ -411,24 +441,56 @@ public class Mt940IngestionService {
                     seg.setSegKey("FULL");
                     seg.setSegValue(txn.narrative);
                     seg.setSegSeq(1);
-                    transaction86SegmentRepository.save(seg);
+                    segments.add(seg);
                 }
 
-                // Persist RawStatementLine if available (from stmt.rawLines)
-                if (stmt.rawLines != null) {
-                    for (Mt940Parser.RawLine rawLine : stmt.rawLines) {
-                        if (rawLine.lineNo == txn.lineNo) { // match by line number
-                            RawStatementLine rsl = new RawStatementLine();
-                            rsl.setStatementFile(sf);
-                            rsl.setLineNo(rawLine.lineNo);
-                            rsl.setTag(rawLine.tag);
-                            rsl.setRawText(rawLine.rawText);
-                            rawStatementLineRepository.save(rsl);
-                        }
-                    }
+                // RawStatementLine if available (from stmt.rawLines), matched by line number
+                for (Mt940Parser.RawLine rawLine : rawLinesByLineNo.getOrDefault(txn.lineNo, List.of())) {
+                    RawStatementLine rsl = new RawStatementLine();
+                    rsl.setStatementFile(sf);
+                    rsl.setLineNo(rawLine.lineNo);
+                    rsl.setTag(rawLine.tag);
+                    rsl.setRawText(rawLine.rawText);
+                    rawLines.add(rsl);
                 }
             }
+            statementBulkDao.insertTransactions(sf.getId(), transactions);
+            statementBulkDao.insertSegments(segments);
+            statementBulkDao.insertRawLines(rawLines);
+            log.info("Persisted statement {} with {} transactions, {} segments and {} raw lines ({} duplicate transactions skipped)",
+                stmt.stmtRef20, transactions.size(), segments.size(), rawLines.size(), skipped);
+        }
+        publishImport(fileHash, importedHashes, indexed);
+    }
+
+    private MT940ReconciliationService.MT940Transaction toIndexEntry(StatementTransaction st) {
+        return MT940ReconciliationService.MT940Transaction.ofStatementLine(
+            st.getStatementFile().getStmtRef20(), st.getLineNo(), st.getDc(), st.getAmount(), st.getValueDate(),
+            st.getCustomerReference(), st.getBankReference(), st.getEntryReference());
+    }
+
+    /**
+     * Make the import visible to duplicate detection and reconciliation once it is committed.
+     */
+    private void publishImport(String fileHash, Set<String> transactionHashes,
+                               List<MT940ReconciliationService.MT940Transaction> transactions) {
+        Runnable publish = () -> {
+            duplicateIndex.recordImport(fileHash, transactionHashes);
+            if (!transactions.isEmpty()) {
+                transactionIndex.addAll(transactions);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
         }
+        log.info("Queued {} imported transactions for the reconciliation index", transactions.size());
     }
     
 
@@ -0,0 +1,119 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.reconciliation.service.MT940ReconciliationService.MT940Transaction;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory index of MT940 statement transactions used for reconciliation lookups.
+ * Transactions are keyed by reference, by amount in minor units (cents) and by both,
+ * so a reconcile call is a few hash lookups instead of a scan over all statement lines.
+ * Lookups run against an immutable snapshot; imports build a new snapshot and swap it in.
+ * When several transactions share a key, the one indexed first wins.
+ */
+@Component
+public class Mt940TransactionIndex {
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of(), 0);
+
+    /**
+     * Convert an amount to minor units (2 decimals, HALF_UP), e.g. 82752.30 -> 8275230.
+     * A null amount is treated as 0.
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValue();
+    }
+
+    /**
+     * Current snapshot; use one snapshot for all lookups of a single reconciliation.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Replace the index content with the given transactions.
+     */
+    public synchronized void replaceAll(Collection<MT940Transaction> transactions) {
+        snapshot = build(new HashMap<>(), new HashMap<>(), new HashMap<>(), 0, transactions);
+    }
+
+    /**
+     * Add newly imported transactions on top of the current content.
+     */
+    public synchronized void addAll(Collection<MT940Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        Snapshot current = snapshot;
+        snapshot = build(new HashMap<>(current.byReference), new HashMap<>(current.byAmount),
+            new HashMap<>(current.byReferenceAndAmount), current.size, transactions);
+    }
+
+    private static Snapshot build(Map<String, MT940Transaction> byReference,
+                                  Map<Long, MT940Transaction> byAmount,
+                                  Map<ReferenceAmount, MT940Transaction> byReferenceAndAmount,
+                                  int size,
+                                  Collection<MT940Transaction> transactions) {
+        for (MT940Transaction txn : transactions) {
+            long amount = toMinorUnits(txn.getAmount());
+            byAmount.putIfAbsent(amount, txn);
+            for (String reference : txn.getReferences()) {
+                byReference.putIfAbsent(reference, txn);
+                byReferenceAndAmount.putIfAbsent(new ReferenceAmount(reference, amount), txn);
+            }
+        }
+        return new Snapshot(byReference, byAmount, byReferenceAndAmount, size + transactions.size());
+    }
+
+    private record ReferenceAmount(String reference, long amountMinor) {
+    }
+
+    /**
+     * Immutable view of the index at one point in time.
+     */
+    public static final class Snapshot {
+        private final Map<String, MT940Transaction> byReference;
+        private final Map<Long, MT940Transaction> byAmount;
+        private final Map<ReferenceAmount, MT940Transaction> byReferenceAndAmount;
+        private final int size;
+
+        private Snapshot(Map<String, MT940Transaction> byReference,
+                         Map<Long, MT940Transaction> byAmount,
+                         Map<ReferenceAmount, MT940Transaction> byReferenceAndAmount,
+                         int size) {
+            this.byReference = byReference;
+            this.byAmount = byAmount;
+            this.byReferenceAndAmount = byReferenceAndAmount;
+            this.size = size;
+        }
+
+        public MT940Transaction findByReferenceAndAmount(String reference, long amountMinor) {
+            return reference == null ? null : byReferenceAndAmount.get(new ReferenceAmount(reference, amountMinor));
+        }
+
+        public MT940Transaction findByAmount(long amountMinor) {
+            return byAmount.get(amountMinor);
+        }
+
+        public MT940Transaction findByReference(String reference) {
+            return reference == null ? null : byReference.get(reference);
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -1,17 +1,6 @@
 package com.example.paymentreconciliation.reconciliation.service;
 
-import com.example.paymentreconciliation.board.dao.BoardReceiptRepository;
-import com.example.paymentreconciliation.board.dao.BoardReceiptQueryDao;
-import com.example.paymentreconciliation.board.entity.BoardReceipt;
-
-import com.example.paymentreconciliation.employer.dao.EmployerPaymentReceiptRepository;
 import com.example.paymentreconciliation.employer.entity.EmployerPaymentReceipt;
-import com.example.paymentreconciliation.worker.repository.WorkerPaymentReceiptRepository;
-import com.example.paymentreconciliation.worker.dao.WorkerPaymentReceiptQueryDao;
-import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
-import com.example.paymentreconciliation.worker.entity.WorkerPayment;
-import com.example.paymentreconciliation.worker.service.WorkerPaymentService;
-
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
 
 import org.slf4j.Logger;
@@ -27,7 +16,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Service for processing payments after successful reconciliation
@@ -40,22 +28,7 @@ public class PaymentProcessingService {
     private static final Logger log = LoggerFactoryProvider.getLogger(PaymentProcessingService.class);
     
     @Autowired
-    private EmployerPaymentReceiptRepository employerPaymentReceiptRepository;
-    
-    @Autowired
-    private WorkerPaymentReceiptRepository workerPaymentReceiptRepository;
-    
-    @Autowired
-    private WorkerPaymentReceiptQueryDao workerPaymentReceiptQueryDao;
-    
-    @Autowired
-    private BoardReceiptRepository boardReceiptRepository;
-    
-    @Autowired
-    private BoardReceiptQueryDao boardReceiptQueryDao;
-    
-    @Autowired
-    private WorkerPaymentService workerPaymentService;
+    private PaymentStatusTransitionService paymentStatusTransitionService;
     
     /**
      * Process payment after successful reconciliation
@@ -71,8 +44,11 @@ public class PaymentProcessingService {
         result.setProcessedAt(LocalDateTime.now());
         
         try {
-            // Find employer receipts by transaction reference
-            List<EmployerPaymentReceipt> employerReceipts = employerPaymentReceiptRepository.findByTransactionReference(transactionReference);
+            // Employer receipts ACCEPTED, worker receipts and all their worker payments PAYMENT_PROCESSED,
+            // board receipts PROCESSED - set-based updates in this transaction
+            PaymentStatusTransitionService.StatusTransitionResult transition =
+                paymentStatusTransitionService.markProcessed(transactionReference);
+            List<EmployerPaymentReceipt> employerReceipts = transition.getEmployerReceipts();
             
             if (employerReceipts.isEmpty()) {
                 throw new RuntimeException("No employer receipts found for transaction reference: " + transactionReference);
@@ -82,50 +58,13 @@ public class PaymentProcessingService {
             int totalRecordsProcessed = 0;
             
             for (EmployerPaymentReceipt employerReceipt : employerReceipts) {
-                log.info("Processing employer receipt: {}", employerReceipt.getEmployerReceiptNumber());
-                
-                // Update employer receipt status to ACCEPTED
-                employerReceipt.setStatus("ACCEPTED");
-                employerPaymentReceiptRepository.save(employerReceipt);
-                
-                // Find and update worker payment receipt
-                Optional<WorkerPaymentReceipt> workerReceiptOpt = workerPaymentReceiptQueryDao.findByReceiptNumber(employerReceipt.getWorkerReceiptNumber());
-                
-                if (workerReceiptOpt.isPresent()) {
-                    WorkerPaymentReceipt workerReceipt = workerReceiptOpt.get();
-                    workerReceipt.setStatus("PAYMENT_PROCESSED");
-                    workerPaymentReceiptRepository.save(workerReceipt);
-                    log.info("Updated worker payment receipt {} to PAYMENT_PROCESSED", workerReceipt.getReceiptNumber());
-                    
-                    // Also update all worker payments with this receipt number to PAYMENT_PROCESSED
-                    // For now, get first page of results - can be improved with proper pagination handling
-                    List<WorkerPayment> workerPayments = workerPaymentService.findByReceiptNumber(workerReceipt.getReceiptNumber(), 
-                        org.springframework.data.domain.PageRequest.of(0, 1000)).getContent();
-                    for (WorkerPayment payment : workerPayments) {
-                        payment.setStatus("PAYMENT_PROCESSED");
-                        workerPaymentService.save(payment);
-                        log.debug("Updated worker payment {} to PAYMENT_PROCESSED", payment.getWorkerRef());
-                    }
-                    log.info("Updated {} worker payments to PAYMENT_PROCESSED for receipt {}", 
-                        workerPayments.size(), workerReceipt.getReceiptNumber());
-                }
-                
-                // Find and update board receipt
-                Optional<BoardReceipt> boardReceiptOpt = boardReceiptQueryDao.findByEmployerRef(employerReceipt.getEmployerReceiptNumber());
-                
-                if (boardReceiptOpt.isPresent()) {
-                    BoardReceipt boardReceipt = boardReceiptOpt.get();
-                    boardReceipt.setStatus("PROCESSED");
-                    boardReceiptRepository.save(boardReceipt);
-                    log.info("Updated board receipt {} to PROCESSED", boardReceipt.getBoardRef());
-                }
-                
-                // Board reconciliation receipt status will be updated elsewhere if needed
-                
                 totalProcessedAmount = totalProcessedAmount.add(employerReceipt.getTotalAmount());
                 totalRecordsProcessed++;
             }
             
+            log.info("Updated {} worker payments to PAYMENT_PROCESSED across {} worker receipts",
+                transition.getWorkerPaymentsUpdated(), transition.getWorkerReceiptsUpdated());
+            
             result.setTotalAmount(totalProcessedAmount);
             result.setTotalRecords(totalRecordsProcessed);
             result.setStatus("SUCCESS");
@@ -0,0 +1,217 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
+import com.example.paymentreconciliation.employer.dao.EmployerPaymentReceiptQueryDao;
+import com.example.paymentreconciliation.employer.entity.EmployerPaymentReceipt;
+import com.example.paymentreconciliation.reconciliation.dao.ReconciliationStatusDao;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import com.example.paymentreconciliation.worker.dao.WorkerPaymentReceiptQueryDao;
+import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Set-based status transitions of worker payment receipts and all their worker payments:
+ * per receipt (send to employer, validate) and for everything paid with one bank transaction
+ * (reconcile, process), where employer receipts and optionally board receipts move too.
+ * Runs a constant number of UPDATE batches in one transaction, whatever the number of worker
+ * payments, and rolls back when the payments moved do not add up to the receipts' total records.
+ */
+@Service
+public class PaymentStatusTransitionService {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(PaymentStatusTransitionService.class);
+
+    /**
+     * Transitions of a worker payment receipt and its worker payments
+     */
+    public enum ReceiptTransition {
+        SEND(Set.of("PROCESSED", "PAYMENT_INITIATED"), "PAYMENT_INITIATED", Set.of(), "PAYMENT_INITIATED"),
+        VALIDATE(Set.of("PROCESSED", "PAYMENT_INITIATED"), "VALIDATED", Set.of("PAYMENT_REQUESTED"), "PAYMENT_INITIATED"),
+        // Driven by the bank transaction, so not restricted by the receipt's current status
+        RECONCILE(Set.of(), "PAYMENT_RECONCILED", Set.of(), "PAYMENT_RECONCILED"),
+        PROCESS(Set.of(), "PAYMENT_PROCESSED", Set.of(), "PAYMENT_PROCESSED");
+
+        private final Set<String> receiptFromStatuses;
+        private final String receiptStatus;
+        private final Set<String> paymentFromStatuses;
+        private final String paymentStatus;
+
+        ReceiptTransition(Set<String> receiptFromStatuses, String receiptStatus,
+                          Set<String> paymentFromStatuses, String paymentStatus) {
+            this.receiptFromStatuses = receiptFromStatuses;
+            this.receiptStatus = receiptStatus;
+            this.paymentFromStatuses = paymentFromStatuses;
+            this.paymentStatus = paymentStatus;
+        }
+
+        /**
+         * Receipt statuses the transition starts from; empty for any
+         */
+        public Set<String> getReceiptFromStatuses() { return receiptFromStatuses; }
+        public String getReceiptStatus() { return receiptStatus; }
+        /**
+         * Statuses of the payments that are moved; empty for all payments of the receipt
+         */
+        public Set<String> getPaymentFromStatuses() { return paymentFromStatuses; }
+        public String getPaymentStatus() { return paymentStatus; }
+    }
+
+    private final EmployerPaymentReceiptQueryDao employerReceiptQueryDao;
+    private final WorkerPaymentReceiptQueryDao workerReceiptQueryDao;
+    private final ReconciliationStatusDao statusDao;
+    private final ResourceVersionService resourceVersionService;
+
+    public PaymentStatusTransitionService(EmployerPaymentReceiptQueryDao employerReceiptQueryDao,
+                                          WorkerPaymentReceiptQueryDao workerReceiptQueryDao,
+                                          ReconciliationStatusDao statusDao,
+                                          ResourceVersionService resourceVersionService) {
+        this.employerReceiptQueryDao = employerReceiptQueryDao;
+        this.workerReceiptQueryDao = workerReceiptQueryDao;
+        this.statusDao = statusDao;
+        this.resourceVersionService = resourceVersionService;
+    }
+
+    /**
+     * Worker receipt sent to the employer: receipt and all its worker payments PAYMENT_INITIATED.
+     * @return number of worker payments updated
+     */
+    @Transactional
+    public int sendToEmployer(String receiptNumber) {
+        return apply(receiptNumber, ReceiptTransition.SEND);
+    }
+
+    /**
+     * Worker receipt validated by the employer: receipt VALIDATED, requested worker payments PAYMENT_INITIATED.
+     * @return number of worker payments updated
+     */
+    @Transactional
+    public int validate(String receiptNumber) {
+        return apply(receiptNumber, ReceiptTransition.VALIDATE);
+    }
+
+    /**
+     * Apply the transition to one worker receipt and its worker payments.
+     * @return number of worker payments updated
+     * @throws IllegalStateException if the receipt is not in a status the transition starts from, or if
+     *         afterwards the receipt's payments in the new status differ from its total records
+     */
+    @Transactional
+    public int apply(String receiptNumber, ReceiptTransition transition) {
+        WorkerPaymentReceipt receipt = workerReceiptQueryDao.findByReceiptNumber(receiptNumber)
+            .orElseThrow(() -> new IllegalStateException("Worker payment receipt not found: " + receiptNumber));
+        if (!transition.getReceiptFromStatuses().isEmpty()
+                && !transition.getReceiptFromStatuses().contains(receipt.getStatus())) {
+            throw new IllegalStateException("Cannot " + transition.name().toLowerCase() + " worker receipt "
+                + receiptNumber + " in status " + receipt.getStatus());
+        }
+
+        Set<String> receiptNumbers = Set.of(receiptNumber);
+        statusDao.updateWorkerReceiptStatus(receiptNumbers, transition.getReceiptStatus());
+        resourceVersionService.markChanged(ResourceVersionService.WORKER_PAYMENT_RECEIPTS);
+        int updated = statusDao.updateWorkerPaymentStatusByReceipt(receiptNumbers,
+            transition.getPaymentFromStatuses(), transition.getPaymentStatus());
+        // Payments not moved by a filtered transition must already be in the new status
+        long inStatus = transition.getPaymentFromStatuses().isEmpty()
+            ? updated : statusDao.countWorkerPaymentsByReceipt(receiptNumbers, transition.getPaymentStatus());
+        long expected = receipt.getTotalRecords() != null ? receipt.getTotalRecords() : 0;
+        verifyPaymentCount("worker receipt " + receiptNumber, transition.getPaymentStatus(), expected, inStatus);
+
+        log.info("Worker receipt {}: {} -> {}, {} worker payments -> {}", receiptNumber, receipt.getStatus(),
+            transition.getReceiptStatus(), updated, transition.getPaymentStatus());
+        return updated;
+    }
+
+    /**
+     * Worker payments of a reconciled bank transaction: employer receipt RECONCILED,
+     * worker receipt and worker payments PAYMENT_RECONCILED.
+     */
+    @Transactional
+    public StatusTransitionResult markReconciled(String transactionReference) {
+        return transition(transactionReference, "RECONCILED", ReceiptTransition.RECONCILE.getReceiptStatus(),
+            ReceiptTransition.RECONCILE.getPaymentStatus(), null);
+    }
+
+    /**
+     * Payments processed after reconciliation: employer receipt ACCEPTED, worker receipt and
+     * worker payments PAYMENT_PROCESSED, board receipt PROCESSED.
+     */
+    @Transactional
+    public StatusTransitionResult markProcessed(String transactionReference) {
+        return transition(transactionReference, "ACCEPTED", ReceiptTransition.PROCESS.getReceiptStatus(),
+            ReceiptTransition.PROCESS.getPaymentStatus(), "PROCESSED");
+    }
+
+    /**
+     * Move all receipts and payments of the bank transaction to the given statuses.
+     * @param boardReceiptStatus new board receipt status, or null to leave board receipts unchanged
+     * @throws IllegalStateException if the worker payments updated differ from the worker receipts' total records
+     */
+    @Transactional
+    public StatusTransitionResult transition(String transactionReference, String employerReceiptStatus,
+                                             String workerReceiptStatus, String workerPaymentStatus,
+                                             String boardReceiptStatus) {
+        List<EmployerPaymentReceipt> employerReceipts = employerReceiptQueryDao.findByTransactionReference(transactionReference);
+        StatusTransitionResult result = new StatusTransitionResult(employerReceipts);
+        if (employerReceipts.isEmpty()) {
+            log.warn("No employer payment receipt found for transaction reference: {}", transactionReference);
+            return result;
+        }
+
+        Set<String> employerReceiptNumbers = new LinkedHashSet<>();
+        Set<String> workerReceiptNumbers = new LinkedHashSet<>();
+        for (EmployerPaymentReceipt receipt : employerReceipts) {
+            employerReceiptNumbers.add(receipt.getEmployerReceiptNumber());
+            workerReceiptNumbers.add(receipt.getWorkerReceiptNumber());
+        }
+
+        result.employerReceiptsUpdated = statusDao.updateEmployerReceiptStatus(employerReceiptNumbers, employerReceiptStatus);
+        result.workerReceiptsUpdated = statusDao.updateWorkerReceiptStatus(workerReceiptNumbers, workerReceiptStatus);
+        resourceVersionService.markChanged(ResourceVersionService.WORKER_PAYMENT_RECEIPTS);
+        result.workerPaymentsUpdated = statusDao.updateWorkerPaymentStatusByReceipt(workerReceiptNumbers, workerPaymentStatus);
+        verifyPaymentCount("transaction " + transactionReference, workerPaymentStatus,
+            statusDao.sumWorkerReceiptTotalRecords(workerReceiptNumbers), result.workerPaymentsUpdated);
+        if (boardReceiptStatus != null) {
+            result.boardReceiptsUpdated = statusDao.updateBoardReceiptStatusByEmployerReceipt(employerReceiptNumbers, boardReceiptStatus);
+        }
+
+        log.info("Transaction {}: {} employer receipts -> {}, {} worker receipts -> {}, {} worker payments -> {}, {} board receipts",
+            transactionReference, result.employerReceiptsUpdated, employerReceiptStatus,
+            result.workerReceiptsUpdated, workerReceiptStatus, result.workerPaymentsUpdated, workerPaymentStatus,
+            result.boardReceiptsUpdated);
+        return result;
+    }
+
+    private void verifyPaymentCount(String scope, String paymentStatus, long expected, long actual) {
+        if (actual != expected) {
+            throw new IllegalStateException("Expected " + expected + " worker payments of " + scope + " in "
+                + paymentStatus + " but found " + actual + "; rolling back");
+        }
+    }
+
+    /**
+     * Receipts found for the bank transaction and the number of rows updated per table
+     */
+    public static class StatusTransitionResult {
+        private final List<EmployerPaymentReceipt> employerReceipts;
+        private int employerReceiptsUpdated;
+        private int workerReceiptsUpdated;
+        private int workerPaymentsUpdated;
+        private int boardReceiptsUpdated;
+
+        StatusTransitionResult(List<EmployerPaymentReceipt> employerReceipts) {
+            this.employerReceipts = employerReceipts;
+        }
+
+        public List<EmployerPaymentReceipt> getEmployerReceipts() { return employerReceipts; }
+        public int getEmployerReceiptsUpdated() { return employerReceiptsUpdated; }
+        public int getWorkerReceiptsUpdated() { return workerReceiptsUpdated; }
+        public int getWorkerPaymentsUpdated() { return workerPaymentsUpdated; }
+        public int getBoardReceiptsUpdated() { return boardReceiptsUpdated; }
+    }
+}
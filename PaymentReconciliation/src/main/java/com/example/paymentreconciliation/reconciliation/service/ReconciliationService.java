@@ -1,18 +1,251 @@
 package com.example.paymentreconciliation.reconciliation.service;
 
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
+import com.example.paymentreconciliation.employer.dao.EmployerPaymentReceiptQueryDao;
+import com.example.paymentreconciliation.employer.entity.EmployerPaymentReceipt;
+import com.example.paymentreconciliation.reconciliation.dao.ReconciliationStatusDao;
+import com.example.paymentreconciliation.reconciliation.dao.StatementTransactionQueryDao;
+import com.example.paymentreconciliation.reconciliation.dao.StatementTransactionQueryDao.MatchCandidate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * End-of-day bulk reconciliation of employer receipts against persisted MT940 statement transactions.
+ * Pending receipts form the build side of a hash join (keyed by transaction reference and by amount
+ * in minor units); unmatched credit transactions in the receipt currency, value-dated no earlier than
+ * app.reconciliation.value-date-lookback-days before the oldest pending receipt, are streamed once as
+ * the probe side. Status updates and the statement transaction each receipt was reconciled against are
+ * written with set-based batches in a single transaction. Receipts are only moved while still pending,
+ * so concurrent runs, on this or another instance, never reconcile a receipt twice.
+ */
 @Service
 public class ReconciliationService {
 
     private static final Logger log = LoggerFactoryProvider.getLogger(ReconciliationService.class);
 
-    public String reconcilePayments() {
+    /**
+     * Employer receipt statuses that carry a transaction reference and still wait for the bank statement
+     */
+    private static final List<String> PENDING_STATUSES = List.of("SEND TO BOARD", "VALIDATED");
+
+    private final EmployerPaymentReceiptQueryDao employerReceiptQueryDao;
+    private final StatementTransactionQueryDao statementTransactionQueryDao;
+    private final ReconciliationStatusDao statusDao;
+    private final ResourceVersionService resourceVersionService;
+    private final String currency;
+    private final int valueDateLookbackDays;
+
+    public ReconciliationService(EmployerPaymentReceiptQueryDao employerReceiptQueryDao,
+                                 StatementTransactionQueryDao statementTransactionQueryDao,
+                                 ReconciliationStatusDao statusDao,
+                                 ResourceVersionService resourceVersionService,
+                                 @Value("${app.reconciliation.currency:INR}") String currency,
+                                 @Value("${app.reconciliation.value-date-lookback-days:30}") int valueDateLookbackDays) {
+        this.employerReceiptQueryDao = employerReceiptQueryDao;
+        this.statementTransactionQueryDao = statementTransactionQueryDao;
+        this.statusDao = statusDao;
+        this.resourceVersionService = resourceVersionService;
+        this.currency = currency;
+        this.valueDateLookbackDays = Math.max(0, valueDateLookbackDays);
+    }
+
+    /**
+     * Match all pending employer receipts against the persisted statement transactions and
+     * mark exact matches (reference and amount) as reconciled.
+     */
+    @Transactional
+    public ReconciliationSummary reconcilePayments() {
         log.info("Starting payment reconciliation process");
-        String result = "Reconciliation completed";
-        log.info("Finished payment reconciliation process");
-        return result;
+        long start = System.nanoTime();
+        ReconciliationSummary summary = new ReconciliationSummary();
+        summary.setStartedAt(LocalDateTime.now());
+
+        // Build side: pending receipts by reference and by amount
+        List<EmployerPaymentReceipt> pending = employerReceiptQueryDao.findWithTransactionReferenceByStatusIn(PENDING_STATUSES);
+        Map<String, List<ReceiptMatch>> byReference = new HashMap<>();
+        Map<Long, List<ReceiptMatch>> byAmount = new HashMap<>();
+        List<ReceiptMatch> matches = new ArrayList<>(pending.size());
+        for (EmployerPaymentReceipt receipt : pending) {
+            ReceiptMatch match = new ReceiptMatch(receipt);
+            matches.add(match);
+            byReference.computeIfAbsent(match.reference, key -> new ArrayList<>(1)).add(match);
+            byAmount.computeIfAbsent(match.amountMinor, key -> new ArrayList<>(1)).add(match);
+        }
+        summary.setPendingReceipts(pending.size());
+
+        // Probe side: one pass over the unmatched credits since the oldest pending receipt, ordered by validated_at
+        if (!matches.isEmpty()) {
+            LocalDate fromValueDate = pending.get(0).getValidatedAt().toLocalDate().minusDays(valueDateLookbackDays);
+            long scanned = statementTransactionQueryDao.streamMatchCandidates(currency, fromValueDate,
+                candidate -> probe(candidate, byReference, byAmount));
+            summary.setStatementTransactionsScanned(scanned);
+        }
+
+        // Classify and collect keys for the bulk updates
+        Map<String, Long> reconciledEmployerReceipts = new LinkedHashMap<>();
+        Map<String, String> workerReceiptsByEmployerReceipt = new HashMap<>();
+        for (ReceiptMatch match : matches) {
+            if (match.exactTxnId != null) {
+                summary.matched++;
+                reconciledEmployerReceipts.put(match.receipt.getEmployerReceiptNumber(), match.exactTxnId);
+                workerReceiptsByEmployerReceipt.put(match.receipt.getEmployerReceiptNumber(),
+                    match.receipt.getWorkerReceiptNumber());
+            } else if (match.referenceTxnId != null && match.amountTxnId != null
+                    && !match.referenceTxnId.equals(match.amountTxnId)) {
+                summary.splitMatched++;
+                summary.splitMatchedReceiptNumbers.add(match.receipt.getEmployerReceiptNumber());
+            } else {
+                summary.unmatched++;
+                if (match.referenceTxnId != null) {
+                    summary.referenceOnly++;
+                } else if (match.amountTxnId != null) {
+                    summary.amountOnly++;
+                }
+            }
+        }
+
+        // Only receipts still pending are claimed; the rest were reconciled by a concurrent run
+        Set<String> claimed = statusDao.reconcileEmployerReceipts(reconciledEmployerReceipts, PENDING_STATUSES, "RECONCILED");
+        if (claimed.size() < reconciledEmployerReceipts.size()) {
+            log.warn("{} matched employer receipts were no longer pending and were left to the run that moved them",
+                reconciledEmployerReceipts.size() - claimed.size());
+        }
+        Set<String> reconciledWorkerReceipts = new LinkedHashSet<>();
+        for (String employerReceiptNumber : claimed) {
+            reconciledWorkerReceipts.add(workerReceiptsByEmployerReceipt.get(employerReceiptNumber));
+        }
+        summary.setEmployerReceiptsUpdated(claimed.size());
+        summary.setWorkerReceiptsUpdated(
+            statusDao.updateWorkerReceiptStatus(reconciledWorkerReceipts, "PAYMENT_RECONCILED"));
+        resourceVersionService.markChanged(ResourceVersionService.WORKER_PAYMENT_RECEIPTS);
+        summary.setWorkerPaymentsUpdated(
+            statusDao.updateWorkerPaymentStatusByReceipt(reconciledWorkerReceipts, "PAYMENT_RECONCILED"));
+
+        summary.setElapsedMs((System.nanoTime() - start) / 1_000_000L);
+        log.info("Finished payment reconciliation process - pending: {}, matched: {}, split matched: {}, unmatched: {}, scanned {} statement transactions in {} ms",
+            summary.getPendingReceipts(), summary.getMatched(), summary.getSplitMatched(), summary.getUnmatched(),
+            summary.getStatementTransactionsScanned(), summary.getElapsedMs());
+        return summary;
+    }
+
+    /**
+     * Match one statement transaction against the pending receipts. A transaction is matched exactly
+     * to at most one receipt; the first unmatched receipt with the same reference and amount wins.
+     */
+    private void probe(MatchCandidate candidate, Map<String, List<ReceiptMatch>> byReference,
+                       Map<Long, List<ReceiptMatch>> byAmount) {
+        long amountMinor = Mt940TransactionIndex.toMinorUnits(candidate.amount());
+        boolean consumed = false;
+        for (String reference : new String[] {
+                candidate.customerReference(), candidate.bankReference(), candidate.entryReference()}) {
+            if (reference == null || reference.isBlank()) {
+                continue;
+            }
+            List<ReceiptMatch> receipts = byReference.get(reference.trim());
+            if (receipts == null) {
+                continue;
+            }
+            for (ReceiptMatch match : receipts) {
+                if (!consumed && match.exactTxnId == null && match.amountMinor == amountMinor) {
+                    match.exactTxnId = candidate.id();
+                    consumed = true;
+                }
+                if (match.referenceTxnId == null) {
+                    match.referenceTxnId = candidate.id();
+                }
+            }
+        }
+        List<ReceiptMatch> sameAmount = byAmount.get(amountMinor);
+        if (sameAmount != null) {
+            for (ReceiptMatch match : sameAmount) {
+                if (match.amountTxnId == null) {
+                    match.amountTxnId = candidate.id();
+                }
+            }
+        }
+    }
+
+    private static final class ReceiptMatch {
+        private final EmployerPaymentReceipt receipt;
+        private final String reference;
+        private final long amountMinor;
+        private Long exactTxnId;
+        private Long referenceTxnId;
+        private Long amountTxnId;
+
+        private ReceiptMatch(EmployerPaymentReceipt receipt) {
+            this.receipt = receipt;
+            this.reference = receipt.getTransactionReference().trim();
+            this.amountMinor = Mt940TransactionIndex.toMinorUnits(receipt.getTotalAmount());
+        }
+    }
+
+    /**
+     * DTO class for the result of a bulk reconciliation run
+     */
+    public static class ReconciliationSummary {
+        private LocalDateTime startedAt;
+        private int pendingReceipts;
+        private long statementTransactionsScanned;
+        private int matched;
+        private int splitMatched;
+        private int unmatched;
+        private int referenceOnly;
+        private int amountOnly;
+        private int employerReceiptsUpdated;
+        private int workerReceiptsUpdated;
+        private int workerPaymentsUpdated;
+        private long elapsedMs;
+        private final List<String> splitMatchedReceiptNumbers = new ArrayList<>();
+
+        // Getters and Setters
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+        public int getPendingReceipts() { return pendingReceipts; }
+        public void setPendingReceipts(int pendingReceipts) { this.pendingReceipts = pendingReceipts; }
+
+        public long getStatementTransactionsScanned() { return statementTransactionsScanned; }
+        public void setStatementTransactionsScanned(long statementTransactionsScanned) { this.statementTransactionsScanned = statementTransactionsScanned; }
+
+        public int getMatched() { return matched; }
+        public int getSplitMatched() { return splitMatched; }
+
+        /**
+         * Receipts without an exact or split match; includes the reference-only and amount-only counts
+         */
+        public int getUnmatched() { return unmatched; }
+        public int getReferenceOnly() { return referenceOnly; }
+        public int getAmountOnly() { return amountOnly; }
+
+        public int getEmployerReceiptsUpdated() { return employerReceiptsUpdated; }
+        public void setEmployerReceiptsUpdated(int employerReceiptsUpdated) { this.employerReceiptsUpdated = employerReceiptsUpdated; }
+
+        public int getWorkerReceiptsUpdated() { return workerReceiptsUpdated; }
+        public void setWorkerReceiptsUpdated(int workerReceiptsUpdated) { this.workerReceiptsUpdated = workerReceiptsUpdated; }
+
+        public int getWorkerPaymentsUpdated() { return workerPaymentsUpdated; }
+        public void setWorkerPaymentsUpdated(int workerPaymentsUpdated) { this.workerPaymentsUpdated = workerPaymentsUpdated; }
+
+        public long getElapsedMs() { return elapsedMs; }
+        public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+        /**
+         * Employer receipts whose reference and amount matched different statement transactions (need manual review)
+         */
+        public List<String> getSplitMatchedReceiptNumbers() { return splitMatchedReceiptNumbers; }
     }
 }
@@ -2,9 +2,9 @@ package com.example.paymentreconciliation.system.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
@@ -25,10 +25,18 @@ import java.util.Map;
 public class DatabaseCleanupController {
     
     private static final Logger log = LoggerFactoryProvider.getLogger(DatabaseCleanupController.class);
+
+    private static final String FILE_STATUS_COUNTERS = "file_status_counters";
     
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private ETagResponseService eTagResponseService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     @Operation(summary = "Clean all database tables", 
                description = "Executes the cleanup script to truncate all tables and reset auto-increment counters. USE WITH CAUTION!")
     @PostMapping("/cleanup")
@@ -53,7 +61,8 @@ public class DatabaseCleanupController {
                 "worker_payment_receipts",
                 "worker_uploaded_data",
                 "worker_payments",
-                "uploaded_files"
+                "uploaded_files",
+                FILE_STATUS_COUNTERS
             };
             
             int truncatedTables = 0;
@@ -67,8 +76,11 @@ public class DatabaseCleanupController {
                 }
             }
             
-            // Reset auto-increment counters
+            // Reset auto-increment counters (file_status_counters is keyed by file id and has none)
             for (String table : tables) {
+                if (FILE_STATUS_COUNTERS.equals(table)) {
+                    continue;
+                }
                 try {
                     statement.execute("ALTER TABLE " + table + " AUTO_INCREMENT = 1");
                     log.info("Reset auto-increment for table: {}", table);
@@ -81,6 +93,10 @@ public class DatabaseCleanupController {
             statement.execute("SET FOREIGN_KEY_CHECKS = 1");
             log.info("Re-enabled foreign key checks");
             
+            // Invalidate ETags handed out for the deleted data
+            resourceVersionService.markChanged(ResourceVersionService.WORKER_UPLOADED_DATA);
+            resourceVersionService.markChanged(ResourceVersionService.WORKER_PAYMENT_RECEIPTS);
+            
             // Verify tables are empty
             Map<String, Integer> tableCounts = new HashMap<>();
             for (String table : tables) {
@@ -152,13 +168,7 @@ public class DatabaseCleanupController {
             result.put("tableCounts", tableCounts);
             result.put("timestamp", java.time.LocalDateTime.now());
             
-            String responseJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(result);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(result);
+            return eTagResponseService.respond(request, result);
             
         } catch (Exception e) {
             log.error("Failed to get table counts", e);
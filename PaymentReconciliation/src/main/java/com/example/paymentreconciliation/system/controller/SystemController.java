@@ -4,9 +4,8 @@ import com.example.paymentreconciliation.utilities.database.DatabaseCleanupUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,6 +21,9 @@ public class SystemController {
     @Autowired
     private DatabaseCleanupUtil databaseCleanupUtil;
 
+    @Autowired
+    private ETagResponseService eTagResponseService;
+
     @PostMapping("/cleanup-database")
     @Operation(
         summary = "Clean database for testing", 
@@ -55,13 +57,7 @@ public class SystemController {
                 "message", "Check server logs for row counts",
                 "status", "success"
             );
-            String responseJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTagResponseService.respond(request, response);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of(
                 "error", "Verification failed: " + e.getMessage(),
@@ -96,13 +92,7 @@ public class SystemController {
                 "message", "Check server logs for schema details",
                 "status", "success"
             );
-            String responseJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTagResponseService.respond(request, response);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of(
                 "error", "Schema display failed: " + e.getMessage(),
@@ -1,5 +1,6 @@
 package com.example.paymentreconciliation.utilities.database;
 
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
@@ -18,9 +19,14 @@ import java.util.Map;
 public class DatabaseCleanupUtil {
     
     private static final Logger log = LoggerFactory.getLogger(DatabaseCleanupUtil.class);
+
+    private static final String FILE_STATUS_COUNTERS = "file_status_counters";
     
     @Autowired
     private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
     
     @Transactional
     public void cleanAllTables() {
@@ -37,7 +43,8 @@ public class DatabaseCleanupUtil {
                 "worker_payment_receipts",
                 "worker_uploaded_data",
                 "worker_payments",
-                "uploaded_files"
+                "uploaded_files",
+                FILE_STATUS_COUNTERS
             };
             
             for (String table : tables) {
@@ -45,8 +52,11 @@ public class DatabaseCleanupUtil {
                 log.info("Truncated table: {}", table);
             }
             
-            // Reset auto-increment counters
+            // Reset auto-increment counters (file_status_counters is keyed by file id and has none)
             for (String table : tables) {
+                if (FILE_STATUS_COUNTERS.equals(table)) {
+                    continue;
+                }
                 jdbcTemplate.execute("ALTER TABLE " + table + " AUTO_INCREMENT = 1");
                 log.info("Reset auto-increment for table: {}", table);
             }
@@ -54,6 +64,10 @@ public class DatabaseCleanupUtil {
             // Re-enable foreign key checks
             jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 1");
             
+            // Invalidate ETags handed out for the deleted data
+            resourceVersionService.markChanged(ResourceVersionService.WORKER_UPLOADED_DATA);
+            resourceVersionService.markChanged(ResourceVersionService.WORKER_PAYMENT_RECEIPTS);
+            
             log.warn("Database cleanup completed successfully!");
             
         } catch (Exception e) {
@@ -71,7 +85,8 @@ public class DatabaseCleanupUtil {
             "uploaded_files",
             "worker_payment_receipts",
             "employer_payment_receipts",
-            "board_receipts"
+            "board_receipts",
+            FILE_STATUS_COUNTERS
         };
         
         for (String table : tables) {
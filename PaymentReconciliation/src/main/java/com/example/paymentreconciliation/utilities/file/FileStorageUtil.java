@@ -17,6 +17,7 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
 import org.slf4j.Logger;
+import com.example.paymentreconciliation.common.service.ReferenceNumberService;
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
 
 @Component
@@ -25,9 +26,11 @@ public class FileStorageUtil {
     @Value("${file.upload.base-dir:uploads}")
     private String baseUploadDir;
     private final UploadedFileRepository uploadedFileRepository;
+    private final ReferenceNumberService referenceNumberService;
 
-    public FileStorageUtil(UploadedFileRepository uploadedFileRepository) {
+    public FileStorageUtil(UploadedFileRepository uploadedFileRepository, ReferenceNumberService referenceNumberService) {
         this.uploadedFileRepository = uploadedFileRepository;
+        this.referenceNumberService = referenceNumberService;
     }
 
     /**
@@ -50,14 +53,6 @@ public class FileStorageUtil {
         return storeFileInternal(file, category, fileName);
     }
 
-    private String generateRequestReferenceNumber() {
-        // Generate request reference number in format: REQ-YYYYMMDD-HHMMSS-XXX
-        java.time.LocalDateTime now = java.time.LocalDateTime.now();
-        String dateTime = now.format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        String sequence = String.format("%03d", (System.currentTimeMillis() % 1000));
-        return "REQ-" + dateTime + "-" + sequence;
-    }
-
     private UploadedFile storeFileInternal(MultipartFile file, String category, String fileName) throws IOException {
         String uploadDir = baseUploadDir + File.separator + category;
         log.info("Resolved baseUploadDir property: {}", baseUploadDir);
@@ -108,7 +103,7 @@ public class FileStorageUtil {
         uploadedFile.setSuccessCount(0);
         uploadedFile.setFailureCount(0);
         uploadedFile.setStatus("UPLOADED");
-        uploadedFile.setFileReferenceNumber(generateRequestReferenceNumber());
+        uploadedFile.setFileReferenceNumber(referenceNumberService.next(ReferenceNumberService.Sequence.REQUEST));
 
         UploadedFile savedFile = uploadedFileRepository.save(uploadedFile);
         log.info("Saved UploadedFile with ID: {}", savedFile.getId());
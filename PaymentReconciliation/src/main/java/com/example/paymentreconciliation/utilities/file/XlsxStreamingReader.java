@@ -0,0 +1,128 @@
+package com.example.paymentreconciliation.utilities.file;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Event (SAX) based reader for .xlsx workbooks.
+ * Rows of the first sheet are handed to the caller one at a time, so memory use does not
+ * grow with the number of rows the way the {@code WorkbookFactory} DOM model does.
+ * Date cells are emitted in ISO format (yyyy-MM-dd).
+ */
+public final class XlsxStreamingReader {
+    private static final Logger log = LoggerFactoryProvider.getLogger(XlsxStreamingReader.class);
+
+    private XlsxStreamingReader() {
+    }
+
+    /**
+     * Read the first sheet of the workbook and pass every row (header included) to the consumer.
+     * @param file the .xlsx file to read
+     * @param minColumns minimum width of the emitted array; missing cells are null
+     * @param rowConsumer receives one array of formatted cell values per row
+     */
+    public static void readFirstSheet(File file, int minColumns, Consumer<String[]> rowConsumer) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException("No sheet found in uploaded workbook");
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                    styles, null, strings, new RowCollector(minColumns, rowConsumer), new IsoDateFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException
+                 | UnsupportedFileFormatException | InvalidOperationException | POIXMLException e) {
+            // Only malformed workbooks; exceptions of the row consumer (e.g. failed inserts) pass through unchanged
+            log.error("Failed to stream Excel file {}", file.getName(), e);
+            throw new IOException("Failed to read Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Collects the cells of the current row and emits them when the row ends.
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final int minColumns;
+        private final Consumer<String[]> rowConsumer;
+        private String[] cells;
+        private int lastColumn;
+
+        RowCollector(int minColumns, Consumer<String[]> rowConsumer) {
+            this.minColumns = minColumns;
+            this.rowConsumer = rowConsumer;
+            this.cells = new String[minColumns];
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, null);
+            lastColumn = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            int width = Math.max(minColumns, lastColumn + 1);
+            rowConsumer.accept(Arrays.copyOf(cells, width));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null) {
+                return;
+            }
+            int column = new CellReference(cellReference).getCol();
+            if (column >= cells.length) {
+                cells = Arrays.copyOf(cells, column + 1);
+            }
+            cells[column] = formattedValue;
+            lastColumn = Math.max(lastColumn, column);
+        }
+    }
+
+    /**
+     * Formats date cells as ISO dates so they parse the same way as CSV input.
+     */
+    private static final class IsoDateFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+}
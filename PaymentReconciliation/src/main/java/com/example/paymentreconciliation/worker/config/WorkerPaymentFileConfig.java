@@ -8,6 +8,21 @@ import org.springframework.context.annotation.Configuration;
 public class WorkerPaymentFileConfig {
     private String uploadDir = "upload-dir";
 
+    /**
+     * Number of parsed rows buffered before they are flushed to the database during upload.
+     */
+    private int ingestChunkSize = 1000;
+
+    /**
+     * Number of uploaded rows validated and committed together.
+     */
+    private int validationChunkSize = 1000;
+
+    /**
+     * Number of threads validating chunks of an uploaded file in parallel.
+     */
+    private int validationThreads = Runtime.getRuntime().availableProcessors();
+
     public String getUploadDir() {
         return uploadDir;
     }
@@ -15,4 +30,28 @@ public class WorkerPaymentFileConfig {
     public void setUploadDir(String uploadDir) {
         this.uploadDir = uploadDir;
     }
+
+    public int getIngestChunkSize() {
+        return ingestChunkSize;
+    }
+
+    public void setIngestChunkSize(int ingestChunkSize) {
+        this.ingestChunkSize = ingestChunkSize;
+    }
+
+    public int getValidationChunkSize() {
+        return validationChunkSize;
+    }
+
+    public void setValidationChunkSize(int validationChunkSize) {
+        this.validationChunkSize = validationChunkSize;
+    }
+
+    public int getValidationThreads() {
+        return validationThreads;
+    }
+
+    public void setValidationThreads(int validationThreads) {
+        this.validationThreads = validationThreads;
+    }
 }
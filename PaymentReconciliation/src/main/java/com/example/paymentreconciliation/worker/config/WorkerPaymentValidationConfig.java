@@ -0,0 +1,79 @@
+package com.example.paymentreconciliation.worker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+
+@Configuration
+@ConfigurationProperties(prefix = "workerpayment.validation")
+public class WorkerPaymentValidationConfig {
+    private BigDecimal maxHoursWorked = new BigDecimal("24");
+    private BigDecimal maxHourlyRate = new BigDecimal("10000");
+    private BigDecimal maxPaymentAmount = new BigDecimal("1000000");
+
+    /**
+     * Allowed difference between payment amount and hours worked × hourly rate.
+     */
+    private BigDecimal amountTolerance = new BigDecimal("0.01");
+
+    private int maxWorkDateAgeYears = 1;
+    private int bankAccountMinLength = 10;
+    private int bankAccountMaxLength = 20;
+
+    public BigDecimal getMaxHoursWorked() {
+        return maxHoursWorked;
+    }
+
+    public void setMaxHoursWorked(BigDecimal maxHoursWorked) {
+        this.maxHoursWorked = maxHoursWorked;
+    }
+
+    public BigDecimal getMaxHourlyRate() {
+        return maxHourlyRate;
+    }
+
+    public void setMaxHourlyRate(BigDecimal maxHourlyRate) {
+        this.maxHourlyRate = maxHourlyRate;
+    }
+
+    public BigDecimal getMaxPaymentAmount() {
+        return maxPaymentAmount;
+    }
+
+    public void setMaxPaymentAmount(BigDecimal maxPaymentAmount) {
+        this.maxPaymentAmount = maxPaymentAmount;
+    }
+
+    public BigDecimal getAmountTolerance() {
+        return amountTolerance;
+    }
+
+    public void setAmountTolerance(BigDecimal amountTolerance) {
+        this.amountTolerance = amountTolerance;
+    }
+
+    public int getMaxWorkDateAgeYears() {
+        return maxWorkDateAgeYears;
+    }
+
+    public void setMaxWorkDateAgeYears(int maxWorkDateAgeYears) {
+        this.maxWorkDateAgeYears = maxWorkDateAgeYears;
+    }
+
+    public int getBankAccountMinLength() {
+        return bankAccountMinLength;
+    }
+
+    public void setBankAccountMinLength(int bankAccountMinLength) {
+        this.bankAccountMinLength = bankAccountMinLength;
+    }
+
+    public int getBankAccountMaxLength() {
+        return bankAccountMaxLength;
+    }
+
+    public void setBankAccountMaxLength(int bankAccountMaxLength) {
+        this.bankAccountMaxLength = bankAccountMaxLength;
+    }
+}
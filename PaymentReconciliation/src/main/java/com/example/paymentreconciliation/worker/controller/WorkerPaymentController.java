@@ -5,9 +5,8 @@ import com.example.paymentreconciliation.worker.service.WorkerPaymentService;
 import java.net.URI;
 import java.util.List;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
+import com.example.paymentreconciliation.common.service.ETagResponseService;
 import org.slf4j.Logger;
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -38,11 +37,11 @@ public class WorkerPaymentController {
     private static final Logger log = LoggerFactoryProvider.getLogger(WorkerPaymentController.class);
 
     private final WorkerPaymentService service;
-    private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+    private final ETagResponseService eTagResponseService;
 
-    public WorkerPaymentController(WorkerPaymentService service, com.fasterxml.jackson.databind.ObjectMapper objectMapper) {
+    public WorkerPaymentController(WorkerPaymentService service, ETagResponseService eTagResponseService) {
         this.service = service;
-        this.objectMapper = objectMapper;
+        this.eTagResponseService = eTagResponseService;
     }
 
     @PostMapping
@@ -71,35 +70,19 @@ public class WorkerPaymentController {
         log.info("Fetching worker payments with secure pagination, status: {}, receiptNumber: {}, request: {}", 
                 request.getStatus(), receiptNumber, request);
         try {
-            // Apply pageToken if present
-            com.example.paymentreconciliation.common.util.SecurePaginationUtil.applyPageToken(request);
             com.example.paymentreconciliation.common.util.SecurePaginationUtil.ValidationResult validation =
                 com.example.paymentreconciliation.common.util.SecurePaginationUtil.validatePaginationRequest(request);
             if (!validation.isValid()) {
                 return ResponseEntity.badRequest().body(
                     com.example.paymentreconciliation.common.util.SecurePaginationUtil.createErrorResponse(validation));
             }
-            // Use only pageToken and filters for cursor-based pagination
-            String nextPageToken = request.getPageToken();
-            // Create sort object with secure field validation
-            List<String> allowedSortFields = List.of("id", "name", "workerRef", "employerId", "paymentAmount", "status", "createdAt", "receiptNumber");
-            org.springframework.data.domain.Sort sort = com.example.paymentreconciliation.common.util.SecurePaginationUtil.createSecureSort(request, allowedSortFields);
-            
-            org.springframework.data.domain.Page<WorkerPayment> paymentsPage =
+            // Keyset pagination: the page token carries the sort, page size and position of the next page
+            com.example.paymentreconciliation.common.dto.SecurePaginationResponse<WorkerPayment> response =
                 service.findByStatusAndReceiptNumberAndDateRangeWithToken(
                     request.getStatus(), receiptNumber, 
                     validation.getStartDateTime(), validation.getEndDateTime(), 
-                    sort, 
-                    nextPageToken);
-            com.example.paymentreconciliation.common.dto.SecurePaginationResponse<WorkerPayment> response =
-                com.example.paymentreconciliation.common.util.SecurePaginationUtil.createSecureResponse(paymentsPage, request);
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = com.example.paymentreconciliation.common.util.ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(org.springframework.http.HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+                    request);
+            return eTagResponseService.respond(httpRequest, response);
         } catch (Exception e) {
             log.error("Error fetching worker payments (secure)", e);
             return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
@@ -166,14 +149,7 @@ public class WorkerPaymentController {
             response.put("hasPrevious", paymentsPage.hasPrevious());
             response.put("uploadedFileRef", uploadedFileRef);
 
-            // Generate ETag from response content
-            String responseJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTagResponseService.respond(request, response);
         } catch (Exception e) {
             log.error("Error fetching payments by uploadedFileRef: {}", uploadedFileRef, e);
             return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
@@ -2,13 +2,12 @@ package com.example.paymentreconciliation.worker.controller;
 
 import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentreconciliation.worker.service.WorkerPaymentReceiptService;
-import com.example.paymentreconciliation.worker.service.WorkerPaymentService;
 import com.example.paymentreconciliation.employer.service.EmployerPaymentReceiptService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
+import com.example.paymentreconciliation.common.service.ConditionalResponseService;
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
 import org.springframework.web.bind.annotation.*;
 import com.example.paymentreconciliation.audit.annotation.Audited;
 import io.swagger.v3.oas.annotations.Operation;
@@ -34,7 +33,7 @@ public class WorkerPaymentReceiptController {
     private EmployerPaymentReceiptService employerReceiptService;
     
     @Autowired
-    private WorkerPaymentService workerPaymentService;
+    private ConditionalResponseService conditionalResponseService;
 
     public WorkerPaymentReceiptController(WorkerPaymentReceiptService service) {
         this.service = service;
@@ -62,40 +61,32 @@ public class WorkerPaymentReceiptController {
             jakarta.servlet.http.HttpServletRequest httpRequest) {
         log.info("Fetching worker receipts with secure pagination, status: {}, request: {}", request.getStatus(), request);
         try {
-            // Apply pageToken if present
-            com.example.paymentreconciliation.common.util.SecurePaginationUtil.applyPageToken(request);
-            com.example.paymentreconciliation.common.util.SecurePaginationUtil.ValidationResult validation = 
-                com.example.paymentreconciliation.common.util.SecurePaginationUtil.validatePaginationRequest(request);
-            if (!validation.isValid()) {
-                return ResponseEntity.badRequest().body(
-                    com.example.paymentreconciliation.common.util.SecurePaginationUtil.createErrorResponse(validation));
-            }
-            // Use only nextPageToken and filters for cursor-based pagination
-            String nextPageToken = request.getPageToken();
-            org.springframework.data.domain.Page<WorkerPaymentReceipt> receiptsPage;
-            if (request.getStatus() != null && !request.getStatus().trim().isEmpty()) {
-                receiptsPage = service.findByStatusAndDateRangeWithToken(request.getStatus().trim().toUpperCase(), 
-                        validation.getStartDateTime(), validation.getEndDateTime(), nextPageToken);
-            } else {
-                receiptsPage = service.findByDateRangeWithToken(validation.getStartDateTime(), validation.getEndDateTime(), nextPageToken);
-            }
-            com.example.paymentreconciliation.common.dto.SecurePaginationResponse<WorkerPaymentReceipt> response = 
-                com.example.paymentreconciliation.common.util.SecurePaginationUtil.createSecureResponse(receiptsPage, request);
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = com.example.paymentreconciliation.common.util.ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(org.springframework.http.HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return conditionalResponseService.respond(httpRequest, ResourceVersionService.WORKER_PAYMENT_RECEIPTS,
+                    request.toCacheKey(), () -> secureReceipts(request));
         } catch (Exception e) {
             log.error("Error fetching worker receipts (secure)", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    private ResponseEntity<?> secureReceipts(com.example.paymentreconciliation.common.dto.SecurePaginationRequest request) {
+        com.example.paymentreconciliation.common.util.SecurePaginationUtil.ValidationResult validation = 
+            com.example.paymentreconciliation.common.util.SecurePaginationUtil.validatePaginationRequest(request);
+        if (!validation.isValid()) {
+            return ResponseEntity.badRequest().body(
+                com.example.paymentreconciliation.common.util.SecurePaginationUtil.createErrorResponse(validation));
+        }
+        // Keyset pagination: the page token carries the sort, page size and position of the next page
+        com.example.paymentreconciliation.common.dto.SecurePaginationResponse<WorkerPaymentReceipt> response;
+        if (request.getStatus() != null && !request.getStatus().trim().isEmpty()) {
+            response = service.findByStatusAndDateRangeWithToken(request.getStatus().trim().toUpperCase(), 
+                    validation.getStartDateTime(), validation.getEndDateTime(), request);
+        } else {
+            response = service.findByDateRangeWithToken(validation.getStartDateTime(), validation.getEndDateTime(), request);
+        }
+        return ResponseEntity.ok(response);
+    }
+
 
 
     @GetMapping("/{receiptNumber}")
@@ -108,23 +99,10 @@ public class WorkerPaymentReceiptController {
         log.info("Fetching worker receipt: {}", receiptNumber);
         
         try {
-            return service.findByReceiptNumber(receiptNumber)
-                    .map(receipt -> {
-                        try {
-                            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-                            String responseJson = objectMapper.writeValueAsString(receipt);
-                            String eTag = ETagUtil.generateETag(responseJson);
-                            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                            if (eTag.equals(ifNoneMatch)) {
-                                return ResponseEntity.status(304).eTag(eTag).build();
-                            }
-                            return ResponseEntity.ok().eTag(eTag).body(receipt);
-                        } catch (Exception ex) {
-                            return ResponseEntity.internalServerError().body(Map.of("error", ex.getMessage()));
-                        }
-                    })
-                    .orElse(ResponseEntity.notFound().build());
+            return conditionalResponseService.respond(request, ResourceVersionService.WORKER_PAYMENT_RECEIPTS, null,
+                    () -> service.findByReceiptNumber(receiptNumber)
+                            .<ResponseEntity<?>>map(ResponseEntity::ok)
+                            .orElse(ResponseEntity.notFound().build()));
         } catch (Exception e) {
             log.error("Error fetching receipt: {}", receiptNumber, e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -157,26 +135,10 @@ public class WorkerPaymentReceiptController {
             
             WorkerPaymentReceipt workerReceipt = workerReceiptOpt.get();
             
-            // Create employer receipt manually using injected service
-            com.example.paymentreconciliation.employer.entity.EmployerPaymentReceipt employerReceipt = 
-                employerReceiptService.createPendingEmployerReceipt(workerReceipt);
-            
-            // Update worker receipt status to PAYMENT_INITIATED
-            service.updateStatus(receiptNumber, "PAYMENT_INITIATED");
-            log.info("Updated worker receipt {} status to PAYMENT_INITIATED", receiptNumber);
-            
-            // Update all related worker payment records to PAYMENT_INITIATED
-            java.util.List<com.example.paymentreconciliation.worker.entity.WorkerPayment> workerPayments = 
-                workerPaymentService.findByReceiptNumber(receiptNumber, 
-                    org.springframework.data.domain.PageRequest.of(0, 1000)).getContent();
-            
-            int updatedPayments = 0;
-            for (com.example.paymentreconciliation.worker.entity.WorkerPayment payment : workerPayments) {
-                payment.setStatus("PAYMENT_INITIATED");
-                workerPaymentService.save(payment);
-                updatedPayments++;
-            }
-            log.info("Updated {} worker payment records to PAYMENT_INITIATED for receipt {}", updatedPayments, receiptNumber);
+            // Worker receipt and payments to PAYMENT_INITIATED and the pending employer receipt in one
+            // transaction; rejected before anything is written if the receipt cannot be sent
+            EmployerPaymentReceiptService.SentReceipt sent = employerReceiptService.sendWorkerReceiptToEmployer(workerReceipt);
+            com.example.paymentreconciliation.employer.entity.EmployerPaymentReceipt employerReceipt = sent.employerReceipt();
             
             return ResponseEntity.ok(Map.of(
                 "message", "Worker receipt sent to employer successfully",
@@ -186,7 +148,7 @@ public class WorkerPaymentReceiptController {
                 "employerReceiptStatus", "PENDING",
                 "totalRecords", employerReceipt.getTotalRecords(),
                 "totalAmount", employerReceipt.getTotalAmount(),
-                "updatedPaymentRecords", updatedPayments
+                "updatedPaymentRecords", sent.updatedPayments()
             ));
             
         } catch (Exception e) {
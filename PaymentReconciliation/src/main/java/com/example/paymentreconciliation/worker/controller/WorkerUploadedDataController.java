@@ -3,16 +3,15 @@ package com.example.paymentreconciliation.worker.controller;
 import com.example.paymentreconciliation.worker.entity.WorkerUploadedData;
 import com.example.paymentreconciliation.worker.service.WorkerUploadedDataService;
 import com.example.paymentreconciliation.worker.service.WorkerPaymentFileService;
-import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
 import jakarta.servlet.http.HttpServletRequest;
-import com.example.paymentreconciliation.common.util.ETagUtil;
+import com.example.paymentreconciliation.common.service.ConditionalResponseService;
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -41,6 +40,9 @@ public class WorkerUploadedDataController {
     @Autowired
     private WorkerPaymentFileService fileService;
 
+    @Autowired
+    private ConditionalResponseService conditionalResponseService;
+
     public WorkerUploadedDataController(WorkerUploadedDataService service) {
         this.service = service;
     }
@@ -63,35 +65,8 @@ public class WorkerUploadedDataController {
         
         log.info("Secure paginated request for uploaded data: {}", request);
         try {
-            // Apply pageToken if present
-            com.example.paymentreconciliation.common.util.SecurePaginationUtil.applyPageToken(request);
-            // Validate request using utility
-            com.example.paymentreconciliation.common.util.SecurePaginationUtil.ValidationResult validation = 
-                com.example.paymentreconciliation.common.util.SecurePaginationUtil.validatePaginationRequest(request);
-            if (!validation.isValid()) {
-                return ResponseEntity.badRequest().body(
-                    com.example.paymentreconciliation.common.util.SecurePaginationUtil.createErrorResponse(validation));
-            }
-            // Create pageable with secure field validation
-            List<String> allowedSortFields = List.of("id", "workerName", "employerId", "paymentAmount", "status", "createdAt", "workDate", "receiptNumber");
-            org.springframework.data.domain.Sort sort = com.example.paymentreconciliation.common.util.SecurePaginationUtil.createSecureSort(request, allowedSortFields);
-            org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(
-                request.getPage(), Math.min(request.getSize(), 100), sort);
-            // Get paginated data with date filtering
-            org.springframework.data.domain.Page<WorkerUploadedData> dataPage = 
-                service.findByDateRangePaginated(validation.getStartDateTime(), validation.getEndDateTime(), pageable);
-            // Create secure response with opaque tokens
-            com.example.paymentreconciliation.common.dto.SecurePaginationResponse<WorkerUploadedData> response = 
-                com.example.paymentreconciliation.common.util.SecurePaginationUtil.createSecureResponse(dataPage, request);
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = com.example.paymentreconciliation.common.util.ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(org.springframework.http.HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return conditionalResponseService.respond(httpRequest, ResourceVersionService.WORKER_UPLOADED_DATA,
+                    request.toCacheKey(), () -> securePaginatedUploadedData(request));
         } catch (Exception e) {
             log.error("Error in secure paginated data retrieval", e);
             return ResponseEntity.badRequest().body(Map.of(
@@ -101,6 +76,20 @@ public class WorkerUploadedDataController {
         }
     }
 
+    private ResponseEntity<?> securePaginatedUploadedData(com.example.paymentreconciliation.common.dto.SecurePaginationRequest request) {
+        // Validate request using utility
+        com.example.paymentreconciliation.common.util.SecurePaginationUtil.ValidationResult validation = 
+            com.example.paymentreconciliation.common.util.SecurePaginationUtil.validatePaginationRequest(request);
+        if (!validation.isValid()) {
+            return ResponseEntity.badRequest().body(
+                com.example.paymentreconciliation.common.util.SecurePaginationUtil.createErrorResponse(validation));
+        }
+        // Keyset pagination with date filtering; the page token carries the sort, page size and position
+        com.example.paymentreconciliation.common.dto.SecurePaginationResponse<WorkerUploadedData> response = 
+            service.findByDateRangeWithToken(validation.getStartDateTime(), validation.getEndDateTime(), request);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Audited(action = "UPLOAD_WORKER_PAYMENT_FILE", resourceType = "WORKER_UPLOADED_DATA")
     @Operation(summary = "Upload worker payment file", 
@@ -176,17 +165,10 @@ public class WorkerUploadedDataController {
                 com.example.paymentreconciliation.common.util.SecurePaginationUtil.createErrorResponse(validation));
         }
         try {
-            // Only use nextPageToken and filters for cursor-based pagination
-            String status = request.getStatus();
-            String startDate = validation.getStartDateTime().toLocalDate().toString();
-            String endDate = validation.getEndDateTime().toLocalDate().toString();
-            String sortBy = request.getSortBy() != null ? request.getSortBy() : "uploadDate";
-            String sortDir = request.getSortDir() != null ? request.getSortDir() : "desc";
-            String nextPageToken = request.getPageToken();
-
-            // Use service to get paginated file summaries (one per file) using cursor
-            Map<String, Object> paginatedSummaries = service.getPaginatedFileSummariesWithToken(
-                nextPageToken, null, status, startDate, endDate, sortBy, sortDir);
+            // Keyset pagination over uploaded files; the page token carries the sort, page size and position
+            com.example.paymentreconciliation.common.dto.SecurePaginationResponse<Map<String, Object>> paginatedSummaries =
+                service.getPaginatedFileSummariesWithToken(validation.getStartDateTime(), validation.getEndDateTime(),
+                    request.getStatus(), request);
             return ResponseEntity.ok(paginatedSummaries);
         } catch (Exception e) {
             log.error("Error in secure paginated file summaries retrieval", e);
@@ -223,6 +205,20 @@ public class WorkerUploadedDataController {
         }
     }
 
+    @GetMapping("/file/{fileId}/validation-progress")
+    @Operation(summary = "Get validation progress", 
+               description = "Returns validated, rejected and remaining record counts of the latest validation run for a file")
+    public ResponseEntity<?> getValidationProgress(
+            @Parameter(description = "File ID") 
+            @PathVariable String fileId) {
+        return service.getValidationProgress(fileId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "error", "No validation run found for fileId: " + fileId,
+                "fileId", fileId
+            )));
+    }
+
     @GetMapping("/results/{fileId}")
     @Operation(summary = "Get uploaded data results with pagination and filtering", 
                description = "Returns paginated uploaded data results with optional status and date range filtering")
@@ -246,22 +242,15 @@ public class WorkerUploadedDataController {
             HttpServletRequest request) {
         
         try {
-            Map<String, Object> result = fileService.getValidationResultsPaginated(
-                fileId, page, size, status, startDate, endDate, sortBy, sortDir);
-            
-            if (result.containsKey("error")) {
-                return ResponseEntity.badRequest().body(result);
-            }
-            
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper2 = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper2.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper2.writeValueAsString(result);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(result);
+            return conditionalResponseService.respond(request, ResourceVersionService.WORKER_UPLOADED_DATA, null, () -> {
+                Map<String, Object> result = fileService.getValidationResultsPaginated(
+                    fileId, page, size, status, startDate, endDate, sortBy, sortDir);
+                
+                if (result.containsKey("error")) {
+                    return ResponseEntity.badRequest().body(result);
+                }
+                return ResponseEntity.ok(result);
+            });
             
         } catch (Exception e) {
             log.error("Error fetching validation results for fileId: {}", fileId, e);
@@ -341,28 +330,21 @@ public class WorkerUploadedDataController {
         log.info("Fetching request details for receiptNumber: {}", receiptNumber);
         
         try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by("rowNumber").ascending());
-            Page<WorkerUploadedData> requestPage = service.findByReceiptNumberPaginated(receiptNumber, pageable);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("requestDetails", requestPage.getContent());
-            response.put("totalElements", requestPage.getTotalElements());
-            response.put("totalPages", requestPage.getTotalPages());
-            response.put("currentPage", requestPage.getNumber());
-            response.put("pageSize", requestPage.getSize());
-            response.put("hasNext", requestPage.hasNext());
-            response.put("hasPrevious", requestPage.hasPrevious());
-            response.put("receiptNumber", receiptNumber);
-            
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper3 = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper3.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper3.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return conditionalResponseService.respond(request, ResourceVersionService.WORKER_UPLOADED_DATA, null, () -> {
+                Pageable pageable = PageRequest.of(page, size, Sort.by("rowNumber").ascending());
+                Page<WorkerUploadedData> requestPage = service.findByReceiptNumberPaginated(receiptNumber, pageable);
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("requestDetails", requestPage.getContent());
+                response.put("totalElements", requestPage.getTotalElements());
+                response.put("totalPages", requestPage.getTotalPages());
+                response.put("currentPage", requestPage.getNumber());
+                response.put("pageSize", requestPage.getSize());
+                response.put("hasNext", requestPage.hasNext());
+                response.put("hasPrevious", requestPage.hasPrevious());
+                response.put("receiptNumber", receiptNumber);
+                return ResponseEntity.ok(response);
+            });
             
         } catch (Exception e) {
             log.error("Error fetching request details for receiptNumber: {}", receiptNumber, e);
@@ -0,0 +1,185 @@
+package com.example.paymentreconciliation.worker.dao;
+
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import com.example.paymentreconciliation.worker.entity.FileStatusCounter.RecordType;
+import org.slf4j.Logger;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DAO for the per-file status counters of uploaded data and worker payments.
+ * Writers apply the change in records per file and status after writing the records, in the same
+ * transaction, so a status summary is one primary-key read instead of a GROUP BY over the file.
+ * Files uploaded before the counters existed are seeded from their records on their first change.
+ */
+@Repository
+public class FileStatusCounterDao extends BaseQueryDao {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(FileStatusCounterDao.class);
+
+    /**
+     * Number of keys per IN list when counting records before a status change
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_SQL = """
+        SELECT status, record_count FROM file_status_counters
+        WHERE file_id = ? AND record_type = ? ORDER BY status
+        """;
+
+    private static final String ADD_SQL = """
+        UPDATE file_status_counters SET record_count = record_count + ?, updated_at = ?
+        WHERE file_id = ? AND record_type = ? AND status = ?
+        """;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO file_status_counters (file_id, record_type, status, record_count, updated_at)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+
+    private static final String EXISTS_SQL =
+        "SELECT COUNT(*) FROM file_status_counters WHERE file_id = ? AND record_type = ?";
+
+    /**
+     * Counters of a file by status, empty when the file is not counted yet
+     */
+    public Map<String, Long> findCounts(String fileId, RecordType recordType) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            counts.put(rs.getString("status"), rs.getLong("record_count"));
+        }, fileId, recordType.name());
+        return counts;
+    }
+
+    /**
+     * Count the records of a file by status from the counted table itself
+     */
+    public Map<String, Long> countRecords(String fileId, RecordType recordType) {
+        String sql = "SELECT status, COUNT(*) AS record_count FROM " + recordType.getTableName()
+                + " WHERE file_id = ? GROUP BY status ORDER BY status";
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(rs.getString("status"), rs.getLong("record_count"));
+        }, fileId);
+        return counts;
+    }
+
+    /**
+     * Count records by file and status whose keyColumn is one of keys, read before changing
+     * their status so the change can be applied as deltas.
+     * @return record counts by file id and status
+     */
+    public Map<String, Map<String, Long>> countByFileAndStatus(RecordType recordType, String keyColumn,
+                                                               Collection<?> keys) {
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        List<?> keyList = new ArrayList<>(keys);
+        String sql = "SELECT file_id, status, COUNT(*) AS record_count FROM " + recordType.getTableName()
+                + " WHERE " + keyColumn + " IN (:keys) AND file_id IS NOT NULL GROUP BY file_id, status";
+        for (int from = 0; from < keyList.size(); from += BATCH_SIZE) {
+            List<?> batch = keyList.subList(from, Math.min(from + BATCH_SIZE, keyList.size()));
+            namedParameterJdbcTemplate.query(sql, Map.of("keys", batch), rs -> {
+                counts.computeIfAbsent(rs.getString("file_id"), id -> new HashMap<>())
+                        .merge(rs.getString("status"), rs.getLong("record_count"), Long::sum);
+            });
+        }
+        return counts;
+    }
+
+    /**
+     * Add the given changes in records per file and status to the counters.
+     * Must run after the records were written, in the same transaction.
+     *
+     * @param deltasByFile change in record count by file id and status
+     * @param seedUntracked whether a file without counters is seeded from its records; only pass true
+     *                      when every record change of the transaction has already been sent to the
+     *                      database, otherwise changes of untracked files are skipped and their
+     *                      summaries keep being counted from the records
+     */
+    @Transactional
+    public void applyDeltas(RecordType recordType, Map<String, Map<String, Long>> deltasByFile, boolean seedUntracked) {
+        LocalDateTime now = LocalDateTime.now();
+        // Sorted, so concurrent transactions lock counter rows in the same order
+        for (Map.Entry<String, Map<String, Long>> file : new TreeMap<>(deltasByFile).entrySet()) {
+            Map<String, Long> deltas = new TreeMap<>(file.getValue());
+            deltas.values().removeIf(delta -> delta == 0);
+            if (!deltas.isEmpty()) {
+                applyFileDeltas(recordType, file.getKey(), deltas, seedUntracked, now);
+            }
+        }
+    }
+
+    /**
+     * Drop the counters of a file, after all its records were deleted
+     */
+    @Transactional
+    public void deleteCounts(String fileId, RecordType recordType) {
+        jdbcTemplate.update("DELETE FROM file_status_counters WHERE file_id = ? AND record_type = ?",
+                fileId, recordType.name());
+    }
+
+    private void applyFileDeltas(RecordType recordType, String fileId, Map<String, Long> deltas,
+                                 boolean seedUntracked, LocalDateTime now) {
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+            if (jdbcTemplate.update(ADD_SQL, delta.getValue(), now, fileId, recordType.name(), delta.getKey()) == 0) {
+                missing.add(delta.getKey());
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        if (missing.size() == deltas.size() && !isTracked(fileId, recordType)) {
+            if (!seedUntracked || seed(fileId, recordType, now)) {
+                return;
+            }
+        }
+        for (String status : missing) {
+            insertOrAdd(fileId, recordType, status, deltas.get(status), now);
+        }
+    }
+
+    private boolean isTracked(String fileId, RecordType recordType) {
+        Long count = jdbcTemplate.queryForObject(EXISTS_SQL, Long.class, fileId, recordType.name());
+        return count != null && count > 0;
+    }
+
+    /**
+     * Count the file from its records, which already include this transaction's changes.
+     * @return false when another transaction seeded the file first
+     */
+    private boolean seed(String fileId, RecordType recordType, LocalDateTime now) {
+        String sql = "INSERT INTO file_status_counters (file_id, record_type, status, record_count, updated_at)"
+                + " SELECT file_id, ?, status, COUNT(*), ? FROM " + recordType.getTableName()
+                + " WHERE file_id = ? GROUP BY file_id, status";
+        try {
+            jdbcTemplate.update(sql, recordType.name(), now, fileId);
+            log.debug("Seeded {} status counters of fileId: {}", recordType, fileId);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void insertOrAdd(String fileId, RecordType recordType, String status, long delta, LocalDateTime now) {
+        if (delta < 0) {
+            log.warn("Counter of {} {} records in fileId: {} goes below zero", recordType, status, fileId);
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, fileId, recordType.name(), status, delta, now);
+        } catch (DuplicateKeyException e) {
+            // Inserted by a concurrent transaction since our UPDATE found nothing
+            jdbcTemplate.update(ADD_SQL, delta, now, fileId, recordType.name(), status);
+        }
+    }
+}
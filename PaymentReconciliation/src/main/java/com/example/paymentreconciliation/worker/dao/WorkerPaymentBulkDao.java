@@ -0,0 +1,88 @@
+package com.example.paymentreconciliation.worker.dao;
+
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import com.example.paymentreconciliation.worker.entity.FileStatusCounter.RecordType;
+import com.example.paymentreconciliation.worker.entity.WorkerPayment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * DAO for Worker Payment bulk write operations.
+ * Like WorkerUploadedDataBulkDao, writes large numbers of payments with plain JDBC batches,
+ * since IDENTITY keys disable Hibernate JDBC batching.
+ * Payment status changes also move the file status counters, in the same transaction as the payments.
+ */
+@Repository
+public class WorkerPaymentBulkDao extends BaseQueryDao {
+
+    /**
+     * Number of rows sent to the driver per JDBC batch
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO worker_payments (worker_reference, registration_id, worker_name, employer_id, toli_id, toli,
+               aadhar, pan, bank_account, payment_amount, file_id, uploaded_file_ref, request_reference_number,
+               status, receipt_number, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    @Autowired
+    private FileStatusCounterDao fileStatusCounterDao;
+
+    /**
+     * Insert all payments using JDBC batches. Generated IDs are not read back; request reference
+     * numbers and creation times are filled in as WorkerPayment.prePersist would.
+     * @return number of payments inserted
+     */
+    @Transactional
+    public int insertAll(List<WorkerPayment> payments) {
+        if (payments.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, payments, BATCH_SIZE, (ps, payment) -> {
+            if (Objects.isNull(payment.getRequestReferenceNumber()) || payment.getRequestReferenceNumber().isBlank()) {
+                payment.setRequestReferenceNumber("WRK-" + UUID.randomUUID().toString().replace("-", "")
+                        .substring(0, 12).toUpperCase());
+            }
+            if (Objects.isNull(payment.getCreatedAt())) {
+                payment.setCreatedAt(now);
+            }
+            ps.setObject(1, payment.getWorkerRef(), Types.VARCHAR);
+            ps.setObject(2, payment.getRegId(), Types.VARCHAR);
+            ps.setObject(3, payment.getName(), Types.VARCHAR);
+            ps.setObject(4, payment.getEmployerId(), Types.VARCHAR);
+            ps.setObject(5, payment.getToliId(), Types.VARCHAR);
+            ps.setObject(6, payment.getToli(), Types.VARCHAR);
+            ps.setObject(7, payment.getAadhar(), Types.VARCHAR);
+            ps.setObject(8, payment.getPan(), Types.VARCHAR);
+            ps.setObject(9, payment.getBankAccount(), Types.VARCHAR);
+            ps.setObject(10, payment.getPaymentAmount(), Types.DECIMAL);
+            ps.setObject(11, payment.getFileId(), Types.VARCHAR);
+            ps.setObject(12, payment.getUploadedFileRef(), Types.VARCHAR);
+            ps.setObject(13, payment.getRequestReferenceNumber(), Types.VARCHAR);
+            ps.setObject(14, payment.getStatus(), Types.VARCHAR);
+            ps.setObject(15, payment.getReceiptNumber(), Types.VARCHAR);
+            ps.setObject(16, payment.getCreatedAt(), Types.TIMESTAMP);
+        });
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        for (WorkerPayment payment : payments) {
+            if (payment.getFileId() != null) {
+                counts.computeIfAbsent(payment.getFileId(), id -> new HashMap<>())
+                        .merge(payment.getStatus(), 1L, Long::sum);
+            }
+        }
+        fileStatusCounterDao.applyDeltas(RecordType.WORKER_PAYMENT, counts, true);
+        return payments.size();
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.paymentreconciliation.worker.dao;
 
 import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import com.example.paymentreconciliation.common.dao.KeysetCursor;
 import com.example.paymentreconciliation.worker.entity.WorkerPayment;
 import org.springframework.stereotype.Repository;
 
@@ -29,6 +30,14 @@ public class WorkerPaymentQueryDao extends BaseQueryDao {
     
     private static final String BASE_COUNT = "SELECT COUNT(*) FROM worker_payments";
     
+    /**
+     * Request fields worker payments can be keyset-paginated by, mapped to their columns
+     */
+    public static final Map<String, String> SORT_COLUMNS = Map.of(
+        "id", "id", "name", "worker_name", "workerRef", "worker_reference", "employerId", "employer_id",
+        "paymentAmount", "payment_amount", "amount", "payment_amount", "status", "status",
+        "createdAt", "created_at", "receiptNumber", "receipt_number");
+    
     /**
      * Find worker payment by ID
      */
@@ -45,8 +54,41 @@ public class WorkerPaymentQueryDao extends BaseQueryDao {
                                                     String fileId, LocalDateTime startDate, 
                                                     LocalDateTime endDate, int page, int size) {
         
-        StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
         Map<String, Object> params = new HashMap<>();
+        String whereClause = filterClause(status, receiptNumber, fileId, startDate, endDate, params);
+        
+        String baseSql = BASE_SELECT + whereClause + " ORDER BY created_at DESC";
+        String countSql = BASE_COUNT + whereClause;
+        
+        return queryForPage(baseSql, countSql, params, page, size, this::mapWorkerPayment);
+    }
+    
+    /**
+     * Find worker payments with filters, one keyset page at a time
+     */
+    public KeysetPage<WorkerPayment> findKeysetPageWithFilters(String status, String receiptNumber,
+                                                               LocalDateTime startDate, LocalDateTime endDate,
+                                                               String sortColumn, boolean descending,
+                                                               KeysetCursor cursor, int offset, int size) {
+        Map<String, Object> params = new HashMap<>();
+        String whereClause = filterClause(status, receiptNumber, null, startDate, endDate, params);
+        return queryForKeysetPage(BASE_SELECT, whereClause, params, sortColumn, "id", descending,
+                cursor, offset, size, this::mapWorkerPayment);
+    }
+    
+    /**
+     * Count worker payments matching the filters
+     */
+    public long countWithFilters(String status, String receiptNumber, LocalDateTime startDate, LocalDateTime endDate) {
+        Map<String, Object> params = new HashMap<>();
+        String whereClause = filterClause(status, receiptNumber, null, startDate, endDate, params);
+        Long count = queryForCount(BASE_COUNT + whereClause, params);
+        return count != null ? count : 0L;
+    }
+    
+    private String filterClause(String status, String receiptNumber, String fileId,
+                                LocalDateTime startDate, LocalDateTime endDate, Map<String, Object> params) {
+        StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
         
         // Build dynamic where clause
         if (status != null && !status.trim().isEmpty()) {
@@ -74,10 +116,7 @@ public class WorkerPaymentQueryDao extends BaseQueryDao {
             params.put("endDate", endDate);
         }
         
-        String baseSql = BASE_SELECT + whereClause + " ORDER BY created_at DESC";
-        String countSql = BASE_COUNT + whereClause;
-        
-        return queryForPage(baseSql, countSql, params, page, size, this::mapWorkerPayment);
+        return whereClause.toString();
     }
     
     /**
@@ -1,22 +1,20 @@
 package com.example.paymentreconciliation.worker.dao;
 
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import com.example.paymentreconciliation.common.dao.KeysetCursor;
 import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
-public class WorkerPaymentReceiptQueryDao {
-    
-    @Autowired
-    private JdbcTemplate jdbcTemplate;
+public class WorkerPaymentReceiptQueryDao extends BaseQueryDao {
     
     private static final String BASE_SELECT = """
         SELECT wpr.id, wpr.receipt_number, wpr.employer_id, wpr.toli_id,
@@ -24,6 +22,17 @@ public class WorkerPaymentReceiptQueryDao {
         FROM worker_payment_receipts wpr
         """;
     
+    private static final String BASE_COUNT = "SELECT COUNT(*) FROM worker_payment_receipts wpr";
+    
+    /**
+     * Request fields receipts can be keyset-paginated by, mapped to their columns
+     */
+    public static final Map<String, String> SORT_COLUMNS = Map.of(
+        "id", "wpr.id", "receiptNumber", "wpr.receipt_number", "employerId", "wpr.employer_id",
+        "toliId", "wpr.toli_id", "createdAt", "wpr.created_at", "receiptDate", "wpr.created_at",
+        "totalRecords", "wpr.total_records", "totalAmount", "wpr.total_amount", "amount", "wpr.total_amount",
+        "status", "wpr.status");
+    
     public List<WorkerPaymentReceipt> findAll() {
         String sql = BASE_SELECT + " ORDER BY wpr.created_at DESC";
         return jdbcTemplate.query(sql, new WorkerPaymentReceiptRowMapper());
@@ -56,6 +65,58 @@ public class WorkerPaymentReceiptQueryDao {
         return jdbcTemplate.query(sql, new WorkerPaymentReceiptRowMapper(), status, startDate, endDate);
     }
     
+    /**
+     * Find one page of receipts with a status and an optional creation date range, newest first,
+     * paginated in SQL. The count query only runs when the total cannot be told from the page.
+     */
+    public PageResult<WorkerPaymentReceipt> findPageByStatus(String status, LocalDateTime startDate, LocalDateTime endDate,
+                                                             int page, int size) {
+        Map<String, Object> params = new HashMap<>();
+        String whereClause = filterClause(status, startDate, endDate, params);
+        String sql = BASE_SELECT + whereClause + " ORDER BY wpr.created_at DESC, wpr.id DESC";
+        WorkerPaymentReceiptRowMapper mapper = new WorkerPaymentReceiptRowMapper();
+        return queryForPage(sql, BASE_COUNT + whereClause, params, page, size, mapper::mapRow, true);
+    }
+    
+    /**
+     * Find receipts with an optional status and creation date range, one keyset page at a time
+     */
+    public KeysetPage<WorkerPaymentReceipt> findKeysetPage(String status, LocalDateTime startDate, LocalDateTime endDate,
+                                                           String sortColumn, boolean descending,
+                                                           KeysetCursor cursor, int offset, int size) {
+        Map<String, Object> params = new HashMap<>();
+        String whereClause = filterClause(status, startDate, endDate, params);
+        WorkerPaymentReceiptRowMapper mapper = new WorkerPaymentReceiptRowMapper();
+        return queryForKeysetPage(BASE_SELECT, whereClause, params, sortColumn, "wpr.id", descending,
+                cursor, offset, size, mapper::mapRow);
+    }
+    
+    /**
+     * Count receipts with an optional status and creation date range
+     */
+    public long count(String status, LocalDateTime startDate, LocalDateTime endDate) {
+        Map<String, Object> params = new HashMap<>();
+        Long count = queryForCount(BASE_COUNT + filterClause(status, startDate, endDate, params), params);
+        return count != null ? count : 0L;
+    }
+    
+    private String filterClause(String status, LocalDateTime startDate, LocalDateTime endDate, Map<String, Object> params) {
+        StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
+        
+        if (status != null && !status.isEmpty()) {
+            whereClause.append(" AND wpr.status = :status");
+            params.put("status", status);
+        }
+        
+        if (startDate != null && endDate != null) {
+            whereClause.append(" AND wpr.created_at BETWEEN :startDate AND :endDate");
+            params.put("startDate", startDate);
+            params.put("endDate", endDate);
+        }
+        
+        return whereClause.toString();
+    }
+    
     public List<WorkerPaymentReceipt> findByEmployerId(String employerId) {
         String sql = BASE_SELECT + " WHERE wpr.employer_id = ? ORDER BY wpr.created_at DESC";
         return jdbcTemplate.query(sql, new WorkerPaymentReceiptRowMapper(), employerId);
@@ -78,7 +139,7 @@ public class WorkerPaymentReceiptQueryDao {
         return total != null ? total : 0.0;
     }
     
-    private static class WorkerPaymentReceiptRowMapper implements RowMapper<WorkerPaymentReceipt> {
+    private static class WorkerPaymentReceiptRowMapper implements org.springframework.jdbc.core.RowMapper<WorkerPaymentReceipt> {
         @Override
         public WorkerPaymentReceipt mapRow(ResultSet rs, int rowNum) throws SQLException {
             WorkerPaymentReceipt receipt = new WorkerPaymentReceipt();
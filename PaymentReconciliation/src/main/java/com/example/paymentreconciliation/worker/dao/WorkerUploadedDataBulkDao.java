@@ -0,0 +1,140 @@
+package com.example.paymentreconciliation.worker.dao;
+
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import com.example.paymentreconciliation.worker.entity.FileStatusCounter.RecordType;
+import com.example.paymentreconciliation.worker.entity.WorkerUploadedData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO for Worker Uploaded Data bulk write operations.
+ * Entities use IDENTITY keys, which disables Hibernate JDBC batching, so large
+ * uploads are written here with plain JDBC batches instead of repository.saveAll.
+ * On MySQL, add rewriteBatchedStatements=true to the JDBC URL so each batch is
+ * sent as multi-row INSERT statements.
+ * Status changes are applied to the file status counters in the same transaction as the rows.
+ */
+@Repository
+public class WorkerUploadedDataBulkDao extends BaseQueryDao {
+
+    /**
+     * Number of rows sent to the driver per JDBC batch
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO worker_uploaded_data (file_id, row_num, worker_id, worker_name, employer_id, toli_id,
+               company_name, department, position, work_date, hours_worked, hourly_rate, payment_amount,
+               bank_account, phone_number, email, address, status, rejection_reason, created_at,
+               validated_at, processed_at, receipt_number)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String UPDATE_VALIDATION_SQL = """
+        UPDATE worker_uploaded_data SET status = ?, rejection_reason = ?, validated_at = ?
+        WHERE id = ?
+        """;
+
+    private static final String UPDATE_STATUS_BY_FILE_SQL = """
+        UPDATE worker_uploaded_data SET status = ?, receipt_number = ?, processed_at = ?
+        WHERE file_id = ? AND status = ?
+        """;
+
+    @Autowired
+    private FileStatusCounterDao fileStatusCounterDao;
+
+    /**
+     * Insert all rows using JDBC batches. Generated IDs are not read back.
+     * @return number of rows inserted
+     */
+    @Transactional
+    public int insertAll(List<WorkerUploadedData> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setObject(1, row.getFileId(), Types.VARCHAR);
+            ps.setObject(2, row.getRowNumber(), Types.INTEGER);
+            ps.setObject(3, row.getWorkerId(), Types.VARCHAR);
+            ps.setObject(4, row.getWorkerName(), Types.VARCHAR);
+            ps.setObject(5, row.getEmployerId(), Types.VARCHAR);
+            ps.setObject(6, row.getToliId(), Types.VARCHAR);
+            ps.setObject(7, row.getCompanyName(), Types.VARCHAR);
+            ps.setObject(8, row.getDepartment(), Types.VARCHAR);
+            ps.setObject(9, row.getPosition(), Types.VARCHAR);
+            ps.setObject(10, row.getWorkDate(), Types.DATE);
+            ps.setObject(11, row.getHoursWorked(), Types.DECIMAL);
+            ps.setObject(12, row.getHourlyRate(), Types.DECIMAL);
+            ps.setObject(13, row.getPaymentAmount(), Types.DECIMAL);
+            ps.setObject(14, row.getBankAccount(), Types.VARCHAR);
+            ps.setObject(15, row.getPhoneNumber(), Types.VARCHAR);
+            ps.setObject(16, row.getEmail(), Types.VARCHAR);
+            ps.setObject(17, row.getAddress(), Types.VARCHAR);
+            ps.setObject(18, row.getStatus(), Types.VARCHAR);
+            ps.setObject(19, row.getRejectionReason(), Types.VARCHAR);
+            ps.setObject(20, row.getCreatedAt(), Types.TIMESTAMP);
+            ps.setObject(21, row.getValidatedAt(), Types.TIMESTAMP);
+            ps.setObject(22, row.getProcessedAt(), Types.TIMESTAMP);
+            ps.setObject(23, row.getReceiptNumber(), Types.VARCHAR);
+        });
+        fileStatusCounterDao.applyDeltas(RecordType.UPLOADED_DATA, countByFileAndStatus(rows), true);
+        return rows.size();
+    }
+
+    /**
+     * Write status, rejection reason and validation timestamp of already persisted rows.
+     * @return number of rows updated
+     */
+    @Transactional
+    public int updateValidationResults(List<WorkerUploadedData> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<String, Map<String, Long>> deltas = fileStatusCounterDao.countByFileAndStatus(RecordType.UPLOADED_DATA, "id",
+            rows.stream().map(WorkerUploadedData::getId).toList());
+        deltas.values().forEach(byStatus -> byStatus.replaceAll((status, count) -> -count));
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_VALIDATION_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setObject(1, row.getStatus(), Types.VARCHAR);
+            ps.setObject(2, row.getRejectionReason(), Types.VARCHAR);
+            ps.setObject(3, row.getValidatedAt(), Types.TIMESTAMP);
+            ps.setObject(4, row.getId(), Types.BIGINT);
+        });
+        countByFileAndStatus(rows).forEach((fileId, byStatus) -> byStatus.forEach((status, count) ->
+            deltas.computeIfAbsent(fileId, id -> new HashMap<>()).merge(status, count, Long::sum)));
+        fileStatusCounterDao.applyDeltas(RecordType.UPLOADED_DATA, deltas, true);
+        return sumBatchCounts(counts);
+    }
+
+    /**
+     * Move all rows of a file from one status to another with a single UPDATE,
+     * recording the receipt they were processed under.
+     * @return number of rows updated
+     */
+    @Transactional
+    public int updateStatusByFileId(String fileId, String fromStatus, String toStatus,
+                                    String receiptNumber, LocalDateTime processedAt) {
+        int updated = jdbcTemplate.update(UPDATE_STATUS_BY_FILE_SQL, toStatus, receiptNumber, processedAt, fileId, fromStatus);
+        if (updated > 0) {
+            Map<String, Long> deltas = new HashMap<>();
+            deltas.put(fromStatus, (long) -updated);
+            deltas.merge(toStatus, (long) updated, Long::sum);
+            fileStatusCounterDao.applyDeltas(RecordType.UPLOADED_DATA, Map.of(fileId, deltas), true);
+        }
+        return updated;
+    }
+
+    private Map<String, Map<String, Long>> countByFileAndStatus(List<WorkerUploadedData> rows) {
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        for (WorkerUploadedData row : rows) {
+            counts.computeIfAbsent(row.getFileId(), id -> new HashMap<>()).merge(row.getStatus(), 1L, Long::sum);
+        }
+        return counts;
+    }
+}
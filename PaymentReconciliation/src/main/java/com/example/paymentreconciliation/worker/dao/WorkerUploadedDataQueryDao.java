@@ -0,0 +1,308 @@
+package com.example.paymentreconciliation.worker.dao;
+
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import com.example.paymentreconciliation.common.dao.KeysetCursor;
+import com.example.paymentreconciliation.worker.entity.WorkerUploadedData;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO for Worker Uploaded Data read operations using custom queries.
+ * Rows are returned as plain objects (not JPA-managed), so changing them does not
+ * trigger Hibernate dirty-checking updates; use WorkerUploadedDataBulkDao to write them back.
+ */
+@Repository
+public class WorkerUploadedDataQueryDao extends BaseQueryDao {
+
+    private static final String BASE_SELECT = """
+        SELECT id, file_id, row_num, worker_id, worker_name, employer_id, toli_id, company_name,
+               department, position, work_date, hours_worked, hourly_rate, payment_amount,
+               bank_account, phone_number, email, address, status, rejection_reason, created_at,
+               validated_at, processed_at, receipt_number
+        FROM worker_uploaded_data
+        """;
+
+    /**
+     * Request fields uploaded rows can be keyset-paginated by, mapped to their columns
+     */
+    public static final Map<String, String> SORT_COLUMNS = Map.of(
+        "id", "id", "workerName", "worker_name", "employerId", "employer_id", "paymentAmount", "payment_amount",
+        "amount", "payment_amount", "status", "status", "createdAt", "created_at", "workDate", "work_date",
+        "receiptNumber", "receipt_number");
+
+    private static final String FILE_SUMMARY_SELECT = "SELECT uf.id, uf.filename, uf.created_at FROM uploaded_files uf";
+
+    /**
+     * Request fields file summaries can be keyset-paginated by, mapped to their columns. totalRecords is
+     * computed per file and is only available with page numbers.
+     */
+    public static final Map<String, String> FILE_SUMMARY_SORT_COLUMNS = Map.of(
+        "uploadDate", "uf.created_at", "createdAt", "uf.created_at", "fileId", "uf.id", "id", "uf.id");
+
+    /**
+     * Find all rows of a file with the given status, ordered by id
+     */
+    public List<WorkerUploadedData> findByFileIdAndStatus(String fileId, String status) {
+        String sql = BASE_SELECT + " WHERE file_id = :fileId AND status = :status ORDER BY id";
+        Map<String, Object> params = Map.of("fileId", fileId, "status", status);
+        return queryForList(sql, params, this::mapWorkerUploadedData);
+    }
+
+    /**
+     * Keyset page: the next rows of a file with the given status whose id is greater than afterId.
+     * Uses the (file_id, status) filter plus the primary key, so deep pages cost the same as the first.
+     */
+    public List<WorkerUploadedData> findNextChunkByFileIdAndStatus(String fileId, String status, long afterId, int limit) {
+        String sql = BASE_SELECT + " WHERE file_id = :fileId AND status = :status AND id > :afterId ORDER BY id LIMIT :limit";
+        Map<String, Object> params = Map.of("fileId", fileId, "status", status, "afterId", afterId, "limit", limit);
+        return queryForList(sql, params, this::mapWorkerUploadedData);
+    }
+
+    /**
+     * Count rows of a file with the given status
+     */
+    public long countByFileIdAndStatus(String fileId, String status) {
+        String sql = "SELECT COUNT(*) FROM worker_uploaded_data WHERE file_id = :fileId AND status = :status";
+        Map<String, Object> params = Map.of("fileId", fileId, "status", status);
+        Long count = queryForCount(sql, params);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Sum the payment amounts of a file's rows with the given status
+     */
+    public BigDecimal sumPaymentAmountByFileIdAndStatus(String fileId, String status) {
+        String sql = "SELECT COALESCE(SUM(payment_amount), 0) FROM worker_uploaded_data"
+                + " WHERE file_id = :fileId AND status = :status";
+        BigDecimal total = namedParameterJdbcTemplate.queryForObject(sql, Map.of("fileId", fileId, "status", status),
+                BigDecimal.class);
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    /**
+     * Find rows uploaded within a date range, one keyset page at a time
+     */
+    public KeysetPage<WorkerUploadedData> findKeysetPageByCreatedAt(LocalDateTime startDate, LocalDateTime endDate,
+                                                                    String sortColumn, boolean descending,
+                                                                    KeysetCursor cursor, int offset, int size) {
+        Map<String, Object> params = Map.of("startDate", startDate, "endDate", endDate);
+        return queryForKeysetPage(BASE_SELECT, " WHERE created_at BETWEEN :startDate AND :endDate", params,
+                sortColumn, "id", descending, cursor, offset, size, this::mapWorkerUploadedData);
+    }
+
+    /**
+     * Count rows uploaded within a date range
+     */
+    public long countByCreatedAt(LocalDateTime startDate, LocalDateTime endDate) {
+        String sql = "SELECT COUNT(*) FROM worker_uploaded_data WHERE created_at BETWEEN :startDate AND :endDate";
+        Long count = queryForCount(sql, Map.of("startDate", startDate, "endDate", endDate));
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * One page of uploaded files with the totals of their rows. The page is read from uploaded_files
+     * alone, through its primary key or created_at index, and counted there; only then are the row counts
+     * of the files on the page read from file_status_counters and their validated amounts summed, so a
+     * page costs the same however many files and rows match. Sorting by totalRecords reads each matching
+     * file's counters instead of grouping its rows.
+     *
+     * @param fileId optional uploaded file id
+     * @param status optional status, only files with at least one row in it are returned
+     * @param sortBy uploadDate or totalRecords, anything else sorts by file id
+     */
+    public PageResult<Map<String, Object>> findFileSummaryPage(String fileId, String status,
+                                                              LocalDateTime startDate, LocalDateTime endDate,
+                                                              String sortBy, String sortDir,
+                                                              int page, int size, boolean includeTotal) {
+        Map<String, Object> params = new HashMap<>();
+        String where = fileSummaryWhere(fileId, status, startDate, endDate, params);
+
+        String sortColumn = switch (sortBy != null ? sortBy : "") {
+            case "uploadDate" -> "uf.created_at";
+            case "totalRecords" -> """
+                (SELECT COALESCE(SUM(c.record_count), 0) FROM file_status_counters c
+                 WHERE c.file_id = CONCAT(uf.id, '') AND c.record_type = 'UPLOADED_DATA')""";
+            default -> "uf.id";
+        };
+        String direction = "desc".equalsIgnoreCase(sortDir) ? "DESC" : "ASC";
+        String orderBy = " ORDER BY " + sortColumn + " " + direction
+                + ("uf.id".equals(sortColumn) ? "" : ", uf.id " + direction);
+
+        PageResult<Map<String, Object>> files = queryForPage(FILE_SUMMARY_SELECT + where + orderBy,
+                "SELECT COUNT(*) FROM uploaded_files uf" + where,
+                params, page, size, this::mapFileSummary, includeTotal);
+        addFileTotals(files.getContent());
+        return files;
+    }
+
+    /**
+     * One keyset page of uploaded files with the totals of their rows, filtered as in
+     * {@link #findFileSummaryPage}. The sort column must be one of FILE_SUMMARY_SORT_COLUMNS.
+     */
+    public KeysetPage<Map<String, Object>> findFileSummaryKeysetPage(String fileId, String status,
+                                                                     LocalDateTime startDate, LocalDateTime endDate,
+                                                                     String sortColumn, boolean descending,
+                                                                     KeysetCursor cursor, int offset, int size) {
+        Map<String, Object> params = new HashMap<>();
+        String where = fileSummaryWhere(fileId, status, startDate, endDate, params);
+        KeysetPage<Map<String, Object>> files = queryForKeysetPage(FILE_SUMMARY_SELECT, where, params,
+                sortColumn, "uf.id", descending, cursor, offset, size, this::mapFileSummary);
+        addFileTotals(files.getContent());
+        return files;
+    }
+
+    /**
+     * Count uploaded files, filtered as in {@link #findFileSummaryPage}
+     */
+    public long countFileSummaries(String fileId, String status, LocalDateTime startDate, LocalDateTime endDate) {
+        Map<String, Object> params = new HashMap<>();
+        String where = fileSummaryWhere(fileId, status, startDate, endDate, params);
+        Long count = queryForCount("SELECT COUNT(*) FROM uploaded_files uf" + where, params);
+        return count != null ? count : 0L;
+    }
+
+    private static String fileSummaryWhere(String fileId, String status, LocalDateTime startDate,
+                                           LocalDateTime endDate, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder(" WHERE 1=1");
+        if (status != null && !status.isBlank()) {
+            // Counters are keyed by the file id as a string; uf.id is only turned into the lookup key
+            where.append("""
+                 AND EXISTS (
+                    SELECT 1 FROM file_status_counters c
+                    WHERE c.file_id = CONCAT(uf.id, '') AND c.record_type = 'UPLOADED_DATA'
+                    AND c.status = :status AND c.record_count > 0
+                )""");
+            params.put("status", status.trim().toUpperCase());
+        }
+        if (fileId != null && !fileId.isBlank()) {
+            where.append(" AND uf.id = :fileId");
+            params.put("fileId", Long.parseLong(fileId.trim()));
+        }
+        if (startDate != null && endDate != null) {
+            where.append(" AND uf.created_at BETWEEN :startDate AND :endDate");
+            params.put("startDate", startDate);
+            params.put("endDate", endDate);
+        }
+        return where.toString();
+    }
+
+    /**
+     * Add the row count, validated count and validated amount of each file, read for all files in one
+     * counter read and one grouped sum over the (file_id, status, payment_amount) index
+     */
+    private void addFileTotals(List<Map<String, Object>> summaries) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Object>> byFileId = new HashMap<>();
+        for (Map<String, Object> summary : summaries) {
+            summary.put("totalRecords", 0);
+            summary.put("validatedCount", 0);
+            summary.put("totalValidatedAmount", BigDecimal.ZERO);
+            byFileId.put((String) summary.get("fileId"), summary);
+        }
+        Map<String, Object> params = Map.of("fileIds", byFileId.keySet());
+        namedParameterJdbcTemplate.query("""
+            SELECT file_id, status, record_count FROM file_status_counters
+            WHERE record_type = 'UPLOADED_DATA' AND file_id IN (:fileIds)
+            """, params, rs -> {
+            Map<String, Object> summary = byFileId.get(rs.getString("file_id"));
+            int count = rs.getInt("record_count");
+            summary.merge("totalRecords", count, (total, added) -> (Integer) total + (Integer) added);
+            if ("VALIDATED".equals(rs.getString("status"))) {
+                summary.put("validatedCount", count);
+            }
+        });
+        namedParameterJdbcTemplate.query("""
+            SELECT file_id, COALESCE(SUM(payment_amount), 0) AS validated_amount FROM worker_uploaded_data
+            WHERE file_id IN (:fileIds) AND status = 'VALIDATED' GROUP BY file_id
+            """, params, rs -> {
+            byFileId.get(rs.getString("file_id")).put("totalValidatedAmount", rs.getBigDecimal("validated_amount"));
+        });
+    }
+
+    /**
+     * Row counts per status of the given files, grouped in one query
+     */
+    public Map<String, Map<String, Integer>> findStatusCountsByFileIds(Collection<String> fileIds) {
+        Map<String, Map<String, Integer>> counts = new HashMap<>();
+        if (fileIds.isEmpty()) {
+            return counts;
+        }
+        String sql = "SELECT file_id, status, COUNT(*) AS row_count FROM worker_uploaded_data"
+                + " WHERE file_id IN (:fileIds) GROUP BY file_id, status";
+        namedParameterJdbcTemplate.query(sql, Map.of("fileIds", fileIds), rs -> {
+            counts.computeIfAbsent(rs.getString("file_id"), id -> new HashMap<>())
+                    .put(rs.getString("status"), rs.getInt("row_count"));
+        });
+        return counts;
+    }
+
+    private Map<String, Object> mapFileSummary(ResultSet rs, int rowNum) throws SQLException {
+        Map<String, Object> summary = new HashMap<>();
+        Timestamp uploadDate = rs.getTimestamp("created_at");
+        LocalDateTime uploadTimestamp = uploadDate != null ? uploadDate.toLocalDateTime() : null;
+        summary.put("fileId", String.valueOf(rs.getLong("id")));
+        summary.put("fileName", rs.getString("filename"));
+        summary.put("uploadDate", uploadTimestamp);
+        summary.put("uploadTimestamp", uploadTimestamp);
+        return summary;
+    }
+
+    /**
+     * Map ResultSet to WorkerUploadedData entity
+     */
+    private WorkerUploadedData mapWorkerUploadedData(ResultSet rs, int rowNum) throws SQLException {
+        WorkerUploadedData data = new WorkerUploadedData();
+        data.setId(rs.getLong("id"));
+        data.setFileId(rs.getString("file_id"));
+        data.setRowNumber(rs.getInt("row_num"));
+        data.setWorkerId(rs.getString("worker_id"));
+        data.setWorkerName(rs.getString("worker_name"));
+        data.setEmployerId(rs.getString("employer_id"));
+        data.setToliId(rs.getString("toli_id"));
+        data.setCompanyName(rs.getString("company_name"));
+        data.setDepartment(rs.getString("department"));
+        data.setPosition(rs.getString("position"));
+        data.setHoursWorked(rs.getBigDecimal("hours_worked"));
+        data.setHourlyRate(rs.getBigDecimal("hourly_rate"));
+        data.setPaymentAmount(rs.getBigDecimal("payment_amount"));
+        data.setBankAccount(rs.getString("bank_account"));
+        data.setPhoneNumber(rs.getString("phone_number"));
+        data.setEmail(rs.getString("email"));
+        data.setAddress(rs.getString("address"));
+        data.setStatus(rs.getString("status"));
+        data.setRejectionReason(rs.getString("rejection_reason"));
+        data.setReceiptNumber(rs.getString("receipt_number"));
+
+        // Handle dates and timestamps
+        Date workDate = rs.getDate("work_date");
+        if (workDate != null) {
+            data.setWorkDate(workDate.toLocalDate());
+        }
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            data.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        Timestamp validatedAt = rs.getTimestamp("validated_at");
+        if (validatedAt != null) {
+            data.setValidatedAt(validatedAt.toLocalDateTime());
+        }
+        Timestamp processedAt = rs.getTimestamp("processed_at");
+        if (processedAt != null) {
+            data.setProcessedAt(processedAt.toLocalDateTime());
+        }
+
+        return data;
+    }
+}
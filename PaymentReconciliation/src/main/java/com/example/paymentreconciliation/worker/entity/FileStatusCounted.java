@@ -0,0 +1,19 @@
+package com.example.paymentreconciliation.worker.entity;
+
+/**
+ * Entity whose records are counted per file and status in FileStatusCounter.
+ * The status last read from or written to the database is kept in a transient field,
+ * so FileStatusCounterListener can tell a status change from an unrelated update.
+ */
+public interface FileStatusCounted {
+
+    FileStatusCounter.RecordType getCounterRecordType();
+
+    String getFileId();
+
+    String getStatus();
+
+    String getCountedStatus();
+
+    void setCountedStatus(String countedStatus);
+}
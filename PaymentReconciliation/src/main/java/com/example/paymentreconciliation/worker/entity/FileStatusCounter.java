@@ -0,0 +1,124 @@
+package com.example.paymentreconciliation.worker.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Number of records of an uploaded file in one status, kept up to date by every writer of the
+ * counted tables in the same transaction as the records themselves.
+ * Written and read through FileStatusCounterDao only.
+ */
+@Entity
+@Table(name = "file_status_counters")
+@IdClass(FileStatusCounter.Key.class)
+public class FileStatusCounter {
+
+    /**
+     * Tables whose records are counted per file and status
+     */
+    public enum RecordType {
+        UPLOADED_DATA("worker_uploaded_data"),
+        WORKER_PAYMENT("worker_payments");
+
+        private final String tableName;
+
+        RecordType(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+    }
+
+    @Id
+    @Column(name = "file_id", length = 100)
+    private String fileId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "record_type", length = 20)
+    private RecordType recordType;
+
+    @Id
+    @Column(name = "status", length = 50)
+    private String status;
+
+    @Column(name = "record_count", nullable = false)
+    private Long recordCount = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public String getFileId() {
+        return fileId;
+    }
+
+    public void setFileId(String fileId) {
+        this.fileId = fileId;
+    }
+
+    public RecordType getRecordType() {
+        return recordType;
+    }
+
+    public void setRecordType(RecordType recordType) {
+        this.recordType = recordType;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getRecordCount() {
+        return recordCount;
+    }
+
+    public void setRecordCount(Long recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Primary key: file, record type and status
+     */
+    public static class Key implements Serializable {
+        private String fileId;
+        private RecordType recordType;
+        private String status;
+
+        public Key() {
+        }
+
+        public Key(String fileId, RecordType recordType, String status) {
+            this.fileId = fileId;
+            this.recordType = recordType;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(fileId, key.fileId) && recordType == key.recordType && Objects.equals(status, key.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fileId, recordType, status);
+        }
+    }
+}
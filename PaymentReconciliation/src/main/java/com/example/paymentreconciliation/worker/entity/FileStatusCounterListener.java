@@ -0,0 +1,64 @@
+package com.example.paymentreconciliation.worker.entity;
+
+import com.example.paymentreconciliation.worker.dao.FileStatusCounterDao;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the file status counters in step with records written through JPA.
+ * Callbacks run while Hibernate flushes, on the connection of the flushing transaction.
+ * Hibernate may still hold batched statements at that point, so files without counters are
+ * not seeded from here; the JDBC writers seed them.
+ */
+public class FileStatusCounterListener {
+
+    private final ObjectProvider<FileStatusCounterDao> counterDao;
+
+    public FileStatusCounterListener(ObjectProvider<FileStatusCounterDao> counterDao) {
+        this.counterDao = counterDao;
+    }
+
+    @PostLoad
+    public void postLoad(FileStatusCounted record) {
+        record.setCountedStatus(record.getStatus());
+    }
+
+    @PostPersist
+    public void postPersist(FileStatusCounted record) {
+        apply(record, null, record.getStatus());
+    }
+
+    @PostUpdate
+    public void postUpdate(FileStatusCounted record) {
+        if (!Objects.equals(record.getCountedStatus(), record.getStatus())) {
+            apply(record, record.getCountedStatus(), record.getStatus());
+        }
+    }
+
+    @PostRemove
+    public void postRemove(FileStatusCounted record) {
+        apply(record, record.getCountedStatus(), null);
+    }
+
+    private void apply(FileStatusCounted record, String fromStatus, String toStatus) {
+        record.setCountedStatus(toStatus);
+        if (record.getFileId() == null) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        if (fromStatus != null) {
+            deltas.merge(fromStatus, -1L, Long::sum);
+        }
+        if (toStatus != null) {
+            deltas.merge(toStatus, 1L, Long::sum);
+        }
+        counterDao.getObject().applyDeltas(record.getCounterRecordType(), Map.of(record.getFileId(), deltas), false);
+    }
+}
@@ -2,11 +2,13 @@ package com.example.paymentreconciliation.worker.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,8 +16,9 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(FileStatusCounterListener.class)
 @Table(name = "worker_payments")
-public class WorkerPayment {
+public class WorkerPayment implements FileStatusCounted {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -65,6 +68,9 @@ public class WorkerPayment {
     @Column(name = "status", nullable = false, length = 40)
     private String status = "UPLOADED";
 
+    @Transient
+    private String countedStatus;
+
     @Column(name = "receipt_number", length = 40)
     private String receiptNumber;
     
@@ -219,4 +225,19 @@ public class WorkerPayment {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    @Override
+    public FileStatusCounter.RecordType getCounterRecordType() {
+        return FileStatusCounter.RecordType.WORKER_PAYMENT;
+    }
+
+    @Override
+    public String getCountedStatus() {
+        return countedStatus;
+    }
+
+    @Override
+    public void setCountedStatus(String countedStatus) {
+        this.countedStatus = countedStatus;
+    }
 }
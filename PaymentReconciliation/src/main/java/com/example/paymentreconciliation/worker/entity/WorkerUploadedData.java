@@ -6,8 +6,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(FileStatusCounterListener.class)
 @Table(name = "worker_uploaded_data")
-public class WorkerUploadedData {
+public class WorkerUploadedData implements FileStatusCounted {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -66,6 +67,9 @@ public class WorkerUploadedData {
     @Column(name = "status", nullable = false, length = 32)
     private String status; // UPLOADED, VALIDATED, REJECTED
 
+    @Transient
+    private String countedStatus;
+
     @Column(name = "rejection_reason", columnDefinition = "TEXT")
     private String rejectionReason;
 
@@ -288,4 +292,19 @@ public class WorkerUploadedData {
     public void setReceiptNumber(String receiptNumber) {
         this.receiptNumber = receiptNumber;
     }
+
+    @Override
+    public FileStatusCounter.RecordType getCounterRecordType() {
+        return FileStatusCounter.RecordType.UPLOADED_DATA;
+    }
+
+    @Override
+    public String getCountedStatus() {
+        return countedStatus;
+    }
+
+    @Override
+    public void setCountedStatus(String countedStatus) {
+        this.countedStatus = countedStatus;
+    }
 }
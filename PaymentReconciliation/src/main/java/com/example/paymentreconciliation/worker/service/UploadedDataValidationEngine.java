@@ -0,0 +1,239 @@
+package com.example.paymentreconciliation.worker.service;
+
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
+import com.example.paymentreconciliation.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentreconciliation.worker.dao.WorkerUploadedDataBulkDao;
+import com.example.paymentreconciliation.worker.dao.WorkerUploadedDataQueryDao;
+import com.example.paymentreconciliation.worker.entity.WorkerUploadedData;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validates the UPLOADED rows of a file in keyset-paged chunks on a bounded worker pool.
+ * Each chunk is written back and committed on its own, so a failure only affects that chunk:
+ * its rows stay UPLOADED and are picked up again by the next validation run.
+ */
+@Service
+public class UploadedDataValidationEngine {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(UploadedDataValidationEngine.class);
+    private static final String STATUS_UPLOADED = "UPLOADED";
+    private static final long FINISHED_PROGRESS_RETENTION_MINUTES = 60;
+
+    private final WorkerUploadedDataQueryDao queryDao;
+    private final WorkerUploadedDataBulkDao bulkDao;
+    private final WorkerUploadedDataValidator validator;
+    private final ResourceVersionService resourceVersionService;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final ExecutorService executor;
+    private final Map<String, ValidationProgress> progressByFile = new ConcurrentHashMap<>();
+
+    public UploadedDataValidationEngine(WorkerUploadedDataQueryDao queryDao,
+                                        WorkerUploadedDataBulkDao bulkDao,
+                                        WorkerUploadedDataValidator validator,
+                                        WorkerPaymentFileConfig config,
+                                        ResourceVersionService resourceVersionService) {
+        this.queryDao = queryDao;
+        this.bulkDao = bulkDao;
+        this.validator = validator;
+        this.resourceVersionService = resourceVersionService;
+        this.chunkSize = Math.max(1, config.getValidationChunkSize());
+        int threads = Math.max(1, config.getValidationThreads());
+        // Chunks already read but not yet validated are capped, so memory stays bounded for any file size
+        this.maxChunksInFlight = threads * 2;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("UploadValidation-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Validate all UPLOADED rows of the file and block until every chunk has been processed.
+     * Progress can be read concurrently through {@link #getProgress(String)}.
+     * @throws IllegalStateException if a validation of the same file is already running
+     */
+    public ValidationProgress validateFile(String fileId) {
+        evictFinishedProgress();
+
+        ValidationProgress progress = new ValidationProgress(fileId);
+        ValidationProgress existing = progressByFile.compute(fileId,
+            (key, current) -> current != null && current.isRunning() ? current : progress);
+        if (existing != progress) {
+            throw new IllegalStateException("Validation is already running for fileId: " + fileId);
+        }
+
+        progress.total.set(queryDao.countByFileIdAndStatus(fileId, STATUS_UPLOADED));
+        log.info("Starting chunked validation for fileId: {} ({} records, chunk size {})",
+            fileId, progress.getTotal(), chunkSize);
+
+        Semaphore permits = new Semaphore(maxChunksInFlight);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            long lastId = 0L;
+            while (true) {
+                List<WorkerUploadedData> chunk =
+                    queryDao.findNextChunkByFileIdAndStatus(fileId, STATUS_UPLOADED, lastId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                // Keyset cursor: the id of the last row read
+                Long chunkLastId = chunk.get(chunk.size() - 1).getId();
+                if (chunkLastId == null) {
+                    throw new IllegalStateException("Uploaded row without id in fileId: " + fileId
+                        + ", cannot continue the keyset scan after id " + lastId);
+                }
+                lastId = chunkLastId;
+
+                permits.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        validateChunk(fileId, chunk, progress);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            awaitAll(futures);
+            progress.finish(progress.getFailed() == 0 ? "COMPLETED" : "COMPLETED_WITH_ERRORS");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.finish("FAILED");
+            throw new IllegalStateException("Validation interrupted for fileId: " + fileId, e);
+        } catch (RuntimeException e) {
+            log.error("Validation aborted for fileId: {}", fileId, e);
+            awaitQuietly(futures);
+            progress.finish("FAILED");
+            throw e;
+        }
+
+        log.info("Validation completed for fileId: {} - validated: {}, rejected: {}, failed: {}",
+            fileId, progress.getValidated(), progress.getRejected(), progress.getFailed());
+        return progress;
+    }
+
+    public Optional<ValidationProgress> getProgress(String fileId) {
+        return Optional.ofNullable(progressByFile.get(fileId));
+    }
+
+    private void validateChunk(String fileId, List<WorkerUploadedData> chunk, ValidationProgress progress) {
+        int validated = 0;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        for (WorkerUploadedData record : chunk) {
+            try {
+                validator.validate(record, today);
+                if ("VALIDATED".equals(record.getStatus())) {
+                    record.setValidatedAt(now);
+                    validated++;
+                }
+            } catch (Exception e) {
+                log.error("Error validating record {} for fileId: {}", record.getRowNumber(), fileId, e);
+                record.setStatus("REJECTED");
+                record.setRejectionReason("Validation error: " + e.getMessage());
+            }
+        }
+
+        try {
+            bulkDao.updateValidationResults(chunk);
+            resourceVersionService.markChanged(ResourceVersionService.WORKER_UPLOADED_DATA);
+            progress.validated.addAndGet(validated);
+            progress.rejected.addAndGet(chunk.size() - validated);
+        } catch (Exception e) {
+            log.error("Failed to save validation results for a chunk of {} records in fileId: {}",
+                chunk.size(), fileId, e);
+            progress.failed.addAndGet(chunk.size());
+        }
+    }
+
+    private void awaitAll(List<Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Validation chunk failed", e.getCause());
+            }
+        }
+    }
+
+    private void awaitQuietly(List<Future<?>> futures) {
+        try {
+            awaitAll(futures);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Validation chunk failed while aborting: {}", e.getMessage());
+        }
+    }
+
+    private void evictFinishedProgress() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(FINISHED_PROGRESS_RETENTION_MINUTES);
+        progressByFile.values().removeIf(p -> !p.isRunning() && p.getCompletedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Live counters of a validation run. Safe to read while the run is in progress.
+     */
+    public static class ValidationProgress {
+        private final String fileId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong validated = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile String state = "RUNNING";
+        private volatile LocalDateTime completedAt;
+
+        ValidationProgress(String fileId) {
+            this.fileId = fileId;
+        }
+
+        void finish(String finalState) {
+            this.completedAt = LocalDateTime.now();
+            this.state = finalState;
+        }
+
+        public boolean isRunning() {
+            return "RUNNING".equals(state);
+        }
+
+        public String getFileId() { return fileId; }
+        public String getState() { return state; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getCompletedAt() { return completedAt; }
+        public long getTotal() { return total.get(); }
+        public long getValidated() { return validated.get(); }
+        public long getRejected() { return rejected.get(); }
+        public long getFailed() { return failed.get(); }
+
+        public long getRemaining() {
+            return Math.max(0L, getTotal() - getValidated() - getRejected() - getFailed());
+        }
+    }
+}
@@ -3,10 +3,14 @@ package com.example.paymentreconciliation.worker.service;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.example.paymentreconciliation.utilities.file.FileStorageUtil;
+import com.example.paymentreconciliation.worker.dao.FileStatusCounterDao;
+import com.example.paymentreconciliation.worker.entity.FileStatusCounter;
 import com.example.paymentreconciliation.worker.entity.WorkerPayment;
 import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentreconciliation.utilities.file.UploadedFileRepository;
 import com.example.paymentreconciliation.utilities.file.UploadedFile;
+import com.example.paymentreconciliation.utilities.file.XlsxStreamingReader;
+import com.example.paymentreconciliation.worker.config.WorkerPaymentFileConfig;
 import org.slf4j.Logger;
 import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,6 +20,9 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.util.*;
 
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.ooxml.POIXMLException;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
@@ -24,10 +31,14 @@ import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.util.RecordFormatException;
 
 @Service
 public class WorkerPaymentFileService {
     private static final Logger log = LoggerFactoryProvider.getLogger(WorkerPaymentFileService.class);
+    private static final java.util.regex.Pattern CSV_FIELD_SPLITTER =
+        java.util.regex.Pattern.compile(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
+    private static final int EXCEL_MIN_COLUMNS = 15;
 
     @Autowired
     private FileStorageUtil fileStorageUtil;
@@ -45,6 +56,12 @@ public class WorkerPaymentFileService {
     @Autowired
     private WorkerUploadedDataService workerUploadedDataService;
 
+    @Autowired
+    private WorkerPaymentFileConfig fileConfig;
+
+    @Autowired
+    private FileStatusCounterDao fileStatusCounterDao;
+
     public Map<String, Object> handleFileUpload(MultipartFile file) {
         log.info("Received file upload: name={}, size={} bytes", file.getOriginalFilename(), file.getSize());
         
@@ -58,31 +75,38 @@ public class WorkerPaymentFileService {
             
             log.info("File saved to {} with fileId: {}", storedPath, fileId);
             
-            // Parse the file and extract worker uploaded data
+            // Stream the file and flush parsed rows to WorkerUploadedData in fixed-size chunks
             File fileToRead = new File(storedPath);
-            List<com.example.paymentreconciliation.worker.entity.WorkerUploadedData> uploadedDataList = 
-                parseFileToUploadedData(fileToRead, file.getOriginalFilename(), fileId);
+            long startNanos = System.nanoTime();
+            int savedCount;
+            try {
+                savedCount = streamFileToUploadedData(fileToRead, file.getOriginalFilename(), fileId);
+            } catch (Exception e) {
+                // Remove rows from chunks that were already committed so the upload stays all-or-nothing
+                workerUploadedDataService.deleteByFileId(fileId);
+                throw e;
+            }
+            long elapsedMs = Math.max(1L, (System.nanoTime() - startNanos) / 1_000_000L);
+            long rowsPerSecond = savedCount * 1000L / elapsedMs;
             
             // Update the uploaded file record with parsing results
-            uploadedFile.setTotalRecords(uploadedDataList.size());
+            uploadedFile.setTotalRecords(savedCount);
             uploadedFile.setSuccessCount(0); // Will be updated after validation
             uploadedFile.setFailureCount(0);
             uploadedFile.setStatus("UPLOADED");
             uploadedFileRepository.save(uploadedFile);
             
-            // Save uploaded data to WorkerUploadedData table
-            List<com.example.paymentreconciliation.worker.entity.WorkerUploadedData> savedData = 
-                workerUploadedDataService.saveAll(uploadedDataList);
-            
-            log.info("File {} parsed and {} records saved to WorkerUploadedData (fileId={})", 
-                file.getOriginalFilename(), savedData.size(), fileId);
+            log.info("File {} parsed and {} records saved to WorkerUploadedData (fileId={}) in {} ms ({} rows/sec)", 
+                file.getOriginalFilename(), savedCount, fileId, elapsedMs, rowsPerSecond);
             
             // Create response map step by step to identify any null values
             Map<String, Object> response = new HashMap<>();
             response.put("fileId", fileId);
-            response.put("message", "File uploaded successfully. " + savedData.size() + " records loaded. Proceed to validation.");
+            response.put("message", "File uploaded successfully. " + savedCount + " records loaded. Proceed to validation.");
             response.put("path", storedPath);
-            response.put("recordCount", savedData.size());
+            response.put("recordCount", savedCount);
+            response.put("elapsedMs", elapsedMs);
+            response.put("rowsPerSecond", rowsPerSecond);
             
             log.info("Returning response: {}", response);
             return response;
@@ -108,8 +132,9 @@ public class WorkerPaymentFileService {
                 return Map.of("error", "File not found");
             }
             
-            // Validate uploaded data using the new service
-            workerUploadedDataService.validateUploadedData(fileId);
+            // Validate uploaded data in parallel chunks; each chunk commits independently
+            UploadedDataValidationEngine.ValidationProgress progress =
+                workerUploadedDataService.validateUploadedData(fileId);
             
             // Get validation summary
             Map<String, Integer> summary = workerUploadedDataService.getFileStatusSummary(fileId);
@@ -124,11 +149,15 @@ public class WorkerPaymentFileService {
             uploadedFileRepository.save(uploadedFile);
             
             log.info("Validation complete for fileId={}: {} passed, {} failed", fileId, passedCount, failedCount);
+            if (progress.getFailed() > 0) {
+                log.warn("{} records of fileId={} could not be saved and remain UPLOADED", progress.getFailed(), fileId);
+            }
             
             Map<String, Object> response = new HashMap<>();
             response.put("passed", passedCount);
             response.put("failed", failedCount);
             response.put("status", "COMPLETED");
+            response.put("unprocessed", progress.getFailed());
             response.put("nextAction", "GENERATE_REQUEST");
             response.put("message", "Validation completed. " + passedCount + " records passed validation. Ready to generate request.");
             
@@ -407,7 +436,11 @@ public class WorkerPaymentFileService {
         log.info("Getting status summary for fileId={}", fileId);
         
         try {
-            List<WorkerPayment> payments = workerPaymentService.findByFileId(fileId);
+            // Counters are kept per file by the writers, files not counted yet are grouped from their payments
+            Map<String, Long> counters = fileStatusCounterDao.findCounts(fileId, FileStatusCounter.RecordType.WORKER_PAYMENT);
+            if (counters.isEmpty()) {
+                counters = fileStatusCounterDao.countRecords(fileId, FileStatusCounter.RecordType.WORKER_PAYMENT);
+            }
             
             Map<String, Integer> statusCounts = new HashMap<>();
             
@@ -419,14 +452,15 @@ public class WorkerPaymentFileService {
             }
             
             // Count by status
-            for (WorkerPayment payment : payments) {
-                String status = payment.getStatus();
-                statusCounts.put(status, statusCounts.getOrDefault(status, 0) + 1);
+            int totalRecords = 0;
+            for (Map.Entry<String, Long> counter : counters.entrySet()) {
+                statusCounts.put(counter.getKey(), counter.getValue().intValue());
+                totalRecords += counter.getValue().intValue();
             }
             
             Map<String, Object> result = new HashMap<>();
             result.put("fileId", fileId);
-            result.put("totalRecords", payments.size());
+            result.put("totalRecords", totalRecords);
             result.put("uploadedCount", statusCounts.get("UPLOADED"));
             result.put("validatedCount", statusCounts.get("VALIDATED"));
             result.put("failedCount", statusCounts.get("FAILED"));
@@ -498,55 +532,65 @@ public class WorkerPaymentFileService {
         return workerPaymentService.findByFileId(fileId);
     }
 
-    private List<com.example.paymentreconciliation.worker.entity.WorkerUploadedData> parseFileToUploadedData(
-            File file, String originalFilename, String fileId) throws java.io.IOException {
-        log.info("Parsing file {} to WorkerUploadedData format", originalFilename);
+    /**
+     * Parse the stored file row by row and persist the rows in chunks of
+     * {@code workerpayment.file.ingest-chunk-size}, so heap use does not depend on the file size.
+     * @return number of rows persisted
+     */
+    private int streamFileToUploadedData(File file, String originalFilename, String fileId) throws java.io.IOException {
+        log.info("Streaming file {} to WorkerUploadedData format", originalFilename);
 
+        ChunkedUploadWriter writer = new ChunkedUploadWriter(fileId, Math.max(1, fileConfig.getIngestChunkSize()));
         String extension = getFileExtension(originalFilename);
         if ("csv".equalsIgnoreCase(extension)) {
-            return parseCsvToUploadedData(file, fileId);
-        }
-        if ("xls".equalsIgnoreCase(extension) || "xlsx".equalsIgnoreCase(extension)) {
-            return parseExcelToUploadedData(file, fileId);
+            streamCsv(file, writer);
+        } else if ("xlsx".equalsIgnoreCase(extension)) {
+            streamXlsx(file, writer);
+        } else if ("xls".equalsIgnoreCase(extension)) {
+            streamXls(file, writer);
+        } else {
+            throw new java.io.IOException("Unsupported file type: " + extension);
         }
+        writer.flush();
 
-        throw new java.io.IOException("Unsupported file type: " + extension);
+        log.info("Parsed and saved {} records from {} file", writer.getSavedCount(), extension);
+        return writer.getSavedCount();
     }
 
-    private List<com.example.paymentreconciliation.worker.entity.WorkerUploadedData> parseCsvToUploadedData(
-            File file, String fileId) throws java.io.IOException {
-        List<com.example.paymentreconciliation.worker.entity.WorkerUploadedData> uploadedDataList = new ArrayList<>();
-
+    private void streamCsv(File file, ChunkedUploadWriter writer) throws java.io.IOException {
         try (java.io.BufferedReader br = new java.io.BufferedReader(new java.io.FileReader(file))) {
             String header = br.readLine();
             if (header == null) {
                 throw new java.io.IOException("File is empty or invalid");
             }
 
-            int rowNumber = 1;
             String line;
             while ((line = br.readLine()) != null) {
                 if (line.trim().isEmpty()) {
                     continue;
                 }
-
-                try {
-                    com.example.paymentreconciliation.worker.entity.WorkerUploadedData uploadedData =
-                        parseCSVLineToUploadedData(line, fileId, rowNumber++);
-                    uploadedDataList.add(uploadedData);
-                } catch (Exception e) {
-                    log.error("Error parsing CSV line {}: {}", rowNumber, e.getMessage());
-                }
+                writer.accept(CSV_FIELD_SPLITTER.split(line, -1));
             }
         }
+    }
 
-        log.info("Parsed {} records from CSV file", uploadedDataList.size());
-        return uploadedDataList;
+    private void streamXlsx(File file, ChunkedUploadWriter writer) throws java.io.IOException {
+        boolean[] isHeader = {true};
+        XlsxStreamingReader.readFirstSheet(file, EXCEL_MIN_COLUMNS, fields -> {
+            if (isHeader[0]) {
+                isHeader[0] = false;
+                return;
+            }
+            if (!isRowEmpty(fields)) {
+                writer.accept(fields);
+            }
+        });
     }
 
-    private List<com.example.paymentreconciliation.worker.entity.WorkerUploadedData> parseExcelToUploadedData(
-            File file, String fileId) throws java.io.IOException {
-        List<com.example.paymentreconciliation.worker.entity.WorkerUploadedData> uploadedDataList = new ArrayList<>();
+    /**
+     * Legacy .xls workbooks are capped at 65,536 rows by the format, so the DOM model is kept for them.
+     */
+    private void streamXls(File file, ChunkedUploadWriter writer) throws java.io.IOException {
         DataFormatter formatter = new DataFormatter();
 
         try (FileInputStream fis = new FileInputStream(file); Workbook workbook = WorkbookFactory.create(fis)) {
@@ -556,7 +600,6 @@ public class WorkerPaymentFileService {
             }
 
             boolean isHeader = true;
-            int rowNumber = 1;
             for (Row row : sheet) {
                 if (row == null) {
                     continue;
@@ -567,30 +610,61 @@ public class WorkerPaymentFileService {
                 }
 
                 String[] fields = extractExcelRow(row, formatter);
-                if (isRowEmpty(fields)) {
-                    continue;
-                }
-
-                try {
-                    com.example.paymentreconciliation.worker.entity.WorkerUploadedData uploadedData =
-                        populateUploadedDataFromFields(fields, fileId, rowNumber++);
-                    uploadedDataList.add(uploadedData);
-                } catch (Exception e) {
-                    log.error("Error parsing Excel row {}: {}", rowNumber, e.getMessage());
+                if (!isRowEmpty(fields)) {
+                    writer.accept(fields);
                 }
             }
-        } catch (Exception e) {
+        } catch (UnsupportedFileFormatException | EncryptedDocumentException | RecordFormatException
+                 | POIXMLException e) {
+            // Only malformed workbooks; exceptions of the writer (e.g. failed inserts) pass through unchanged
             throw new java.io.IOException("Failed to read Excel file: " + e.getMessage(), e);
         }
-
-        log.info("Parsed {} records from Excel file", uploadedDataList.size());
-        return uploadedDataList;
     }
 
-    private com.example.paymentreconciliation.worker.entity.WorkerUploadedData parseCSVLineToUploadedData(
-            String csvLine, String fileId, int rowNumber) {
-        String[] fields = csvLine.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-        return populateUploadedDataFromFields(fields, fileId, rowNumber);
+    /**
+     * Maps raw row fields to WorkerUploadedData and saves them in fixed-size chunks.
+     * Each chunk is written as one JDBC batch in its own transaction, so only one chunk is ever held in memory.
+     */
+    private class ChunkedUploadWriter implements java.util.function.Consumer<String[]> {
+        private final String fileId;
+        private final int chunkSize;
+        private List<com.example.paymentreconciliation.worker.entity.WorkerUploadedData> buffer;
+        private int rowNumber = 1;
+        private int savedCount;
+
+        ChunkedUploadWriter(String fileId, int chunkSize) {
+            this.fileId = fileId;
+            this.chunkSize = chunkSize;
+            this.buffer = new ArrayList<>(chunkSize);
+        }
+
+        @Override
+        public void accept(String[] fields) {
+            int currentRow = rowNumber++;
+            try {
+                buffer.add(populateUploadedDataFromFields(fields, fileId, currentRow));
+            } catch (Exception e) {
+                log.error("Error parsing row {}: {}", currentRow, e.getMessage());
+                return;
+            }
+            if (buffer.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            workerUploadedDataService.insertAll(buffer);
+            savedCount += buffer.size();
+            log.debug("Flushed {} rows for fileId={} ({} total)", buffer.size(), fileId, savedCount);
+            buffer = new ArrayList<>(chunkSize);
+        }
+
+        int getSavedCount() {
+            return savedCount;
+        }
     }
     
     private String cleanField(String field) {
@@ -729,7 +803,7 @@ public class WorkerPaymentFileService {
 
     private String[] extractExcelRow(Row row, DataFormatter formatter) {
         // Support both old format (13 fields) and new format (15 fields)
-        int maxColumns = Math.max(15, row.getLastCellNum());
+        int maxColumns = Math.max(EXCEL_MIN_COLUMNS, row.getLastCellNum());
         String[] fields = new String[maxColumns];
         
         for (int i = 0; i < maxColumns; i++) {
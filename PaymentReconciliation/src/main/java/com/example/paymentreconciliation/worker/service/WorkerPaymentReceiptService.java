@@ -1,5 +1,10 @@
 package com.example.paymentreconciliation.worker.service;
 
+import com.example.paymentreconciliation.common.dto.SecurePaginationRequest;
+import com.example.paymentreconciliation.common.dto.SecurePaginationResponse;
+import com.example.paymentreconciliation.common.service.KeysetPaginationService;
+import com.example.paymentreconciliation.common.service.ReferenceNumberService;
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
 import com.example.paymentreconciliation.worker.entity.WorkerPayment;
 import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentreconciliation.worker.repository.WorkerPaymentReceiptRepository;
@@ -11,49 +16,62 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
 @Transactional
 public class WorkerPaymentReceiptService {
     /**
-     * Cursor-based pagination for worker payment receipts (stub implementation).
+     * Keyset pagination for worker payment receipts, following the request's page token if it has one.
      * @param status Receipt status filter
      * @param startDate Start date
      * @param endDate End date
-     * @param nextPageToken Opaque cursor for next page
-     * @return Page of WorkerPaymentReceipt
+     * @param request Sort, page size and page token
+     * @return Page of WorkerPaymentReceipt with the tokens of the neighbouring pages
      */
-    public org.springframework.data.domain.Page<WorkerPaymentReceipt> findByStatusAndDateRangeWithToken(
-            String status, java.time.LocalDateTime startDate, java.time.LocalDateTime endDate, String nextPageToken) {
-        // TODO: Implement real cursor-based pagination logic
-        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(0, 20, org.springframework.data.domain.Sort.by("validatedAt").descending());
-        return findByStatusAndDateRangePaginated(status, startDate, endDate, pageable);
+    @Transactional(readOnly = true)
+    public SecurePaginationResponse<WorkerPaymentReceipt> findByStatusAndDateRangeWithToken(
+            String status, LocalDateTime startDate, LocalDateTime endDate, SecurePaginationRequest request) {
+        log.info("Finding worker payment receipts with status: {} between {} and {} (keyset)", status, startDate, endDate);
+        return keysetPaginationService.paginate("worker_payment_receipts", request,
+                Arrays.asList(status, startDate, endDate),
+                WorkerPaymentReceiptQueryDao.SORT_COLUMNS, "createdAt",
+                (sortColumn, descending, cursor, offset, size) -> queryDao.findKeysetPage(
+                        status, startDate, endDate, sortColumn, descending, cursor, offset, size),
+                () -> queryDao.count(status, startDate, endDate));
     }
 
     /**
-     * Cursor-based pagination for worker payment receipts by date range (stub implementation).
+     * Keyset pagination for worker payment receipts by date range.
      * @param startDate Start date
      * @param endDate End date
-     * @param nextPageToken Opaque cursor for next page
-     * @return Page of WorkerPaymentReceipt
+     * @param request Sort, page size and page token
+     * @return Page of WorkerPaymentReceipt with the tokens of the neighbouring pages
      */
-    public org.springframework.data.domain.Page<WorkerPaymentReceipt> findByDateRangeWithToken(
-            java.time.LocalDateTime startDate, java.time.LocalDateTime endDate, String nextPageToken) {
-        // TODO: Implement real cursor-based pagination logic
-        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(0, 20, org.springframework.data.domain.Sort.by("validatedAt").descending());
-        return findByDateRangePaginated(startDate, endDate, pageable);
+    @Transactional(readOnly = true)
+    public SecurePaginationResponse<WorkerPaymentReceipt> findByDateRangeWithToken(
+            LocalDateTime startDate, LocalDateTime endDate, SecurePaginationRequest request) {
+        return findByStatusAndDateRangeWithToken(null, startDate, endDate, request);
     }
     
     private static final Logger log = LoggerFactoryProvider.getLogger(WorkerPaymentReceiptService.class);
     
     private final WorkerPaymentReceiptRepository repository;
     private final WorkerPaymentReceiptQueryDao queryDao;
+    private final ResourceVersionService resourceVersionService;
+    private final KeysetPaginationService keysetPaginationService;
+    private final ReferenceNumberService referenceNumberService;
 
-    public WorkerPaymentReceiptService(WorkerPaymentReceiptRepository repository, WorkerPaymentReceiptQueryDao queryDao) {
+    public WorkerPaymentReceiptService(WorkerPaymentReceiptRepository repository, WorkerPaymentReceiptQueryDao queryDao,
+                                       ResourceVersionService resourceVersionService,
+                                       KeysetPaginationService keysetPaginationService,
+                                       ReferenceNumberService referenceNumberService) {
         this.repository = repository;
         this.queryDao = queryDao;
+        this.resourceVersionService = resourceVersionService;
+        this.keysetPaginationService = keysetPaginationService;
+        this.referenceNumberService = referenceNumberService;
     }
 
     public WorkerPaymentReceipt createReceipt(List<WorkerPayment> processedPayments) {
@@ -68,13 +86,18 @@ public class WorkerPaymentReceiptService {
                 .map(WorkerPayment::getPaymentAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         
-        // Generate receipt number
-        String receiptNumber = generateReceiptNumber();
-        
         // Get employer_id and toli_id from the first payment (all payments in a batch should have the same employer/toli)
         WorkerPayment firstPayment = processedPayments.get(0);
-        String employerId = firstPayment.getEmployerId();
-        String toliId = firstPayment.getToliId();
+        return createReceipt(firstPayment.getEmployerId(), firstPayment.getToliId(), processedPayments.size(), totalAmount);
+    }
+    
+    /**
+     * Create a receipt from totals computed by the caller, before its payments are written,
+     * so the payments can be inserted with the receipt number already set.
+     */
+    public WorkerPaymentReceipt createReceipt(String employerId, String toliId, int totalRecords, BigDecimal totalAmount) {
+        // Unique across instances without a lookup: RCP-YYYYMMDD-NNNNNN from the receipt sequence
+        String receiptNumber = referenceNumberService.next(ReferenceNumberService.Sequence.WORKER_RECEIPT);
         
         // Create receipt
         WorkerPaymentReceipt receipt = new WorkerPaymentReceipt();
@@ -82,58 +105,19 @@ public class WorkerPaymentReceiptService {
         receipt.setEmployerId(employerId);
         receipt.setToliId(toliId);
         receipt.setCreatedAt(LocalDateTime.now());
-        receipt.setTotalRecords(processedPayments.size());
+        receipt.setTotalRecords(totalRecords);
         receipt.setTotalAmount(totalAmount);
         receipt.setStatus("PROCESSED"); // Changed from GENERATED to match constraint
         
         // Save receipt first to get ID
         WorkerPaymentReceipt savedReceipt = repository.save(receipt);
+        resourceVersionService.markChanged(ResourceVersionService.WORKER_PAYMENT_RECEIPTS);
         
-        log.info("Created receipt {} with {} payments totaling {}", receiptNumber, processedPayments.size(), totalAmount);
+        log.info("Created receipt {} with {} payments totaling {}", receiptNumber, totalRecords, totalAmount);
         
         return savedReceipt;
     }
     
-    private String generateReceiptNumber() {
-        // Generate receipt number in format: RCP-YYYYMMDD-HHMMSS-XXX
-        // Use retry mechanism to ensure uniqueness
-        String receiptNumber;
-        int maxAttempts = 10;
-        int attempt = 0;
-        
-        do {
-            LocalDateTime now = LocalDateTime.now();
-            String dateTime = now.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-            
-            // Use a combination of current nanos and a random component for better uniqueness
-            long nanos = System.nanoTime();
-            int randomComponent = (int) (Math.random() * 1000);
-            String sequence = String.format("%03d", (nanos % 1000 + randomComponent) % 1000);
-            
-            receiptNumber = "RCP-" + dateTime + "-" + sequence;
-            attempt++;
-            
-            // Check if this receipt number already exists in database
-            if (queryDao.findByReceiptNumber(receiptNumber).isEmpty()) {
-                log.info("Generated unique receipt number: {} (attempt {})", receiptNumber, attempt);
-                return receiptNumber;
-            }
-            
-            log.warn("Receipt number {} already exists, retrying... (attempt {})", receiptNumber, attempt);
-            
-            // Small delay to avoid immediate collision
-            try {
-                Thread.sleep(1);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Interrupted while generating receipt number", e);
-            }
-            
-        } while (attempt < maxAttempts);
-        
-        throw new RuntimeException("Failed to generate unique receipt number after " + maxAttempts + " attempts");
-    }
-
     public List<WorkerPaymentReceipt> findByStatus(String status) {
         log.info("Finding worker payment receipts with status: {}", status);
         return queryDao.findByStatus(status);
@@ -184,6 +168,8 @@ public class WorkerPaymentReceiptService {
                 .orElseThrow(() -> new RuntimeException("Worker payment receipt not found with number: " + receiptNumber));
         
         receipt.setStatus(newStatus);
-        return repository.save(receipt);
+        WorkerPaymentReceipt saved = repository.save(receipt);
+        resourceVersionService.markChanged(ResourceVersionService.WORKER_PAYMENT_RECEIPTS);
+        return saved;
     }
 }
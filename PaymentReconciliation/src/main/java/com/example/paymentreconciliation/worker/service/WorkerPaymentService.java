@@ -5,6 +5,10 @@ import com.example.paymentreconciliation.exception.ResourceNotFoundException;
 import com.example.paymentreconciliation.worker.repository.WorkerPaymentRepository;
 import com.example.paymentreconciliation.worker.dao.WorkerPaymentQueryDao;
 import com.example.paymentreconciliation.common.dao.BaseQueryDao.PageResult;
+import com.example.paymentreconciliation.common.dto.SecurePaginationRequest;
+import com.example.paymentreconciliation.common.dto.SecurePaginationResponse;
+import com.example.paymentreconciliation.common.service.KeysetPaginationService;
+import java.util.Arrays;
 import java.util.List;
 import java.time.LocalDateTime;
 import org.slf4j.Logger;
@@ -23,10 +27,13 @@ public class WorkerPaymentService {
 
     private final WorkerPaymentRepository repository;
     private final WorkerPaymentQueryDao workerPaymentQueryDao;
+    private final KeysetPaginationService keysetPaginationService;
 
-    public WorkerPaymentService(WorkerPaymentRepository repository, WorkerPaymentQueryDao workerPaymentQueryDao) {
+    public WorkerPaymentService(WorkerPaymentRepository repository, WorkerPaymentQueryDao workerPaymentQueryDao,
+                                KeysetPaginationService keysetPaginationService) {
         this.repository = repository;
         this.workerPaymentQueryDao = workerPaymentQueryDao;
+        this.keysetPaginationService = keysetPaginationService;
     }
 
     public WorkerPayment create(WorkerPayment workerPayment) {
@@ -216,26 +223,29 @@ public class WorkerPaymentService {
     }
     
     /**
-     * Cursor-based pagination for worker payments (stub implementation).
+     * Keyset pagination for worker payments, following the request's page token if it has one.
      * @param status Payment status filter
      * @param receiptNumber Receipt number filter
      * @param startDate Start date
      * @param endDate End date
-     * @param sort Sort order
-     * @param nextPageToken Opaque cursor for next page
-     * @return Page of WorkerPayment
+     * @param request Sort, page size and page token
+     * @return Page of WorkerPayment with the tokens of the neighbouring pages
      */
-    public Page<WorkerPayment> findByStatusAndReceiptNumberAndDateRangeWithToken(
+    @Transactional(readOnly = true)
+    public SecurePaginationResponse<WorkerPayment> findByStatusAndReceiptNumberAndDateRangeWithToken(
             String status,
             String receiptNumber,
-            java.time.LocalDateTime startDate,
-            java.time.LocalDateTime endDate,
-            org.springframework.data.domain.Sort sort,
-            String nextPageToken) {
-        // TODO: Implement real cursor-based pagination logic
-        // For now, fallback to first page of classic pagination
-        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(0, 20, sort);
-        return findByStatusAndReceiptNumberAndDateRange(status, receiptNumber, startDate, endDate, pageable);
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            SecurePaginationRequest request) {
+        log.info("Finding worker payments with status: {}, receipt number: {}, date range: {} to {} (keyset)", 
+                status, receiptNumber, startDate, endDate);
+        return keysetPaginationService.paginate("worker_payments", request,
+                Arrays.asList(status, receiptNumber, startDate, endDate),
+                WorkerPaymentQueryDao.SORT_COLUMNS, "createdAt",
+                (sortColumn, descending, cursor, offset, size) -> workerPaymentQueryDao.findKeysetPageWithFilters(
+                        status, receiptNumber, startDate, endDate, sortColumn, descending, cursor, offset, size),
+                () -> workerPaymentQueryDao.countWithFilters(status, receiptNumber, startDate, endDate));
     }
     
     // Utility method to convert PageResult to Spring Page
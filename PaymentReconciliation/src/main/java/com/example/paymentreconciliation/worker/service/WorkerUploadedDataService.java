@@ -1,9 +1,19 @@
 package com.example.paymentreconciliation.worker.service;
 
+import com.example.paymentreconciliation.common.dao.BaseQueryDao.PageResult;
+import com.example.paymentreconciliation.common.dto.SecurePaginationRequest;
+import com.example.paymentreconciliation.common.dto.SecurePaginationResponse;
+import com.example.paymentreconciliation.common.service.KeysetPaginationService;
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
+import com.example.paymentreconciliation.worker.entity.FileStatusCounter;
 import com.example.paymentreconciliation.worker.entity.WorkerUploadedData;
 import com.example.paymentreconciliation.worker.entity.WorkerPayment;
 import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentreconciliation.worker.repository.WorkerUploadedDataRepository;
+import com.example.paymentreconciliation.worker.dao.FileStatusCounterDao;
+import com.example.paymentreconciliation.worker.dao.WorkerPaymentBulkDao;
+import com.example.paymentreconciliation.worker.dao.WorkerUploadedDataBulkDao;
+import com.example.paymentreconciliation.worker.dao.WorkerUploadedDataQueryDao;
 import com.example.paymentreconciliation.utilities.file.UploadedFileRepository;
 import com.example.paymentreconciliation.utilities.file.UploadedFile;
 import org.slf4j.Logger;
@@ -12,10 +22,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -29,29 +41,62 @@ public class WorkerUploadedDataService {
     private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadedDataService.class);
     
     private final WorkerUploadedDataRepository repository;
+    private final WorkerUploadedDataQueryDao queryDao;
+    private final WorkerUploadedDataBulkDao bulkDao;
+    private final WorkerPaymentBulkDao paymentBulkDao;
+    private final WorkerPaymentReceiptService workerPaymentReceiptService;
+    private final UploadedDataValidationEngine validationEngine;
+    private final ResourceVersionService resourceVersionService;
     
     @Autowired
     private UploadedFileRepository uploadedFileRepository;
     
     @Autowired
-    private WorkerPaymentService workerPaymentService;
+    private KeysetPaginationService keysetPaginationService;
     
     @Autowired
-    private WorkerPaymentReceiptService workerPaymentReceiptService;
+    private FileStatusCounterDao fileStatusCounterDao;
 
-    public WorkerUploadedDataService(WorkerUploadedDataRepository repository) {
+    public WorkerUploadedDataService(WorkerUploadedDataRepository repository,
+                                     WorkerUploadedDataQueryDao queryDao,
+                                     WorkerUploadedDataBulkDao bulkDao,
+                                     WorkerPaymentBulkDao paymentBulkDao,
+                                     WorkerPaymentReceiptService workerPaymentReceiptService,
+                                     UploadedDataValidationEngine validationEngine,
+                                     ResourceVersionService resourceVersionService) {
         this.repository = repository;
+        this.queryDao = queryDao;
+        this.bulkDao = bulkDao;
+        this.paymentBulkDao = paymentBulkDao;
+        this.workerPaymentReceiptService = workerPaymentReceiptService;
+        this.validationEngine = validationEngine;
+        this.resourceVersionService = resourceVersionService;
     }
 
     public WorkerUploadedData save(WorkerUploadedData uploadedData) {
         log.debug("Saving worker uploaded data for fileId: {}, row: {}", 
                 uploadedData.getFileId(), uploadedData.getRowNumber());
-        return repository.save(uploadedData);
+        WorkerUploadedData saved = repository.save(uploadedData);
+        resourceVersionService.markChanged(ResourceVersionService.WORKER_UPLOADED_DATA);
+        return saved;
     }
 
     public List<WorkerUploadedData> saveAll(List<WorkerUploadedData> uploadedDataList) {
         log.info("Saving {} worker uploaded data records", uploadedDataList.size());
-        return repository.saveAll(uploadedDataList);
+        List<WorkerUploadedData> saved = repository.saveAll(uploadedDataList);
+        resourceVersionService.markChanged(ResourceVersionService.WORKER_UPLOADED_DATA);
+        return saved;
+    }
+
+    /**
+     * Insert new records with JDBC batches instead of one INSERT per entity.
+     * Generated IDs are not populated on the passed objects.
+     */
+    public int insertAll(List<WorkerUploadedData> uploadedDataList) {
+        log.info("Bulk inserting {} worker uploaded data records", uploadedDataList.size());
+        int inserted = bulkDao.insertAll(uploadedDataList);
+        resourceVersionService.markChanged(ResourceVersionService.WORKER_UPLOADED_DATA);
+        return inserted;
     }
 
     public List<WorkerUploadedData> findByFileId(String fileId) {
@@ -77,7 +122,6 @@ public class WorkerUploadedDataService {
     public Map<String, Integer> getFileStatusSummary(String fileId) {
         log.info("Getting status summary for fileId: {}", fileId);
         
-        List<Object[]> statusCounts = repository.getStatusCountsByFileId(fileId);
         Map<String, Integer> summary = new HashMap<>();
         
         // Initialize with common statuses
@@ -86,7 +130,15 @@ public class WorkerUploadedDataService {
         summary.put("REJECTED", 0);
         summary.put("REQUEST_GENERATED", 0);
         
-        // Populate with actual counts
+        // Populate with actual counts, kept per file by the writers
+        Map<String, Long> counters = fileStatusCounterDao.findCounts(fileId, FileStatusCounter.RecordType.UPLOADED_DATA);
+        if (!counters.isEmpty()) {
+            counters.forEach((status, count) -> summary.put(status, count.intValue()));
+            return summary;
+        }
+        
+        // Files not counted yet are grouped from their records
+        List<Object[]> statusCounts = repository.getStatusCountsByFileId(fileId);
         for (Object[] result : statusCounts) {
             String status = (String) result[0];
             Long count = (Long) result[1];
@@ -203,122 +255,22 @@ public class WorkerUploadedDataService {
                 page, size, fileId, status);
         
         try {
-            // Get distinct file IDs from worker_uploaded_data table with filters
-            List<String> distinctFileIds = repository.findDistinctFileIds();
-            
-            // Apply fileId filter if provided
-            if (fileId != null && !fileId.trim().isEmpty()) {
-                distinctFileIds = distinctFileIds.stream()
-                    .filter(id -> id.equals(fileId.trim()))
-                    .collect(java.util.stream.Collectors.toList());
-            }
-            
-            // Build summary for each file and apply filters
-            java.util.List<Map<String, Object>> allFileSummaries = new java.util.ArrayList<>();
-            
-            for (String currentFileId : distinctFileIds) {
-                try {
-                    // Get file metadata from uploaded_files table
-                    Long uploadedFileId = Long.parseLong(currentFileId);
-                    Optional<UploadedFile> uploadedFileOpt = uploadedFileRepository.findById(uploadedFileId);
-                    
-                    if (uploadedFileOpt.isEmpty()) {
-                        log.warn("File metadata not found for fileId: {}", currentFileId);
-                        continue;
-                    }
-                    
-                    UploadedFile file = uploadedFileOpt.get();
-                    
-                    // Apply date range filter
-                    if (startDate != null && endDate != null) {
-                        java.time.LocalDateTime startDateTime = java.time.LocalDate.parse(startDate).atStartOfDay();
-                        java.time.LocalDateTime endDateTime = java.time.LocalDate.parse(endDate).atTime(23, 59, 59);
-                        
-                        if (file.getUploadDate().isBefore(startDateTime) || file.getUploadDate().isAfter(endDateTime)) {
-                            continue;
-                        }
-                    }
-                    
-                    // Get aggregated data from worker_uploaded_data
-                    Map<String, Integer> statusSummary = getFileStatusSummary(currentFileId);
-                    int totalRecords = statusSummary.values().stream().mapToInt(Integer::intValue).sum();
-                    
-                    // Skip if no records found
-                    if (totalRecords == 0) {
-                        continue;
-                    }
-                    
-                    // Apply status filter based on majority status or specific criteria
-                    if (status != null && !status.trim().isEmpty()) {
-                        String filterStatus = status.trim().toUpperCase();
-                        // Only include if the file has records with the requested status
-                        if (!statusSummary.containsKey(filterStatus) || statusSummary.get(filterStatus) == 0) {
-                            continue;
-                        }
-                    }
-                    
-                    // Calculate validated amount
-                    List<WorkerUploadedData> validatedRecords = 
-                        repository.findByFileIdAndStatus(currentFileId, "VALIDATED");
-                    int validatedCount = validatedRecords.size();
-                    
-                    BigDecimal totalValidatedAmount = validatedRecords.stream()
-                        .map(record -> record.getPaymentAmount() != null ? record.getPaymentAmount() : BigDecimal.ZERO)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    
-                    // Determine overall file status based on aggregated data
-                    String overallStatus = determineOverallFileStatus(statusSummary);
-                    
-                    // Build file summary
-                    Map<String, Object> fileSummary = new HashMap<>();
-                    fileSummary.put("fileId", currentFileId);
-                    fileSummary.put("fileName", file.getFilename());
-                    fileSummary.put("uploadDate", file.getUploadDate());
-                    fileSummary.put("totalRecords", totalRecords);
-                    fileSummary.put("validatedCount", validatedCount);
-                    fileSummary.put("totalValidatedAmount", totalValidatedAmount);
-                    fileSummary.put("statusSummary", statusSummary);
-                    fileSummary.put("overallStatus", overallStatus);
-                    
-                    // Add ready for payment flag
-                    boolean readyForPayment = validatedCount > 0;
-                    fileSummary.put("readyForPayment", readyForPayment);
-                    
-                    // Add upload timestamp for sorting
-                    fileSummary.put("uploadTimestamp", file.getUploadDate());
-                    
-                    allFileSummaries.add(fileSummary);
-                    
-                } catch (NumberFormatException e) {
-                    log.warn("Invalid fileId format: {}", currentFileId);
-                } catch (Exception e) {
-                    log.error("Error processing fileId: {}", currentFileId, e);
-                }
+            java.time.LocalDateTime startDateTime = null;
+            java.time.LocalDateTime endDateTime = null;
+            if (startDate != null && endDate != null) {
+                startDateTime = java.time.LocalDate.parse(startDate).atStartOfDay();
+                endDateTime = java.time.LocalDate.parse(endDate).atTime(23, 59, 59);
             }
             
-            // Sort the results
-            if ("uploadDate".equals(sortBy)) {
-                allFileSummaries.sort((a, b) -> {
-                    java.time.LocalDateTime dateA = (java.time.LocalDateTime) a.get("uploadTimestamp");
-                    java.time.LocalDateTime dateB = (java.time.LocalDateTime) b.get("uploadTimestamp");
-                    return "desc".equalsIgnoreCase(sortDir) ? dateB.compareTo(dateA) : dateA.compareTo(dateB);
-                });
-            } else if ("totalRecords".equals(sortBy)) {
-                allFileSummaries.sort((a, b) -> {
-                    Integer countA = (Integer) a.get("totalRecords");
-                    Integer countB = (Integer) b.get("totalRecords");
-                    return "desc".equalsIgnoreCase(sortDir) ? countB.compareTo(countA) : countA.compareTo(countB);
-                });
-            }
+            // Counts and validated totals of one page of files come from a single grouped query
+            PageResult<Map<String, Object>> filePage = queryDao.findFileSummaryPage(
+                fileId, status, startDateTime, endDateTime, sortBy, sortDir, page, size, true);
+            List<Map<String, Object>> paginatedSummaries = filePage.getContent();
             
-            // Apply pagination manually
-            int totalElements = allFileSummaries.size();
-            int totalPages = (int) Math.ceil((double) totalElements / size);
-            int start = page * size;
-            int end = Math.min(start + size, totalElements);
+            addStatusSummaries(paginatedSummaries);
             
-            List<Map<String, Object>> paginatedSummaries = start < totalElements ? 
-                allFileSummaries.subList(start, end) : new ArrayList<>();
+            long totalElements = filePage.getTotalElements();
+            int totalPages = filePage.getTotalPages();
             
             // Build paginated response
             Map<String, Object> response = new HashMap<>();
@@ -327,7 +279,7 @@ public class WorkerUploadedDataService {
             response.put("totalPages", totalPages);
             response.put("currentPage", page);
             response.put("pageSize", size);
-            response.put("hasNext", page < totalPages - 1);
+            response.put("hasNext", filePage.hasNext());
             response.put("hasPrevious", page > 0);
             
             log.info("Retrieved {} file summaries (page {} of {}) from {} total files", 
@@ -335,6 +287,11 @@ public class WorkerUploadedDataService {
             
             return response;
             
+        } catch (NumberFormatException e) {
+            log.warn("Invalid fileId format: {}", fileId);
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Invalid file ID format");
+            return error;
         } catch (Exception e) {
             log.error("Error getting paginated file summaries", e);
             Map<String, Object> error = new HashMap<>();
@@ -344,240 +301,112 @@ public class WorkerUploadedDataService {
     }
 
     /**
-     * Cursor-based pagination for file summaries (stub implementation).
-     * @param nextPageToken Opaque cursor for next page
-     * @param fileId Optional fileId filter
-     * @param status Status filter
-     * @param startDate Start date (YYYY-MM-DD)
-     * @param endDate End date (YYYY-MM-DD)
-     * @param sortBy Sort field
-     * @param sortDir Sort direction
-     * @return Map with paginated summaries and nextPageToken
+     * Keyset pagination for file summaries (one per uploaded file) uploaded within a date range,
+     * following the request's page token if it has one.
+     * @param status optional status, only files with at least one row in it are returned
      */
-    public Map<String, Object> getPaginatedFileSummariesWithToken(
-            String nextPageToken, String fileId, String status, String startDate, String endDate, String sortBy, String sortDir) {
-        // TODO: Implement real cursor-based pagination logic
-        // For now, fallback to first page of classic pagination
-        int page = 0;
-        int size = 20;
-        Map<String, Object> result = getPaginatedFileSummaries(page, size, fileId, status, startDate, endDate, sortBy, sortDir);
-        // Add a dummy nextPageToken for demonstration
-        result.put("nextPageToken", null); // Or generate a real token if needed
-        return result;
+    @Transactional(readOnly = true)
+    public SecurePaginationResponse<Map<String, Object>> getPaginatedFileSummariesWithToken(
+            LocalDateTime startDate, LocalDateTime endDate, String status, SecurePaginationRequest request) {
+        log.info("Getting file summaries uploaded {} to {}, status: {} (keyset)", startDate, endDate, status);
+        SecurePaginationResponse<Map<String, Object>> response = keysetPaginationService.paginate(
+                "file_summaries", request, Arrays.asList(startDate, endDate, status),
+                WorkerUploadedDataQueryDao.FILE_SUMMARY_SORT_COLUMNS, "uploadDate",
+                (sortColumn, descending, cursor, offset, size) -> queryDao.findFileSummaryKeysetPage(
+                        null, status, startDate, endDate, sortColumn, descending, cursor, offset, size),
+                () -> queryDao.countFileSummaries(null, status, startDate, endDate));
+        addStatusSummaries(response.getContent());
+        return response;
     }
 
-    @Transactional
-    public void validateUploadedData(String fileId) {
-        log.info("Starting validation for fileId: {}", fileId);
-        
-        List<WorkerUploadedData> uploadedRecords = repository.findByFileIdAndStatus(fileId, "UPLOADED");
-        log.info("Found {} uploaded records to validate", uploadedRecords.size());
-        
-        for (WorkerUploadedData record : uploadedRecords) {
-            try {
-                validateRecord(record);
-                if (record.getStatus().equals("VALIDATED")) {
-                    record.setValidatedAt(LocalDateTime.now());
-                }
-            } catch (Exception e) {
-                log.error("Error validating record {} for fileId: {}", record.getRowNumber(), fileId, e);
-                record.setStatus("REJECTED");
-                record.setRejectionReason("Validation error: " + e.getMessage());
-            }
+    /**
+     * Add the status breakdown, overall status and payment readiness of the given files, with the
+     * status counts of all of them read in one query
+     */
+    private void addStatusSummaries(List<Map<String, Object>> fileSummaries) {
+        Map<String, Map<String, Integer>> statusCounts = queryDao.findStatusCountsByFileIds(
+            fileSummaries.stream().map(summary -> (String) summary.get("fileId")).toList());
+        for (Map<String, Object> fileSummary : fileSummaries) {
+            Map<String, Integer> statusSummary = new HashMap<>();
+            statusSummary.put("UPLOADED", 0);
+            statusSummary.put("VALIDATED", 0);
+            statusSummary.put("REJECTED", 0);
+            statusSummary.put("REQUEST_GENERATED", 0);
+            statusSummary.putAll(statusCounts.getOrDefault((String) fileSummary.get("fileId"), Map.of()));
+            
+            fileSummary.put("statusSummary", statusSummary);
+            fileSummary.put("overallStatus", determineOverallFileStatus(statusSummary));
+            fileSummary.put("readyForPayment", (Integer) fileSummary.get("validatedCount") > 0);
         }
-        
-        repository.saveAll(uploadedRecords);
-        log.info("Validation completed for fileId: {}", fileId);
     }
 
-    private void validateRecord(WorkerUploadedData record) {
-        StringBuilder errors = new StringBuilder();
-        
-        // Required field validations
-        if (record.getWorkerId() == null || record.getWorkerId().trim().isEmpty()) {
-            errors.append("Worker ID is required. ");
-        }
-        
-        if (record.getWorkerName() == null || record.getWorkerName().trim().isEmpty()) {
-            errors.append("Worker name is required. ");
-        }
-        
-        if (record.getPaymentAmount() == null || record.getPaymentAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-            errors.append("Valid payment amount greater than 0 is required. ");
-        }
-        
-        if (record.getBankAccount() == null || record.getBankAccount().trim().isEmpty()) {
-            errors.append("Bank account is required. ");
-        }
-        
-        if (record.getWorkDate() == null) {
-            errors.append("Work date is required. ");
-        }
-        
-        // Field length validations
-        if (record.getWorkerName() != null && record.getWorkerName().length() > 100) {
-            errors.append("Worker name must not exceed 100 characters. ");
-        }
-        
-        if (record.getCompanyName() != null && record.getCompanyName().length() > 100) {
-            errors.append("Company name must not exceed 100 characters. ");
-        }
-        
-        if (record.getDepartment() != null && record.getDepartment().length() > 50) {
-            errors.append("Department must not exceed 50 characters. ");
-        }
-        
-        if (record.getPosition() != null && record.getPosition().length() > 50) {
-            errors.append("Position must not exceed 50 characters. ");
-        }
-        
-        if (record.getWorkerId() != null && record.getWorkerId().length() > 50) {
-            errors.append("Worker ID must not exceed 50 characters. ");
-        }
-        
-        if (record.getEmail() != null && record.getEmail().length() > 100) {
-            errors.append("Email must not exceed 100 characters. ");
-        }
-        
-        // Bank account validation
-        if (record.getBankAccount() != null) {
-            String bankAccount = record.getBankAccount().trim();
-            if (bankAccount.length() < 10 || bankAccount.length() > 20) {
-                errors.append("Bank account must be between 10-20 characters. ");
-            }
-            // Allow alphanumeric characters for bank accounts (more realistic)
-            if (!bankAccount.matches("^[A-Za-z0-9]+$")) {
-                errors.append("Bank account must contain only letters and digits. ");
-            }
-        }
-        
-        // Phone number validation
-        if (record.getPhoneNumber() != null && !record.getPhoneNumber().trim().isEmpty()) {
-            String phone = record.getPhoneNumber().trim();
-            if (phone.length() > 15) {
-                errors.append("Phone number must not exceed 15 characters. ");
-            }
-            // Valid phone formats: +91-9876543210, +919876543210, 9876543210
-            if (!phone.matches("^(\\+\\d{1,3}[\\s\\-]?)?\\d{10}$")) {
-                errors.append("Invalid phone number format. ");
-            }
-        }
-        
-        // Email format validation
-        if (record.getEmail() != null && !record.getEmail().trim().isEmpty()) {
-            if (!record.getEmail().matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
-                errors.append("Invalid email format. ");
-            }
-        }
-        
-        // Date validations
-        if (record.getWorkDate() != null) {
-            java.time.LocalDate today = java.time.LocalDate.now();
-            if (record.getWorkDate().isAfter(today)) {
-                errors.append("Work date cannot be in the future. ");
-            }
-            // Check if work date is too far in the past (more than 1 year)
-            if (record.getWorkDate().isBefore(today.minusYears(1))) {
-                errors.append("Work date cannot be more than 1 year old. ");
-            }
-        }
-        
-        // Hours worked validation
-        if (record.getHoursWorked() != null) {
-            if (record.getHoursWorked().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-                errors.append("Hours worked must be greater than 0. ");
-            }
-            if (record.getHoursWorked().compareTo(new java.math.BigDecimal("24")) > 0) {
-                errors.append("Hours worked cannot exceed 24 hours per day. ");
-            }
-        }
-        
-        // Hourly rate validation
-        if (record.getHourlyRate() != null) {
-            if (record.getHourlyRate().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-                errors.append("Hourly rate must be greater than 0. ");
-            }
-            if (record.getHourlyRate().compareTo(new java.math.BigDecimal("10000")) > 0) {
-                errors.append("Hourly rate seems unreasonably high (max 10,000). ");
-            }
-        }
-        
-        // Payment amount validation
-        if (record.getPaymentAmount() != null) {
-            if (record.getPaymentAmount().compareTo(new java.math.BigDecimal("1000000")) > 0) {
-                errors.append("Payment amount seems unreasonably high (max 1,000,000). ");
-            }
-        }
-        
-        // Business logic validations
-        if (record.getHoursWorked() != null && record.getHourlyRate() != null && record.getPaymentAmount() != null) {
-            java.math.BigDecimal calculatedAmount = record.getHoursWorked().multiply(record.getHourlyRate());
-            // Allow for small rounding differences (0.01)
-            java.math.BigDecimal difference = record.getPaymentAmount().subtract(calculatedAmount).abs();
-            if (difference.compareTo(new java.math.BigDecimal("0.01")) > 0) {
-                errors.append("Payment amount doesn't match hours worked × hourly rate (calculated: " + calculatedAmount + "). ");
-            }
-        }
-        
-        if (errors.length() > 0) {
-            record.setStatus("REJECTED");
-            record.setRejectionReason(errors.toString().trim());
-        } else {
-            record.setStatus("VALIDATED");
-        }
+    /**
+     * Validate all UPLOADED records of the file in parallel chunks.
+     * Runs outside the service transaction so every chunk commits on its own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UploadedDataValidationEngine.ValidationProgress validateUploadedData(String fileId) {
+        return validationEngine.validateFile(fileId);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<UploadedDataValidationEngine.ValidationProgress> getValidationProgress(String fileId) {
+        return validationEngine.getProgress(fileId);
+    }
+
+    /**
+     * Turn all VALIDATED rows of the file into worker payments under one new receipt.
+     * The receipt is created first from the file's totals, payments are batch inserted with the
+     * receipt number already set, chunk by chunk, and the rows are flipped with a single UPDATE.
+     * Row counts are checked against the receipt, so rows validated meanwhile roll the request back.
+     */
     @Transactional
     public int generateRequestForValidatedData(String fileId, String uploadedFileRef) {
         log.info("Generating request for validated data in fileId: {}", fileId);
         
-        List<WorkerUploadedData> validatedRecords = repository.findByFileIdAndStatus(fileId, "VALIDATED");
-        log.info("Found {} validated records to process", validatedRecords.size());
-        
-        if (validatedRecords.isEmpty()) {
+        List<WorkerUploadedData> chunk = queryDao.findNextChunkByFileIdAndStatus(
+            fileId, "VALIDATED", 0L, WorkerPaymentBulkDao.BATCH_SIZE);
+        if (chunk.isEmpty()) {
+            log.info("Found 0 validated records to process");
             return 0;
         }
+        long validatedCount = queryDao.countByFileIdAndStatus(fileId, "VALIDATED");
+        log.info("Found {} validated records to process", validatedCount);
         
         try {
-            // Step 1: Convert WorkerUploadedData to WorkerPayment objects
-            List<WorkerPayment> workerPayments = new ArrayList<>();
-            for (WorkerUploadedData uploadedData : validatedRecords) {
-                WorkerPayment payment = convertUploadedDataToPayment(uploadedData);
-                WorkerPayment savedPayment = workerPaymentService.save(payment);
-                workerPayments.add(savedPayment);
-                log.debug("Created WorkerPayment record for worker: {}", uploadedData.getWorkerId());
-            }
-            
-            // Step 2: Create WorkerPaymentReceipt using the receipt service
-            WorkerPaymentReceipt receipt = workerPaymentReceiptService.createReceipt(workerPayments);
-            log.info("Created WorkerPaymentReceipt with number: {}", receipt.getReceiptNumber());
+            // Step 1: Create the receipt from the file's totals (employer/toli of the first row)
+            BigDecimal totalAmount = queryDao.sumPaymentAmountByFileIdAndStatus(fileId, "VALIDATED");
+            WorkerUploadedData first = chunk.get(0);
+            WorkerPaymentReceipt receipt = workerPaymentReceiptService.createReceipt(
+                first.getEmployerId(), first.getToliId(), (int) validatedCount, totalAmount);
+            String receiptNumber = receipt.getReceiptNumber();
+            log.info("Created WorkerPaymentReceipt with number: {}", receiptNumber);
             
-            // Step 3: Update WorkerPayment records with receipt number (IMPORTANT LINK!)
-            for (WorkerPayment payment : workerPayments) {
-                try {
-                    payment.setReceiptNumber(receipt.getReceiptNumber());
-                    workerPaymentService.save(payment);
-                    log.debug("Updated WorkerPayment {} with receipt number: {}", payment.getId(), receipt.getReceiptNumber());
-                } catch (Exception e) {
-                    log.error("Error updating WorkerPayment {} with receipt number", payment.getId(), e);
+            // Step 2: Batch insert the payments, linked to the receipt from the start
+            int paymentCount = 0;
+            while (!chunk.isEmpty()) {
+                List<WorkerPayment> payments = new ArrayList<>(chunk.size());
+                for (WorkerUploadedData uploadedData : chunk) {
+                    WorkerPayment payment = convertUploadedDataToPayment(uploadedData);
+                    payment.setReceiptNumber(receiptNumber);
+                    payments.add(payment);
                 }
+                paymentCount += paymentBulkDao.insertAll(payments);
+                long lastId = chunk.get(chunk.size() - 1).getId();
+                chunk = queryDao.findNextChunkByFileIdAndStatus(fileId, "VALIDATED", lastId, WorkerPaymentBulkDao.BATCH_SIZE);
             }
             
-            // Step 4: Update uploaded data records with receipt info and status
-            int processedCount = 0;
-            for (WorkerUploadedData validatedData : validatedRecords) {
-                try {
-                    validatedData.setStatus("REQUEST_GENERATED");
-                    validatedData.setReceiptNumber(receipt.getReceiptNumber());
-                    validatedData.setProcessedAt(LocalDateTime.now());
-                    repository.save(validatedData);
-                    processedCount++;
-                } catch (Exception e) {
-                    log.error("Error updating uploaded data record {} after payment creation", validatedData.getId(), e);
-                }
+            // Step 3: Flip the uploaded rows with one UPDATE
+            int processedCount = bulkDao.updateStatusByFileId(
+                fileId, "VALIDATED", "REQUEST_GENERATED", receiptNumber, LocalDateTime.now());
+            if (paymentCount != validatedCount || processedCount != validatedCount) {
+                throw new IllegalStateException(String.format(
+                    "Validated records changed during request generation: receipt %d, payments %d, rows %d",
+                    validatedCount, paymentCount, processedCount));
             }
             
-            log.info("Successfully generated request for {} records with receipt: {}", processedCount, receipt.getReceiptNumber());
+            resourceVersionService.markChanged(ResourceVersionService.WORKER_UPLOADED_DATA);
+            log.info("Successfully generated request for {} records with receipt: {}", processedCount, receiptNumber);
             return processedCount;
             
         } catch (Exception e) {
@@ -619,6 +448,8 @@ public class WorkerUploadedDataService {
     public void deleteByFileId(String fileId) {
         log.info("Deleting all uploaded data for fileId: {}", fileId);
         repository.deleteByFileId(fileId);
+        fileStatusCounterDao.deleteCounts(fileId, FileStatusCounter.RecordType.UPLOADED_DATA);
+        resourceVersionService.markChanged(ResourceVersionService.WORKER_UPLOADED_DATA);
     }
 
     public List<WorkerUploadedData> findRejectedRecords(String fileId) {
@@ -660,4 +491,19 @@ public class WorkerUploadedDataService {
         log.info("Finding all records by date range: {} to {} (paginated)", startDate, endDate);
         return repository.findByCreatedAtBetween(startDate, endDate, pageable);
     }
+
+    /**
+     * Keyset pagination for records uploaded within a date range, following the request's page token if it has one.
+     */
+    @Transactional(readOnly = true)
+    public SecurePaginationResponse<WorkerUploadedData> findByDateRangeWithToken(LocalDateTime startDate, LocalDateTime endDate,
+            SecurePaginationRequest request) {
+        log.info("Finding all records by date range: {} to {} (keyset)", startDate, endDate);
+        return keysetPaginationService.paginate(ResourceVersionService.WORKER_UPLOADED_DATA, request,
+                Arrays.asList(startDate, endDate),
+                WorkerUploadedDataQueryDao.SORT_COLUMNS, "createdAt",
+                (sortColumn, descending, cursor, offset, size) -> queryDao.findKeysetPageByCreatedAt(
+                        startDate, endDate, sortColumn, descending, cursor, offset, size),
+                () -> queryDao.countByCreatedAt(startDate, endDate));
+    }
 }
@@ -0,0 +1,350 @@
+package com.example.paymentreconciliation.worker.service;
+
+import com.example.paymentreconciliation.worker.config.WorkerPaymentValidationConfig;
+import com.example.paymentreconciliation.worker.entity.WorkerUploadedData;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Field and business rule validation for a single uploaded worker payment row.
+ * The rule set is built once from {@link WorkerPaymentValidationConfig}; evaluating a row
+ * only sets bits in an error mask, and the rejection text is assembled only for rejected rows.
+ * Stateless apart from a cached date window, so one instance is shared by all validation threads.
+ */
+@Component
+public class WorkerUploadedDataValidator {
+
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^(\\+\\d{1,3}[\\s\\-]?)?\\d{10}$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    // Column lengths of worker_uploaded_data
+    private static final int MAX_WORKER_ID_LENGTH = 50;
+    private static final int MAX_WORKER_NAME_LENGTH = 100;
+    private static final int MAX_COMPANY_NAME_LENGTH = 100;
+    private static final int MAX_DEPARTMENT_LENGTH = 50;
+    private static final int MAX_POSITION_LENGTH = 50;
+    private static final int MAX_EMAIL_LENGTH = 100;
+    private static final int MAX_PHONE_LENGTH = 15;
+
+    /**
+     * Validation errors in the order their messages appear in the rejection reason.
+     * Each error owns one bit of the mask returned by {@link #evaluate}.
+     */
+    public enum ValidationError {
+        WORKER_ID_REQUIRED,
+        WORKER_NAME_REQUIRED,
+        PAYMENT_AMOUNT_REQUIRED,
+        BANK_ACCOUNT_REQUIRED,
+        WORK_DATE_REQUIRED,
+        WORKER_NAME_TOO_LONG,
+        COMPANY_NAME_TOO_LONG,
+        DEPARTMENT_TOO_LONG,
+        POSITION_TOO_LONG,
+        WORKER_ID_TOO_LONG,
+        EMAIL_TOO_LONG,
+        BANK_ACCOUNT_LENGTH,
+        BANK_ACCOUNT_FORMAT,
+        PHONE_TOO_LONG,
+        PHONE_FORMAT,
+        EMAIL_FORMAT,
+        WORK_DATE_IN_FUTURE,
+        WORK_DATE_TOO_OLD,
+        HOURS_NOT_POSITIVE,
+        HOURS_TOO_HIGH,
+        HOURLY_RATE_NOT_POSITIVE,
+        HOURLY_RATE_TOO_HIGH,
+        PAYMENT_AMOUNT_TOO_HIGH,
+        PAYMENT_AMOUNT_MISMATCH;
+
+        public long bit() {
+            return 1L << ordinal();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean violated(WorkerUploadedData record, DateWindow dates);
+    }
+
+    private record Rule(long bit, Check check) {
+    }
+
+    private record DateWindow(LocalDate today, LocalDate earliest) {
+    }
+
+    private final BigDecimal maxHoursWorked;
+    private final BigDecimal maxHourlyRate;
+    private final BigDecimal maxPaymentAmount;
+    private final BigDecimal amountTolerance;
+    private final int maxWorkDateAgeYears;
+    private final int bankAccountMinLength;
+    private final int bankAccountMaxLength;
+    private final Rule[] rules;
+    private final String[] messages;
+    private volatile DateWindow dateWindow;
+
+    public WorkerUploadedDataValidator(WorkerPaymentValidationConfig config) {
+        this.maxHoursWorked = config.getMaxHoursWorked();
+        this.maxHourlyRate = config.getMaxHourlyRate();
+        this.maxPaymentAmount = config.getMaxPaymentAmount();
+        this.amountTolerance = config.getAmountTolerance();
+        this.maxWorkDateAgeYears = config.getMaxWorkDateAgeYears();
+        this.bankAccountMinLength = config.getBankAccountMinLength();
+        this.bankAccountMaxLength = config.getBankAccountMaxLength();
+        this.rules = buildRules();
+        this.messages = buildMessages();
+    }
+
+    /**
+     * Validate a single record and set its status to VALIDATED or REJECTED (with the rejection reason).
+     */
+    public void validate(WorkerUploadedData record) {
+        validate(record, LocalDate.now());
+    }
+
+    /**
+     * Same as {@link #validate(WorkerUploadedData)} with the current date supplied by the caller,
+     * so it can be computed once per chunk instead of once per row.
+     */
+    public void validate(WorkerUploadedData record, LocalDate today) {
+        long errors = evaluate(record, today);
+        if (errors != 0L) {
+            record.setStatus("REJECTED");
+            record.setRejectionReason(describe(errors, record));
+        } else {
+            record.setStatus("VALIDATED");
+        }
+    }
+
+    /**
+     * Run all rules against the record.
+     * @return bitmask of {@link ValidationError#bit()} values, 0 when the record is valid
+     */
+    public long evaluate(WorkerUploadedData record, LocalDate today) {
+        DateWindow dates = dateWindowFor(today);
+        long errors = 0L;
+        for (Rule rule : rules) {
+            if (rule.check().violated(record, dates)) {
+                errors |= rule.bit();
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Build the rejection reason for an error mask returned by {@link #evaluate}.
+     */
+    public String describe(long errors, WorkerUploadedData record) {
+        StringBuilder reason = new StringBuilder();
+        for (ValidationError error : ValidationError.values()) {
+            if ((errors & error.bit()) == 0L) {
+                continue;
+            }
+            if (reason.length() > 0) {
+                reason.append(' ');
+            }
+            if (error == ValidationError.PAYMENT_AMOUNT_MISMATCH) {
+                reason.append("Payment amount doesn't match hours worked × hourly rate (calculated: ")
+                    .append(record.getHoursWorked().multiply(record.getHourlyRate()))
+                    .append(").");
+            } else {
+                reason.append(messages[error.ordinal()]);
+            }
+        }
+        return reason.toString();
+    }
+
+    private Rule[] buildRules() {
+        List<Rule> list = new ArrayList<>();
+
+        // Required field validations
+        add(list, ValidationError.WORKER_ID_REQUIRED, (r, d) -> isBlank(r.getWorkerId()));
+        add(list, ValidationError.WORKER_NAME_REQUIRED, (r, d) -> isBlank(r.getWorkerName()));
+        add(list, ValidationError.PAYMENT_AMOUNT_REQUIRED,
+            (r, d) -> r.getPaymentAmount() == null || r.getPaymentAmount().signum() <= 0);
+        add(list, ValidationError.BANK_ACCOUNT_REQUIRED, (r, d) -> isBlank(r.getBankAccount()));
+        add(list, ValidationError.WORK_DATE_REQUIRED, (r, d) -> r.getWorkDate() == null);
+
+        // Field length validations
+        add(list, ValidationError.WORKER_NAME_TOO_LONG, (r, d) -> longerThan(r.getWorkerName(), MAX_WORKER_NAME_LENGTH));
+        add(list, ValidationError.COMPANY_NAME_TOO_LONG, (r, d) -> longerThan(r.getCompanyName(), MAX_COMPANY_NAME_LENGTH));
+        add(list, ValidationError.DEPARTMENT_TOO_LONG, (r, d) -> longerThan(r.getDepartment(), MAX_DEPARTMENT_LENGTH));
+        add(list, ValidationError.POSITION_TOO_LONG, (r, d) -> longerThan(r.getPosition(), MAX_POSITION_LENGTH));
+        add(list, ValidationError.WORKER_ID_TOO_LONG, (r, d) -> longerThan(r.getWorkerId(), MAX_WORKER_ID_LENGTH));
+        add(list, ValidationError.EMAIL_TOO_LONG, (r, d) -> longerThan(r.getEmail(), MAX_EMAIL_LENGTH));
+
+        // Bank account validation (on the trimmed value, letters and digits only)
+        add(list, ValidationError.BANK_ACCOUNT_LENGTH, (r, d) -> {
+            String account = r.getBankAccount();
+            if (account == null) {
+                return false;
+            }
+            int length = trimmedLength(account);
+            return length < bankAccountMinLength || length > bankAccountMaxLength;
+        });
+        add(list, ValidationError.BANK_ACCOUNT_FORMAT,
+            (r, d) -> r.getBankAccount() != null && !isTrimmedAlphanumeric(r.getBankAccount()));
+
+        // Phone number validation - valid formats: +91-9876543210, +919876543210, 9876543210
+        add(list, ValidationError.PHONE_TOO_LONG,
+            (r, d) -> !isBlank(r.getPhoneNumber()) && trimmedLength(r.getPhoneNumber()) > MAX_PHONE_LENGTH);
+        add(list, ValidationError.PHONE_FORMAT, (r, d) -> {
+            String phone = r.getPhoneNumber();
+            if (isBlank(phone)) {
+                return false;
+            }
+            int start = trimStart(phone);
+            int end = trimEnd(phone);
+            return !PHONE_PATTERN.matcher(phone).region(start, end).matches();
+        });
+
+        // Email format validation
+        add(list, ValidationError.EMAIL_FORMAT,
+            (r, d) -> !isBlank(r.getEmail()) && !EMAIL_PATTERN.matcher(r.getEmail()).matches());
+
+        // Date validations
+        add(list, ValidationError.WORK_DATE_IN_FUTURE,
+            (r, d) -> r.getWorkDate() != null && r.getWorkDate().isAfter(d.today()));
+        add(list, ValidationError.WORK_DATE_TOO_OLD,
+            (r, d) -> r.getWorkDate() != null && r.getWorkDate().isBefore(d.earliest()));
+
+        // Hours worked, hourly rate and payment amount ranges
+        add(list, ValidationError.HOURS_NOT_POSITIVE,
+            (r, d) -> r.getHoursWorked() != null && r.getHoursWorked().signum() <= 0);
+        add(list, ValidationError.HOURS_TOO_HIGH,
+            (r, d) -> r.getHoursWorked() != null && r.getHoursWorked().compareTo(maxHoursWorked) > 0);
+        add(list, ValidationError.HOURLY_RATE_NOT_POSITIVE,
+            (r, d) -> r.getHourlyRate() != null && r.getHourlyRate().signum() <= 0);
+        add(list, ValidationError.HOURLY_RATE_TOO_HIGH,
+            (r, d) -> r.getHourlyRate() != null && r.getHourlyRate().compareTo(maxHourlyRate) > 0);
+        add(list, ValidationError.PAYMENT_AMOUNT_TOO_HIGH,
+            (r, d) -> r.getPaymentAmount() != null && r.getPaymentAmount().compareTo(maxPaymentAmount) > 0);
+
+        // Business logic: payment amount must equal hours worked × hourly rate within the tolerance
+        add(list, ValidationError.PAYMENT_AMOUNT_MISMATCH, (r, d) -> {
+            if (r.getHoursWorked() == null || r.getHourlyRate() == null || r.getPaymentAmount() == null) {
+                return false;
+            }
+            BigDecimal calculated = r.getHoursWorked().multiply(r.getHourlyRate());
+            int comparison = r.getPaymentAmount().compareTo(calculated);
+            if (comparison == 0) {
+                return false;
+            }
+            BigDecimal difference = comparison > 0
+                ? r.getPaymentAmount().subtract(calculated)
+                : calculated.subtract(r.getPaymentAmount());
+            return difference.compareTo(amountTolerance) > 0;
+        });
+
+        return list.toArray(new Rule[0]);
+    }
+
+    private String[] buildMessages() {
+        DecimalFormat grouped = new DecimalFormat("#,##0.##", DecimalFormatSymbols.getInstance(Locale.ROOT));
+        String[] text = new String[ValidationError.values().length];
+        text[ValidationError.WORKER_ID_REQUIRED.ordinal()] = "Worker ID is required.";
+        text[ValidationError.WORKER_NAME_REQUIRED.ordinal()] = "Worker name is required.";
+        text[ValidationError.PAYMENT_AMOUNT_REQUIRED.ordinal()] = "Valid payment amount greater than 0 is required.";
+        text[ValidationError.BANK_ACCOUNT_REQUIRED.ordinal()] = "Bank account is required.";
+        text[ValidationError.WORK_DATE_REQUIRED.ordinal()] = "Work date is required.";
+        text[ValidationError.WORKER_NAME_TOO_LONG.ordinal()] =
+            "Worker name must not exceed " + MAX_WORKER_NAME_LENGTH + " characters.";
+        text[ValidationError.COMPANY_NAME_TOO_LONG.ordinal()] =
+            "Company name must not exceed " + MAX_COMPANY_NAME_LENGTH + " characters.";
+        text[ValidationError.DEPARTMENT_TOO_LONG.ordinal()] =
+            "Department must not exceed " + MAX_DEPARTMENT_LENGTH + " characters.";
+        text[ValidationError.POSITION_TOO_LONG.ordinal()] =
+            "Position must not exceed " + MAX_POSITION_LENGTH + " characters.";
+        text[ValidationError.WORKER_ID_TOO_LONG.ordinal()] =
+            "Worker ID must not exceed " + MAX_WORKER_ID_LENGTH + " characters.";
+        text[ValidationError.EMAIL_TOO_LONG.ordinal()] =
+            "Email must not exceed " + MAX_EMAIL_LENGTH + " characters.";
+        text[ValidationError.BANK_ACCOUNT_LENGTH.ordinal()] =
+            "Bank account must be between " + bankAccountMinLength + "-" + bankAccountMaxLength + " characters.";
+        text[ValidationError.BANK_ACCOUNT_FORMAT.ordinal()] = "Bank account must contain only letters and digits.";
+        text[ValidationError.PHONE_TOO_LONG.ordinal()] =
+            "Phone number must not exceed " + MAX_PHONE_LENGTH + " characters.";
+        text[ValidationError.PHONE_FORMAT.ordinal()] = "Invalid phone number format.";
+        text[ValidationError.EMAIL_FORMAT.ordinal()] = "Invalid email format.";
+        text[ValidationError.WORK_DATE_IN_FUTURE.ordinal()] = "Work date cannot be in the future.";
+        text[ValidationError.WORK_DATE_TOO_OLD.ordinal()] = "Work date cannot be more than " + maxWorkDateAgeYears
+            + (maxWorkDateAgeYears == 1 ? " year old." : " years old.");
+        text[ValidationError.HOURS_NOT_POSITIVE.ordinal()] = "Hours worked must be greater than 0.";
+        text[ValidationError.HOURS_TOO_HIGH.ordinal()] =
+            "Hours worked cannot exceed " + maxHoursWorked.stripTrailingZeros().toPlainString() + " hours per day.";
+        text[ValidationError.HOURLY_RATE_NOT_POSITIVE.ordinal()] = "Hourly rate must be greater than 0.";
+        text[ValidationError.HOURLY_RATE_TOO_HIGH.ordinal()] =
+            "Hourly rate seems unreasonably high (max " + grouped.format(maxHourlyRate) + ").";
+        text[ValidationError.PAYMENT_AMOUNT_TOO_HIGH.ordinal()] =
+            "Payment amount seems unreasonably high (max " + grouped.format(maxPaymentAmount) + ").";
+        return text;
+    }
+
+    private static void add(List<Rule> rules, ValidationError error, Check check) {
+        rules.add(new Rule(error.bit(), check));
+    }
+
+    private DateWindow dateWindowFor(LocalDate today) {
+        DateWindow window = dateWindow;
+        if (window == null || !window.today().equals(today)) {
+            window = new DateWindow(today, today.minusYears(maxWorkDateAgeYears));
+            dateWindow = window;
+        }
+        return window;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || trimmedLength(value) == 0;
+    }
+
+    private static boolean longerThan(String value, int maxLength) {
+        return value != null && value.length() > maxLength;
+    }
+
+    // Trimming helpers follow String.trim() semantics without allocating a new string
+
+    private static int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static int trimmedLength(String value) {
+        int start = trimStart(value);
+        return start == value.length() ? 0 : trimEnd(value) - start;
+    }
+
+    private static boolean isTrimmedAlphanumeric(String value) {
+        int start = trimStart(value);
+        int end = trimEnd(value);
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            boolean alphanumeric = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+            if (!alphanumeric) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
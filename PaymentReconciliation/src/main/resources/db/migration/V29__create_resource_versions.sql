@@ -0,0 +1,7 @@
+-- V29__create_resource_versions.sql
+-- Change counters behind version-based ETags, one row per resource created on its first change
+
+CREATE TABLE IF NOT EXISTS resource_versions (
+    resource_key VARCHAR(64) NOT NULL PRIMARY KEY,
+    version BIGINT NOT NULL
+) COMMENT = 'Data versions used to answer conditional GETs without running the query';
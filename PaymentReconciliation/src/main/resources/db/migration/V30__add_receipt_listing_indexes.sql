@@ -0,0 +1,7 @@
+-- V30__add_receipt_listing_indexes.sql
+-- Indexes matching the ORDER BY of the paginated receipt listings, so a page is read from the index
+-- in order instead of sorting every matching row
+
+CREATE INDEX idx_board_receipts_status_date_id ON board_receipts(status, receipt_date, id);
+CREATE INDEX idx_board_receipts_date_id ON board_receipts(receipt_date, id);
+CREATE INDEX idx_receipts_status_created_id ON worker_payment_receipts(status, created_at, id);
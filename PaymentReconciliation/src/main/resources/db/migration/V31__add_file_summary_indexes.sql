@@ -0,0 +1,6 @@
+-- V31__add_file_summary_indexes.sql
+-- Indexes for the grouped file summary dashboard: files are picked by upload time, and their rows are
+-- counted and the validated amounts summed from the index alone, without reading the uploaded rows
+
+CREATE INDEX idx_uploaded_files_created_at ON uploaded_files(created_at);
+CREATE INDEX idx_worker_uploaded_data_file_status_amount ON worker_uploaded_data(file_id, status, payment_amount);
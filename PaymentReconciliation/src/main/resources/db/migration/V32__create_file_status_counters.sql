@@ -0,0 +1,24 @@
+-- V32__create_file_status_counters.sql
+-- Per-file record counts by status for uploaded data and worker payments, maintained by every
+-- writer in the same transaction as the records, so a file status summary is a primary-key read.
+-- Existing files are seeded from their records.
+
+CREATE TABLE IF NOT EXISTS file_status_counters (
+    file_id VARCHAR(100) NOT NULL,
+    record_type VARCHAR(20) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    record_count BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL,
+    PRIMARY KEY (file_id, record_type, status)
+);
+
+INSERT INTO file_status_counters (file_id, record_type, status, record_count, updated_at)
+SELECT file_id, 'UPLOADED_DATA', status, COUNT(*), NOW()
+FROM worker_uploaded_data
+GROUP BY file_id, status;
+
+INSERT INTO file_status_counters (file_id, record_type, status, record_count, updated_at)
+SELECT file_id, 'WORKER_PAYMENT', status, COUNT(*), NOW()
+FROM worker_payments
+WHERE file_id IS NOT NULL
+GROUP BY file_id, status;
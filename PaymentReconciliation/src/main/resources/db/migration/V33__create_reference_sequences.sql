@@ -0,0 +1,9 @@
+-- V33__create_reference_sequences.sql
+-- Sequences behind receipt, request, employer and board reference numbers. Each node reserves
+-- blocks of values with one UPDATE and hands them out from memory, so numbers are unique across
+-- nodes without an existence check per number. Rows are created on first use.
+
+CREATE TABLE IF NOT EXISTS reference_sequences (
+    sequence_name VARCHAR(32) NOT NULL PRIMARY KEY,
+    next_value BIGINT NOT NULL
+) COMMENT = 'Next unreserved value of each reference number sequence';
@@ -0,0 +1,10 @@
+-- V34__add_receipt_statement_transaction_link.sql
+-- Records the statement transaction each employer receipt was reconciled against, so a credit
+-- reconciles at most one receipt and the reconciliation probe can skip transactions already used.
+-- The statement_transaction index serves the probe's credit/currency/value-date filter.
+
+ALTER TABLE employer_payment_receipts
+    ADD COLUMN statement_transaction_id BIGINT NULL,
+    ADD CONSTRAINT uk_employer_receipts_statement_txn UNIQUE (statement_transaction_id);
+
+CREATE INDEX idx_statement_transaction_dc_currency_date ON statement_transaction(dc, currency, value_date, id);
@@ -0,0 +1,187 @@
+package com.example.paymentreconciliation.audit.service;
+
+import com.example.paymentreconciliation.audit.dao.AuditEventBulkDao;
+import com.example.paymentreconciliation.audit.entity.AuditEvent;
+import com.example.paymentreconciliation.config.AuditingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditEventServiceTest {
+
+    @Mock
+    private AuditEventBulkDao auditEventBulkDao;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditEventService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AuditingProperties properties = new AuditingProperties();
+        properties.setBufferSize(4);
+        properties.setBatchSize(3);
+        // Not started: the test drives the writer through writeBatch
+        service = new AuditEventService(auditEventBulkDao, properties, meterRegistry);
+    }
+
+    private AuditEvent event(String action) {
+        AuditEvent event = new AuditEvent();
+        event.setAction(action);
+        event.setResourceType("TEST");
+        event.setTraceId("trace");
+        event.setUserId("user");
+        event.setOutcome("SUCCESS");
+        return event;
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get(AuditEventService.METRIC_NAME).tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void testEventsChainedFromLastStoredHashAcrossBatches() {
+        when(auditEventBulkDao.findLastHash()).thenReturn("stored");
+        List<AuditEvent> events = new ArrayList<>();
+        List<String> prevHashes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<AuditEvent> batch = invocation.getArgument(0);
+            batch.forEach(e -> prevHashes.add(e.getPrevHash()));
+            events.addAll(batch);
+            return batch.size();
+        }).when(auditEventBulkDao).insertAll(anyList());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(service.recordEvent(event("A" + i)));
+        }
+        assertEquals(3, service.writeBatch());
+        assertEquals(1, service.writeBatch());
+        assertEquals(0, service.writeBatch());
+
+        assertEquals(4, events.size());
+        assertEquals("stored", prevHashes.get(0));
+        for (int i = 1; i < events.size(); i++) {
+            assertEquals(events.get(i - 1).getHash(), prevHashes.get(i));
+            assertEquals(64, events.get(i).getHash().length());
+        }
+        assertNotNull(events.get(0).getOccurredAt());
+        verify(auditEventBulkDao, times(1)).findLastHash();
+        assertEquals(4, count("written"));
+    }
+
+    @Test
+    void testFullBufferDropsAndCountsInsteadOfBlocking() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(service.recordEvent(event("A" + i)));
+        }
+        assertFalse(service.recordEvent(event("dropped")));
+
+        assertEquals(4, count("accepted"));
+        assertEquals(1, count("dropped"));
+        assertEquals(4, meterRegistry.get("audit.buffer.size").gauge().value());
+        verifyNoInteractions(auditEventBulkDao);
+    }
+
+    @Test
+    void testFailedBatchIsKeptAndRetriedBeforeDrainingMore() {
+        when(auditEventBulkDao.findLastHash()).thenReturn(null, "other-instance");
+        List<String> actions = new ArrayList<>();
+        List<String> prevHashes = new ArrayList<>();
+        doThrow(new DataAccessResourceFailureException("down"))
+            .doAnswer(invocation -> {
+                List<AuditEvent> batch = invocation.getArgument(0);
+                batch.forEach(e -> {
+                    actions.add(e.getAction());
+                    prevHashes.add(e.getPrevHash());
+                });
+                return batch.size();
+            })
+            .when(auditEventBulkDao).insertAll(anyList());
+
+        service.recordEvent(event("first"));
+        assertEquals(0, service.writeBatch());
+        service.recordEvent(event("second"));
+        assertEquals(1, service.writeBatch());
+        assertEquals(1, service.writeBatch());
+
+        assertEquals(List.of("first", "second"), actions);
+        // The chain head is read again after the failure
+        assertEquals("other-instance", prevHashes.get(0));
+        verify(auditEventBulkDao, times(2)).findLastHash();
+        assertEquals(1, count("failed"));
+        assertEquals(2, count("written"));
+    }
+
+    @Test
+    void testBatchCommittedDespiteErrorIsNotInsertedAgain() {
+        List<AuditEvent> attempted = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<AuditEvent> batch = invocation.getArgument(0);
+            attempted.addAll(batch);
+            throw new DataAccessResourceFailureException("connection lost after commit");
+        }).when(auditEventBulkDao).insertAll(anyList());
+        when(auditEventBulkDao.findLastHash()).thenAnswer(invocation ->
+            attempted.isEmpty() ? null : attempted.get(attempted.size() - 1).getHash());
+
+        service.recordEvent(event("once"));
+        assertEquals(0, service.writeBatch());
+        assertEquals(1, service.writeBatch());
+
+        verify(auditEventBulkDao, times(1)).insertAll(anyList());
+        assertEquals(1, count("written"));
+    }
+
+    @Test
+    void testRingBufferKeepsEveryElementFromConcurrentProducers() throws Exception {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1 << 16);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    assertTrue(buffer.offer(base + i));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        List<Integer> drained = new ArrayList<>();
+        while (buffer.drainTo(drained, 1000) > 0) {
+            // drain everything
+        }
+        Set<Integer> unique = new HashSet<>(drained);
+        assertEquals(producers * perProducer, unique.size());
+        assertEquals(0, buffer.size());
+        assertEquals(2, new AuditRingBuffer<Integer>(2).capacity());
+        assertEquals(8, new AuditRingBuffer<Integer>(5).capacity());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.paymentreconciliation.auth.security;
+
+import com.example.paymentreconciliation.auth.entity.Role;
+import com.example.paymentreconciliation.auth.entity.User;
+import com.example.paymentreconciliation.auth.service.UserPermissionVersionCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthTokenFilterTest {
+
+    @Mock
+    private UserPermissionVersionCache permissionVersionCache;
+
+    private JwtUtils jwtUtils;
+
+    private AuthTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = spy(new JwtUtils());
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3600);
+        ReflectionTestUtils.setField(jwtUtils, "jwtIssuer", "payment-reconciliation-service");
+        ReflectionTestUtils.setField(jwtUtils, "jwtAudience", "payment-reconciliation-api");
+
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "jwtVerifier", new JwtVerifier(jwtUtils, 100));
+        ReflectionTestUtils.setField(filter, "permissionVersionCache", permissionVersionCache);
+        ReflectionTestUtils.setField(filter, "claimsAuthentication", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testCurrentPermissionVersion_AuthenticatesFromClaimsWithoutDatabase() throws Exception {
+        String token = tokenFor(user(3, "ADMIN", "BOARD"));
+        when(permissionVersionCache.getCachedPermissionVersion("alice")).thenReturn(3);
+
+        Authentication authentication = authenticate(token);
+
+        verify(permissionVersionCache, never()).refresh(anyString());
+        User principal = (User) authentication.getPrincipal();
+        assertEquals(42L, principal.getId());
+        assertEquals("Alice Example", principal.getFullName());
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_BOARD"), authorities(authentication));
+    }
+
+    @Test
+    void testStalePermissionVersion_UsesRolesFromDatabase() throws Exception {
+        String token = tokenFor(user(3, "ADMIN"));
+        User current = user(4, "WORKER");
+        when(permissionVersionCache.getCachedPermissionVersion("alice")).thenReturn(null);
+        when(permissionVersionCache.refresh("alice")).thenReturn(current);
+
+        Authentication authentication = authenticate(token);
+
+        verify(permissionVersionCache, times(1)).refresh("alice");
+        assertSame(current, authentication.getPrincipal());
+        assertEquals(Set.of("ROLE_WORKER"), authorities(authentication));
+    }
+
+    @Test
+    void testUncachedButCurrentVersion_RefreshesOnceThenUsesClaims() throws Exception {
+        String token = tokenFor(user(3, "ADMIN"));
+        when(permissionVersionCache.getCachedPermissionVersion("alice")).thenReturn(null);
+        when(permissionVersionCache.refresh("alice")).thenReturn(user(3, "ADMIN"));
+
+        Authentication authentication = authenticate(token);
+
+        verify(permissionVersionCache, times(1)).refresh("alice");
+        assertEquals(Set.of("ROLE_ADMIN"), authorities(authentication));
+    }
+
+    @Test
+    void testRepeatedToken_VerifiedOnlyOnce() throws Exception {
+        String token = tokenFor(user(3, "ADMIN"));
+        when(permissionVersionCache.getCachedPermissionVersion("alice")).thenReturn(3);
+
+        authenticate(token);
+        SecurityContextHolder.clearContext();
+        Authentication authentication = authenticate(token);
+
+        verify(jwtUtils, times(1)).getValidatedClaims(token);
+        assertEquals(Set.of("ROLE_ADMIN"), authorities(authentication));
+    }
+
+    @Test
+    void testInvalidToken_LeavesRequestUnauthenticated() throws Exception {
+        assertNull(authenticate("not-a-jwt"));
+        verifyNoInteractions(permissionVersionCache);
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private String tokenFor(User user) {
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private Set<String> authorities(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+
+    private User user(int permissionVersion, String... roleNames) {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("alice");
+        user.setFullName("Alice Example");
+        user.setPermissionVersion(permissionVersion);
+        for (String roleName : roleNames) {
+            user.getRoles().add(new Role(roleName, roleName));
+        }
+        return user;
+    }
+}
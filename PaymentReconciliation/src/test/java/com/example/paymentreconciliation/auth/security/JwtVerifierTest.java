@@ -0,0 +1,64 @@
+package com.example.paymentreconciliation.auth.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtVerifierTest {
+
+    private JwtUtils jwtUtils;
+    private JwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = spy(new JwtUtils());
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3600);
+        ReflectionTestUtils.setField(jwtUtils, "jwtIssuer", "payment-reconciliation-service");
+        ReflectionTestUtils.setField(jwtUtils, "jwtAudience", "payment-reconciliation-api");
+        verifier = new JwtVerifier(jwtUtils, 2);
+    }
+
+    @Test
+    void testVerifiedTokenServedFromCacheAndRequest() {
+        String token = jwtUtils.generateTokenFromUsername("alice");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        Claims first = verifier.verify(request, token);
+        assertSame(first, verifier.verify(request, token));
+        assertSame(first, request.getAttribute(JwtVerifier.CLAIMS_ATTRIBUTE));
+        assertSame(first, verifier.verify(new MockHttpServletRequest(), token));
+
+        assertEquals("alice", first.getSubject());
+        verify(jwtUtils, times(1)).getValidatedClaims(token);
+    }
+
+    @Test
+    void testTamperedTokenIsVerifiedAndRejected() {
+        String token = jwtUtils.generateTokenFromUsername("alice");
+        assertNotNull(verifier.verify(token));
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(verifier.verify(tampered));
+        assertNull(verifier.verify(tampered));
+        verify(jwtUtils, times(2)).getValidatedClaims(tampered);
+    }
+
+    @Test
+    void testExpiredTokenIsNotServedFromCache() throws InterruptedException {
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 1);
+        String token = jwtUtils.generateTokenFromUsername("alice");
+        Claims claims = verifier.verify(token);
+        assertNotNull(claims);
+
+        Thread.sleep(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis() + 50));
+
+        assertNull(verifier.verify(token));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.paymentreconciliation.auth.service;
+
+import com.example.paymentreconciliation.auth.dao.AuthorizationGraphDao;
+import com.example.paymentreconciliation.auth.dao.AuthorizationGraphDao.PageActionRow;
+import com.example.paymentreconciliation.auth.dao.AuthorizationGraphDao.PageRow;
+import com.example.paymentreconciliation.auth.dao.AuthorizationGraphDao.PolicyCapabilityRow;
+import com.example.paymentreconciliation.auth.entity.User;
+import com.example.paymentreconciliation.auth.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserRoleAssignmentRepository userRoleRepository;
+
+    @Mock
+    private PolicyRepository policyRepository;
+
+    @Mock
+    private CapabilityRepository capabilityRepository;
+
+    @Mock
+    private EndpointRepository endpointRepository;
+
+    @Mock
+    private UIPageRepository uiPageRepository;
+
+    @Mock
+    private PageActionRepository pageActionRepository;
+
+    @Mock
+    private AuthorizationGraphDao authorizationGraphDao;
+
+    private AuthorizationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AuthorizationService(userRepository, userRoleRepository, policyRepository, capabilityRepository,
+            endpointRepository, uiPageRepository, pageActionRepository, authorizationGraphDao, 300);
+        when(authorizationGraphDao.findActivePolicyCapabilities()).thenReturn(List.of(
+            new PolicyCapabilityRow(1L, "{\"roles\": [\"ADMIN\"]}", "USER_CREATE"),
+            new PolicyCapabilityRow(1L, "{\"roles\": [\"ADMIN\"]}", "USER_READ"),
+            new PolicyCapabilityRow(2L, "{\"roles\": [\"WORKER\"]}", "PAYMENT_READ")));
+        when(authorizationGraphDao.findActivePages()).thenReturn(List.of(
+            new PageRow(10L, "Admin", "/admin", null, "settings", 2, true),
+            new PageRow(11L, "Users", "/admin/users", 10L, "users", 1, true),
+            new PageRow(20L, "Payments", "/payments", null, "money", 1, true)));
+        when(authorizationGraphDao.findActivePageActions()).thenReturn(List.of(
+            new PageActionRow(100L, 11L, "CREATE", "Create User", "plus", "primary", "USER_CREATE"),
+            new PageActionRow(101L, 11L, "VIEW", "View Users", "eye", "default", "USER_READ"),
+            new PageActionRow(200L, 20L, "VIEW", "View Payments", "eye", "default", "PAYMENT_READ")));
+    }
+
+    private void givenUser(long id, String username, String... roles) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userRoleRepository.findRoleNamesByUserId(id)).thenReturn(List.of(roles));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetUserAuthorizations_LoadsGraphInFixedQueriesAndAddsParentPages() {
+        givenUser(1L, "admin", "ADMIN");
+
+        Map<String, Object> response = service.getUserAuthorizations(1L);
+
+        assertEquals(Map.of("USER_CREATE", true, "USER_READ", true), response.get("can"));
+        List<Map<String, Object>> pages = (List<Map<String, Object>>) response.get("pages");
+        assertEquals(List.of(10L, 11L), pages.stream().map(p -> p.get("id")).toList());
+        assertEquals(List.of(), pages.get(0).get("actions"));
+        assertEquals(2, ((List<?>) pages.get(1).get("actions")).size());
+
+        verify(authorizationGraphDao, times(1)).findActivePolicyCapabilities();
+        verify(authorizationGraphDao, times(1)).findActivePages();
+        verify(authorizationGraphDao, times(1)).findActivePageActions();
+        verify(capabilityRepository, never()).findCapabilityNamesByRoleName(anyString());
+        verify(pageActionRepository, never()).findByPageIdAndIsActiveTrue(anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetUserAuthorizations_SortsRootPagesBeforeChildren() {
+        givenUser(2L, "both", "WORKER", "ADMIN");
+
+        List<Map<String, Object>> pages = (List<Map<String, Object>>) service.getUserAuthorizations(2L).get("pages");
+
+        assertEquals(List.of(20L, 10L, 11L), pages.stream().map(p -> p.get("id")).toList());
+    }
+
+    @Test
+    void testGetUserAuthorizations_VersionIsStableUntilContentChanges() {
+        givenUser(1L, "admin", "ADMIN");
+
+        Object first = service.getUserAuthorizations(1L).get("version");
+        assertEquals(first, service.getUserAuthorizations(1L).get("version"));
+
+        // Reloading identical data keeps the version
+        service.invalidateAuthorizations();
+        assertEquals(first, service.getUserAuthorizations(1L).get("version"));
+        verify(authorizationGraphDao, times(2)).findActivePages();
+
+        when(authorizationGraphDao.findActivePageActions()).thenReturn(List.of(
+            new PageActionRow(100L, 11L, "CREATE", "Add User", "plus", "primary", "USER_CREATE")));
+        service.invalidateAuthorizations();
+        assertNotEquals(first, service.getUserAuthorizations(1L).get("version"));
+    }
+
+    @Test
+    void testGetUserAuthorizations_SharesResultBetweenUsersWithSameRoles() {
+        givenUser(1L, "admin", "ADMIN");
+        givenUser(3L, "admin2", "ADMIN");
+
+        Map<String, Object> first = service.getUserAuthorizations(1L);
+        Map<String, Object> second = service.getUserAuthorizations(3L);
+
+        assertSame(first.get("pages"), second.get("pages"));
+        assertNotEquals(first.get("version"), second.get("version"));
+        assertEquals(1, service.currentGraph().getCachedRoleSetCount());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.paymentreconciliation.auth.service;
+
+import com.example.paymentreconciliation.auth.dao.PolicyQueryDao;
+import com.example.paymentreconciliation.auth.dao.PolicyQueryDao.EndpointPolicyRow;
+import com.example.paymentreconciliation.auth.repository.PolicyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PolicyEngineServiceTest {
+
+    @Mock
+    private PolicyRepository policyRepository;
+
+    @Mock
+    private PolicyQueryDao policyQueryDao;
+
+    private PolicyEngineService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PolicyEngineService(policyRepository, policyQueryDao, new ObjectMapper(), 300);
+    }
+
+    @Test
+    void testEvaluateEndpointAccess_AnyPolicyRoleGrantsAccessWithoutFurtherQueries() {
+        when(policyQueryDao.findActiveEndpointPolicies()).thenReturn(List.of(
+            new EndpointPolicyRow(1L, 10L, "admin-only", "RBAC", "{\"roles\": [\"ADMIN\"]}"),
+            new EndpointPolicyRow(1L, 11L, "board", "RBAC", "{\"roles\": [\"BOARD\", \"RECONCILIATION_OFFICER\"]}"),
+            new EndpointPolicyRow(2L, 10L, "admin-only", "RBAC", "{\"roles\": [\"ADMIN\"]}")));
+
+        assertTrue(service.evaluateEndpointAccess(1L, Set.of("WORKER", "BOARD")));
+        assertTrue(service.evaluateEndpointAccess(2L, Set.of("ADMIN")));
+        assertFalse(service.evaluateEndpointAccess(2L, Set.of("BOARD")));
+        assertFalse(service.evaluateEndpointAccess(3L, Set.of("ADMIN")));
+
+        verify(policyQueryDao, times(1)).findActiveEndpointPolicies();
+        verifyNoInteractions(policyRepository);
+    }
+
+    @Test
+    void testEvaluateEndpointAccess_InvalidAndAbacPoliciesDeny() {
+        when(policyQueryDao.findActiveEndpointPolicies()).thenReturn(List.of(
+            new EndpointPolicyRow(1L, 10L, "abac", "ABAC", "{\"roles\": [\"ADMIN\"]}"),
+            new EndpointPolicyRow(2L, 11L, "broken", "RBAC", "not json"),
+            new EndpointPolicyRow(3L, 12L, "no-roles", "RBAC", "{\"role\": \"ADMIN\"}")));
+
+        assertFalse(service.evaluateEndpointAccess(1L, Set.of("ADMIN")));
+        assertFalse(service.evaluateEndpointAccess(2L, Set.of("ADMIN")));
+        assertFalse(service.evaluateEndpointAccess(3L, Set.of("ADMIN")));
+    }
+
+    @Test
+    void testInvalidatePolicies_SwapsInNewVersion() {
+        when(policyQueryDao.findActiveEndpointPolicies())
+            .thenReturn(List.of(new EndpointPolicyRow(1L, 10L, "p", "RBAC", "{\"roles\": [\"ADMIN\"]}")))
+            .thenReturn(List.of(new EndpointPolicyRow(1L, 10L, "p", "RBAC", "{\"roles\": [\"WORKER\"]}")));
+
+        long firstVersion = service.currentSnapshot().getVersion();
+        assertTrue(service.evaluateEndpointAccess(1L, Set.of("ADMIN")));
+
+        service.invalidatePolicies();
+
+        assertTrue(service.currentSnapshot().getVersion() > firstVersion);
+        assertFalse(service.evaluateEndpointAccess(1L, Set.of("ADMIN")));
+        assertTrue(service.evaluateEndpointAccess(1L, Set.of("WORKER")));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.paymentreconciliation.common.dao;
+
+import com.example.paymentreconciliation.common.dao.BaseQueryDao.PageResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BaseQueryDaoTest {
+
+    private static final String SQL = "SELECT id FROM board_receipts ORDER BY id DESC";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM board_receipts";
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private BaseQueryDao dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new BaseQueryDao();
+        dao.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<Map<String, Object>> returnRows(int rows) {
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        List<Object> result = IntStream.range(0, rows).boxed().collect(Collectors.toList());
+        when(namedParameterJdbcTemplate.query(eq(SQL + " LIMIT :limit OFFSET :offset"), params.capture(),
+                any(org.springframework.jdbc.core.RowMapper.class))).thenReturn(result);
+        return params;
+    }
+
+    private PageResult<Object> page(int page, int size, boolean includeTotal) {
+        return dao.queryForPage(SQL, COUNT_SQL, Map.of(), page, size, (rs, rowNum) -> rowNum, includeTotal);
+    }
+
+    @Test
+    void testSkippedCount_FullPageReadsOneExtraRowAndLeavesTotalUnknown() {
+        ArgumentCaptor<Map<String, Object>> params = returnRows(21);
+
+        PageResult<Object> result = page(3, 20, false);
+
+        assertEquals(21, params.getValue().get("limit"));
+        assertEquals(60L, params.getValue().get("offset"));
+        assertEquals(20, result.getContent().size());
+        assertTrue(result.hasNext());
+        assertFalse(result.isTotalKnown());
+        verify(namedParameterJdbcTemplate, never()).queryForObject(anyString(), anyMap(), eq(Long.class));
+    }
+
+    @Test
+    void testLastPage_TotalIsInferredWithoutCounting() {
+        returnRows(5);
+
+        PageResult<Object> result = page(2, 20, true);
+
+        assertFalse(result.hasNext());
+        assertEquals(45L, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        verify(namedParameterJdbcTemplate, never()).queryForObject(anyString(), anyMap(), eq(Long.class));
+    }
+
+    @Test
+    void testIncludedTotal_CountsWhenMoreRowsFollow() {
+        returnRows(21);
+        when(namedParameterJdbcTemplate.queryForObject(eq(COUNT_SQL), anyMap(), eq(Long.class))).thenReturn(2_000_000L);
+
+        PageResult<Object> result = page(0, 20, true);
+
+        assertTrue(result.hasNext());
+        assertEquals(2_000_000L, result.getTotalElements());
+        assertEquals(100_000, result.getTotalPages());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testKeysetPage_SeeksPastCursorInsteadOfOffset() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        when(namedParameterJdbcTemplate.query(sql.capture(), params.capture(),
+                any(org.springframework.jdbc.core.RowMapper.class))).thenReturn(List.of());
+        KeysetCursor cursor = new KeysetCursor(java.time.LocalDateTime.of(2025, 1, 1, 0, 0), 42L, false);
+
+        dao.queryForKeysetPage("SELECT id, created_at FROM worker_payments", " WHERE status = :status",
+                Map.of("status", "PAID"), "created_at", "id", true, cursor, 200_000, 20, (rs, rowNum) -> rowNum);
+
+        assertEquals("SELECT id, created_at FROM worker_payments WHERE status = :status"
+                + " AND (created_at < :keysetValue OR (created_at = :keysetValue AND id < :keysetId) OR created_at IS NULL)"
+                + " ORDER BY created_at DESC, id DESC LIMIT :limit", sql.getValue());
+        assertEquals(42L, params.getValue().get("keysetId"));
+        assertEquals(21, params.getValue().get("limit"));
+        assertFalse(params.getValue().containsKey("offset"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testKeysetPage_BackwardCursorScansInReverseAndRestoresOrder() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<org.springframework.jdbc.core.RowMapper<Object>> mapper =
+                ArgumentCaptor.forClass(org.springframework.jdbc.core.RowMapper.class);
+        when(namedParameterJdbcTemplate.query(sql.capture(), anyMap(), mapper.capture())).thenAnswer(invocation -> {
+            java.sql.ResultSet rs = mock(java.sql.ResultSet.class);
+            when(rs.getObject("receipt_number")).thenReturn("R-3", "R-2");
+            when(rs.getLong("id")).thenReturn(3L, 2L);
+            return List.of(mapper.getValue().mapRow(rs, 0), mapper.getValue().mapRow(rs, 1));
+        });
+        KeysetCursor cursor = new KeysetCursor("R-4", 4L, true);
+
+        BaseQueryDao.KeysetPage<Object> page = dao.queryForKeysetPage("SELECT * FROM worker_payment_receipts wpr",
+                " WHERE 1=1", Map.of(), "wpr.receipt_number", "wpr.id", false, cursor, 0, 20, (rs, rowNum) -> rowNum);
+
+        assertTrue(sql.getValue().endsWith(" AND (wpr.receipt_number < :keysetValue OR (wpr.receipt_number = :keysetValue"
+                + " AND wpr.id < :keysetId) OR wpr.receipt_number IS NULL) ORDER BY wpr.receipt_number DESC, wpr.id DESC LIMIT :limit"));
+        assertEquals(List.of(1, 0), page.getContent());
+        assertEquals(new KeysetCursor("R-2", 2L, true), page.getPreviousCursor());
+        assertEquals(new KeysetCursor("R-3", 3L, false), page.getNextCursor());
+        assertFalse(page.hasMore());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.paymentreconciliation.common.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalResponseServiceTest {
+
+    private static final String RESOURCE = ResourceVersionService.WORKER_PAYMENT_RECEIPTS;
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ConditionalResponseService service;
+
+    private final AtomicInteger handlerCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ConditionalResponseService(resourceVersionService, meterRegistry);
+    }
+
+    private ResponseEntity<?> get(String ifNoneMatch, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/worker/receipts/RCP-1");
+        request.setQueryString(query);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return service.respond(request, RESOURCE, null, () -> {
+            handlerCalls.incrementAndGet();
+            return ResponseEntity.ok(Map.of("receiptNumber", "RCP-1"));
+        });
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter(ConditionalResponseService.METRIC_NAME, "resource", RESOURCE, "outcome", outcome).count();
+    }
+
+    @Test
+    void testMatchingETag_AnswersNotModifiedWithoutRunningHandler() {
+        when(resourceVersionService.currentVersion(RESOURCE)).thenReturn(7L);
+        ResponseEntity<?> first = get(null, null);
+        String eTag = first.getHeaders().getETag();
+        assertNotNull(eTag);
+
+        ResponseEntity<?> second = get("W/" + eTag, null);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(eTag, second.getHeaders().getETag());
+        assertEquals(1, handlerCalls.get());
+        assertEquals(1, count("unconditional"));
+        assertEquals(1, count("not_modified"));
+    }
+
+    @Test
+    void testNewVersion_RunsHandlerWithNewETag() {
+        when(resourceVersionService.currentVersion(RESOURCE)).thenReturn(7L, 8L);
+        String eTag = get(null, null).getHeaders().getETag();
+
+        ResponseEntity<?> response = get(eTag, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(eTag, response.getHeaders().getETag());
+        assertEquals(2, handlerCalls.get());
+        assertEquals(1, count("modified"));
+    }
+
+    @Test
+    void testDifferentQuery_GetsDifferentETag() {
+        when(resourceVersionService.currentVersion(RESOURCE)).thenReturn(7L);
+
+        String firstPage = get(null, "page=0").getHeaders().getETag();
+        String secondPage = get(null, "page=1").getHeaders().getETag();
+
+        assertNotEquals(firstPage, secondPage);
+        assertEquals(HttpStatus.OK, get(firstPage, "page=1").getStatusCode());
+    }
+
+    @Test
+    void testErrorResponse_HasNoETag() {
+        when(resourceVersionService.currentVersion(RESOURCE)).thenReturn(7L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/worker/receipts/missing");
+
+        ResponseEntity<?> response = service.respond(request, RESOURCE, null, () -> ResponseEntity.notFound().build());
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+    }
+}
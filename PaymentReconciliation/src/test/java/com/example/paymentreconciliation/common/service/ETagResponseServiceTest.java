@@ -0,0 +1,121 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.util.ETagUtil;
+import com.example.paymentreconciliation.config.JacksonConfig;
+import com.example.paymentreconciliation.config.SerializedJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ETagResponseServiceTest {
+
+    private ObjectMapper objectMapper;
+    private MockMvc mockMvc;
+    private Map<String, Object> body;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        ETagResponseService service = new ETagResponseService(objectMapper);
+        body = new LinkedHashMap<>();
+        body.put("name", "Grüße");
+        body.put("createdAt", LocalDateTime.of(2025, 1, 2, 3, 4, 5));
+        mockMvc = MockMvcBuilders.standaloneSetup(new TestController(service, body))
+                .setMessageConverters(new SerializedJsonHttpMessageConverter(objectMapper),
+                        new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    void testBodyWrittenFromSingleSerializationWithMatchingETag() throws Exception {
+        String json = objectMapper.writeValueAsString(body);
+
+        MvcResult result = mockMvc.perform(get("/etag"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETagUtil.generateETag(json)))
+                .andReturn();
+
+        assertEquals(json, result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertTrue(json.contains("\"2025-01-02 03:04:05\""));
+        assertTrue(result.getResponse().getContentType().startsWith("application/json"));
+        assertEquals(result.getResponse().getContentAsByteArray().length, result.getResponse().getContentLength());
+    }
+
+    @Test
+    void testBodyNotSerializedAgainWhenWritten() throws Exception {
+        String json = objectMapper.writeValueAsString(body);
+
+        MvcResult result = mockMvc.perform(get("/etag-then-change"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // The change made after respond is not in the response: the buffered JSON was written
+        assertEquals(json, result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testMatchingIfNoneMatchAnswersNotModified() throws Exception {
+        String eTag = ETagUtil.generateETag(objectMapper.writeValueAsString(body));
+
+        MvcResult result = mockMvc.perform(get("/etag").header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andReturn();
+
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void testOtherBodiesAreSerializedNormally() throws Exception {
+        mockMvc.perform(get("/plain"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(content().json("{\"plain\":true}"));
+    }
+
+    @RestController
+    static class TestController {
+        private final ETagResponseService service;
+        private final Map<String, Object> body;
+
+        TestController(ETagResponseService service, Map<String, Object> body) {
+            this.service = service;
+            this.body = body;
+        }
+
+        @GetMapping("/etag")
+        ResponseEntity<Map<String, Object>> etag(HttpServletRequest request) throws Exception {
+            return service.respond(request, body);
+        }
+
+        @GetMapping("/etag-then-change")
+        ResponseEntity<Map<String, Object>> etagThenChange(HttpServletRequest request) throws Exception {
+            ResponseEntity<Map<String, Object>> response = service.respond(request, body);
+            body.put("changed", true);
+            return response;
+        }
+
+        @GetMapping("/plain")
+        ResponseEntity<Map<String, Object>> plain() {
+            return ResponseEntity.ok(Map.of("plain", true));
+        }
+    }
+}
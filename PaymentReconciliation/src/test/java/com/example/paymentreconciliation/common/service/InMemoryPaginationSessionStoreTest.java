@@ -0,0 +1,88 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.service.PaginationSessionService.PaginationSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryPaginationSessionStoreTest {
+
+    private static final long TICK_MS = 1000;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryPaginationSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Not started: the tests advance the wheel themselves
+        store = new InMemoryPaginationSessionStore(3, TICK_MS, 8, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.stop();
+    }
+
+    @Test
+    void testAbandonedSessionsEvictedByWheelWithoutBeingRead() {
+        long now = System.currentTimeMillis();
+        String shortLived = store.save(session(now, 2_000));
+        String longLived = store.save(session(now, 60_000));
+
+        store.advance(now + 5_000);
+
+        assertEquals(1, store.size());
+        assertNull(store.find(shortLived));
+        assertNotNull(store.find(longLived));
+        assertEquals(1.0, evicted("expired"));
+        assertEquals(1.0, meterRegistry.get(InMemoryPaginationSessionStore.LIVE_METRIC_NAME).gauge().value());
+
+        // A session more than one wheel turn away survives its slot's earlier visits
+        store.advance(now + 61_000);
+        assertEquals(0, store.size());
+        assertEquals(2.0, evicted("expired"));
+    }
+
+    @Test
+    void testFullStoreEvictsSessionsDueSoonest() {
+        long now = System.currentTimeMillis();
+        String soonest = store.save(session(now, 2_000));
+        store.save(session(now, 4_000));
+        store.save(session(now, 5_000));
+        String latest = store.save(session(now, 6_000));
+
+        assertEquals(3, store.size());
+        assertNull(store.find(soonest));
+        assertNotNull(store.find(latest));
+        assertEquals(1.0, evicted("capacity"));
+    }
+
+    @Test
+    void testExpiredSessionNotReturnedBeforeTickAndRemoveEndsSession() {
+        long now = System.currentTimeMillis();
+        String expired = store.save(session(now - 10_000, 1_000));
+        String removed = store.save(session(now, 60_000));
+
+        store.remove(removed);
+
+        assertNull(store.find(expired));
+        assertNull(store.find(removed));
+        assertEquals(0, store.size());
+    }
+
+    private double evicted(String reason) {
+        return meterRegistry.get(InMemoryPaginationSessionStore.EVICTED_METRIC_NAME).tag("reason", reason).counter().count();
+    }
+
+    private static PaginationSession session(long createdAtMillis, long ttlMs) {
+        return new PaginationSession("workerPayments", "file-1", Map.of("status", "VALIDATED"),
+                Instant.ofEpochMilli(createdAtMillis), Instant.ofEpochMilli(createdAtMillis + ttlMs), 100);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.dao.BaseQueryDao.KeysetPage;
+import com.example.paymentreconciliation.common.dao.KeysetCursor;
+import com.example.paymentreconciliation.common.dto.SecurePaginationRequest;
+import com.example.paymentreconciliation.common.dto.SecurePaginationResponse;
+import com.example.paymentreconciliation.common.service.KeysetPaginationService.PageToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPaginationServiceTest {
+
+    private static final String SCOPE = "worker_payments";
+    private static final Map<String, String> SORT_COLUMNS = Map.of("createdAt", "created_at", "paymentAmount", "payment_amount");
+
+    private KeysetPaginationService service;
+
+    private final List<KeysetCursor> cursors = new ArrayList<>();
+    private final AtomicInteger counts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        service = new KeysetPaginationService("test-secret");
+    }
+
+    private SecurePaginationRequest request(String pageToken) {
+        SecurePaginationRequest request = new SecurePaginationRequest();
+        request.setStartDate("2025-01-01");
+        request.setEndDate("2025-01-31");
+        request.setSize(2);
+        request.setPageToken(pageToken);
+        return request;
+    }
+
+    /** Listing of 5 rows with ids 5..1, newest first */
+    private SecurePaginationResponse<Long> page(SecurePaginationRequest request, List<?> filters) {
+        return service.paginate(SCOPE, request, filters, SORT_COLUMNS, "createdAt",
+                (sortColumn, descending, cursor, offset, size) -> {
+                    cursors.add(cursor);
+                    long from = cursor == null ? 5 - offset : cursor.backward() ? cursor.id() + size : cursor.id() - 1;
+                    List<Long> ids = new ArrayList<>();
+                    for (long id = from; id >= 1 && ids.size() < size; id--) {
+                        ids.add(id);
+                    }
+                    boolean hasMore = cursor != null && cursor.backward() ? from < 5 : ids.get(ids.size() - 1) > 1;
+                    return new KeysetPage<>(ids, new KeysetCursor(null, ids.get(0), true),
+                            new KeysetCursor(null, ids.get(ids.size() - 1), false), hasMore);
+                },
+                () -> {
+                    counts.incrementAndGet();
+                    return 5L;
+                });
+    }
+
+    @Test
+    void testTokens_WalkForwardAndBackWithOneCount() {
+        List<?> filters = List.of("PAID");
+
+        SecurePaginationResponse<Long> first = page(request(null), filters);
+        SecurePaginationResponse<Long> second = page(request(first.getNextPageToken()), filters);
+        SecurePaginationResponse<Long> third = page(request(second.getNextPageToken()), filters);
+        SecurePaginationResponse<Long> back = page(request(third.getPreviousPageToken()), filters);
+
+        assertEquals(List.of(5L, 4L), first.getContent());
+        assertEquals(List.of(3L, 2L), second.getContent());
+        assertEquals(List.of(1L), third.getContent());
+        assertEquals(List.of(3L, 2L), back.getContent());
+        assertEquals(2, third.getCurrentPage());
+        assertTrue(third.isLast());
+        assertNull(third.getNextPageToken());
+        assertEquals(1, back.getCurrentPage());
+        assertTrue(back.isHasNext());
+        assertEquals(5, back.getTotalElements());
+        assertEquals(1, counts.get());
+        assertEquals(new KeysetCursor(null, 4L, false), cursors.get(1));
+    }
+
+    @Test
+    void testToken_RejectedForOtherFiltersOrWhenTampered() {
+        String token = page(request(null), List.of("PAID")).getNextPageToken();
+
+        assertThrows(IllegalArgumentException.class, () -> page(request(token), List.of("FAILED")));
+        String tampered = token.substring(0, 3) + (token.charAt(3) == 'A' ? 'B' : 'A') + token.substring(4);
+        assertThrows(IllegalArgumentException.class, () -> page(request(tampered), List.of("PAID")));
+    }
+
+    @Test
+    void testToken_RoundTripsSortValues() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 15, 10, 30, 5, 123_000_000);
+        for (Object value : new Object[] {createdAt, java.sql.Timestamp.valueOf(createdAt), new BigDecimal("1500.25"),
+                7, "R|1", null}) {
+            PageToken token = new PageToken("createdAt", "desc", 20, 3, null, new KeysetCursor(value, 9L, true));
+
+            PageToken decoded = service.decode(SCOPE, "[]", service.encode(SCOPE, "[]", token));
+
+            Object expected = value instanceof java.sql.Timestamp ? createdAt : value instanceof Integer ? 7L : value;
+            assertEquals(expected, decoded.cursor().sortValue());
+            assertEquals(new PageToken("createdAt", "desc", 20, 3, null, new KeysetCursor(expected, 9L, true)), decoded);
+        }
+    }
+
+    @Test
+    void testSortFieldOfOtherListing_FallsBackToDefault() {
+        SecurePaginationRequest request = request(null);
+        request.setSortBy("amount");
+
+        SecurePaginationResponse<Long> response = page(request, List.of());
+
+        assertEquals("createdAt", response.getSortInfo().getSortBy());
+    }
+}
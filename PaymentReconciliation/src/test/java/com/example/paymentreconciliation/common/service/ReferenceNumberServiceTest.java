@@ -0,0 +1,97 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.dao.ReferenceSequenceDao;
+import com.example.paymentreconciliation.common.service.ReferenceNumberService.Sequence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceNumberServiceTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    @Mock
+    private ReferenceSequenceDao referenceSequenceDao;
+
+    private ReferenceNumberService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReferenceNumberService(referenceSequenceDao, BLOCK_SIZE);
+    }
+
+    @Test
+    void testNumbersHandedOutFromReservedBlocks() {
+        when(referenceSequenceDao.reserveBlock("WORKER_RECEIPT", BLOCK_SIZE)).thenReturn(1L, 41L);
+
+        String first = service.next(Sequence.WORKER_RECEIPT);
+        for (int i = 0; i < BLOCK_SIZE - 1; i++) {
+            service.nextValue(Sequence.WORKER_RECEIPT);
+        }
+
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        assertEquals("RCP-" + today + "-000001", first);
+        // The next block was reserved by another instance in between
+        assertEquals(41L, service.nextValue(Sequence.WORKER_RECEIPT));
+        verify(referenceSequenceDao, times(2)).reserveBlock(anyString(), anyInt());
+    }
+
+    @Test
+    void testSequencesAreIndependent() {
+        when(referenceSequenceDao.reserveBlock(anyString(), eq(BLOCK_SIZE))).thenReturn(1L);
+
+        assertTrue(service.next(Sequence.BOARD_RECEIPT).startsWith("BRD-"));
+        assertTrue(service.next(Sequence.EMPLOYER_RECEIPT).startsWith("EMP-"));
+        assertTrue(service.next(Sequence.REQUEST).startsWith("REQ-"));
+        verify(referenceSequenceDao).reserveBlock("BOARD_RECEIPT", BLOCK_SIZE);
+        verify(referenceSequenceDao).reserveBlock("EMPLOYER_RECEIPT", BLOCK_SIZE);
+        verify(referenceSequenceDao).reserveBlock("REQUEST", BLOCK_SIZE);
+    }
+
+    @Test
+    void testConcurrentAllocationIsUniqueAndReservesOneBlockPerBlockSize() throws Exception {
+        AtomicLong nextValue = new AtomicLong(1);
+        when(referenceSequenceDao.reserveBlock("REQUEST", BLOCK_SIZE))
+            .thenAnswer(invocation -> nextValue.getAndAdd(BLOCK_SIZE));
+        int threads = 8;
+        int perThread = 250;
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = IntStream.range(0, threads)
+                .<Future<?>>mapToObj(t -> executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        values.add(service.nextValue(Sequence.REQUEST));
+                    }
+                }))
+                .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(threads * perThread, values.size());
+        verify(referenceSequenceDao, times(threads * perThread / BLOCK_SIZE)).reserveBlock("REQUEST", BLOCK_SIZE);
+    }
+}
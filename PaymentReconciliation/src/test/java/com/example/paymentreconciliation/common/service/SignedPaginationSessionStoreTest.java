@@ -0,0 +1,68 @@
+package com.example.paymentreconciliation.common.service;
+
+import com.example.paymentreconciliation.common.service.PaginationSessionService.PaginationSession;
+import com.example.paymentreconciliation.config.JacksonConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedPaginationSessionStoreTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SignedPaginationSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = newStore("secret", meterRegistry);
+    }
+
+    @Test
+    void testSessionResumedByAnyInstanceWithSameSecret() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        String token = store.save(new PaginationSession("workerPayments", "file-1",
+                Map.of("status", "VALIDATED"), now, now.plusSeconds(300), 100));
+
+        PaginationSession session = newStore("secret", new SimpleMeterRegistry()).find(token);
+
+        assertNotNull(session);
+        assertEquals("workerPayments", session.resourceType);
+        assertEquals("file-1", session.resourceId);
+        assertEquals(Map.of("status", "VALIDATED"), session.filters);
+        assertEquals(now, session.createdAt);
+        assertEquals(now.plusSeconds(300), session.expiresAt);
+        assertEquals(100, session.maxPageSize);
+        assertNull(newStore("other", new SimpleMeterRegistry()).find(token));
+    }
+
+    @Test
+    void testTamperedGarbledAndExpiredTokensRejected() {
+        Instant now = Instant.now();
+        String token = store.save(new PaginationSession("workerPayments", null, Map.of(), now, now.plusSeconds(60), 100));
+        String expired = store.save(new PaginationSession("workerPayments", null, Map.of(),
+                now.minusSeconds(120), now.minusSeconds(60), 100));
+        String payload = token.substring(0, token.indexOf('.'));
+        String tampered = payload.substring(0, payload.length() - 2) + (payload.endsWith("A") ? "BB" : "AA")
+                + token.substring(token.indexOf('.'));
+
+        assertNull(store.find(tampered));
+        assertNull(store.find("not-a-token"));
+        assertNull(store.find(expired));
+        assertEquals(2.0, rejected("invalid"));
+        assertEquals(1.0, rejected("expired"));
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get(SignedPaginationSessionStore.REJECTED_METRIC_NAME).tag("reason", reason).counter().count();
+    }
+
+    private static SignedPaginationSessionStore newStore(String secret, SimpleMeterRegistry meterRegistry) {
+        return new SignedPaginationSessionStore(secret, new JacksonConfig().objectMapper(), meterRegistry);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.reconciliation.dao.StatementTransactionQueryDao;
+import com.example.paymentreconciliation.reconciliation.dao.StatementTransactionQueryDao.IndexEntry;
+import com.example.paymentreconciliation.reconciliation.service.MT940ReconciliationService.MT940Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MT940ReconciliationServiceTest {
+
+    @Mock
+    private StatementTransactionQueryDao statementTransactionQueryDao;
+
+    private final Mt940TransactionIndex transactionIndex = new Mt940TransactionIndex();
+
+    private MT940ReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MT940ReconciliationService();
+        ReflectionTestUtils.setField(service, "mt940StatementsPath", "mt940-statements/");
+        ReflectionTestUtils.setField(service, "transactionIndex", transactionIndex);
+        ReflectionTestUtils.setField(service, "statementTransactionQueryDao", statementTransactionQueryDao);
+        when(statementTransactionQueryDao.streamIndexEntries(any())).thenAnswer(invocation -> {
+            Consumer<IndexEntry> consumer = invocation.getArgument(0);
+            consumer.accept(new IndexEntry("STMT1", 3, LocalDate.of(2025, 9, 30), "C", new BigDecimal("1250.00"),
+                "NONREF", "BANKREF1", null));
+            return 1L;
+        });
+    }
+
+    @Test
+    void testLoadStatementIndex_IndexesPersistedTransactionsOnly() {
+        service.loadStatementIndex();
+
+        Mt940TransactionIndex.Snapshot index = transactionIndex.snapshot();
+        assertEquals(1, index.size());
+        MT940Transaction txn = index.findByReferenceAndAmount("BANKREF1", 125000L);
+        assertNotNull(txn);
+        assertEquals("STMT1-3", txn.getMt940Reference());
+        assertEquals(List.of("BANKREF1"), txn.getReferences());
+        assertNull(index.findByReference("NONREF"));
+        assertNull(index.findByReference("TXNREF"));
+    }
+
+    @Test
+    void testLoadStatementIndex_SampleStatementAddedWhenEnabled() {
+        ReflectionTestUtils.setField(service, "loadSampleStatement", true);
+
+        service.loadStatementIndex();
+
+        Mt940TransactionIndex.Snapshot index = transactionIndex.snapshot();
+        assertTrue(index.size() > 1);
+        assertNotNull(index.findByReference("BANKREF1"));
+    }
+}
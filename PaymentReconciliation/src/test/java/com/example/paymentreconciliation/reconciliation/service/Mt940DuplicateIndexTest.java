@@ -0,0 +1,100 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.reconciliation.config.Mt940IngestionProperties;
+import com.example.paymentreconciliation.reconciliation.dao.StatementTransactionQueryDao;
+import com.example.paymentreconciliation.reconciliation.repository.ImportRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class Mt940DuplicateIndexTest {
+
+    private static final String KNOWN_TXN = "a3f1c2d4e5b6a7980112233445566778899aabbccddeeff00112233445566778";
+    private static final String NEW_TXN = "0f1e2d3c4b5a69788796a5b4c3d2e1f00f1e2d3c4b5a69788796a5b4c3d2e1f0";
+
+    @Mock
+    private ImportRunRepository importRunRepository;
+
+    @Mock
+    private StatementTransactionQueryDao statementTransactionQueryDao;
+
+    private Mt940DuplicateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new Mt940DuplicateIndex(importRunRepository, statementTransactionQueryDao, new Mt940IngestionProperties());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void warmUpWith(List<String> fileHashes, List<String> transactionHashes) {
+        when(importRunRepository.findAllFileHashes()).thenReturn(fileHashes);
+        when(statementTransactionQueryDao.streamIdempotencyHashes(any())).thenAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            transactionHashes.forEach(consumer);
+            return (long) transactionHashes.size();
+        });
+        index.warmUp();
+    }
+
+    @Test
+    void testIsDuplicateFile_KnownHashSkipsDatabase() {
+        warmUpWith(List.of("FILE1"), List.of());
+
+        assertTrue(index.isDuplicateFile("FILE1"));
+        verify(importRunRepository, never()).existsByFileHash(anyString());
+
+        when(importRunRepository.existsByFileHash("FILE2")).thenReturn(true);
+        assertTrue(index.isDuplicateFile("FILE2"));
+        assertTrue(index.isDuplicateFile("FILE2"));
+        verify(importRunRepository, times(1)).existsByFileHash("FILE2");
+    }
+
+    @Test
+    void testFindDuplicateTransactions_OnlyFilterHitsAreCheckedInDatabase() {
+        warmUpWith(List.of(), List.of(KNOWN_TXN));
+        when(statementTransactionQueryDao.findExistingIdempotencyHashes(anyCollection())).thenReturn(Set.of(KNOWN_TXN));
+
+        Set<String> duplicates = index.findDuplicateTransactions(List.of(KNOWN_TXN, NEW_TXN));
+
+        assertEquals(Set.of(KNOWN_TXN), duplicates);
+        verify(statementTransactionQueryDao).findExistingIdempotencyHashes(List.of(KNOWN_TXN));
+    }
+
+    @Test
+    void testFindDuplicateTransactions_ChecksEverythingBeforeWarmUp() {
+        index.findDuplicateTransactions(List.of(NEW_TXN));
+        verify(statementTransactionQueryDao).findExistingIdempotencyHashes(List.of(NEW_TXN));
+    }
+
+    @Test
+    void testRecordImport_MakesFileAndTransactionsKnown() {
+        warmUpWith(List.of(), List.of());
+        assertTrue(index.findDuplicateTransactions(List.of(NEW_TXN)).isEmpty());
+        verify(statementTransactionQueryDao, never()).findExistingIdempotencyHashes(anyCollection());
+
+        index.recordImport("FILE3", List.of(NEW_TXN));
+
+        assertTrue(index.isDuplicateFile("FILE3"));
+        index.findDuplicateTransactions(List.of(NEW_TXN));
+        verify(statementTransactionQueryDao).findExistingIdempotencyHashes(List.of(NEW_TXN));
+    }
+
+    @Test
+    void testClaimFile_RejectsSecondClaimUntilReleased() {
+        assertTrue(index.claimFile("FILE4"));
+        assertFalse(index.claimFile("FILE4"));
+        index.releaseFile("FILE4");
+        assertTrue(index.claimFile("FILE4"));
+    }
+}
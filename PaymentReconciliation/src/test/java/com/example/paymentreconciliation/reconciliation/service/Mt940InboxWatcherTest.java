@@ -0,0 +1,89 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.reconciliation.config.Mt940IngestionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class Mt940InboxWatcherTest {
+
+    @Mock
+    private Mt940IngestionService ingestionService;
+
+    @TempDir
+    Path baseDir;
+
+    private Mt940InboxWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Mt940IngestionProperties props = new Mt940IngestionProperties();
+        props.setInboxDir(Files.createDirectories(baseDir.resolve("inbox")).toString());
+        props.setProcessingDir(baseDir.resolve("processing").toString());
+        props.setArchiveDir(baseDir.resolve("archive").toString());
+        props.setQuarantineDir(baseDir.resolve("quarantine").toString());
+        props.setStabilityWindowSec(10);
+        watcher = new Mt940InboxWatcher(ingestionService, props);
+    }
+
+    @AfterEach
+    void tearDown() {
+        watcher.shutdown();
+    }
+
+    @Test
+    void testScan_ProcessesFileOnlyAfterStabilityWindow() throws Exception {
+        Path file = Files.writeString(baseDir.resolve("inbox/stmt.mt940"), ":20:REF1\n");
+        assertTrue(watcher.track(file));
+
+        watcher.scan(0);
+        watcher.scan(5_000);
+        verify(ingestionService, after(100).never()).processInboxFile(any());
+
+        watcher.scan(10_000);
+        verify(ingestionService, timeout(2_000)).processInboxFile(file.toFile());
+        assertEquals(0, watcher.getTrackedCount());
+    }
+
+    @Test
+    void testScan_GrowingFileRestartsStabilityWindow() throws Exception {
+        Path file = Files.writeString(baseDir.resolve("inbox/stmt.sta"), ":20:REF1\n");
+        watcher.track(file);
+        watcher.scan(0);
+
+        Files.writeString(file, ":61:2509300930C100,00NTRF\n", StandardOpenOption.APPEND);
+        watcher.scan(9_000);
+        watcher.scan(12_000);
+        verify(ingestionService, after(100).never()).processInboxFile(any());
+        assertEquals(1, watcher.getTrackedCount());
+
+        watcher.scan(19_000);
+        verify(ingestionService, timeout(2_000)).processInboxFile(file.toFile());
+    }
+
+    @Test
+    void testRescanInbox_TracksOnlyStatementFilesAndDropsRemovedOnes() throws Exception {
+        Files.writeString(baseDir.resolve("inbox/a.mt940"), "a");
+        Files.writeString(baseDir.resolve("inbox/b.zip"), "b");
+        Files.writeString(baseDir.resolve("inbox/notes.txt"), "c");
+
+        assertEquals(2, watcher.rescanInbox());
+
+        Files.delete(baseDir.resolve("inbox/a.mt940"));
+        watcher.scan(0);
+        assertEquals(1, watcher.getTrackedCount());
+    }
+}
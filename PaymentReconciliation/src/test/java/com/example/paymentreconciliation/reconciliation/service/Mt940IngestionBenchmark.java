@@ -0,0 +1,93 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parses and persists a generated MT940 statement with 50k :61: lines (plus one raw line per
+ * transaction) through Mt940IngestionService.persistParsedStatements.
+ * Only compiled and run in the benchmark profile:
+ * {@code mvn -Pbenchmark test -Dtest=Mt940IngestionBenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class Mt940IngestionBenchmark {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(Mt940IngestionBenchmark.class);
+
+    private static final int TRANSACTIONS = 50_000;
+
+    @Autowired
+    private Mt940IngestionService ingestionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void persistFiftyThousandTransactionStatement() throws Exception {
+        File file = writeStatement(tempDir.resolve("bench-50k.mt940"), TRANSACTIONS);
+
+        long parseStart = System.nanoTime();
+        List<Mt940Parser.Statement> statements = new Mt940Parser().parse(file);
+        long parseMs = (System.nanoTime() - parseStart) / 1_000_000L;
+        for (Mt940Parser.Statement stmt : statements) {
+            stmt.rawLines = new ArrayList<>();
+            for (Mt940Parser.Transaction txn : stmt.transactions) {
+                Mt940Parser.RawLine rawLine = new Mt940Parser.RawLine();
+                rawLine.lineNo = txn.lineNo;
+                rawLine.tag = "61";
+                rawLine.rawText = ":61:" + txn.amount;
+                stmt.rawLines.add(rawLine);
+            }
+        }
+
+        long persistStart = System.nanoTime();
+        ingestionService.persistParsedStatements(statements, file.getName(), UUID.randomUUID().toString().replace("-", ""),
+            file.length());
+        long persistMs = (System.nanoTime() - persistStart) / 1_000_000L;
+
+        Long persisted = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM statement_transaction", Long.class);
+        Long rawLines = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM raw_statement_line", Long.class);
+        assertEquals(TRANSACTIONS, persisted);
+        assertEquals(TRANSACTIONS, rawLines);
+        log.info("MT940 with {} transactions: parse {} ms, persist {} ms", TRANSACTIONS, parseMs, persistMs);
+    }
+
+    private File writeStatement(Path path, int transactions) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("{1:F01BANKINBBAXXX0000000000}{2:I940BANKINBBXXXXN}{4:\n");
+            writer.write(":20:BENCH" + transactions + "\n");
+            writer.write(":25:1234567890\n");
+            writer.write(":28C:1/1\n");
+            writer.write(":60F:C250930INR1000,00\n");
+            for (int i = 1; i <= transactions; i++) {
+                writer.write(String.format(":61:2509300930C100,00NTRFTXN%08d//BANK%08d%n", i, i));
+                writer.write(":86:Worker payment batch " + i + "\n");
+            }
+            writer.write(":62F:C250930INR" + (1000 + 100L * transactions) + ",00\n");
+            writer.write("-}");
+        }
+        return path.toFile();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.reconciliation.service.MT940ReconciliationService.MT940Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mt940TransactionIndexTest {
+
+    private Mt940TransactionIndex index;
+    private MT940Transaction first;
+    private MT940Transaction second;
+
+    @BeforeEach
+    void setUp() {
+        index = new Mt940TransactionIndex();
+        first = new MT940Transaction("TXNREF", new BigDecimal("82752.30"), LocalDate.now(), "MT940-REF-001", "CREDIT");
+        second = new MT940Transaction("OTHER_REF", new BigDecimal("50000.00"), LocalDate.now(), "MT940-REF-002", "CREDIT",
+            List.of("OTHER_REF", "BANKREF2"));
+        index.replaceAll(List.of(first, second));
+    }
+
+    @Test
+    void testToMinorUnits() {
+        assertEquals(8275230L, Mt940TransactionIndex.toMinorUnits(new BigDecimal("82752.3")));
+        assertEquals(8275230L, Mt940TransactionIndex.toMinorUnits(new BigDecimal("82752.300")));
+        assertEquals(8275231L, Mt940TransactionIndex.toMinorUnits(new BigDecimal("82752.305")));
+        assertEquals(0L, Mt940TransactionIndex.toMinorUnits(null));
+    }
+
+    @Test
+    void testLookups() {
+        Mt940TransactionIndex.Snapshot snapshot = index.snapshot();
+
+        assertSame(first, snapshot.findByReferenceAndAmount("TXNREF", 8275230L));
+        assertNull(snapshot.findByReferenceAndAmount("TXNREF", 5000000L));
+        assertSame(second, snapshot.findByAmount(5000000L));
+        assertSame(second, snapshot.findByReference("BANKREF2"));
+        assertNull(snapshot.findByReference(null));
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void testAddAllKeepsFirstIndexedTransactionAndOldSnapshot() {
+        Mt940TransactionIndex.Snapshot before = index.snapshot();
+        MT940Transaction imported = new MT940Transaction("TXNREF", new BigDecimal("82752.30"), LocalDate.now(),
+            "STMT-1", "CREDIT");
+        MT940Transaction newRef = new MT940Transaction("NEWREF", new BigDecimal("10.00"), LocalDate.now(),
+            "STMT-2", "CREDIT");
+
+        index.addAll(List.of(imported, newRef));
+
+        Mt940TransactionIndex.Snapshot after = index.snapshot();
+        assertSame(first, after.findByReferenceAndAmount("TXNREF", 8275230L));
+        assertSame(newRef, after.findByReference("NEWREF"));
+        assertEquals(4, after.size());
+        assertNull(before.findByReference("NEWREF"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
+import com.example.paymentreconciliation.employer.dao.EmployerPaymentReceiptQueryDao;
+import com.example.paymentreconciliation.employer.entity.EmployerPaymentReceipt;
+import com.example.paymentreconciliation.reconciliation.dao.ReconciliationStatusDao;
+import com.example.paymentreconciliation.worker.dao.WorkerPaymentReceiptQueryDao;
+import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStatusTransitionServiceTest {
+
+    @Mock
+    private EmployerPaymentReceiptQueryDao employerReceiptQueryDao;
+
+    @Mock
+    private WorkerPaymentReceiptQueryDao workerReceiptQueryDao;
+
+    @Mock
+    private ReconciliationStatusDao statusDao;
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    private PaymentStatusTransitionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PaymentStatusTransitionService(employerReceiptQueryDao, workerReceiptQueryDao, statusDao,
+            resourceVersionService);
+    }
+
+    @Test
+    void testMarkProcessed_UpdatesAllPaymentsOfReceiptsWithOneStatementPerTable() {
+        when(employerReceiptQueryDao.findByTransactionReference("TXN1")).thenReturn(List.of(
+            receipt("EMP-1", "WRK-1"), receipt("EMP-2", "WRK-2")));
+        when(statusDao.updateEmployerReceiptStatus(anyCollection(), anyString())).thenReturn(2);
+        when(statusDao.updateWorkerReceiptStatus(anyCollection(), anyString())).thenReturn(2);
+        when(statusDao.updateWorkerPaymentStatusByReceipt(anyCollection(), anyString())).thenReturn(2500);
+        when(statusDao.updateBoardReceiptStatusByEmployerReceipt(anyCollection(), anyString())).thenReturn(2);
+        when(statusDao.sumWorkerReceiptTotalRecords(Set.of("WRK-1", "WRK-2"))).thenReturn(2500L);
+
+        PaymentStatusTransitionService.StatusTransitionResult result = service.markProcessed("TXN1");
+
+        assertEquals(2, result.getEmployerReceipts().size());
+        assertEquals(2500, result.getWorkerPaymentsUpdated());
+        verify(statusDao).updateEmployerReceiptStatus(Set.of("EMP-1", "EMP-2"), "ACCEPTED");
+        verify(statusDao).updateWorkerReceiptStatus(Set.of("WRK-1", "WRK-2"), "PAYMENT_PROCESSED");
+        verify(statusDao).updateWorkerPaymentStatusByReceipt(Set.of("WRK-1", "WRK-2"), "PAYMENT_PROCESSED");
+        verify(statusDao).updateBoardReceiptStatusByEmployerReceipt(Set.of("EMP-1", "EMP-2"), "PROCESSED");
+    }
+
+    @Test
+    void testMarkReconciled_LeavesBoardReceiptsAndSkipsUnknownReference() {
+        when(employerReceiptQueryDao.findByTransactionReference("TXN1")).thenReturn(List.of(receipt("EMP-1", "WRK-1")));
+
+        service.markReconciled("TXN1");
+        PaymentStatusTransitionService.StatusTransitionResult unknown = service.markReconciled("UNKNOWN");
+
+        assertTrue(unknown.getEmployerReceipts().isEmpty());
+        verify(statusDao).updateEmployerReceiptStatus(Set.of("EMP-1"), "RECONCILED");
+        verify(statusDao).updateWorkerPaymentStatusByReceipt(Set.of("WRK-1"), "PAYMENT_RECONCILED");
+        verify(statusDao, never()).updateBoardReceiptStatusByEmployerReceipt(anyCollection(), anyString());
+        verify(statusDao, times(1)).updateWorkerReceiptStatus(anyCollection(), anyString());
+    }
+
+    @Test
+    void testMarkProcessed_RejectsPaymentsNotMatchingTotalRecords() {
+        when(employerReceiptQueryDao.findByTransactionReference("TXN1")).thenReturn(List.of(receipt("EMP-1", "WRK-1")));
+        when(statusDao.updateWorkerPaymentStatusByReceipt(anyCollection(), anyString())).thenReturn(900);
+        when(statusDao.sumWorkerReceiptTotalRecords(Set.of("WRK-1"))).thenReturn(1500L);
+
+        assertThrows(IllegalStateException.class, () -> service.markProcessed("TXN1"));
+        verify(statusDao, never()).updateBoardReceiptStatusByEmployerReceipt(anyCollection(), anyString());
+    }
+
+    @Test
+    void testSendToEmployer_UpdatesAllPaymentsOfReceiptBeyondOnePage() {
+        when(workerReceiptQueryDao.findByReceiptNumber("WRK-1")).thenReturn(Optional.of(workerReceipt("PROCESSED", 2500)));
+        when(statusDao.updateWorkerPaymentStatusByReceipt(Set.of("WRK-1"), Set.of(), "PAYMENT_INITIATED")).thenReturn(2500);
+
+        assertEquals(2500, service.sendToEmployer("WRK-1"));
+        verify(statusDao).updateWorkerReceiptStatus(Set.of("WRK-1"), "PAYMENT_INITIATED");
+        verify(statusDao, never()).countWorkerPaymentsByReceipt(anyCollection(), anyString());
+        verify(resourceVersionService).markChanged(ResourceVersionService.WORKER_PAYMENT_RECEIPTS);
+    }
+
+    @Test
+    void testValidate_MovesRequestedPaymentsAndVerifiesAllAreInitiated() {
+        when(workerReceiptQueryDao.findByReceiptNumber("WRK-1")).thenReturn(Optional.of(workerReceipt("PAYMENT_INITIATED", 1500)));
+        when(statusDao.updateWorkerPaymentStatusByReceipt(Set.of("WRK-1"), Set.of("PAYMENT_REQUESTED"), "PAYMENT_INITIATED"))
+            .thenReturn(300);
+        when(statusDao.countWorkerPaymentsByReceipt(Set.of("WRK-1"), "PAYMENT_INITIATED")).thenReturn(1500L);
+
+        assertEquals(300, service.validate("WRK-1"));
+        verify(statusDao).updateWorkerReceiptStatus(Set.of("WRK-1"), "VALIDATED");
+    }
+
+    @Test
+    void testValidate_RejectsIncompleteReceiptAndInvalidStatus() {
+        when(workerReceiptQueryDao.findByReceiptNumber("WRK-1")).thenReturn(Optional.of(workerReceipt("PAYMENT_INITIATED", 1500)));
+        when(workerReceiptQueryDao.findByReceiptNumber("WRK-2")).thenReturn(Optional.of(workerReceipt("PAYMENT_PROCESSED", 10)));
+        when(statusDao.countWorkerPaymentsByReceipt(Set.of("WRK-1"), "PAYMENT_INITIATED")).thenReturn(1000L);
+
+        assertThrows(IllegalStateException.class, () -> service.validate("WRK-1"));
+        assertThrows(IllegalStateException.class, () -> service.validate("WRK-2"));
+        verify(statusDao, never()).updateWorkerReceiptStatus(eq(Set.of("WRK-2")), anyString());
+    }
+
+    private WorkerPaymentReceipt workerReceipt(String status, int totalRecords) {
+        WorkerPaymentReceipt receipt = new WorkerPaymentReceipt();
+        receipt.setStatus(status);
+        receipt.setTotalRecords(totalRecords);
+        return receipt;
+    }
+
+    private EmployerPaymentReceipt receipt(String employerReceiptNumber, String workerReceiptNumber) {
+        EmployerPaymentReceipt receipt = new EmployerPaymentReceipt();
+        receipt.setEmployerReceiptNumber(employerReceiptNumber);
+        receipt.setWorkerReceiptNumber(workerReceiptNumber);
+        receipt.setTransactionReference("TXN1");
+        return receipt;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.paymentreconciliation.reconciliation.service;
+
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
+import com.example.paymentreconciliation.employer.dao.EmployerPaymentReceiptQueryDao;
+import com.example.paymentreconciliation.employer.entity.EmployerPaymentReceipt;
+import com.example.paymentreconciliation.reconciliation.dao.ReconciliationStatusDao;
+import com.example.paymentreconciliation.reconciliation.dao.StatementTransactionQueryDao;
+import com.example.paymentreconciliation.reconciliation.dao.StatementTransactionQueryDao.MatchCandidate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+
+    @Mock
+    private EmployerPaymentReceiptQueryDao employerReceiptQueryDao;
+
+    @Mock
+    private StatementTransactionQueryDao statementTransactionQueryDao;
+
+    @Mock
+    private ReconciliationStatusDao statusDao;
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    private ReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReconciliationService(employerReceiptQueryDao, statementTransactionQueryDao, statusDao, resourceVersionService,
+            "INR", 30);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReconcilePayments_ClassifiesReceiptsInOnePass() {
+        when(employerReceiptQueryDao.findWithTransactionReferenceByStatusIn(anyCollection())).thenReturn(List.of(
+            receipt("EMP-1", "WRK-1", "TXN1", "100.00"),
+            receipt("EMP-2", "WRK-2", "TXN2", "200.00"),
+            receipt("EMP-3", "WRK-3", "TXN3", "300.00"),
+            receipt("EMP-4", "WRK-4", "TXN4", "400.00"),
+            receipt("EMP-5", "WRK-5", "TXN1", "100.00")
+        ));
+        doAnswer(invocation -> {
+            Consumer<MatchCandidate> consumer = invocation.getArgument(2);
+            consumer.accept(new MatchCandidate(1L, new BigDecimal("100.0"), "TXN1", null, null));
+            consumer.accept(new MatchCandidate(2L, new BigDecimal("999.00"), null, "TXN2", null));
+            consumer.accept(new MatchCandidate(3L, new BigDecimal("200.00"), "OTHER", null, null));
+            consumer.accept(new MatchCandidate(4L, new BigDecimal("1.00"), "TXN3", null, null));
+            return 4L;
+        }).when(statementTransactionQueryDao).streamMatchCandidates(anyString(), any(LocalDate.class), any(Consumer.class));
+        when(statusDao.reconcileEmployerReceipts(anyMap(), anyCollection(), anyString())).thenReturn(Set.of("EMP-1"));
+        when(statusDao.updateWorkerReceiptStatus(anyCollection(), anyString())).thenReturn(1);
+        when(statusDao.updateWorkerPaymentStatusByReceipt(anyCollection(), anyString())).thenReturn(10);
+
+        ReconciliationService.ReconciliationSummary summary = service.reconcilePayments();
+
+        assertEquals(5, summary.getPendingReceipts());
+        assertEquals(4L, summary.getStatementTransactionsScanned());
+        assertEquals(1, summary.getMatched());
+        assertEquals(1, summary.getSplitMatched());
+        assertEquals(List.of("EMP-2"), summary.getSplitMatchedReceiptNumbers());
+        // EMP-3 reference only, EMP-4 nothing, EMP-5 reference and amount on the transaction already used by EMP-1
+        assertEquals(3, summary.getUnmatched());
+        assertEquals(2, summary.getReferenceOnly());
+        assertEquals(10, summary.getWorkerPaymentsUpdated());
+
+        // Only unmatched credits in the receipt currency since 30 days before the oldest receipt are probed
+        verify(statementTransactionQueryDao).streamMatchCandidates(eq("INR"), eq(LocalDate.of(2025, 1, 1)), any(Consumer.class));
+        verify(statusDao).reconcileEmployerReceipts(Map.of("EMP-1", 1L), List.of("SEND TO BOARD", "VALIDATED"), "RECONCILED");
+        verify(statusDao).updateWorkerReceiptStatus(Set.of("WRK-1"), "PAYMENT_RECONCILED");
+        verify(statusDao).updateWorkerPaymentStatusByReceipt(Set.of("WRK-1"), "PAYMENT_RECONCILED");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReconcilePayments_SkipsReceiptsClaimedByConcurrentRun() {
+        when(employerReceiptQueryDao.findWithTransactionReferenceByStatusIn(anyCollection())).thenReturn(List.of(
+            receipt("EMP-1", "WRK-1", "TXN1", "100.00"),
+            receipt("EMP-2", "WRK-2", "TXN2", "200.00")
+        ));
+        doAnswer(invocation -> {
+            Consumer<MatchCandidate> consumer = invocation.getArgument(2);
+            consumer.accept(new MatchCandidate(1L, new BigDecimal("100.00"), "TXN1", null, null));
+            consumer.accept(new MatchCandidate(2L, new BigDecimal("200.00"), "TXN2", null, null));
+            return 2L;
+        }).when(statementTransactionQueryDao).streamMatchCandidates(anyString(), any(LocalDate.class), any(Consumer.class));
+        // EMP-1 was moved by another run between the read and the update
+        when(statusDao.reconcileEmployerReceipts(anyMap(), anyCollection(), anyString())).thenReturn(Set.of("EMP-2"));
+        when(statusDao.updateWorkerReceiptStatus(anyCollection(), anyString())).thenReturn(1);
+        when(statusDao.updateWorkerPaymentStatusByReceipt(anyCollection(), anyString())).thenReturn(5);
+
+        ReconciliationService.ReconciliationSummary summary = service.reconcilePayments();
+
+        assertEquals(2, summary.getMatched());
+        assertEquals(1, summary.getEmployerReceiptsUpdated());
+        verify(statusDao).updateWorkerReceiptStatus(Set.of("WRK-2"), "PAYMENT_RECONCILED");
+        verify(statusDao).updateWorkerPaymentStatusByReceipt(Set.of("WRK-2"), "PAYMENT_RECONCILED");
+    }
+
+    @Test
+    void testReconcilePayments_NoPendingReceiptsSkipsStatementScan() {
+        when(employerReceiptQueryDao.findWithTransactionReferenceByStatusIn(anyCollection())).thenReturn(List.of());
+
+        ReconciliationService.ReconciliationSummary summary = service.reconcilePayments();
+
+        assertEquals(0, summary.getPendingReceipts());
+        assertEquals(0, summary.getMatched());
+        verifyNoInteractions(statementTransactionQueryDao);
+    }
+
+    private EmployerPaymentReceipt receipt(String employerReceiptNumber, String workerReceiptNumber,
+                                           String transactionReference, String amount) {
+        EmployerPaymentReceipt receipt = new EmployerPaymentReceipt();
+        receipt.setEmployerReceiptNumber(employerReceiptNumber);
+        receipt.setWorkerReceiptNumber(workerReceiptNumber);
+        receipt.setTransactionReference(transactionReference);
+        receipt.setTotalAmount(new BigDecimal(amount));
+        receipt.setValidatedAt(LocalDateTime.of(2025, 1, 31, 10, 0));
+        receipt.setStatus("SEND TO BOARD");
+        return receipt;
+    }
+}
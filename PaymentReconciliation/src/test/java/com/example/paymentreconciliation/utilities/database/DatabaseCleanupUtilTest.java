@@ -0,0 +1,80 @@
+package com.example.paymentreconciliation.utilities.database;
+
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
+import com.example.paymentreconciliation.worker.dao.FileStatusCounterDao;
+import com.example.paymentreconciliation.worker.entity.FileStatusCounter.RecordType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseCleanupUtilTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    private DatabaseCleanupUtil cleanupUtil;
+    private FileStatusCounterDao counterDao;
+
+    @BeforeEach
+    void setUp() {
+        cleanupUtil = new DatabaseCleanupUtil();
+        ReflectionTestUtils.setField(cleanupUtil, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(cleanupUtil, "resourceVersionService", resourceVersionService);
+        counterDao = new FileStatusCounterDao();
+        ReflectionTestUtils.setField(counterDao, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @Test
+    void testCleanAllTables_TruncatesFileStatusCounters() {
+        cleanupUtil.cleanAllTables();
+
+        verify(jdbcTemplate).execute("TRUNCATE TABLE uploaded_files");
+        verify(jdbcTemplate).execute("TRUNCATE TABLE file_status_counters");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE file_status_counters AUTO_INCREMENT = 1");
+    }
+
+    @Test
+    void testCleanAllTables_InvalidatesResourceVersions() {
+        cleanupUtil.cleanAllTables();
+
+        verify(resourceVersionService).markChanged(ResourceVersionService.WORKER_UPLOADED_DATA);
+        verify(resourceVersionService).markChanged(ResourceVersionService.WORKER_PAYMENT_RECEIPTS);
+        verify(jdbcTemplate, never()).execute(contains("resource_versions"));
+    }
+
+    @Test
+    void testUploadAfterCleanup_ReusedFileIdCountedFromItsOwnRecords() {
+        // File id "1" is tracked until the counters are truncated
+        AtomicBoolean truncated = new AtomicBoolean();
+        doAnswer(invocation -> {
+            truncated.compareAndSet(false, "TRUNCATE TABLE file_status_counters".equals(invocation.getArgument(0)));
+            return null;
+        }).when(jdbcTemplate).execute(anyString());
+        when(jdbcTemplate.update(startsWith("UPDATE file_status_counters"), any(), any(), eq("1"), eq("UPLOADED_DATA"), eq("UPLOADED")))
+            .thenAnswer(invocation -> truncated.get() ? 0 : 1);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM file_status_counters"), eq(Long.class),
+            eq("1"), eq("UPLOADED_DATA"))).thenAnswer(invocation -> truncated.get() ? 0L : 1L);
+
+        cleanupUtil.cleanAllTables();
+        counterDao.applyDeltas(RecordType.UPLOADED_DATA, Map.of("1", Map.of("UPLOADED", 5L)), true);
+
+        verify(jdbcTemplate).update(contains("FROM worker_uploaded_data WHERE file_id = ? GROUP BY file_id, status"),
+            eq("UPLOADED_DATA"), any(), eq("1"));
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO file_status_counters (file_id, record_type, status, record_count, updated_at)\n"),
+            any(), any(), any(), any(), any());
+    }
+}
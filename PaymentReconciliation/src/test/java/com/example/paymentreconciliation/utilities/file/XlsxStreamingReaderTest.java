@@ -0,0 +1,70 @@
+package com.example.paymentreconciliation.utilities.file;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxStreamingReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File workbook(String... values) throws IOException {
+        File file = tempDir.resolve("upload.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            for (int i = 0; i < values.length; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(values[i]);
+            }
+            workbook.write(out);
+        }
+        return file;
+    }
+
+    @Test
+    void testReadFirstSheet_EmitsRowsPaddedToMinColumns() throws IOException {
+        List<String[]> rows = new ArrayList<>();
+
+        XlsxStreamingReader.readFirstSheet(workbook("header", "W001"), 3, rows::add);
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[]{"W001", null, null}, rows.get(1));
+    }
+
+    @Test
+    void testReadFirstSheet_ConsumerExceptionPassesThroughUnchanged() throws IOException {
+        File file = workbook("header", "W001");
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("connection lost");
+
+        DataAccessResourceFailureException thrown = assertThrows(DataAccessResourceFailureException.class,
+            () -> XlsxStreamingReader.readFirstSheet(file, 3, row -> {
+                throw failure;
+            }));
+
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void testReadFirstSheet_MalformedWorkbookIsIOException() throws IOException {
+        File file = tempDir.resolve("broken.xlsx").toFile();
+        Files.writeString(file.toPath(), "worker_id,amount\nW001,100\n");
+
+        IOException thrown = assertThrows(IOException.class, () -> XlsxStreamingReader.readFirstSheet(file, 3, row -> { }));
+
+        assertTrue(thrown.getMessage().startsWith("Failed to read Excel file"));
+    }
+}
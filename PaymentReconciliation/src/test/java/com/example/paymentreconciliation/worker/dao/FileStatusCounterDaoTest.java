@@ -0,0 +1,79 @@
+package com.example.paymentreconciliation.worker.dao;
+
+import com.example.paymentreconciliation.worker.entity.FileStatusCounter.RecordType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FileStatusCounterDaoTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private FileStatusCounterDao dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new FileStatusCounterDao();
+        ReflectionTestUtils.setField(dao, "jdbcTemplate", jdbcTemplate);
+    }
+
+    private void counterRows(int updated) {
+        when(jdbcTemplate.update(startsWith("UPDATE file_status_counters"), any(), any(), any(), any(), any()))
+            .thenReturn(updated);
+    }
+
+    private void tracked(long counterRows) {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM file_status_counters"), eq(Long.class),
+            eq("42"), eq("UPLOADED_DATA"))).thenReturn(counterRows);
+    }
+
+    @Test
+    void testTrackedFile_AddsDeltasAndInsertsNewStatus() {
+        when(jdbcTemplate.update(startsWith("UPDATE file_status_counters"), eq(-3L), any(), eq("42"), eq("UPLOADED_DATA"), eq("UPLOADED")))
+            .thenReturn(1);
+        when(jdbcTemplate.update(startsWith("UPDATE file_status_counters"), eq(3L), any(), eq("42"), eq("UPLOADED_DATA"), eq("VALIDATED")))
+            .thenReturn(0);
+
+        dao.applyDeltas(RecordType.UPLOADED_DATA, Map.of("42", Map.of("UPLOADED", -3L, "VALIDATED", 3L, "REJECTED", 0L)), true);
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO file_status_counters"), eq("42"), eq("UPLOADED_DATA"),
+            eq("VALIDATED"), eq(3L), any());
+        verify(jdbcTemplate, never()).update(contains("GROUP BY"), any(), any(), any());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(), any());
+    }
+
+    @Test
+    void testUntrackedFile_SeededFromRecordsInsteadOfDeltas() {
+        counterRows(0);
+        tracked(0);
+
+        dao.applyDeltas(RecordType.UPLOADED_DATA, Map.of("42", Map.of("UPLOADED", -2L, "VALIDATED", 2L)), true);
+
+        verify(jdbcTemplate).update(contains("FROM worker_uploaded_data WHERE file_id = ? GROUP BY file_id, status"),
+            eq("UPLOADED_DATA"), any(), eq("42"));
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO file_status_counters (file_id, record_type, status, record_count, updated_at)\n"),
+            any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testUntrackedFile_LeftAloneWhenSeedingNotAllowed() {
+        counterRows(0);
+        tracked(0);
+
+        dao.applyDeltas(RecordType.UPLOADED_DATA, Map.of("42", Map.of("VALIDATED", 1L)), false);
+
+        verify(jdbcTemplate, never()).update(contains("GROUP BY"), any(), any(), any());
+        verify(jdbcTemplate, never()).update(startsWith("INSERT"), any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.paymentreconciliation.worker.dao;
+
+import com.example.paymentreconciliation.worker.entity.WorkerUploadedData;
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import com.example.paymentreconciliation.worker.repository.WorkerUploadedDataRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares inserting 100k uploaded rows through repository.saveAll (one INSERT per row
+ * because of IDENTITY keys) with WorkerUploadedDataBulkDao JDBC batches.
+ * Only compiled and run in the benchmark profile:
+ * {@code mvn -Pbenchmark test -Dtest=WorkerUploadedDataBulkInsertBenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WorkerUploadedDataBulkInsertBenchmark {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadedDataBulkInsertBenchmark.class);
+
+    private static final int ROWS = 100_000;
+
+    @Autowired
+    private WorkerUploadedDataRepository repository;
+
+    @Autowired
+    private WorkerUploadedDataBulkDao bulkDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM worker_uploaded_data WHERE file_id LIKE 'bench-%'");
+    }
+
+    @Test
+    void compareRepositorySaveAllWithBulkInsert() {
+        List<WorkerUploadedData> jpaRows = createRows("bench-jpa");
+        long jpaStart = System.nanoTime();
+        repository.saveAll(jpaRows);
+        long jpaMs = (System.nanoTime() - jpaStart) / 1_000_000L;
+
+        List<WorkerUploadedData> bulkRows = createRows("bench-bulk");
+        long bulkStart = System.nanoTime();
+        bulkDao.insertAll(bulkRows);
+        long bulkMs = (System.nanoTime() - bulkStart) / 1_000_000L;
+
+        assertEquals(ROWS, countRows("bench-jpa"));
+        assertEquals(ROWS, countRows("bench-bulk"));
+        log.info("Inserted {} rows: repository.saveAll {} ms, bulk insert {} ms ({}x)",
+            ROWS, jpaMs, bulkMs, String.format("%.1f", (double) jpaMs / Math.max(1L, bulkMs)));
+    }
+
+    private long countRows(String fileId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM worker_uploaded_data WHERE file_id = ?", Long.class, fileId);
+    }
+
+    private List<WorkerUploadedData> createRows(String fileId) {
+        List<WorkerUploadedData> rows = new ArrayList<>(ROWS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= ROWS; i++) {
+            WorkerUploadedData row = new WorkerUploadedData();
+            row.setFileId(fileId);
+            row.setRowNumber(i);
+            row.setWorkerId("WRK" + i);
+            row.setWorkerName("Worker " + i);
+            row.setEmployerId("EMP001");
+            row.setToliId("TOLI001");
+            row.setWorkDate(LocalDate.now().minusDays(1));
+            row.setHoursWorked(new BigDecimal("8.00"));
+            row.setHourlyRate(new BigDecimal("100.00"));
+            row.setPaymentAmount(new BigDecimal("800.00"));
+            row.setBankAccount("1234567890123456");
+            row.setStatus("UPLOADED");
+            row.setCreatedAt(now);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
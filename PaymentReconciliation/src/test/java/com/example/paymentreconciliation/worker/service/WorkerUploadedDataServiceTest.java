@@ -1,21 +1,42 @@
 package com.example.paymentreconciliation.worker.service;
 
+import com.example.paymentreconciliation.common.dao.BaseQueryDao;
+import com.example.paymentreconciliation.common.dao.KeysetCursor;
+import com.example.paymentreconciliation.common.dto.SecurePaginationRequest;
+import com.example.paymentreconciliation.common.dto.SecurePaginationResponse;
+import com.example.paymentreconciliation.common.service.KeysetPaginationService;
+import com.example.paymentreconciliation.common.service.ResourceVersionService;
+import com.example.paymentreconciliation.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentreconciliation.worker.config.WorkerPaymentValidationConfig;
+import com.example.paymentreconciliation.worker.dao.WorkerPaymentBulkDao;
+import com.example.paymentreconciliation.worker.dao.WorkerUploadedDataBulkDao;
+import com.example.paymentreconciliation.worker.dao.WorkerUploadedDataQueryDao;
+import com.example.paymentreconciliation.worker.entity.WorkerPayment;
+import com.example.paymentreconciliation.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentreconciliation.worker.entity.WorkerUploadedData;
 import com.example.paymentreconciliation.worker.repository.WorkerUploadedDataRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,7 +46,23 @@ class WorkerUploadedDataServiceTest {
     @Mock
     private WorkerUploadedDataRepository repository;
 
-    @InjectMocks
+    @Mock
+    private WorkerUploadedDataQueryDao queryDao;
+
+    @Mock
+    private WorkerUploadedDataBulkDao bulkDao;
+
+    @Mock
+    private WorkerPaymentBulkDao paymentBulkDao;
+
+    @Mock
+    private WorkerPaymentReceiptService receiptService;
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    private UploadedDataValidationEngine validationEngine;
+
     private WorkerUploadedDataService service;
 
     private String testFileId;
@@ -33,6 +70,15 @@ class WorkerUploadedDataServiceTest {
     @BeforeEach
     void setUp() {
         testFileId = "test-file-123";
+        validationEngine = new UploadedDataValidationEngine(
+            queryDao, bulkDao, new WorkerUploadedDataValidator(new WorkerPaymentValidationConfig()), new WorkerPaymentFileConfig(), resourceVersionService);
+        service = new WorkerUploadedDataService(repository, queryDao, bulkDao, paymentBulkDao, receiptService,
+            validationEngine, resourceVersionService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validationEngine.shutdown();
     }
 
     @Test
@@ -41,8 +87,8 @@ class WorkerUploadedDataServiceTest {
         WorkerUploadedData validRecord = createValidRecord();
         List<WorkerUploadedData> records = Arrays.asList(validRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -51,7 +97,7 @@ class WorkerUploadedDataServiceTest {
         assertEquals("VALIDATED", validRecord.getStatus());
         assertNull(validRecord.getRejectionReason());
         assertNotNull(validRecord.getValidatedAt());
-        verify(repository).saveAll(records);
+        verify(bulkDao).updateValidationResults(records);
     }
 
     @Test
@@ -61,8 +107,8 @@ class WorkerUploadedDataServiceTest {
         invalidRecord.setWorkerName(null); // Missing worker name
         List<WorkerUploadedData> records = Arrays.asList(invalidRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -79,8 +125,8 @@ class WorkerUploadedDataServiceTest {
         invalidRecord.setEmail("invalid-email"); // Invalid email format
         List<WorkerUploadedData> records = Arrays.asList(invalidRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -97,8 +143,8 @@ class WorkerUploadedDataServiceTest {
         invalidRecord.setHoursWorked(new BigDecimal("-2.00")); // Negative hours
         List<WorkerUploadedData> records = Arrays.asList(invalidRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -115,8 +161,8 @@ class WorkerUploadedDataServiceTest {
         invalidRecord.setPaymentAmount(BigDecimal.ZERO); // Zero payment
         List<WorkerUploadedData> records = Arrays.asList(invalidRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -133,8 +179,8 @@ class WorkerUploadedDataServiceTest {
         invalidRecord.setWorkDate(LocalDate.now().plusDays(1)); // Future date
         List<WorkerUploadedData> records = Arrays.asList(invalidRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -151,8 +197,8 @@ class WorkerUploadedDataServiceTest {
         invalidRecord.setWorkerName("A".repeat(101)); // Name too long (>100 chars)
         List<WorkerUploadedData> records = Arrays.asList(invalidRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -169,8 +215,8 @@ class WorkerUploadedDataServiceTest {
         invalidRecord.setBankAccount("123"); // Bank account too short
         List<WorkerUploadedData> records = Arrays.asList(invalidRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -187,8 +233,8 @@ class WorkerUploadedDataServiceTest {
         invalidRecord.setPhoneNumber("invalid-phone"); // Invalid phone format
         List<WorkerUploadedData> records = Arrays.asList(invalidRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -207,8 +253,8 @@ class WorkerUploadedDataServiceTest {
         invalidRecord.setPaymentAmount(new BigDecimal("900.00")); // Should be 800.00
         List<WorkerUploadedData> records = Arrays.asList(invalidRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -227,8 +273,8 @@ class WorkerUploadedDataServiceTest {
         invalidRecord.setHoursWorked(new BigDecimal("-1")); // Negative hours
         List<WorkerUploadedData> records = Arrays.asList(invalidRecord);
         
-        when(repository.findByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(records);
-        when(repository.saveAll(anyList())).thenReturn(records);
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("UPLOADED"), eq(0L), anyInt())).thenReturn(records);
+        when(bulkDao.updateValidationResults(anyList())).thenReturn(records.size());
 
         // Act
         service.validateUploadedData(testFileId);
@@ -242,35 +288,181 @@ class WorkerUploadedDataServiceTest {
     }
 
     @Test
+    void testValidateUploadedData_FailedChunkKeepsOtherChunks() {
+        // Arrange: one record per chunk, the second chunk fails to save
+        WorkerPaymentFileConfig config = new WorkerPaymentFileConfig();
+        config.setValidationChunkSize(1);
+        config.setValidationThreads(2);
+        validationEngine.shutdown();
+        validationEngine = new UploadedDataValidationEngine(queryDao, bulkDao, new WorkerUploadedDataValidator(new WorkerPaymentValidationConfig()), config, resourceVersionService);
+        service = new WorkerUploadedDataService(repository, queryDao, bulkDao, paymentBulkDao, receiptService,
+            validationEngine, resourceVersionService);
+
+        WorkerUploadedData first = createValidRecord();
+        WorkerUploadedData second = createValidRecord();
+        second.setId(2L);
+        WorkerUploadedData third = createValidRecord();
+        third.setId(3L);
+
+        when(queryDao.countByFileIdAndStatus(testFileId, "UPLOADED")).thenReturn(3L);
+        when(queryDao.findNextChunkByFileIdAndStatus(testFileId, "UPLOADED", 0L, 1)).thenReturn(List.of(first));
+        when(queryDao.findNextChunkByFileIdAndStatus(testFileId, "UPLOADED", 1L, 1)).thenReturn(List.of(second));
+        when(queryDao.findNextChunkByFileIdAndStatus(testFileId, "UPLOADED", 2L, 1)).thenReturn(List.of(third));
+        when(queryDao.findNextChunkByFileIdAndStatus(testFileId, "UPLOADED", 3L, 1)).thenReturn(List.of());
+        when(bulkDao.updateValidationResults(anyList())).thenAnswer(invocation -> {
+            List<WorkerUploadedData> chunk = invocation.getArgument(0);
+            if (chunk.contains(second)) {
+                throw new IllegalStateException("Simulated database failure");
+            }
+            return chunk.size();
+        });
+
+        // Act
+        UploadedDataValidationEngine.ValidationProgress progress = service.validateUploadedData(testFileId);
+
+        // Assert
+        assertEquals("COMPLETED_WITH_ERRORS", progress.getState());
+        assertEquals(3, progress.getTotal());
+        assertEquals(2, progress.getValidated());
+        assertEquals(0, progress.getRejected());
+        assertEquals(1, progress.getFailed());
+        assertEquals(0, progress.getRemaining());
+        verify(bulkDao, times(3)).updateValidationResults(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
     void testGenerateRequestForValidatedData() {
         // Arrange
         WorkerUploadedData validatedRecord1 = createValidRecord();
         validatedRecord1.setStatus("VALIDATED");
         WorkerUploadedData validatedRecord2 = createValidRecord();
+        validatedRecord2.setId(2L);
         validatedRecord2.setStatus("VALIDATED");
+        WorkerPaymentReceipt receipt = new WorkerPaymentReceipt();
+        receipt.setReceiptNumber("RCP-20250101-120000-001");
         
-        List<WorkerUploadedData> validatedRecords = Arrays.asList(validatedRecord1, validatedRecord2);
-        
-        when(repository.findByFileIdAndStatus(testFileId, "VALIDATED")).thenReturn(validatedRecords);
-        when(repository.save(any(WorkerUploadedData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("VALIDATED"), eq(0L), anyInt()))
+            .thenReturn(Arrays.asList(validatedRecord1, validatedRecord2));
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("VALIDATED"), eq(2L), anyInt()))
+            .thenReturn(List.of());
+        when(queryDao.countByFileIdAndStatus(testFileId, "VALIDATED")).thenReturn(2L);
+        when(queryDao.sumPaymentAmountByFileIdAndStatus(testFileId, "VALIDATED")).thenReturn(new BigDecimal("1600.00"));
+        when(receiptService.createReceipt(null, null, 2, new BigDecimal("1600.00"))).thenReturn(receipt);
+        when(paymentBulkDao.insertAll(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        when(bulkDao.updateStatusByFileId(eq(testFileId), eq("VALIDATED"), eq("REQUEST_GENERATED"),
+            eq(receipt.getReceiptNumber()), any(LocalDateTime.class))).thenReturn(2);
 
         // Act
         int processedCount = service.generateRequestForValidatedData(testFileId, "UPLOAD123");
 
         // Assert
         assertEquals(2, processedCount);
-        assertEquals("REQUEST_GENERATED", validatedRecord1.getStatus());
-        assertEquals("REQUEST_GENERATED", validatedRecord2.getStatus());
-        assertNotNull(validatedRecord1.getReceiptNumber());
-        assertNotNull(validatedRecord2.getReceiptNumber());
-        assertNotNull(validatedRecord1.getProcessedAt());
-        assertNotNull(validatedRecord2.getProcessedAt());
-        // Both records should have the same receipt number
-        assertEquals(validatedRecord1.getReceiptNumber(), validatedRecord2.getReceiptNumber());
+        ArgumentCaptor<List<WorkerPayment>> payments = ArgumentCaptor.forClass(List.class);
+        verify(paymentBulkDao).insertAll(payments.capture());
+        assertEquals(2, payments.getValue().size());
+        // Payments are created with the receipt number already set
+        for (WorkerPayment payment : payments.getValue()) {
+            assertEquals(receipt.getReceiptNumber(), payment.getReceiptNumber());
+            assertEquals(testFileId, payment.getFileId());
+            assertEquals("VALIDATED", payment.getStatus());
+        }
+        verify(repository, never()).save(any(WorkerUploadedData.class));
+    }
+
+    @Test
+    void testGenerateRequest_RowsChangedMeanwhileFailsTheRequest() {
+        // Arrange
+        WorkerUploadedData validatedRecord = createValidRecord();
+        validatedRecord.setStatus("VALIDATED");
+        WorkerPaymentReceipt receipt = new WorkerPaymentReceipt();
+        receipt.setReceiptNumber("RCP-20250101-120000-002");
+        
+        when(queryDao.findNextChunkByFileIdAndStatus(eq(testFileId), eq("VALIDATED"), anyLong(), anyInt()))
+            .thenReturn(List.of(validatedRecord), List.of());
+        when(queryDao.countByFileIdAndStatus(testFileId, "VALIDATED")).thenReturn(1L);
+        when(queryDao.sumPaymentAmountByFileIdAndStatus(testFileId, "VALIDATED")).thenReturn(new BigDecimal("800.00"));
+        when(receiptService.createReceipt(any(), any(), anyInt(), any())).thenReturn(receipt);
+        when(paymentBulkDao.insertAll(anyList())).thenReturn(1);
+        // A row validated after the receipt was created is flipped as well
+        when(bulkDao.updateStatusByFileId(any(), any(), any(), any(), any())).thenReturn(2);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> service.generateRequestForValidatedData(testFileId, "UPLOAD123"));
+    }
+
+    @Test
+    void testPaginatedFileSummaries_GroupedPageWithoutPerFileQueries() {
+        // Arrange
+        Map<String, Object> file = new HashMap<>();
+        file.put("fileId", "42");
+        file.put("fileName", "payments.csv");
+        file.put("totalRecords", 5);
+        file.put("validatedCount", 3);
+        file.put("totalValidatedAmount", new BigDecimal("2400.00"));
+        when(queryDao.findFileSummaryPage("42", null, LocalDate.of(2025, 1, 1).atStartOfDay(),
+                LocalDate.of(2025, 1, 31).atTime(23, 59, 59), "uploadDate", "desc", 0, 20, true))
+            .thenReturn(new BaseQueryDao.PageResult<>(List.of(file), 0, 20, 1L, false));
+        when(queryDao.findStatusCountsByFileIds(List.of("42")))
+            .thenReturn(Map.of("42", Map.of("VALIDATED", 3, "REJECTED", 2)));
+
+        // Act
+        Map<String, Object> response = service.getPaginatedFileSummaries(
+            0, 20, "42", null, "2025-01-01", "2025-01-31", "uploadDate", "desc");
+
+        // Assert
+        Map<String, Integer> statusSummary = Map.of("UPLOADED", 0, "VALIDATED", 3, "REJECTED", 2, "REQUEST_GENERATED", 0);
+        assertEquals(List.of(file), response.get("data"));
+        assertEquals(statusSummary, file.get("statusSummary"));
+        assertEquals("MIXED", file.get("overallStatus"));
+        assertEquals(true, file.get("readyForPayment"));
+        assertEquals(1L, response.get("totalElements"));
+        assertEquals(false, response.get("hasNext"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testFileSummariesWithToken_FollowsPageTokenFromLastFile() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "keysetPaginationService", new KeysetPaginationService("test-secret"));
+        LocalDateTime start = LocalDate.of(2025, 1, 1).atStartOfDay();
+        LocalDateTime end = LocalDate.of(2025, 1, 31).atTime(23, 59, 59);
+        LocalDateTime uploaded = LocalDateTime.of(2025, 1, 15, 10, 0);
+        Map<String, Object> file = new HashMap<>();
+        file.put("fileId", "42");
+        file.put("validatedCount", 0);
+        KeysetCursor last = new KeysetCursor(uploaded, 42L, false);
+        when(queryDao.findFileSummaryKeysetPage(null, "VALIDATED", start, end, "uf.created_at", true, null, 0, 1))
+            .thenReturn(new BaseQueryDao.KeysetPage<>(List.of(file), new KeysetCursor(uploaded, 42L, true), last, true));
+        when(queryDao.countFileSummaries(null, "VALIDATED", start, end)).thenReturn(3L);
+        when(queryDao.findFileSummaryKeysetPage(isNull(), eq("VALIDATED"), eq(start), eq(end), eq("uf.created_at"),
+                eq(true), eq(last), anyInt(), eq(1)))
+            .thenReturn(new BaseQueryDao.KeysetPage<>(List.of(), null, null, false));
+        when(queryDao.findStatusCountsByFileIds(anyList())).thenReturn(Map.of("42", Map.of("VALIDATED", 2)));
+        SecurePaginationRequest request = new SecurePaginationRequest("2025-01-01", "2025-01-31", 0, 1);
+
+        // Act
+        SecurePaginationResponse<Map<String, Object>> first =
+            service.getPaginatedFileSummariesWithToken(start, end, "VALIDATED", request);
+        request.setPageToken(first.getNextPageToken());
+        SecurePaginationResponse<Map<String, Object>> second =
+            service.getPaginatedFileSummariesWithToken(start, end, "VALIDATED", request);
+
+        // Assert
+        assertEquals(List.of(file), first.getContent());
+        assertEquals(2, ((Map<?, ?>) file.get("statusSummary")).get("VALIDATED"));
+        assertEquals(3L, first.getTotalElements());
+        assertNotNull(first.getNextPageToken());
+        assertEquals(1, second.getCurrentPage());
+        assertEquals(3L, second.getTotalElements());
+        verify(queryDao, times(1)).countFileSummaries(any(), any(), any(), any());
+        assertThrows(IllegalArgumentException.class,
+            () -> service.getPaginatedFileSummariesWithToken(start, end, "REJECTED", request));
     }
 
     private WorkerUploadedData createValidRecord() {
         WorkerUploadedData record = new WorkerUploadedData();
+        record.setId(1L);
         record.setFileId(testFileId);
         record.setRowNumber(1);
         record.setWorkerId("WRK001");
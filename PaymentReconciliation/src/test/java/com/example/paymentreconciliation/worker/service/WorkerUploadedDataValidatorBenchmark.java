@@ -0,0 +1,105 @@
+package com.example.paymentreconciliation.worker.service;
+
+import com.example.paymentreconciliation.utilities.logger.LoggerFactoryProvider;
+import com.example.paymentreconciliation.worker.config.WorkerPaymentValidationConfig;
+import com.example.paymentreconciliation.worker.entity.WorkerUploadedData;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.slf4j.Logger;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput of WorkerUploadedDataValidator for valid rows and for rows failing most rules.
+ * Only compiled and run in the benchmark profile:
+ * {@code mvn -Pbenchmark test -Dtest=WorkerUploadedDataValidatorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkerUploadedDataValidatorBenchmark {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadedDataValidatorBenchmark.class);
+
+    private WorkerUploadedDataValidator validator;
+    private WorkerUploadedData validRecord;
+    private WorkerUploadedData invalidRecord;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        validator = new WorkerUploadedDataValidator(new WorkerPaymentValidationConfig());
+        today = LocalDate.now();
+
+        validRecord = new WorkerUploadedData();
+        validRecord.setWorkerId("W001");
+        validRecord.setWorkerName("John Doe");
+        validRecord.setCompanyName("Acme Corp");
+        validRecord.setDepartment("Operations");
+        validRecord.setPosition("Operator");
+        validRecord.setWorkDate(today.minusDays(1));
+        validRecord.setHoursWorked(new BigDecimal("8.00"));
+        validRecord.setHourlyRate(new BigDecimal("25.00"));
+        validRecord.setPaymentAmount(new BigDecimal("200.00"));
+        validRecord.setBankAccount("1234567890");
+        validRecord.setPhoneNumber("+91-9876543210");
+        validRecord.setEmail("john.doe@example.com");
+
+        invalidRecord = new WorkerUploadedData();
+        invalidRecord.setWorkerName("Jane Doe");
+        invalidRecord.setWorkDate(today.plusDays(3));
+        invalidRecord.setHoursWorked(new BigDecimal("30"));
+        invalidRecord.setHourlyRate(new BigDecimal("20000"));
+        invalidRecord.setPaymentAmount(new BigDecimal("100"));
+        invalidRecord.setBankAccount("12-34");
+        invalidRecord.setPhoneNumber("12345");
+        invalidRecord.setEmail("not-an-email");
+    }
+
+    @Benchmark
+    public String validRow() {
+        validRecord.setStatus("UPLOADED");
+        validator.validate(validRecord, today);
+        return validRecord.getStatus();
+    }
+
+    @Benchmark
+    public String invalidRow() {
+        invalidRecord.setStatus("UPLOADED");
+        invalidRecord.setRejectionReason(null);
+        validator.validate(invalidRecord, today);
+        return invalidRecord.getRejectionReason();
+    }
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        for (RunResult result : new Runner(new OptionsBuilder()
+                .include(WorkerUploadedDataValidatorBenchmark.class.getSimpleName())
+                .verbosity(VerboseMode.SILENT)
+                .build()).run()) {
+            Result<?> score = result.getPrimaryResult();
+            log.info("{}: {} ± {} {}", result.getParams().getBenchmark(), String.format("%.1f", score.getScore()),
+                String.format("%.1f", score.getScoreError()), score.getScoreUnit());
+        }
+    }
+}